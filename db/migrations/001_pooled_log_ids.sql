@@ -0,0 +1,19 @@
+-- Moves `stock_logs` and `audit_logs` from AUTO_INCREMENT to the pooled table generator
+-- used by the StockLog and AuditLog entities, so Hibernate can batch their inserts.
+-- Run once against an existing database, with the application stopped.
+
+CREATE TABLE IF NOT EXISTS `id_generators` (
+  `sequence_name` varchar(255) NOT NULL,
+  `next_val` bigint DEFAULT NULL,
+  PRIMARY KEY (`sequence_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Start each generator one full allocation block (50) past the highest existing ID,
+-- so no newly allocated range can overlap rows written with AUTO_INCREMENT.
+INSERT INTO `id_generators` (`sequence_name`, `next_val`)
+SELECT 'stock_logs', COALESCE(MAX(`id`), 0) + 51 FROM `stock_logs`
+ON DUPLICATE KEY UPDATE `next_val` = GREATEST(`next_val`, VALUES(`next_val`));
+
+INSERT INTO `id_generators` (`sequence_name`, `next_val`)
+SELECT 'audit_logs', COALESCE(MAX(`id`), 0) + 51 FROM `audit_logs`
+ON DUPLICATE KEY UPDATE `next_val` = GREATEST(`next_val`, VALUES(`next_val`));
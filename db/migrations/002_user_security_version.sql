@@ -0,0 +1,4 @@
+-- Adds the per-user security version embedded in self-contained JWTs.
+-- It is bumped whenever a user's roles, active flag or password change.
+
+ALTER TABLE `users` ADD COLUMN `security_version` int NOT NULL DEFAULT '0';
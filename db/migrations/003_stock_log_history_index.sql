@@ -0,0 +1,6 @@
+-- Composite index for keyset-paginated stock log history (GET /inventories/{id}/history/cursor).
+-- It also serves the inventory foreign key, so the old single-column index is dropped.
+
+ALTER TABLE `stock_logs`
+    ADD INDEX `idx_stock_logs_inventory_created` (`inventory_id`, `created_at`, `id`),
+    DROP INDEX `fk_stock_logs_inventory`;
@@ -0,0 +1,20 @@
+-- Indexes and foreign keys for the denormalized product/warehouse/zone columns of stock_logs,
+-- which back the cross-location history endpoints. The columns already exist in the schema;
+-- the backfill only matters for rows written before they were populated by the application.
+
+UPDATE `stock_logs` l
+    JOIN `product_inventories` i ON i.`id` = l.`inventory_id`
+SET l.`product_id`   = i.`product_id`,
+    l.`warehouse_id` = i.`warehouse_id`,
+    l.`zone_id`      = i.`zone_id`
+WHERE l.`product_id` <> i.`product_id`
+   OR l.`warehouse_id` <> i.`warehouse_id`
+   OR l.`zone_id` <> i.`zone_id`;
+
+ALTER TABLE `stock_logs`
+    ADD INDEX `idx_stock_logs_product_created` (`product_id`, `created_at`, `id`),
+    ADD INDEX `idx_stock_logs_warehouse_created` (`warehouse_id`, `created_at`, `id`),
+    ADD INDEX `fk_stock_logs_zone` (`zone_id`),
+    ADD CONSTRAINT `fk_stock_logs_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`id`) ON DELETE CASCADE,
+    ADD CONSTRAINT `fk_stock_logs_warehouse` FOREIGN KEY (`warehouse_id`) REFERENCES `warehouses` (`id`) ON DELETE CASCADE,
+    ADD CONSTRAINT `fk_stock_logs_zone` FOREIGN KEY (`zone_id`) REFERENCES `warehouse_zones` (`id`) ON DELETE CASCADE;
@@ -0,0 +1,24 @@
+-- Stock reservations: time-limited holds on inventory for open orders.
+-- product_inventories.reserved_quantity is the sum of the row's ACTIVE reservations.
+
+ALTER TABLE `product_inventories` ADD COLUMN `reserved_quantity` int NOT NULL DEFAULT '0' AFTER `quantity`;
+
+CREATE TABLE `stock_reservations` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `inventory_id` bigint NOT NULL,
+  `actor_id` int DEFAULT NULL,
+  `quantity` int NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `reference_type` varchar(50) DEFAULT NULL,
+  `reference_id` varchar(50) DEFAULT NULL,
+  `note` text,
+  `expires_at` datetime(6) NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  KEY `idx_stock_reservations_status_expires` (`status`,`expires_at`),
+  KEY `fk_stock_reservations_inventory` (`inventory_id`),
+  KEY `fk_stock_reservations_actor` (`actor_id`),
+  CONSTRAINT `fk_stock_reservations_actor` FOREIGN KEY (`actor_id`) REFERENCES `users` (`id`) ON DELETE SET NULL,
+  CONSTRAINT `fk_stock_reservations_inventory` FOREIGN KEY (`inventory_id`) REFERENCES `product_inventories` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,12 @@
+-- Stored outcomes of requests sent with an Idempotency-Key header.
+-- Rows without a response_status are claims held by a request that is still executing.
+
+CREATE TABLE `idempotency_keys` (
+  `record_key` char(64) NOT NULL,
+  `request_hash` char(64) NOT NULL,
+  `response_status` int DEFAULT NULL,
+  `response_body` mediumtext,
+  `expires_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`record_key`),
+  KEY `idx_idempotency_keys_expires` (`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,40 @@
+-- Transfer orders: multi-line stock moves between zones or warehouses.
+-- Line IDs come from the pooled id_generators table so their inserts can be batched.
+
+CREATE TABLE `transfer_orders` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `source_warehouse_id` int NOT NULL,
+  `destination_warehouse_id` int NOT NULL,
+  `actor_id` int DEFAULT NULL,
+  `status` varchar(20) NOT NULL,
+  `note` text,
+  `completed_at` datetime(6) DEFAULT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  KEY `idx_transfer_orders_status_created` (`status`,`created_at`),
+  KEY `fk_transfer_orders_source_warehouse` (`source_warehouse_id`),
+  KEY `fk_transfer_orders_destination_warehouse` (`destination_warehouse_id`),
+  KEY `fk_transfer_orders_actor` (`actor_id`),
+  CONSTRAINT `fk_transfer_orders_actor` FOREIGN KEY (`actor_id`) REFERENCES `users` (`id`) ON DELETE SET NULL,
+  CONSTRAINT `fk_transfer_orders_destination_warehouse` FOREIGN KEY (`destination_warehouse_id`) REFERENCES `warehouses` (`id`),
+  CONSTRAINT `fk_transfer_orders_source_warehouse` FOREIGN KEY (`source_warehouse_id`) REFERENCES `warehouses` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `transfer_order_lines` (
+  `id` bigint NOT NULL,
+  `transfer_order_id` bigint NOT NULL,
+  `product_id` int NOT NULL,
+  `source_zone_id` int NOT NULL,
+  `destination_zone_id` int NOT NULL,
+  `quantity` int NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `fk_transfer_order_lines_order` (`transfer_order_id`),
+  KEY `fk_transfer_order_lines_product` (`product_id`),
+  KEY `fk_transfer_order_lines_source_zone` (`source_zone_id`),
+  KEY `fk_transfer_order_lines_destination_zone` (`destination_zone_id`),
+  CONSTRAINT `fk_transfer_order_lines_destination_zone` FOREIGN KEY (`destination_zone_id`) REFERENCES `warehouse_zones` (`id`),
+  CONSTRAINT `fk_transfer_order_lines_order` FOREIGN KEY (`transfer_order_id`) REFERENCES `transfer_orders` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_transfer_order_lines_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`id`),
+  CONSTRAINT `fk_transfer_order_lines_source_zone` FOREIGN KEY (`source_zone_id`) REFERENCES `warehouse_zones` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,59 @@
+-- Stock takes: count documents are staged in stock_take_lines, diffed into stock_take_variances
+-- and applied as STOCK_COUNT movements.
+
+CREATE TABLE `stock_takes` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `warehouse_id` int NOT NULL,
+  `zone_id` int DEFAULT NULL,
+  `actor_id` int DEFAULT NULL,
+  `status` varchar(20) NOT NULL,
+  `count_missing_as_zero` tinyint(1) NOT NULL DEFAULT '1',
+  `note` text,
+  `counted_lines` int NOT NULL DEFAULT '0',
+  `unknown_lines` int NOT NULL DEFAULT '0',
+  `variance_lines` int NOT NULL DEFAULT '0',
+  `applied_lines` int NOT NULL DEFAULT '0',
+  `rejected_lines` int NOT NULL DEFAULT '0',
+  `error` varchar(500) DEFAULT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `completed_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `fk_stock_takes_warehouse` (`warehouse_id`),
+  KEY `fk_stock_takes_zone` (`zone_id`),
+  KEY `fk_stock_takes_actor` (`actor_id`),
+  CONSTRAINT `fk_stock_takes_actor` FOREIGN KEY (`actor_id`) REFERENCES `users` (`id`) ON DELETE SET NULL,
+  CONSTRAINT `fk_stock_takes_warehouse` FOREIGN KEY (`warehouse_id`) REFERENCES `warehouses` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_stock_takes_zone` FOREIGN KEY (`zone_id`) REFERENCES `warehouse_zones` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `stock_take_lines` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `stock_take_id` bigint NOT NULL,
+  `document_row` int NOT NULL,
+  `sku` varchar(50) NOT NULL,
+  `zone_code` varchar(50) NOT NULL,
+  `counted_quantity` int NOT NULL,
+  `product_id` int DEFAULT NULL,
+  `zone_id` int DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_stock_take_lines_location` (`stock_take_id`,`product_id`,`zone_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `stock_take_variances` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `stock_take_id` bigint NOT NULL,
+  `product_id` int NOT NULL,
+  `zone_id` int NOT NULL,
+  `system_quantity` int NOT NULL,
+  `counted_quantity` int NOT NULL,
+  `variance` int NOT NULL,
+  `applied` tinyint(1) NOT NULL DEFAULT '0',
+  `error` varchar(500) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_stock_take_variances_take` (`stock_take_id`,`id`),
+  KEY `fk_stock_take_variances_product` (`product_id`),
+  KEY `fk_stock_take_variances_zone` (`zone_id`),
+  CONSTRAINT `fk_stock_take_variances_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_stock_take_variances_take` FOREIGN KEY (`stock_take_id`) REFERENCES `stock_takes` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_stock_take_variances_zone` FOREIGN KEY (`zone_id`) REFERENCES `warehouse_zones` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
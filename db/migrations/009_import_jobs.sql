@@ -0,0 +1,29 @@
+-- Bulk imports of opening balances. import_jobs.processed_rows advances in the same transaction as
+-- each imported chunk and is the point a failed import resumes from.
+
+CREATE TABLE `import_jobs` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `actor_id` int DEFAULT NULL,
+  `format` varchar(20) NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `processed_rows` bigint NOT NULL DEFAULT '0',
+  `imported_rows` bigint NOT NULL DEFAULT '0',
+  `rejected_rows` bigint NOT NULL DEFAULT '0',
+  `error` varchar(500) DEFAULT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime(6) NOT NULL,
+  `completed_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `fk_import_jobs_actor` (`actor_id`),
+  CONSTRAINT `fk_import_jobs_actor` FOREIGN KEY (`actor_id`) REFERENCES `users` (`id`) ON DELETE SET NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `import_job_errors` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `import_job_id` bigint NOT NULL,
+  `document_row` bigint NOT NULL,
+  `message` varchar(500) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_import_job_errors_job` (`import_job_id`,`document_row`),
+  CONSTRAINT `fk_import_job_errors_job` FOREIGN KEY (`import_job_id`) REFERENCES `import_jobs` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
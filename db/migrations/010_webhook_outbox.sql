@@ -0,0 +1,48 @@
+-- Transactional outbox and webhook delivery. outbox_events rows are written in the same transaction as the
+-- stock log or audit entry they describe; the dispatcher fans each one out into a webhook_deliveries row per
+-- subscribed endpoint and tracks its delivery there.
+
+CREATE TABLE `outbox_events` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `event_type` varchar(30) NOT NULL,
+  `ordering_key` varchar(100) NOT NULL,
+  `payload` text NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `dispatched_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_outbox_events_dispatched` (`dispatched_at`,`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `webhook_endpoints` (
+  `id` int NOT NULL AUTO_INCREMENT,
+  `name` varchar(100) NOT NULL,
+  `url` varchar(500) NOT NULL,
+  `secret` varchar(255) DEFAULT NULL,
+  `event_types` varchar(100) DEFAULT NULL,
+  `batch_size` int NOT NULL,
+  `max_concurrency` int NOT NULL,
+  `is_active` tinyint(1) NOT NULL DEFAULT '1',
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_webhook_endpoints_name` (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `webhook_deliveries` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `endpoint_id` int NOT NULL,
+  `outbox_event_id` bigint NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `attempts` int NOT NULL DEFAULT '0',
+  `next_attempt_at` datetime(6) NOT NULL,
+  `last_error` varchar(500) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `delivered_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_webhook_deliveries_endpoint_event` (`endpoint_id`,`outbox_event_id`),
+  KEY `idx_webhook_deliveries_endpoint_status` (`endpoint_id`,`status`,`outbox_event_id`),
+  KEY `idx_webhook_deliveries_status_delivered` (`status`,`delivered_at`),
+  KEY `fk_webhook_deliveries_event` (`outbox_event_id`),
+  CONSTRAINT `fk_webhook_deliveries_endpoint` FOREIGN KEY (`endpoint_id`) REFERENCES `webhook_endpoints` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_webhook_deliveries_event` FOREIGN KEY (`outbox_event_id`) REFERENCES `outbox_events` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,30 @@
+-- Point-in-time inventory. A checkpoint holds the quantity of every inventory row as derived from all stock
+-- logs created up to its taken_at; as-of queries start from the nearest checkpoint and replay the stock logs
+-- in between, which the new created_at index finds by time range.
+
+ALTER TABLE `stock_logs` ADD INDEX `idx_stock_logs_created` (`created_at`, `id`);
+
+CREATE TABLE `inventory_checkpoints` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `sequence` bigint NOT NULL,
+  `taken_at` datetime(6) NOT NULL,
+  `row_count` int NOT NULL DEFAULT '0',
+  `log_count` bigint NOT NULL DEFAULT '0',
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_inventory_checkpoints_sequence` (`sequence`),
+  KEY `idx_inventory_checkpoints_taken` (`taken_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `inventory_checkpoint_rows` (
+  `checkpoint_id` bigint NOT NULL,
+  `inventory_id` bigint NOT NULL,
+  `product_id` int NOT NULL,
+  `warehouse_id` int NOT NULL,
+  `zone_id` int NOT NULL,
+  `quantity` int NOT NULL,
+  PRIMARY KEY (`checkpoint_id`,`inventory_id`),
+  KEY `idx_inventory_checkpoint_rows_product` (`checkpoint_id`,`product_id`),
+  KEY `idx_inventory_checkpoint_rows_warehouse` (`checkpoint_id`,`warehouse_id`,`zone_id`),
+  CONSTRAINT `fk_inventory_checkpoint_rows_checkpoint` FOREIGN KEY (`checkpoint_id`) REFERENCES `inventory_checkpoints` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,13 @@
+-- Shipping the movement journals of standalone sites into the central database. last_sequence advances in the
+-- same transaction as the stock logs of each shipped batch, so an interrupted shipment resumes after the last
+-- committed batch and never applies a journal record twice.
+
+CREATE TABLE `journal_shipments` (
+  `site_id` varchar(64) NOT NULL,
+  `last_sequence` bigint NOT NULL DEFAULT '0',
+  `shipped_records` bigint NOT NULL DEFAULT '0',
+  `rejected_records` bigint NOT NULL DEFAULT '0',
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`site_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,35 @@
+-- Stock totals per product, warehouse and zone, kept in step with product_inventories by every stock change.
+-- A total is spread over a few slots that concurrent transactions pick at random, so the changes of a busy
+-- warehouse don't all queue on one row; the total is the sum of its slots.
+
+CREATE TABLE `product_stock_totals` (
+  `product_id` int NOT NULL,
+  `slot` smallint NOT NULL,
+  `quantity` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`product_id`,`slot`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `warehouse_stock_totals` (
+  `warehouse_id` int NOT NULL,
+  `slot` smallint NOT NULL,
+  `quantity` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`warehouse_id`,`slot`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `zone_stock_totals` (
+  `zone_id` int NOT NULL,
+  `slot` smallint NOT NULL,
+  `quantity` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`zone_id`,`slot`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Backfill from the current inventory. Run it while no stock changes are made, or repair any drift afterwards
+-- with POST /stock-totals/verify?repair=true.
+INSERT INTO `product_stock_totals` (`product_id`, `slot`, `quantity`)
+SELECT `product_id`, 0, SUM(`quantity`) FROM `product_inventories` GROUP BY `product_id`;
+
+INSERT INTO `warehouse_stock_totals` (`warehouse_id`, `slot`, `quantity`)
+SELECT `warehouse_id`, 0, SUM(`quantity`) FROM `product_inventories` GROUP BY `warehouse_id`;
+
+INSERT INTO `zone_stock_totals` (`zone_id`, `slot`, `quantity`)
+SELECT `zone_id`, 0, SUM(`quantity`) FROM `product_inventories` GROUP BY `zone_id`;
@@ -0,0 +1,93 @@
+package com.example.warehouse.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying one request's JWT: the per-call key and parser with three parses that JwtService used to do,
+ * a single parse with the prebuilt parser (a cache miss), a cache hit, and the SHA-256 digest of the token that
+ * an earlier version of the cache computed as its key.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "ZmFrZS1zZWNyZXQta2V5LWZvci11bml0LXRlc3RzLW9ubHktMzItYnl0ZXMtbG9uZw==";
+
+    private JwtService jwtService;
+    private JwtParser jwtParser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheMaxSize", 10_000);
+        jwtService.init();
+
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        jwtParser = Jwts.parser().verifyWith(key).build();
+        token = Jwts.builder()
+                .subject("alice")
+                .claim("uid", 1)
+                .claim("roles", List.of("ROLE_ADMIN", "ROLE_USER"))
+                .claim("sv", 0)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000L))
+                .signWith(key)
+                .compact();
+        jwtService.verify(token);
+    }
+
+    @Benchmark
+    public void perCallKeyAndThreeParses(Blackhole blackhole) {
+        // extractUsername, then extractUsername and extractExpiration again in isTokenValid
+        for (int i = 0; i < 3; i++) {
+            SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+            blackhole.consume(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
+        }
+    }
+
+    @Benchmark
+    public Claims prebuiltParserOneParse() {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerify() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public byte[] sha256OfToken() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
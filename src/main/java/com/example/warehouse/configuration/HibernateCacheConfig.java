@@ -0,0 +1,74 @@
+package com.example.warehouse.configuration;
+
+import com.example.warehouse.entity.ProductCategory;
+import com.example.warehouse.entity.Role;
+import com.example.warehouse.entity.UnitOfMeasure;
+import com.example.warehouse.entity.Warehouse;
+import com.example.warehouse.entity.WarehouseZone;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Second-level and query cache for reference data (units, roles, warehouses, zones, categories).
+ * <p>
+ * The cache is local to each instance. Writes made through this instance are applied to the cache by
+ * Hibernate; the TTL bounds how long another instance's writes can stay invisible here.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * Entity and collection regions that are bounded by size and TTL.
+     * The update-timestamps region is deliberately absent: it must never expire, so Hibernate creates it unbounded.
+     */
+    public static final List<String> BOUNDED_REGIONS = List.of(
+            UnitOfMeasure.class.getName(),
+            Role.class.getName(),
+            Warehouse.class.getName(),
+            Warehouse.class.getName() + ".zones",
+            WarehouseZone.class.getName(),
+            ProductCategory.class.getName(),
+            ProductCategory.class.getName() + ".childCategories",
+            "default-query-results-region"
+    );
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.hibernate-cache.max-entries:10000}") long maxEntries,
+            @Value("${app.hibernate-cache.ttl-seconds:3600}") long ttlSeconds) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+
+        CaffeineConfiguration<Object, Object> regionConfig = new CaffeineConfiguration<>();
+        regionConfig.setMaximumSize(OptionalLong.of(maxEntries));
+        regionConfig.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        BOUNDED_REGIONS.forEach(region -> cacheManager.createCache(region, regionConfig));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            // putIfAbsent so values set in application.properties still win
+            properties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+            properties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, "true");
+            properties.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, "true");
+            // Statistics are for /monitoring; don't log metrics for every session
+            properties.putIfAbsent(AvailableSettings.LOG_SESSION_METRICS, "false");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.putIfAbsent(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+        };
+    }
+}
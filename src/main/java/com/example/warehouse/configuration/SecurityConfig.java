@@ -3,6 +3,7 @@ package com.example.warehouse.configuration;
 import com.example.warehouse.repository.UserRepository;
 import com.example.warehouse.security.JwtAuthenticationFilter;
 import com.example.warehouse.security.SecurityUser;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -48,7 +49,9 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(req ->
-                        req.requestMatchers("/auth/**").permitAll()
+                        // Async dispatches (streamed exports) belong to a request that was already authorized
+                        req.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                                .requestMatchers("/auth/**").permitAll()
                                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**").hasRole("ADMIN")
                                 .anyRequest().authenticated()
                 )
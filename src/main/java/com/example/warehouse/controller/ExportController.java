@@ -0,0 +1,74 @@
+package com.example.warehouse.controller;
+
+import com.example.warehouse.enums.DataFormatEnum;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Controller for streaming exports. Unlike the paginated endpoints, each export is a single response
+ * of any size, written as CSV or newline-delimited JSON, optionally gzip-encoded.
+ */
+@RestController
+@RequestMapping("/exports")
+@RequiredArgsConstructor
+@Profile("!standalone")
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'ACCOUNTANT')")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/inventories")
+    public ResponseEntity<StreamingResponseBody> exportInventory(
+            @RequestParam(defaultValue = "CSV") DataFormatEnum format,
+            @RequestParam(required = false) Integer warehouseId,
+            @RequestParam(required = false) Integer zoneId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = exportService.exportInventory(format, warehouseId, zoneId, gzip);
+        return exportResponse("inventory", format, gzip, body);
+    }
+
+    /**
+     * Exports the stock logs created within [from, to); the end of the range defaults to now.
+     */
+    @GetMapping("/stock-logs")
+    public ResponseEntity<StreamingResponseBody> exportStockLogs(
+            @RequestParam(defaultValue = "CSV") DataFormatEnum format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer warehouseId,
+            @RequestParam(required = false) Integer zoneId,
+            @RequestParam(required = false) StockLogEnum type,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = exportService.exportStockLogs(format, from, to, warehouseId, zoneId, type, gzip);
+        return exportResponse("stock-logs", format, gzip, body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> exportResponse(
+            String name, DataFormatEnum format, boolean gzip, StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(format.getMediaType()));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(name + "-" + LocalDate.now() + "." + format.getFileExtension())
+                .build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+}
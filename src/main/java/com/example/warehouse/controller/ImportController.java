@@ -0,0 +1,89 @@
+package com.example.warehouse.controller;
+
+import com.example.warehouse.enums.DataFormatEnum;
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.ImportJobErrorResponse;
+import com.example.warehouse.payload.response.ImportJobResponse;
+import com.example.warehouse.service.OpeningBalanceImportService;
+import com.example.warehouse.utility.ResponseUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * Controller for bulk imports: loading opening balances and following the progress of import jobs.
+ */
+@RestController
+@RequestMapping("/imports")
+@RequiredArgsConstructor
+@Profile("!standalone")
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+public class ImportController {
+
+    private final OpeningBalanceImportService importService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<ImportJobResponse>>> getImportJobs(
+            @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        Page<ImportJobResponse> importJobs = importService.getImportJobs(pageable);
+        return ResponseUtil.createSuccessResponse("Import jobs retrieved successfully", importJobs);
+    }
+
+    /**
+     * Retrieves an import job; polled while a large import is running, since its counters advance with
+     * every committed chunk.
+     */
+    @GetMapping("/{importJobId}")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> getImportJob(@PathVariable Long importJobId) {
+        ImportJobResponse importJob = importService.getImportJobById(importJobId);
+        return ResponseUtil.createSuccessResponse("Import job retrieved successfully", importJob);
+    }
+
+    @GetMapping("/{importJobId}/errors")
+    public ResponseEntity<ApiResponse<Page<ImportJobErrorResponse>>> getErrors(
+            @PathVariable Long importJobId,
+            @PageableDefault(size = 100, sort = "documentRow") Pageable pageable) {
+        Page<ImportJobErrorResponse> errors = importService.getErrors(importJobId, pageable);
+        return ResponseUtil.createSuccessResponse("Import job errors retrieved successfully", errors);
+    }
+
+    /**
+     * Uploads opening balances as the raw request body. The body is read as a stream, so documents of
+     * any size are accepted.
+     *
+     * @param document Rows with the fields product_id, warehouse_id, zone_id and quantity
+     * @return The job with its row counts
+     */
+    @PostMapping(value = "/opening-balances", consumes = {"text/csv", "application/x-ndjson",
+            MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<ImportJobResponse>> importOpeningBalances(
+            @RequestParam(defaultValue = "CSV") DataFormatEnum format,
+            InputStream document) {
+        ImportJobResponse importJob = importService.importOpeningBalances(format, document);
+        ApiResponse<ImportJobResponse> response = ApiResponse.success("Opening balances imported successfully", importJob);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * Resumes a failed or abandoned import by uploading the same document again.
+     */
+    @PostMapping(value = "/{importJobId}/resume", consumes = {"text/csv", "application/x-ndjson",
+            MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<ImportJobResponse>> resumeImport(
+            @PathVariable Long importJobId,
+            @RequestParam(defaultValue = "CSV") DataFormatEnum format,
+            InputStream document) {
+        ImportJobResponse importJob = importService.resumeImport(importJobId, format, document);
+        return ResponseUtil.createSuccessResponse("Import job resumed successfully", importJob);
+    }
+}
@@ -1,21 +1,41 @@
 package com.example.warehouse.controller;
 
 import com.example.warehouse.payload.request.AdjustInventoryRequest;
+import com.example.warehouse.payload.request.BulkAdjustInventoryRequest;
+import com.example.warehouse.payload.request.InventoryFilterRequest;
 import com.example.warehouse.payload.request.MoveInventoryRequest;
 import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.BulkAdjustInventoryResponse;
+import com.example.warehouse.payload.response.CursorPage;
+import com.example.warehouse.payload.response.InventoryAsOfResponse;
 import com.example.warehouse.payload.response.ProductInventoryResponse;
 import com.example.warehouse.payload.response.StockLogResponse;
+import com.example.warehouse.payload.response.StockLogVerificationResponse;
+import com.example.warehouse.service.AdjustmentCombiner;
+import com.example.warehouse.service.IdempotencyService;
+import com.example.warehouse.service.InventoryChangeFeed;
+import com.example.warehouse.service.InventoryCheckpointService;
 import com.example.warehouse.service.ProductInventoryService;
+import com.example.warehouse.service.StockLogVerifier;
+import com.example.warehouse.service.TransferOrderService;
 import com.example.warehouse.utility.ResponseUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * Controller for managing product inventory in the warehouse management system.
@@ -24,30 +44,96 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequestMapping("/inventories")
 @RequiredArgsConstructor
+@Profile("!standalone") // Replaced by StandaloneInventoryController
 @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'STAFF')")
 public class InventoryController {
 
     private final ProductInventoryService inventoryService;
+    private final TransferOrderService transferOrderService;
+    private final IdempotencyService idempotencyService;
+    private final InventoryChangeFeed inventoryChangeFeed;
+    private final InventoryCheckpointService checkpointService;
+    private final AdjustmentCombiner adjustmentCombiner;
+    private final StockLogVerifier stockLogVerifier;
 
     @GetMapping
     public ResponseEntity<ApiResponse<Page<ProductInventoryResponse>>> getAllInventory(
+            @Valid @ParameterObject InventoryFilterRequest filter,
             @PageableDefault(sort = "updatedAt", direction = Sort.Direction.DESC) Pageable pageable) {
-        Page<ProductInventoryResponse> inventoryPage = inventoryService.getAllInventory(pageable);
+        Page<ProductInventoryResponse> inventoryPage = inventoryService.getAllInventory(filter, pageable);
         return ResponseUtil.createSuccessResponse("Inventory retrieved successfully", inventoryPage);
     }
 
+    /**
+     * Retrieves what was on hand at a point in time, per location, for a product, a warehouse or a zone.
+     * Quantities are replayed from the nearest inventory checkpoint.
+     */
+    @GetMapping("/as-of")
+    public ResponseEntity<ApiResponse<InventoryAsOfResponse>> getInventoryAsOf(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestParam(required = false) Integer productId,
+            @RequestParam(required = false) Integer warehouseId,
+            @RequestParam(required = false) Integer zoneId) {
+        InventoryAsOfResponse inventory = checkpointService.getInventoryAsOf(at, productId, warehouseId, zoneId);
+        return ResponseUtil.createSuccessResponse("Point-in-time inventory retrieved successfully", inventory);
+    }
+
+    /**
+     * Streams committed inventory changes as Server-Sent Events, each carrying the row's new quantities.
+     * Clients load the inventory once and then apply events instead of polling. Reconnecting with the
+     * Last-Event-ID header replays missed events; a "reset" event means the client must reload.
+     *
+     * @param warehouseIds Only changes in these warehouses; all warehouses when omitted
+     * @param productIds   Only changes of these products; all products when omitted
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(name = "warehouseId", required = false) Set<Integer> warehouseIds,
+            @RequestParam(name = "productId", required = false) Set<Integer> productIds,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return inventoryChangeFeed.subscribe(
+                warehouseIds != null ? warehouseIds : Set.of(),
+                productIds != null ? productIds : Set.of(),
+                lastEventId);
+    }
+
+    /**
+     * Adjusts the stock of one location. Retries sent with the same Idempotency-Key get the original
+     * response back instead of adjusting the stock again. Concurrent adjustments of the same location
+     * may commit together, but each gets its own result.
+     */
     @PostMapping("/adjust")
     public ResponseEntity<ApiResponse<ProductInventoryResponse>> adjustInventory(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody AdjustInventoryRequest request) {
-        ProductInventoryResponse updatedInventory = inventoryService.adjustInventory(request);
-        return ResponseUtil.createSuccessResponse("Inventory adjusted successfully", updatedInventory);
+        return idempotencyService.execute(idempotencyKey, "inventory.adjust", request, ProductInventoryResponse.class, () -> {
+            ProductInventoryResponse updatedInventory = adjustmentCombiner.adjust(request);
+            return ResponseUtil.createSuccessResponse("Inventory adjusted successfully", updatedInventory);
+        });
     }
 
+    @PostMapping("/adjust/bulk")
+    public ResponseEntity<ApiResponse<BulkAdjustInventoryResponse>> bulkAdjustInventory(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BulkAdjustInventoryRequest request) {
+        return idempotencyService.execute(idempotencyKey, "inventory.adjust-bulk", request, BulkAdjustInventoryResponse.class, () -> {
+            BulkAdjustInventoryResponse result = inventoryService.bulkAdjustInventory(request);
+            return ResponseUtil.createSuccessResponse("Bulk inventory adjustment processed", result);
+        });
+    }
+
+    /**
+     * Moves one product between two zones of a warehouse. Recorded as a one-line transfer order;
+     * use /transfer-orders to move many products at once.
+     */
     @PostMapping("/move")
     public ResponseEntity<ApiResponse<Void>> moveInventory(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody MoveInventoryRequest request) {
-        inventoryService.moveInventory(request);
-        return ResponseUtil.createSuccessResponse("Inventory moved successfully", null);
+        return idempotencyService.execute(idempotencyKey, "inventory.move", request, Void.class, () -> {
+            transferOrderService.moveInventory(request);
+            return ResponseUtil.createSuccessResponse("Inventory moved successfully", null);
+        });
     }
 
     @GetMapping("/{inventoryId}/history")
@@ -57,4 +143,53 @@ public class InventoryController {
         Page<StockLogResponse> historyPage = inventoryService.getStockLogsByInventoryId(inventoryId, pageable);
         return ResponseUtil.createSuccessResponse("Inventory history retrieved successfully", historyPage);
     }
+
+    /**
+     * Retrieves inventory history newest first using keyset pagination.
+     * Unlike the offset-based endpoint, deep pages cost the same as the first one and no total is counted.
+     */
+    @GetMapping("/{inventoryId}/history/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<StockLogResponse>>> getInventoryHistoryByCursor(
+            @PathVariable Long inventoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<StockLogResponse> historyPage = inventoryService.getStockLogsByInventoryId(inventoryId, cursor, size);
+        return ResponseUtil.createSuccessResponse("Inventory history retrieved successfully", historyPage);
+    }
+
+    /**
+     * Retrieves the movement history of a product across all locations, newest first, using keyset pagination.
+     */
+    @GetMapping("/history/products/{productId}")
+    public ResponseEntity<ApiResponse<CursorPage<StockLogResponse>>> getProductHistory(
+            @PathVariable Integer productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<StockLogResponse> historyPage = inventoryService.getStockLogsByProductId(productId, cursor, size);
+        return ResponseUtil.createSuccessResponse("Product history retrieved successfully", historyPage);
+    }
+
+    /**
+     * Retrieves the movement history of a warehouse within [from, to), newest first, using keyset pagination.
+     * The end of the range defaults to now.
+     */
+    @GetMapping("/history/warehouses/{warehouseId}")
+    public ResponseEntity<ApiResponse<CursorPage<StockLogResponse>>> getWarehouseHistory(
+            @PathVariable Integer warehouseId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<StockLogResponse> historyPage = inventoryService.getStockLogsByWarehouseId(warehouseId, from, to, cursor, size);
+        return ResponseUtil.createSuccessResponse("Warehouse history retrieved successfully", historyPage);
+    }
+
+    /**
+     * Checks that the stock logs of every inventory row chain from zero to its quantity and reports where they don't.
+     */
+    @PostMapping("/history/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<StockLogVerificationResponse>> verifyHistory() {
+        return ResponseUtil.createSuccessResponse("Stock log history verified", stockLogVerifier.verify());
+    }
 }
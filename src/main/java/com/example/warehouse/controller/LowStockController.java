@@ -0,0 +1,35 @@
+package com.example.warehouse.controller;
+
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.LowStockResponse;
+import com.example.warehouse.service.LowStockDetector;
+import com.example.warehouse.utility.ResponseUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for the products currently below their minimum stock.
+ * The list is kept in memory by the low stock detector, so reading it scans neither products nor inventory.
+ */
+@RestController
+@RequestMapping("/low-stock")
+@RequiredArgsConstructor
+@Profile("!standalone")
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'STAFF')")
+public class LowStockController {
+
+    private final LowStockDetector lowStockDetector;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<LowStockResponse>>> getLowStock() {
+        return ResponseUtil.createSuccessResponse("Low stock products retrieved successfully",
+                lowStockDetector.getBreaches());
+    }
+}
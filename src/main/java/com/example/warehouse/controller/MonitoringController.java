@@ -0,0 +1,156 @@
+package com.example.warehouse.controller;
+
+import com.example.warehouse.exception.ResourceNotFoundException;
+import com.example.warehouse.payload.response.AdjustmentCombinerStatsResponse;
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.AuditWriterStatsResponse;
+import com.example.warehouse.payload.response.CacheStatsResponse;
+import com.example.warehouse.payload.response.HibernateCacheStatsResponse;
+import com.example.warehouse.payload.response.InventoryFeedStatsResponse;
+import com.example.warehouse.payload.response.JournalStatsResponse;
+import com.example.warehouse.payload.response.LowStockStatsResponse;
+import com.example.warehouse.payload.response.WebhookDispatcherStatsResponse;
+import com.example.warehouse.security.JwtService;
+import com.example.warehouse.security.PrincipalCache;
+import com.example.warehouse.service.AdjustmentCombiner;
+import com.example.warehouse.service.AuditLogWriter;
+import com.example.warehouse.service.IdempotencyService;
+import com.example.warehouse.service.InventoryChangeFeed;
+import com.example.warehouse.service.JournalInventoryStore;
+import com.example.warehouse.service.LowStockDetector;
+import com.example.warehouse.service.ReferenceDataCacheService;
+import com.example.warehouse.service.WebhookDispatcher;
+import com.example.warehouse.utility.ResponseUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller exposing runtime statistics of the application's internal pipelines and caches.
+ * Restricted to administrators.
+ */
+@RestController
+@RequestMapping("/monitoring")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class MonitoringController {
+
+    private final AuditLogWriter auditLogWriter;
+    private final PrincipalCache principalCache;
+    private final JwtService jwtService;
+    private final ReferenceDataCacheService referenceDataCacheService;
+    private final IdempotencyService idempotencyService;
+    private final InventoryChangeFeed inventoryChangeFeed;
+    private final WebhookDispatcher webhookDispatcher;
+    private final AdjustmentCombiner adjustmentCombiner;
+    private final LowStockDetector lowStockDetector;
+    private final ObjectProvider<JournalInventoryStore> journalStore; // only present in the standalone profile
+
+    /**
+     * Retrieves queue depth, throughput and drain latency of the asynchronous audit log writer.
+     *
+     * @return The current audit writer statistics.
+     */
+    @GetMapping("/audit-writer")
+    public ResponseEntity<ApiResponse<AuditWriterStatsResponse>> getAuditWriterStats() {
+        return ResponseUtil.createSuccessResponse("Audit writer statistics retrieved successfully", auditLogWriter.getStats());
+    }
+
+    /**
+     * Retrieves hit, miss and eviction counts of the authenticated principal cache.
+     *
+     * @return The current principal cache statistics.
+     */
+    @GetMapping("/principal-cache")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getPrincipalCacheStats() {
+        return ResponseUtil.createSuccessResponse("Principal cache statistics retrieved successfully", principalCache.getStats());
+    }
+
+    /**
+     * Retrieves hit, miss and eviction counts of the verified JWT cache.
+     *
+     * @return The current token cache statistics.
+     */
+    @GetMapping("/token-cache")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getTokenCacheStats() {
+        return ResponseUtil.createSuccessResponse("Token cache statistics retrieved successfully", jwtService.getTokenCacheStats());
+    }
+
+    /**
+     * Retrieves hit, miss and eviction counts of the in-memory cache of idempotent responses.
+     *
+     * @return The current idempotency cache statistics.
+     */
+    @GetMapping("/idempotency-cache")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getIdempotencyCacheStats() {
+        return ResponseUtil.createSuccessResponse("Idempotency cache statistics retrieved successfully", idempotencyService.getCacheStats());
+    }
+
+    /**
+     * Retrieves subscriber count, throughput and reset count of the inventory change feed.
+     *
+     * @return The current change feed statistics.
+     */
+    @GetMapping("/inventory-feed")
+    public ResponseEntity<ApiResponse<InventoryFeedStatsResponse>> getInventoryFeedStats() {
+        return ResponseUtil.createSuccessResponse("Inventory feed statistics retrieved successfully", inventoryChangeFeed.getStats());
+    }
+
+    /**
+     * Retrieves throughput and failures of the webhook dispatcher on this instance.
+     *
+     * @return The current webhook dispatcher statistics.
+     */
+    @GetMapping("/webhooks")
+    public ResponseEntity<ApiResponse<WebhookDispatcherStatsResponse>> getWebhookDispatcherStats() {
+        return ResponseUtil.createSuccessResponse("Webhook dispatcher statistics retrieved successfully", webhookDispatcher.getStats());
+    }
+
+    /**
+     * Retrieves how many single adjustments were combined into shared transactions, and how many were rejected.
+     *
+     * @return The current adjustment combiner statistics.
+     */
+    @GetMapping("/adjust-combiner")
+    public ResponseEntity<ApiResponse<AdjustmentCombinerStatsResponse>> getAdjustmentCombinerStats() {
+        return ResponseUtil.createSuccessResponse("Adjustment combiner statistics retrieved successfully", adjustmentCombiner.getStats());
+    }
+
+    /**
+     * Retrieves the products tracked by the low stock detector, its crossings and its notification backlog.
+     *
+     * @return The current low stock detector statistics.
+     */
+    @GetMapping("/low-stock")
+    public ResponseEntity<ApiResponse<LowStockStatsResponse>> getLowStockStats() {
+        return ResponseUtil.createSuccessResponse("Low stock detector statistics retrieved successfully", lowStockDetector.getStats());
+    }
+
+    /**
+     * Retrieves sequences, snapshot progress and group-commit efficiency of the movement journal of a standalone site.
+     *
+     * @return The current journal statistics.
+     */
+    @GetMapping("/journal")
+    public ResponseEntity<ApiResponse<JournalStatsResponse>> getJournalStats() {
+        JournalInventoryStore store = journalStore.getIfAvailable();
+        if (store == null) {
+            throw new ResourceNotFoundException("The movement journal is only active in the standalone profile");
+        }
+        return ResponseUtil.createSuccessResponse("Journal statistics retrieved successfully", store.getStats());
+    }
+
+    /**
+     * Retrieves second-level and query cache statistics for reference data, per cache region.
+     *
+     * @return The current Hibernate cache statistics.
+     */
+    @GetMapping("/hibernate-cache")
+    public ResponseEntity<ApiResponse<HibernateCacheStatsResponse>> getHibernateCacheStats() {
+        return ResponseUtil.createSuccessResponse("Hibernate cache statistics retrieved successfully", referenceDataCacheService.getStats());
+    }
+}
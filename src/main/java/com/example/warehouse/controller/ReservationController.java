@@ -0,0 +1,64 @@
+package com.example.warehouse.controller;
+
+import com.example.warehouse.payload.request.ReserveStockRequest;
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.StockReservationResponse;
+import com.example.warehouse.service.StockReservationService;
+import com.example.warehouse.utility.ResponseUtil;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for stock reservations: time-limited holds on inventory for open orders.
+ */
+@RestController
+@RequestMapping("/reservations")
+@RequiredArgsConstructor
+@Profile("!standalone")
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'STAFF', 'SALES')")
+public class ReservationController {
+
+    private final StockReservationService reservationService;
+
+    /**
+     * Holds stock of one product location until it is confirmed, released or expires.
+     *
+     * @param request The product location, quantity and optional TTL
+     * @return The created reservation
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<StockReservationResponse>> reserve(@Valid @RequestBody ReserveStockRequest request) {
+        StockReservationResponse reservation = reservationService.reserve(request);
+        ApiResponse<StockReservationResponse> response = ApiResponse.success("Stock reserved successfully", reservation);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{reservationId}")
+    public ResponseEntity<ApiResponse<StockReservationResponse>> getReservation(@PathVariable Long reservationId) {
+        StockReservationResponse reservation = reservationService.getReservationById(reservationId);
+        return ResponseUtil.createSuccessResponse("Reservation retrieved successfully", reservation);
+    }
+
+    /**
+     * Issues the reserved stock from the inventory.
+     */
+    @PostMapping("/{reservationId}/confirm")
+    public ResponseEntity<ApiResponse<StockReservationResponse>> confirm(@PathVariable Long reservationId) {
+        StockReservationResponse reservation = reservationService.confirm(reservationId);
+        return ResponseUtil.createSuccessResponse("Reservation confirmed successfully", reservation);
+    }
+
+    /**
+     * Gives the reserved stock back without issuing it.
+     */
+    @PostMapping("/{reservationId}/release")
+    public ResponseEntity<ApiResponse<StockReservationResponse>> release(@PathVariable Long reservationId) {
+        StockReservationResponse reservation = reservationService.release(reservationId);
+        return ResponseUtil.createSuccessResponse("Reservation released successfully", reservation);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.warehouse.controller;
+
+import com.example.warehouse.payload.request.AdjustInventoryRequest;
+import com.example.warehouse.payload.request.BulkAdjustInventoryRequest;
+import com.example.warehouse.payload.request.InventoryFilterRequest;
+import com.example.warehouse.payload.request.MoveInventoryRequest;
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.BulkAdjustInventoryResponse;
+import com.example.warehouse.payload.response.ProductInventoryResponse;
+import com.example.warehouse.service.IdempotencyService;
+import com.example.warehouse.service.StandaloneInventoryService;
+import com.example.warehouse.utility.ResponseUtil;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Inventory endpoints of a standalone site, served from the movement journal instead of MySQL.
+ * Replaces {@link InventoryController} in the standalone profile with the same paths and payloads;
+ * history, reservations and the change feed are only available on the central server.
+ */
+@RestController
+@RequestMapping("/inventories")
+@RequiredArgsConstructor
+@Profile("standalone")
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'STAFF')")
+public class StandaloneInventoryController {
+
+    private final StandaloneInventoryService inventoryService;
+    private final IdempotencyService idempotencyService;
+
+    /**
+     * Lists product locations, most recently changed first. The sort of the page request is ignored.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<ProductInventoryResponse>>> getAllInventory(
+            @Valid @ParameterObject InventoryFilterRequest filter,
+            @ParameterObject Pageable pageable) {
+        Page<ProductInventoryResponse> inventoryPage = inventoryService.getAllInventory(filter, pageable);
+        return ResponseUtil.createSuccessResponse("Inventory retrieved successfully", inventoryPage);
+    }
+
+    @PostMapping("/adjust")
+    public ResponseEntity<ApiResponse<ProductInventoryResponse>> adjustInventory(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody AdjustInventoryRequest request) {
+        return idempotencyService.execute(idempotencyKey, "inventory.adjust", request, ProductInventoryResponse.class, () -> {
+            ProductInventoryResponse updatedInventory = inventoryService.adjustInventory(request);
+            return ResponseUtil.createSuccessResponse("Inventory adjusted successfully", updatedInventory);
+        });
+    }
+
+    @PostMapping("/adjust/bulk")
+    public ResponseEntity<ApiResponse<BulkAdjustInventoryResponse>> bulkAdjustInventory(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BulkAdjustInventoryRequest request) {
+        return idempotencyService.execute(idempotencyKey, "inventory.adjust-bulk", request, BulkAdjustInventoryResponse.class, () -> {
+            BulkAdjustInventoryResponse result = inventoryService.bulkAdjustInventory(request);
+            return ResponseUtil.createSuccessResponse("Bulk inventory adjustment processed", result);
+        });
+    }
+
+    @PostMapping("/move")
+    public ResponseEntity<ApiResponse<Void>> moveInventory(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody MoveInventoryRequest request) {
+        return idempotencyService.execute(idempotencyKey, "inventory.move", request, Void.class, () -> {
+            inventoryService.moveInventory(request);
+            return ResponseUtil.createSuccessResponse("Inventory moved successfully", null);
+        });
+    }
+}
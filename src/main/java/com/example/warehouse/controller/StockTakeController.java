@@ -0,0 +1,74 @@
+package com.example.warehouse.controller;
+
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.StockTakeResponse;
+import com.example.warehouse.payload.response.StockTakeVarianceResponse;
+import com.example.warehouse.service.StockTakeService;
+import com.example.warehouse.utility.ResponseUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * Controller for stock takes: uploading physical counts and reviewing their variances.
+ */
+@RestController
+@RequestMapping("/stock-takes")
+@RequiredArgsConstructor
+@Profile("!standalone")
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'STAFF')")
+public class StockTakeController {
+
+    private final StockTakeService stockTakeService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<StockTakeResponse>>> getStockTakes(
+            @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        Page<StockTakeResponse> stockTakes = stockTakeService.getStockTakes(pageable);
+        return ResponseUtil.createSuccessResponse("Stock takes retrieved successfully", stockTakes);
+    }
+
+    @GetMapping("/{stockTakeId}")
+    public ResponseEntity<ApiResponse<StockTakeResponse>> getStockTake(@PathVariable Long stockTakeId) {
+        StockTakeResponse stockTake = stockTakeService.getStockTakeById(stockTakeId);
+        return ResponseUtil.createSuccessResponse("Stock take retrieved successfully", stockTake);
+    }
+
+    @GetMapping("/{stockTakeId}/variances")
+    public ResponseEntity<ApiResponse<Page<StockTakeVarianceResponse>>> getVariances(
+            @PathVariable Long stockTakeId,
+            @PageableDefault(size = 100, sort = "id") Pageable pageable) {
+        Page<StockTakeVarianceResponse> variances = stockTakeService.getVariances(stockTakeId, pageable);
+        return ResponseUtil.createSuccessResponse("Stock take variances retrieved successfully", variances);
+    }
+
+    /**
+     * Uploads a count document as the raw request body and reconciles it against the inventory.
+     * The body is read as a stream, so documents of any size are accepted.
+     *
+     * @param zoneId   The counted zone; omit when the whole warehouse was counted
+     * @param document CSV with a header row and the columns sku, zone_code and quantity
+     * @return The stock take with its line and variance counts
+     */
+    @PostMapping(consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ApiResponse<StockTakeResponse>> uploadStockTake(
+            @RequestParam Integer warehouseId,
+            @RequestParam(required = false) Integer zoneId,
+            @RequestParam(defaultValue = "true") boolean countMissingAsZero,
+            @RequestParam(required = false) String note,
+            InputStream document) {
+        StockTakeResponse stockTake = stockTakeService.processStockTake(warehouseId, zoneId, countMissingAsZero, note, document);
+        ApiResponse<StockTakeResponse> response = ApiResponse.success("Stock take processed successfully", stockTake);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.warehouse.controller;
+
+import com.example.warehouse.model.StockTotalRow;
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.StockTotalsVerificationResponse;
+import com.example.warehouse.payload.response.WarehouseStockTotalResponse;
+import com.example.warehouse.service.StockTotalsService;
+import com.example.warehouse.service.StockTotalsVerifier;
+import com.example.warehouse.utility.ResponseUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller for the on-hand stock totals per product, warehouse and zone.
+ * The totals are kept up to date by every stock change, so reading them scans no inventory.
+ */
+@RestController
+@RequestMapping("/stock-totals")
+@RequiredArgsConstructor
+@Profile("!standalone")
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'STAFF')")
+public class StockTotalsController {
+
+    private final StockTotalsService stockTotalsService;
+    private final StockTotalsVerifier stockTotalsVerifier;
+
+    @GetMapping("/products/{productId}")
+    public ResponseEntity<ApiResponse<StockTotalRow>> getProductTotal(@PathVariable Integer productId) {
+        return ResponseUtil.createSuccessResponse("Product stock total retrieved successfully",
+                stockTotalsService.getProductTotal(productId));
+    }
+
+    @GetMapping("/warehouses")
+    public ResponseEntity<ApiResponse<List<StockTotalRow>>> getWarehouseTotals() {
+        return ResponseUtil.createSuccessResponse("Warehouse stock totals retrieved successfully",
+                stockTotalsService.getWarehouseTotals());
+    }
+
+    /**
+     * Retrieves the stock total of a warehouse together with the totals of its zones.
+     */
+    @GetMapping("/warehouses/{warehouseId}")
+    public ResponseEntity<ApiResponse<WarehouseStockTotalResponse>> getWarehouseTotal(@PathVariable Integer warehouseId) {
+        return ResponseUtil.createSuccessResponse("Warehouse stock total retrieved successfully",
+                stockTotalsService.getWarehouseTotal(warehouseId));
+    }
+
+    /**
+     * Recomputes every total from the inventory and reports the ones that drifted, repairing them if asked to.
+     */
+    @PostMapping("/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<StockTotalsVerificationResponse>> verify(
+            @RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseUtil.createSuccessResponse("Stock totals verified", stockTotalsVerifier.verify(repair));
+    }
+}
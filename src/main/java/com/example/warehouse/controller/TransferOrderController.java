@@ -0,0 +1,83 @@
+package com.example.warehouse.controller;
+
+import com.example.warehouse.enums.TransferOrderStatusEnum;
+import com.example.warehouse.payload.request.TransferOrderRequest;
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.TransferOrderResponse;
+import com.example.warehouse.service.IdempotencyService;
+import com.example.warehouse.service.TransferOrderService;
+import com.example.warehouse.utility.ResponseUtil;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for transfer orders: moving many products between zones, or between warehouses, at once.
+ */
+@RestController
+@RequestMapping("/transfer-orders")
+@RequiredArgsConstructor
+@Profile("!standalone")
+@PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'STAFF')")
+public class TransferOrderController {
+
+    private final TransferOrderService transferOrderService;
+    private final IdempotencyService idempotencyService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<TransferOrderResponse>>> getTransferOrders(
+            @RequestParam(required = false) TransferOrderStatusEnum status,
+            @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        Page<TransferOrderResponse> orders = transferOrderService.getTransferOrders(status, pageable);
+        return ResponseUtil.createSuccessResponse("Transfer orders retrieved successfully", orders);
+    }
+
+    @GetMapping("/{transferOrderId}")
+    public ResponseEntity<ApiResponse<TransferOrderResponse>> getTransferOrder(@PathVariable Long transferOrderId) {
+        TransferOrderResponse order = transferOrderService.getTransferOrderById(transferOrderId);
+        return ResponseUtil.createSuccessResponse("Transfer order retrieved successfully", order);
+    }
+
+    /**
+     * Issues the stock of every line from its source zone in one transaction. Transfers within one
+     * warehouse are received at once; transfers between warehouses stay in transit until received.
+     *
+     * @param request The source and destination warehouses and the lines to move
+     * @return The created transfer order
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<TransferOrderResponse>> createTransferOrder(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TransferOrderRequest request) {
+        return idempotencyService.execute(idempotencyKey, "transfer-order.create", request, TransferOrderResponse.class, () -> {
+            TransferOrderResponse order = transferOrderService.createTransferOrder(request);
+            return new ResponseEntity<>(ApiResponse.success("Transfer order created successfully", order), HttpStatus.CREATED);
+        });
+    }
+
+    /**
+     * Receives an in-transit order into its destination zones.
+     */
+    @PostMapping("/{transferOrderId}/receive")
+    public ResponseEntity<ApiResponse<TransferOrderResponse>> receiveTransferOrder(@PathVariable Long transferOrderId) {
+        TransferOrderResponse order = transferOrderService.receiveTransferOrder(transferOrderId);
+        return ResponseUtil.createSuccessResponse("Transfer order received successfully", order);
+    }
+
+    /**
+     * Calls off an in-transit order and returns its stock to the source zones.
+     */
+    @PostMapping("/{transferOrderId}/cancel")
+    public ResponseEntity<ApiResponse<TransferOrderResponse>> cancelTransferOrder(@PathVariable Long transferOrderId) {
+        TransferOrderResponse order = transferOrderService.cancelTransferOrder(transferOrderId);
+        return ResponseUtil.createSuccessResponse("Transfer order cancelled successfully", order);
+    }
+}
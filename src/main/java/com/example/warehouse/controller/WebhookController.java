@@ -0,0 +1,94 @@
+package com.example.warehouse.controller;
+
+import com.example.warehouse.enums.WebhookDeliveryStatusEnum;
+import com.example.warehouse.payload.request.WebhookEndpointRequest;
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.WebhookDeliveryResponse;
+import com.example.warehouse.payload.response.WebhookEndpointResponse;
+import com.example.warehouse.service.WebhookService;
+import com.example.warehouse.utility.ResponseUtil;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for webhook endpoints, which receive inventory and audit events as pushed batches,
+ * and for following the delivery of those events.
+ */
+@RestController
+@RequestMapping("/webhooks")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class WebhookController {
+
+    private final WebhookService webhookService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<WebhookEndpointResponse>>> getAllEndpoints(
+            @PageableDefault(sort = "name") Pageable pageable) {
+        Page<WebhookEndpointResponse> endpoints = webhookService.getAllEndpoints(pageable);
+        return ResponseUtil.createSuccessResponse("Webhooks retrieved successfully", endpoints);
+    }
+
+    /**
+     * Retrieves an endpoint with its number of pending and failed deliveries.
+     */
+    @GetMapping("/{endpointId}")
+    public ResponseEntity<ApiResponse<WebhookEndpointResponse>> getEndpoint(@PathVariable Integer endpointId) {
+        WebhookEndpointResponse endpoint = webhookService.getEndpointById(endpointId);
+        return ResponseUtil.createSuccessResponse("Webhook retrieved successfully", endpoint);
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<WebhookEndpointResponse>> createEndpoint(@Valid @RequestBody WebhookEndpointRequest request) {
+        WebhookEndpointResponse endpoint = webhookService.createEndpoint(request);
+        ApiResponse<WebhookEndpointResponse> response = ApiResponse.success("Webhook created successfully", endpoint);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{endpointId}")
+    public ResponseEntity<ApiResponse<WebhookEndpointResponse>> updateEndpoint(
+            @PathVariable Integer endpointId,
+            @Valid @RequestBody WebhookEndpointRequest request) {
+        WebhookEndpointResponse endpoint = webhookService.updateEndpoint(endpointId, request);
+        return ResponseUtil.createSuccessResponse("Webhook updated successfully", endpoint);
+    }
+
+    @DeleteMapping("/{endpointId}")
+    public ResponseEntity<ApiResponse<Void>> deleteEndpoint(@PathVariable Integer endpointId) {
+        webhookService.deleteEndpoint(endpointId);
+        return ResponseUtil.createSuccessResponse("Webhook deleted successfully", null);
+    }
+
+    /**
+     * Retrieves the endpoint's deliveries, newest event first.
+     *
+     * @param status Only deliveries in this status; all when omitted
+     */
+    @GetMapping("/{endpointId}/deliveries")
+    public ResponseEntity<ApiResponse<Page<WebhookDeliveryResponse>>> getDeliveries(
+            @PathVariable Integer endpointId,
+            @RequestParam(required = false) WebhookDeliveryStatusEnum status,
+            @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        Page<WebhookDeliveryResponse> deliveries = webhookService.getDeliveries(endpointId, status, pageable);
+        return ResponseUtil.createSuccessResponse("Webhook deliveries retrieved successfully", deliveries);
+    }
+
+    /**
+     * Queues the endpoint's failed deliveries again.
+     *
+     * @return The number of deliveries queued again
+     */
+    @PostMapping("/{endpointId}/deliveries/retry")
+    public ResponseEntity<ApiResponse<Integer>> retryFailedDeliveries(@PathVariable Integer endpointId) {
+        int retried = webhookService.retryFailedDeliveries(endpointId);
+        return ResponseUtil.createSuccessResponse("Failed webhook deliveries queued again", retried);
+    }
+}
@@ -22,8 +22,11 @@ import java.util.Objects;
 @AllArgsConstructor
 @Builder
 public class AuditLog {
+    // Pooled table-backed IDs (MySQL has no sequences); IDENTITY would disable JDBC insert batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "audit_log_id_generator")
+    @TableGenerator(name = "audit_log_id_generator", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "audit_logs", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
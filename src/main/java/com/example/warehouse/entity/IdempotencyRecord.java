@@ -0,0 +1,68 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * The outcome of a request sent with an Idempotency-Key header.
+ * Corresponds to the `idempotency_keys` table.
+ * <p>
+ * A row without a response status is a claim held by the request currently executing; its expiry is
+ * then a short processing lease rather than the retention period of the stored response. The claim token
+ * identifies that request, so one whose lease was taken over can no longer run or store its response.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        // Serves the purge of expired keys
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    // SHA-256 of the actor, the operation and the client's key
+    @Id
+    @Column(name = "record_key", length = 64)
+    private String recordKey;
+
+    // SHA-256 of the request body, to detect a key reused for a different request
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // Random per claim; set by the request that claimed or took over the key
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_body", columnDefinition = "MEDIUMTEXT")
+    @ToString.Exclude
+    private String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        IdempotencyRecord that = (IdempotencyRecord) o;
+        return getRecordKey() != null && Objects.equals(getRecordKey(), that.getRecordKey());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.warehouse.entity;
+
+import com.example.warehouse.enums.DataFormatEnum;
+import com.example.warehouse.enums.ImportJobStatusEnum;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A bulk import of opening balances, with its progress.
+ * Corresponds to the `import_jobs` table; the counters are advanced in the same transaction as
+ * each chunk of rows, so processedRows is always the exact point to resume from.
+ */
+@Entity
+@Table(name = "import_jobs")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "actor_id", referencedColumnName = "id")
+    @ToString.Exclude
+    private User actor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, length = 20)
+    private DataFormatEnum format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ImportJobStatusEnum status;
+
+    // Rows of the document covered by committed chunks, whether imported or rejected
+    @Builder.Default
+    @Column(name = "processed_rows", nullable = false)
+    private Long processedRows = 0L;
+
+    @Builder.Default
+    @Column(name = "imported_rows", nullable = false)
+    private Long importedRows = 0L;
+
+    @Builder.Default
+    @Column(name = "rejected_rows", nullable = false)
+    private Long rejectedRows = 0L;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Set explicitly with every committed chunk; a RUNNING job that stops advancing was abandoned
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        ImportJob that = (ImportJob) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
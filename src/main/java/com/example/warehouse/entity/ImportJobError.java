@@ -0,0 +1,52 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.util.Objects;
+
+/**
+ * A rejected row of an import document and the reason it was rejected.
+ * Corresponds to the `import_job_errors` table; only the first rejections of a job are recorded.
+ */
+@Entity
+@Table(name = "import_job_errors", indexes = {
+        @Index(name = "idx_import_job_errors_job", columnList = "import_job_id, document_row")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobError {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "import_job_id", nullable = false)
+    private Long importJobId;
+
+    @Column(name = "document_row", nullable = false)
+    private Long documentRow;
+
+    @Column(name = "message", nullable = false, length = 500)
+    private String message;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        ImportJobError that = (ImportJobError) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
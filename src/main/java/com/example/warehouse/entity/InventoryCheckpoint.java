@@ -0,0 +1,68 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A snapshot of every inventory row's quantity as of takenAt.
+ * Corresponds to the `inventory_checkpoints` table; the quantities are in `inventory_checkpoint_rows`.
+ * Each checkpoint is derived from the previous one plus the stock logs created after it, up to takenAt.
+ */
+@Entity
+@Table(name = "inventory_checkpoints", indexes = {
+        @Index(name = "idx_inventory_checkpoints_taken", columnList = "taken_at")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // One more than the previous checkpoint's; unique, so concurrent instances cannot both add the next one
+    @Column(name = "sequence", nullable = false, unique = true)
+    private Long sequence;
+
+    // Covers every stock log created at or before this instant
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    // Inventory rows with a non-zero quantity; absent rows hold zero
+    @Builder.Default
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount = 0;
+
+    // Stock logs folded in since the previous checkpoint
+    @Builder.Default
+    @Column(name = "log_count", nullable = false)
+    private Long logCount = 0L;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        InventoryCheckpoint that = (InventoryCheckpoint) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * The quantity of one inventory row in a checkpoint.
+ * Corresponds to the `inventory_checkpoint_rows` table; rows are only written set-wise with plain SQL,
+ * the mapping exists so the schema is managed together with the other tables.
+ */
+@Entity
+@Table(name = "inventory_checkpoint_rows", indexes = {
+        @Index(name = "idx_inventory_checkpoint_rows_product", columnList = "checkpoint_id, product_id"),
+        @Index(name = "idx_inventory_checkpoint_rows_warehouse", columnList = "checkpoint_id, warehouse_id, zone_id")
+})
+@IdClass(InventoryCheckpointRow.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryCheckpointRow {
+    @Id
+    @Column(name = "checkpoint_id", nullable = false)
+    private Long checkpointId;
+
+    @Id
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Integer warehouseId;
+
+    @Column(name = "zone_id", nullable = false)
+    private Integer zoneId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long checkpointId;
+        private Long inventoryId;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * How far the movement journal of a standalone site has been shipped into this database.
+ * Corresponds to the `journal_shipments` table.
+ */
+@Entity
+@Table(name = "journal_shipments")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JournalShipment {
+    @Id
+    @Column(name = "site_id", length = 64)
+    private String siteId;
+
+    // Every journal record up to this sequence has been applied (or rejected) here
+    @Builder.Default
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence = 0L;
+
+    @Builder.Default
+    @Column(name = "shipped_records", nullable = false)
+    private Long shippedRecords = 0L;
+
+    // Records the central stock could not take, e.g. because they would make a quantity negative here
+    @Builder.Default
+    @Column(name = "rejected_records", nullable = false)
+    private Long rejectedRecords = 0L;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        JournalShipment that = (JournalShipment) o;
+        return getSiteId() != null && Objects.equals(getSiteId(), that.getSiteId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
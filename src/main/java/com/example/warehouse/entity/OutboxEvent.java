@@ -0,0 +1,69 @@
+package com.example.warehouse.entity;
+
+import com.example.warehouse.enums.OutboxEventTypeEnum;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * An event waiting to be pushed to webhook endpoints.
+ * Corresponds to the `outbox_events` table. Rows are inserted with plain JDBC in the same transaction as
+ * the change they describe, so an event exists if and only if its change was committed.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        // Serves the fan-out: undispatched events in insert order
+        @Index(name = "idx_outbox_events_dispatched", columnList = "dispatched_at, id")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    // IDENTITY on purpose: the id is assigned at insert, while the changed inventory row is still locked,
+    // so successive changes of one location always get increasing ids. Changes of one product in other
+    // locations may commit out of id order; the dispatcher's settle delay waits for them.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OutboxEventTypeEnum eventType;
+
+    // Events sharing a key are delivered to each endpoint in id order, e.g. "product:42"
+    @Column(name = "ordering_key", nullable = false, length = 100)
+    private String orderingKey;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    @ToString.Exclude
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Set once a delivery row exists for every endpoint subscribed at that time
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        OutboxEvent that = (OutboxEvent) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
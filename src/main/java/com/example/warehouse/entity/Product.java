@@ -2,6 +2,7 @@ package com.example.warehouse.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.proxy.HibernateProxy;
@@ -16,6 +17,7 @@ import java.util.Set;
  * Corresponds to the `products` table.
  */
 @Entity
+@BatchSize(size = 100) // Products referenced by a page of logs are fetched in one select
 @Table(name = "products")
 @Getter
 @Setter
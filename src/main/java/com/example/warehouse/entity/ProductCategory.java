@@ -2,6 +2,8 @@ package com.example.warehouse.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.proxy.HibernateProxy;
@@ -16,6 +18,8 @@ import java.util.Set;
  * Corresponds to the `product_categories` table.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "product_categories")
 @Getter
 @Setter
@@ -42,6 +46,7 @@ public class ProductCategory {
     @OneToMany(mappedBy = "parentCategory", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     @ToString.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<ProductCategory> childCategories = new HashSet<>();
 
     @Column(name = "created_at", nullable = false, updatable = false)
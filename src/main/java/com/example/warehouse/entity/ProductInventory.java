@@ -48,6 +48,11 @@ public class ProductInventory {
     @Column(name = "quantity", nullable = false)
     private Integer quantity = 0;
 
+    // Held by active reservations; only quantity - reservedQuantity can be issued or adjusted away
+    @Builder.Default
+    @Column(name = "reserved_quantity", nullable = false)
+    private Integer reservedQuantity = 0;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     @CreationTimestamp
     private LocalDateTime createdAt;
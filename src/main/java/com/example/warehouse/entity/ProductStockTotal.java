@@ -0,0 +1,43 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * One slot of the on-hand total of a product; the total is the sum of its slots.
+ * Corresponds to the `product_stock_totals` table; rows are only written with plain SQL by StockTotalsRepository,
+ * the mapping exists so the schema is managed together with the other tables.
+ */
+@Entity
+@Table(name = "product_stock_totals")
+@IdClass(ProductStockTotal.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStockTotal {
+    @Id
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+
+    @Id
+    @Column(name = "slot", nullable = false)
+    private Short slot;
+
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Integer productId;
+        private Short slot;
+    }
+}
@@ -15,7 +15,15 @@ import java.util.Objects;
  * Corresponds to the `stock_logs` table.
  */
 @Entity
-@Table(name = "stock_logs")
+@Table(name = "stock_logs", indexes = {
+        // Serve keyset-paginated history per inventory row, product and warehouse, newest first;
+        // the quantities make the first one covering for the stock log verification
+        @Index(name = "idx_stock_logs_inventory_chain", columnList = "inventory_id, created_at, id, quantity_before, quantity_change, quantity_after"),
+        @Index(name = "idx_stock_logs_product_created", columnList = "product_id, created_at, id"),
+        @Index(name = "idx_stock_logs_warehouse_created", columnList = "warehouse_id, created_at, id"),
+        // Serves replaying all logs of a time range for checkpoints and as-of queries
+        @Index(name = "idx_stock_logs_created", columnList = "created_at, id")
+})
 @Getter
 @Setter
 @ToString
@@ -23,8 +31,11 @@ import java.util.Objects;
 @AllArgsConstructor
 @Builder
 public class StockLog {
+    // Pooled table-backed IDs (MySQL has no sequences); IDENTITY would disable JDBC insert batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stock_log_id_generator")
+    @TableGenerator(name = "stock_log_id_generator", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "stock_logs", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -32,6 +43,22 @@ public class StockLog {
     @ToString.Exclude
     private ProductInventory inventory;
 
+    // Copied from the inventory row so history can be filtered and rendered without joining through it
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false, updatable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false, updatable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private Warehouse warehouse;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "zone_id", nullable = false, updatable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private WarehouseZone zone;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "actor_id", referencedColumnName = "id")
     @ToString.Exclude
@@ -0,0 +1,101 @@
+package com.example.warehouse.entity;
+
+import com.example.warehouse.enums.StockTakeStatusEnum;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A physical count of a warehouse, or of one zone of it, reconciled against the system quantities.
+ * Corresponds to the `stock_takes` table.
+ */
+@Entity
+@Table(name = "stock_takes")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTake {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private Warehouse warehouse;
+
+    // Null when the whole warehouse was counted
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "zone_id", referencedColumnName = "id")
+    @ToString.Exclude
+    private WarehouseZone zone;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "actor_id", referencedColumnName = "id")
+    @ToString.Exclude
+    private User actor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private StockTakeStatusEnum status;
+
+    // Whether locations in scope that are missing from the document were counted as zero
+    @Column(name = "count_missing_as_zero", nullable = false)
+    private Boolean countMissingAsZero;
+
+    @Column(name = "note", columnDefinition = "TEXT")
+    private String note;
+
+    @Builder.Default
+    @Column(name = "counted_lines", nullable = false)
+    private Integer countedLines = 0;
+
+    @Builder.Default
+    @Column(name = "unknown_lines", nullable = false)
+    private Integer unknownLines = 0;
+
+    @Builder.Default
+    @Column(name = "variance_lines", nullable = false)
+    private Integer varianceLines = 0;
+
+    @Builder.Default
+    @Column(name = "applied_lines", nullable = false)
+    private Integer appliedLines = 0;
+
+    @Builder.Default
+    @Column(name = "rejected_lines", nullable = false)
+    private Integer rejectedLines = 0;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        StockTake that = (StockTake) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.util.Objects;
+
+/**
+ * A raw line of an uploaded count document, staged so it can be diffed against the inventory in SQL.
+ * Corresponds to the `stock_take_lines` table. Rows are written and read with plain JDBC and are
+ * deleted once their stock take has been processed; the entity only exists to describe the table.
+ */
+@Entity
+@Table(name = "stock_take_lines", indexes = {
+        @Index(name = "idx_stock_take_lines_location", columnList = "stock_take_id, product_id, zone_id")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTakeLine {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stock_take_id", nullable = false)
+    private Long stockTakeId;
+
+    // 1-based position of the line among the data rows of the document
+    @Column(name = "document_row", nullable = false)
+    private Integer documentRow;
+
+    @Column(name = "sku", nullable = false, length = 50)
+    private String sku;
+
+    @Column(name = "zone_code", nullable = false, length = 50)
+    private String zoneCode;
+
+    @Column(name = "counted_quantity", nullable = false)
+    private Integer countedQuantity;
+
+    // Resolved from sku and zone_code in one UPDATE after loading; null if unknown or out of scope
+    @Column(name = "product_id")
+    private Integer productId;
+
+    @Column(name = "zone_id")
+    private Integer zoneId;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        StockTakeLine that = (StockTakeLine) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.util.Objects;
+
+/**
+ * A location whose counted quantity differs from the system quantity at the time of the diff.
+ * Corresponds to the `stock_take_variances` table; rows are produced by a single INSERT ... SELECT.
+ */
+@Entity
+@Table(name = "stock_take_variances", indexes = {
+        @Index(name = "idx_stock_take_variances_take", columnList = "stock_take_id, id")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTakeVariance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stock_take_id", nullable = false)
+    private Long stockTakeId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "zone_id", nullable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private WarehouseZone zone;
+
+    @Column(name = "system_quantity", nullable = false)
+    private Integer systemQuantity;
+
+    @Column(name = "counted_quantity", nullable = false)
+    private Integer countedQuantity;
+
+    @Column(name = "variance", nullable = false)
+    private Integer variance;
+
+    @Column(name = "applied", nullable = false)
+    private Boolean applied;
+
+    @Column(name = "error", length = 500)
+    private String error;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        StockTakeVariance that = (StockTakeVariance) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.util.Objects;
+
+/**
+ * One product and quantity moved by a transfer order.
+ * Corresponds to the `transfer_order_lines` table.
+ */
+@Entity
+@Table(name = "transfer_order_lines")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferOrderLine {
+    // Pooled like StockLog IDs, so the lines of a large order are inserted in JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transfer_order_line_id_generator")
+    @TableGenerator(name = "transfer_order_line_id_generator", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "transfer_order_lines", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transfer_order_id", nullable = false, updatable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private TransferOrder transferOrder;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false, updatable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "source_zone_id", nullable = false, updatable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private WarehouseZone sourceZone;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "destination_zone_id", nullable = false, updatable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private WarehouseZone destinationZone;
+
+    @Column(name = "quantity", nullable = false, updatable = false)
+    private Integer quantity;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        TransferOrderLine that = (TransferOrderLine) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
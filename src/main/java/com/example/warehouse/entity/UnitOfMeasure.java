@@ -2,6 +2,8 @@ package com.example.warehouse.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.util.HashSet;
@@ -13,6 +15,8 @@ import java.util.Set;
  * Corresponds to the `units_of_measure` table.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "units_of_measure")
 @Getter
 @Setter
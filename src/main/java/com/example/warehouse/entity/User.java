@@ -2,6 +2,7 @@ package com.example.warehouse.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.proxy.HibernateProxy;
@@ -16,6 +17,7 @@ import java.util.Set;
  * Corresponds to the `users` table.
  */
 @Entity
+@BatchSize(size = 100) // Actors referenced by a page of logs are fetched in one select
 @Table(name = "users")
 @Getter
 @Setter
@@ -51,6 +53,11 @@ public class User {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Bumped whenever roles, active flag or password change; tokens carrying an older version are rejected
+    @Builder.Default
+    @Column(name = "security_version", nullable = false)
+    private Integer securityVersion = 0;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "user_roles",
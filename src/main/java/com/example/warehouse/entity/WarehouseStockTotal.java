@@ -0,0 +1,43 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * One slot of the on-hand total of a warehouse; the total is the sum of its slots.
+ * Corresponds to the `warehouse_stock_totals` table; rows are only written with plain SQL by StockTotalsRepository,
+ * the mapping exists so the schema is managed together with the other tables.
+ */
+@Entity
+@Table(name = "warehouse_stock_totals")
+@IdClass(WarehouseStockTotal.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WarehouseStockTotal {
+    @Id
+    @Column(name = "warehouse_id", nullable = false)
+    private Integer warehouseId;
+
+    @Id
+    @Column(name = "slot", nullable = false)
+    private Short slot;
+
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Integer warehouseId;
+        private Short slot;
+    }
+}
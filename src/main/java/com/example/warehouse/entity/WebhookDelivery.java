@@ -0,0 +1,76 @@
+package com.example.warehouse.entity;
+
+import com.example.warehouse.enums.WebhookDeliveryStatusEnum;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * The delivery of one outbox event to one webhook endpoint, with its retry state.
+ * Corresponds to the `webhook_deliveries` table; rows are created by the dispatcher's fan-out.
+ */
+@Entity
+@Table(name = "webhook_deliveries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_webhook_deliveries_endpoint_event", columnNames = {"endpoint_id", "outbox_event_id"}),
+        indexes = {
+                // Serves the dispatcher: an endpoint's pending deliveries in event order
+                @Index(name = "idx_webhook_deliveries_endpoint_status", columnList = "endpoint_id, status, outbox_event_id"),
+                @Index(name = "idx_webhook_deliveries_status_delivered", columnList = "status, delivered_at")
+        })
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookDelivery {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "endpoint_id", nullable = false)
+    private Integer endpointId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "outbox_event_id", nullable = false, referencedColumnName = "id")
+    @ToString.Exclude
+    private OutboxEvent outboxEvent;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private WebhookDeliveryStatusEnum status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        WebhookDelivery that = (WebhookDelivery) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A registered receiver of outbox events.
+ * Corresponds to the `webhook_endpoints` table.
+ */
+@Entity
+@Table(name = "webhook_endpoints")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookEndpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "name", nullable = false, length = 100, unique = true)
+    private String name;
+
+    @Column(name = "url", nullable = false, length = 500)
+    private String url;
+
+    // Key of the HMAC-SHA256 signature sent with every batch; unsigned when null
+    @Column(name = "secret")
+    @ToString.Exclude
+    private String secret;
+
+    // Comma-separated OutboxEventTypeEnum names; every type when null
+    @Column(name = "event_types", length = 100)
+    private String eventTypes;
+
+    @Column(name = "batch_size", nullable = false)
+    private Integer batchSize;
+
+    // Batches in flight to this endpoint at once; each ordering key always goes through the same one
+    @Column(name = "max_concurrency", nullable = false)
+    private Integer maxConcurrency;
+
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        WebhookEndpoint that = (WebhookEndpoint) o;
+        return getId() != null && Objects.equals(getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
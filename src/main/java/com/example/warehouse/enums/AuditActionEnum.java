@@ -55,6 +55,11 @@ public enum AuditActionEnum {
     ASSIGN_ROLE_TO_USER("Assign Role to User", "A role was assigned to a user."),
     UNASSIGN_ROLE_FROM_USER("Unassign Role from User", "A role was unassigned from a user."),
 
+    // Webhook actions
+    CREATE_WEBHOOK("Create Webhook", "A new webhook endpoint was registered."),
+    UPDATE_WEBHOOK("Update Webhook", "Webhook endpoint details were updated."),
+    DELETE_WEBHOOK("Delete Webhook", "A webhook endpoint was deleted."),
+
     OTHER("Other", "An action that does not fit into the predefined categories.");
 
     private final String displayName;
@@ -0,0 +1,20 @@
+package com.example.warehouse.enums;
+
+import lombok.Getter;
+
+/**
+ * Formats of the streaming export and import endpoints.
+ */
+@Getter
+public enum DataFormatEnum {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    DataFormatEnum(String mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+}
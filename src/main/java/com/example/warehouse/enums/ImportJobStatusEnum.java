@@ -0,0 +1,21 @@
+package com.example.warehouse.enums;
+
+/**
+ * Lifecycle of a bulk import job.
+ */
+public enum ImportJobStatusEnum {
+    /**
+     * The document is being streamed; committed chunks are already visible.
+     */
+    RUNNING,
+
+    /**
+     * Every row of the document was either imported or rejected.
+     */
+    COMPLETED,
+
+    /**
+     * The import stopped part-way; it can be resumed from the last committed row.
+     */
+    FAILED
+}
@@ -0,0 +1,16 @@
+package com.example.warehouse.enums;
+
+/**
+ * Threshold crossings of a product's on-hand total against its minimum stock.
+ */
+public enum LowStockEventTypeEnum {
+    /**
+     * The total dropped below the minimum (or the minimum was raised above it).
+     */
+    CROSSED_BELOW_MINIMUM,
+
+    /**
+     * The total is back at or above the minimum.
+     */
+    RECOVERED
+}
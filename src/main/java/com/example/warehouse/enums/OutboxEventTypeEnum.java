@@ -0,0 +1,21 @@
+package com.example.warehouse.enums;
+
+/**
+ * Kinds of events written to the outbox and pushed to webhook endpoints.
+ */
+public enum OutboxEventTypeEnum {
+    /**
+     * A stock log was written: the quantity of an inventory row changed, or stock was reserved.
+     */
+    INVENTORY_CHANGED,
+
+    /**
+     * An audit log entry was recorded.
+     */
+    AUDIT_LOGGED,
+
+    /**
+     * A product's on-hand total crossed its minimum stock, in either direction.
+     */
+    LOW_STOCK_CHANGED
+}
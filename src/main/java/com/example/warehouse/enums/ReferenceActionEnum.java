@@ -27,5 +27,20 @@ public enum ReferenceActionEnum {
     /**
      * Linked to a physical stock count or cycle count document.
      */
-    STOCK_TAKE_DOCUMENT
+    STOCK_TAKE_DOCUMENT,
+
+    /**
+     * Linked to a transfer order moving stock between zones or warehouses.
+     */
+    TRANSFER_ORDER,
+
+    /**
+     * Linked to a bulk import job that loaded opening balances.
+     */
+    IMPORT_JOB,
+
+    /**
+     * Linked to a record of a standalone site's movement journal, shipped into the central database.
+     */
+    SITE_JOURNAL
 }
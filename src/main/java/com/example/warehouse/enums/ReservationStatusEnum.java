@@ -0,0 +1,23 @@
+package com.example.warehouse.enums;
+
+/**
+ * Lifecycle of a stock reservation. Only ACTIVE reservations hold stock; every other state is final.
+ */
+public enum ReservationStatusEnum {
+    /**
+     * Stock is held for the order until the reservation expires.
+     */
+    ACTIVE,
+    /**
+     * The order shipped; the held stock was issued from the inventory.
+     */
+    CONFIRMED,
+    /**
+     * The hold was given back explicitly.
+     */
+    RELEASED,
+    /**
+     * The hold ran out and was given back by the sweeper.
+     */
+    EXPIRED
+}
@@ -18,7 +18,8 @@ public enum StockLogEnum {
     RETURN_OUT("Return Out", "Stock decrease from a return to a supplier."),
     DAMAGED("Damaged", "Stock decrease due to damaged or lost goods."),
     EXPIRED("Expired", "Stock decrease due to product expiration."),
-    RESERVED("Reserved", "Stock allocated for an open order, not physically moved yet.");
+    RESERVED("Reserved", "Stock allocated for an open order, not physically moved yet."),
+    RELEASED("Released", "Reserved stock returned to the available pool, on release or expiry of the reservation.");
 
     private final String displayName;
     private final String description;
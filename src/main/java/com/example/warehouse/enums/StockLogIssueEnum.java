@@ -0,0 +1,22 @@
+package com.example.warehouse.enums;
+
+/**
+ * Ways the stock logs of an inventory row can fail to add up to its quantity.
+ */
+public enum StockLogIssueEnum {
+    /**
+     * A log's quantity before differs from the previous log's quantity after (or from zero for the first log),
+     * so a change is missing from the history or was written against a stale quantity.
+     */
+    GAP,
+
+    /**
+     * A log's quantity before plus its change differs from its own quantity after.
+     */
+    BROKEN_LOG,
+
+    /**
+     * The quantity after of the last log differs from the inventory row's quantity.
+     */
+    QUANTITY_MISMATCH
+}
@@ -0,0 +1,20 @@
+package com.example.warehouse.enums;
+
+/**
+ * Lifecycle of a stock take. The count document is staged, diffed and applied while PROCESSING.
+ */
+public enum StockTakeStatusEnum {
+    /**
+     * The count document is being loaded or its variances are being applied.
+     */
+    PROCESSING,
+    /**
+     * All variances were processed; rejected ones are listed in the variance report.
+     */
+    COMPLETED,
+    /**
+     * The count document was invalid or processing stopped on an error; no stock was changed
+     * unless some variances are marked as applied.
+     */
+    FAILED
+}
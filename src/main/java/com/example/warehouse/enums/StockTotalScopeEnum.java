@@ -0,0 +1,10 @@
+package com.example.warehouse.enums;
+
+/**
+ * What a stock total adds up: the on-hand quantity of every location of a product, of a warehouse, or of a zone.
+ */
+public enum StockTotalScopeEnum {
+    PRODUCT,
+    WAREHOUSE,
+    ZONE
+}
@@ -0,0 +1,20 @@
+package com.example.warehouse.enums;
+
+/**
+ * Lifecycle of a transfer order. Transfers within one warehouse complete immediately;
+ * transfers between warehouses stay IN_TRANSIT until the destination receives them.
+ */
+public enum TransferOrderStatusEnum {
+    /**
+     * Stock has left the source zones but has not been received at the destination yet.
+     */
+    IN_TRANSIT,
+    /**
+     * Stock was received in the destination zones.
+     */
+    COMPLETED,
+    /**
+     * The transfer was called off while in transit; the stock went back to its source zones.
+     */
+    CANCELLED
+}
@@ -0,0 +1,21 @@
+package com.example.warehouse.enums;
+
+/**
+ * Delivery state of one outbox event to one webhook endpoint.
+ */
+public enum WebhookDeliveryStatusEnum {
+    /**
+     * Waiting for its first attempt or for the next retry.
+     */
+    PENDING,
+
+    /**
+     * The endpoint acknowledged the batch containing the event.
+     */
+    DELIVERED,
+
+    /**
+     * Every attempt failed; the event is no longer retried unless retried explicitly.
+     */
+    FAILED
+}
@@ -0,0 +1,42 @@
+package com.example.warehouse.mapper;
+
+import com.example.warehouse.entity.ImportJob;
+import com.example.warehouse.entity.ImportJobError;
+import com.example.warehouse.payload.response.ImportJobErrorResponse;
+import com.example.warehouse.payload.response.ImportJobResponse;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ImportJobMapper {
+
+    public ImportJobResponse toResponse(ImportJob importJob) {
+        if (importJob == null) {
+            return null;
+        }
+
+        return ImportJobResponse.builder()
+                .id(importJob.getId())
+                .format(importJob.getFormat())
+                .status(importJob.getStatus())
+                .createdBy(importJob.getActor() != null ? importJob.getActor().getUsername() : null)
+                .processedRows(importJob.getProcessedRows())
+                .importedRows(importJob.getImportedRows())
+                .rejectedRows(importJob.getRejectedRows())
+                .error(importJob.getError())
+                .createdAt(importJob.getCreatedAt())
+                .updatedAt(importJob.getUpdatedAt())
+                .completedAt(importJob.getCompletedAt())
+                .build();
+    }
+
+    public ImportJobErrorResponse toResponse(ImportJobError error) {
+        if (error == null) {
+            return null;
+        }
+
+        return ImportJobErrorResponse.builder()
+                .documentRow(error.getDocumentRow())
+                .message(error.getMessage())
+                .build();
+    }
+}
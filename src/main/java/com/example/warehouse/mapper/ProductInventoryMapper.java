@@ -19,6 +19,8 @@ public class ProductInventoryMapper {
                 .warehouseName(inventory.getWarehouse().getName())
                 .zoneName(inventory.getZone().getName())
                 .quantity(inventory.getQuantity())
+                .reservedQuantity(inventory.getReservedQuantity())
+                .availableQuantity(inventory.getQuantity() - inventory.getReservedQuantity())
                 .updatedAt(inventory.getUpdatedAt())
                 .build();
     }
@@ -15,9 +15,9 @@ public class StockLogMapper {
         return StockLogResponse.builder()
                 .id(log.getId())
                 .transactionType(log.getType())
-                .productSku(log.getInventory().getProduct().getSku())
-                .warehouseName(log.getInventory().getWarehouse().getName())
-                .zoneName(log.getInventory().getZone().getName())
+                .productSku(log.getProduct().getSku())
+                .warehouseName(log.getWarehouse().getName())
+                .zoneName(log.getZone().getName())
                 .quantityBefore(log.getQuantityBefore())
                 .quantityChange(log.getQuantityChange())
                 .quantityAfter(log.getQuantityAfter())
@@ -0,0 +1,31 @@
+package com.example.warehouse.mapper;
+
+import com.example.warehouse.entity.StockReservation;
+import com.example.warehouse.payload.response.StockReservationResponse;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockReservationMapper {
+
+    public StockReservationResponse toResponse(StockReservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+
+        return StockReservationResponse.builder()
+                .id(reservation.getId())
+                .inventoryId(reservation.getInventory().getId())
+                .productSku(reservation.getInventory().getProduct().getSku())
+                .warehouseName(reservation.getInventory().getWarehouse().getName())
+                .zoneName(reservation.getInventory().getZone().getName())
+                .quantity(reservation.getQuantity())
+                .status(reservation.getStatus())
+                .referenceType(reservation.getReferenceType())
+                .referenceId(reservation.getReferenceId())
+                .note(reservation.getNote())
+                .expiresAt(reservation.getExpiresAt())
+                .createdAt(reservation.getCreatedAt())
+                .updatedAt(reservation.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.warehouse.mapper;
+
+import com.example.warehouse.entity.StockTake;
+import com.example.warehouse.entity.StockTakeVariance;
+import com.example.warehouse.payload.response.StockTakeResponse;
+import com.example.warehouse.payload.response.StockTakeVarianceResponse;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockTakeMapper {
+
+    public StockTakeResponse toResponse(StockTake stockTake) {
+        if (stockTake == null) {
+            return null;
+        }
+
+        return StockTakeResponse.builder()
+                .id(stockTake.getId())
+                .warehouseName(stockTake.getWarehouse().getName())
+                .zoneName(stockTake.getZone() != null ? stockTake.getZone().getName() : null)
+                .status(stockTake.getStatus())
+                .countMissingAsZero(stockTake.getCountMissingAsZero())
+                .note(stockTake.getNote())
+                .createdBy(stockTake.getActor() != null ? stockTake.getActor().getUsername() : null)
+                .countedLines(stockTake.getCountedLines())
+                .unknownLines(stockTake.getUnknownLines())
+                .varianceLines(stockTake.getVarianceLines())
+                .appliedLines(stockTake.getAppliedLines())
+                .rejectedLines(stockTake.getRejectedLines())
+                .error(stockTake.getError())
+                .createdAt(stockTake.getCreatedAt())
+                .completedAt(stockTake.getCompletedAt())
+                .build();
+    }
+
+    public StockTakeVarianceResponse toResponse(StockTakeVariance variance) {
+        if (variance == null) {
+            return null;
+        }
+
+        return StockTakeVarianceResponse.builder()
+                .id(variance.getId())
+                .productSku(variance.getProduct().getSku())
+                .productName(variance.getProduct().getName())
+                .zoneCode(variance.getZone().getCode())
+                .systemQuantity(variance.getSystemQuantity())
+                .countedQuantity(variance.getCountedQuantity())
+                .variance(variance.getVariance())
+                .applied(variance.getApplied())
+                .error(variance.getError())
+                .build();
+    }
+}
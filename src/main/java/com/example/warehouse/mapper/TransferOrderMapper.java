@@ -0,0 +1,50 @@
+package com.example.warehouse.mapper;
+
+import com.example.warehouse.entity.TransferOrder;
+import com.example.warehouse.entity.TransferOrderLine;
+import com.example.warehouse.payload.response.TransferOrderLineResponse;
+import com.example.warehouse.payload.response.TransferOrderResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class TransferOrderMapper {
+
+    /**
+     * Maps an order without its lines, for listings.
+     */
+    public TransferOrderResponse toResponse(TransferOrder order) {
+        return toResponse(order, null);
+    }
+
+    public TransferOrderResponse toResponse(TransferOrder order, List<TransferOrderLine> lines) {
+        if (order == null) {
+            return null;
+        }
+
+        return TransferOrderResponse.builder()
+                .id(order.getId())
+                .sourceWarehouseName(order.getSourceWarehouse().getName())
+                .destinationWarehouseName(order.getDestinationWarehouse().getName())
+                .status(order.getStatus())
+                .note(order.getNote())
+                .createdBy(order.getActor() != null ? order.getActor().getUsername() : null)
+                .createdAt(order.getCreatedAt())
+                .completedAt(order.getCompletedAt())
+                .lines(lines != null ? lines.stream().map(this::toLineResponse).toList() : null)
+                .build();
+    }
+
+    private TransferOrderLineResponse toLineResponse(TransferOrderLine line) {
+        return TransferOrderLineResponse.builder()
+                .id(line.getId())
+                .productId(line.getProduct().getId())
+                .productName(line.getProduct().getName())
+                .productSku(line.getProduct().getSku())
+                .sourceZoneName(line.getSourceZone().getName())
+                .destinationZoneName(line.getDestinationZone().getName())
+                .quantity(line.getQuantity())
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.warehouse.mapper;
+
+import com.example.warehouse.entity.WebhookDelivery;
+import com.example.warehouse.entity.WebhookEndpoint;
+import com.example.warehouse.enums.OutboxEventTypeEnum;
+import com.example.warehouse.payload.response.WebhookDeliveryResponse;
+import com.example.warehouse.payload.response.WebhookEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class WebhookMapper {
+
+    public WebhookEndpointResponse toResponse(WebhookEndpoint endpoint) {
+        if (endpoint == null) {
+            return null;
+        }
+
+        return WebhookEndpointResponse.builder()
+                .id(endpoint.getId())
+                .name(endpoint.getName())
+                .url(endpoint.getUrl())
+                .signed(endpoint.getSecret() != null)
+                .eventTypes(toEventTypes(endpoint.getEventTypes()))
+                .batchSize(endpoint.getBatchSize())
+                .maxConcurrency(endpoint.getMaxConcurrency())
+                .isActive(endpoint.getIsActive())
+                .createdAt(endpoint.getCreatedAt())
+                .updatedAt(endpoint.getUpdatedAt())
+                .build();
+    }
+
+    public WebhookDeliveryResponse toResponse(WebhookDelivery delivery) {
+        if (delivery == null) {
+            return null;
+        }
+
+        return WebhookDeliveryResponse.builder()
+                .id(delivery.getId())
+                .eventId(delivery.getOutboxEvent().getId())
+                .eventType(delivery.getOutboxEvent().getEventType())
+                .orderingKey(delivery.getOutboxEvent().getOrderingKey())
+                .status(delivery.getStatus())
+                .attempts(delivery.getAttempts())
+                .nextAttemptAt(delivery.getNextAttemptAt())
+                .lastError(delivery.getLastError())
+                .createdAt(delivery.getCreatedAt())
+                .deliveredAt(delivery.getDeliveredAt())
+                .build();
+    }
+
+    /**
+     * @return The column value for the given types: comma-separated names, or null for all types
+     */
+    public String toEventTypesColumn(Collection<OutboxEventTypeEnum> eventTypes) {
+        if (eventTypes == null || eventTypes.isEmpty() || eventTypes.containsAll(EnumSet.allOf(OutboxEventTypeEnum.class))) {
+            return null;
+        }
+        return eventTypes.stream().map(Enum::name).sorted().collect(Collectors.joining(","));
+    }
+
+    private Set<OutboxEventTypeEnum> toEventTypes(String column) {
+        if (column == null) {
+            return EnumSet.allOf(OutboxEventTypeEnum.class);
+        }
+        return Arrays.stream(column.split(",")).map(OutboxEventTypeEnum::valueOf)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(OutboxEventTypeEnum.class)));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.enums.AuditActionEnum;
+
+/**
+ * An audit entry waiting to be written. Only the actor's ID is kept so the event
+ * does not hold on to a (possibly detached) User entity.
+ */
+public record AuditEvent(
+        Integer actorId,
+        AuditActionEnum action,
+        String tableAffected,
+        String objectId,
+        String note) {
+}
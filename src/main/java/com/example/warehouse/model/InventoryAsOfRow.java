@@ -0,0 +1,15 @@
+package com.example.warehouse.model;
+
+/**
+ * The quantity of one inventory row at a point in time.
+ */
+public record InventoryAsOfRow(
+        Long inventoryId,
+        Integer productId,
+        String productSku,
+        Integer warehouseId,
+        String warehouseCode,
+        Integer zoneId,
+        String zoneCode,
+        int quantity) {
+}
@@ -0,0 +1,32 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.entity.ProductInventory;
+
+import java.time.LocalDateTime;
+
+/**
+ * The state of an inventory row right after a committed change, as published on the change feed.
+ * The sequence is assigned when the change is broadcast and orders all events of one feed.
+ */
+public record InventoryChangedEvent(
+        long sequence,
+        Long inventoryId,
+        Integer productId,
+        Integer warehouseId,
+        Integer zoneId,
+        int quantity,
+        int reservedQuantity,
+        LocalDateTime changedAt) {
+
+    /**
+     * Copies the row's current state; the entity may be cleared or changed again before the commit.
+     */
+    public static InventoryChangedEvent of(ProductInventory inventory) {
+        return new InventoryChangedEvent(0, inventory.getId(), inventory.getProduct().getId(), inventory.getWarehouse().getId(),
+                inventory.getZone().getId(), inventory.getQuantity(), inventory.getReservedQuantity(), LocalDateTime.now());
+    }
+
+    public InventoryChangedEvent withSequence(long sequence) {
+        return new InventoryChangedEvent(sequence, inventoryId, productId, warehouseId, zoneId, quantity, reservedQuantity, changedAt);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.warehouse.model;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the inventory export.
+ */
+@JsonPropertyOrder({"id", "productSku", "productName", "warehouseCode", "zoneCode", "quantity", "reservedQuantity", "updatedAt"})
+public record InventoryExportRow(
+        Long id,
+        String productSku,
+        String productName,
+        String warehouseCode,
+        String zoneCode,
+        int quantity,
+        int reservedQuantity,
+        LocalDateTime updatedAt) {
+}
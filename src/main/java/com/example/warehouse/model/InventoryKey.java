@@ -0,0 +1,20 @@
+package com.example.warehouse.model;
+
+import java.util.Comparator;
+
+/**
+ * Identifies a product location, i.e. one row of the `product_inventories` table.
+ * The natural ordering is the global lock order used by every multi-row inventory mutation.
+ */
+public record InventoryKey(Integer productId, Integer warehouseId, Integer zoneId) implements Comparable<InventoryKey> {
+
+    private static final Comparator<InventoryKey> ORDER = Comparator
+            .comparing(InventoryKey::productId)
+            .thenComparing(InventoryKey::warehouseId)
+            .thenComparing(InventoryKey::zoneId);
+
+    @Override
+    public int compareTo(InventoryKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.enums.StockLogEnum;
+
+/**
+ * One stock movement as written to the movement journal of a standalone site.
+ * Sequences are assigned by the writer and increase by exactly one per record. The actor is the ID of the
+ * user who made the movement, or null for one made without a user.
+ */
+public record JournalRecord(
+        long sequence,
+        long timestampMillis,
+        int productId,
+        int warehouseId,
+        int zoneId,
+        int quantityChange,
+        Integer actorId,
+        StockLogEnum type,
+        String note) {
+
+    public InventoryKey key() {
+        return new InventoryKey(productId, warehouseId, zoneId);
+    }
+}
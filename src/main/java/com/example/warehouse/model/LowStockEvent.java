@@ -0,0 +1,18 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.enums.LowStockEventTypeEnum;
+
+import java.time.LocalDateTime;
+
+/**
+ * The payload of a LOW_STOCK_CHANGED outbox event: a product's total crossed its minimum stock.
+ * The quantities are the ones at the time the crossing was notified.
+ */
+public record LowStockEvent(
+        Integer productId,
+        String productSku,
+        LowStockEventTypeEnum type,
+        long onHand,
+        int minimumStock,
+        LocalDateTime crossedAt) {
+}
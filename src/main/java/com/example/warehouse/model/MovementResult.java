@@ -0,0 +1,24 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.entity.ProductInventory;
+
+/**
+ * The outcome of one StockMovement within a batch.
+ * On success, the quantities are the ones written for this particular movement.
+ */
+public record MovementResult(
+        int index,
+        boolean applied,
+        ProductInventory inventory,
+        Integer quantityBefore,
+        Integer quantityAfter,
+        String error) {
+
+    public static MovementResult applied(int index, ProductInventory inventory, int quantityBefore, int quantityAfter) {
+        return new MovementResult(index, true, inventory, quantityBefore, quantityAfter, null);
+    }
+
+    public static MovementResult rejected(int index, String error) {
+        return new MovementResult(index, false, null, null, null, error);
+    }
+}
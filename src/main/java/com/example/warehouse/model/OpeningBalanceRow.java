@@ -0,0 +1,15 @@
+package com.example.warehouse.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One row of an opening-balance import document: the starting quantity of a product in a zone.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OpeningBalanceRow(
+        @JsonProperty("product_id") Integer productId,
+        @JsonProperty("warehouse_id") Integer warehouseId,
+        @JsonProperty("zone_id") Integer zoneId,
+        @JsonProperty("quantity") Integer quantity) {
+}
@@ -0,0 +1,7 @@
+package com.example.warehouse.model;
+
+/**
+ * A product's minimum stock and its on-hand total across all locations.
+ */
+public record ProductStockLevel(Integer productId, String productSku, int minimumStock, long onHand) {
+}
@@ -0,0 +1,14 @@
+package com.example.warehouse.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One line of an uploaded count document: the counted quantity of a product (by SKU) in a zone (by code).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record StockCountRow(
+        @JsonProperty("sku") String sku,
+        @JsonProperty("zone_code") String zoneCode,
+        @JsonProperty("quantity") Integer quantity) {
+}
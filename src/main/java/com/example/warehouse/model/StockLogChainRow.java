@@ -0,0 +1,15 @@
+package com.example.warehouse.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a stock log that take part in its inventory row's quantity chain.
+ */
+public record StockLogChainRow(
+        long inventoryId,
+        long id,
+        LocalDateTime createdAt,
+        int quantityBefore,
+        int quantityChange,
+        int quantityAfter) {
+}
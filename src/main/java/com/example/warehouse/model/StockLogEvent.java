@@ -0,0 +1,31 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.entity.StockLog;
+import com.example.warehouse.enums.ReferenceActionEnum;
+import com.example.warehouse.enums.StockLogEnum;
+
+/**
+ * The payload of an INVENTORY_CHANGED outbox event: one stock log, flattened to IDs.
+ */
+public record StockLogEvent(
+        Long stockLogId,
+        Long inventoryId,
+        Integer productId,
+        Integer warehouseId,
+        Integer zoneId,
+        StockLogEnum type,
+        int quantityBefore,
+        int quantityChange,
+        int quantityAfter,
+        ReferenceActionEnum referenceType,
+        String referenceId) {
+
+    /**
+     * Reads only IDs from the log's associations, so uninitialized references stay uninitialized.
+     */
+    public static StockLogEvent of(StockLog stockLog) {
+        return new StockLogEvent(stockLog.getId(), stockLog.getInventory().getId(), stockLog.getProduct().getId(),
+                stockLog.getWarehouse().getId(), stockLog.getZone().getId(), stockLog.getType(), stockLog.getQuantityBefore(),
+                stockLog.getQuantityChange(), stockLog.getQuantityAfter(), stockLog.getReferenceType(), stockLog.getReferenceId());
+    }
+}
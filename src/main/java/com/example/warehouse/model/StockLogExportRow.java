@@ -0,0 +1,26 @@
+package com.example.warehouse.model;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the stock log export.
+ */
+@JsonPropertyOrder({"id", "createdAt", "type", "productSku", "warehouseCode", "zoneCode", "quantityBefore",
+        "quantityChange", "quantityAfter", "referenceType", "referenceId", "actor", "note"})
+public record StockLogExportRow(
+        Long id,
+        LocalDateTime createdAt,
+        String type,
+        String productSku,
+        String warehouseCode,
+        String zoneCode,
+        int quantityBefore,
+        int quantityChange,
+        int quantityAfter,
+        String referenceType,
+        String referenceId,
+        String actor,
+        String note) {
+}
@@ -0,0 +1,13 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.enums.StockLogIssueEnum;
+
+/**
+ * A place where the stock log history of an inventory row doesn't add up.
+ *
+ * @param stockLogId The log the issue was found at; for a quantity mismatch the last log, or null if the row has none
+ * @param expected   The quantity the history leads up to at that point
+ * @param actual     The quantity found there instead
+ */
+public record StockLogIssue(StockLogIssueEnum type, Long inventoryId, Long stockLogId, long expected, long actual) {
+}
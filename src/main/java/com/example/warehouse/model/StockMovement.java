@@ -0,0 +1,17 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.enums.ReferenceActionEnum;
+import com.example.warehouse.enums.StockLogEnum;
+
+/**
+ * A single quantity change to apply to a product location, together with the
+ * details recorded on its StockLog entry.
+ */
+public record StockMovement(
+        InventoryKey key,
+        int quantityChange,
+        StockLogEnum type,
+        String note,
+        ReferenceActionEnum referenceType,
+        String referenceId) {
+}
@@ -0,0 +1,9 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.enums.StockTotalScopeEnum;
+
+/**
+ * A stock total that doesn't match the sum of the inventory rows it covers.
+ */
+public record StockTotalDrift(StockTotalScopeEnum scope, Integer id, long recorded, long expected) {
+}
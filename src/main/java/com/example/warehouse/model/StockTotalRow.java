@@ -0,0 +1,7 @@
+package com.example.warehouse.model;
+
+/**
+ * The on-hand total of one warehouse or zone, with the names to show it by.
+ */
+public record StockTotalRow(Integer id, String code, String name, long totalOnHand) {
+}
@@ -0,0 +1,22 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.entity.OutboxEvent;
+import com.example.warehouse.enums.OutboxEventTypeEnum;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * One event as sent to webhook endpoints. The data is the stored outbox payload, embedded as is.
+ */
+public record WebhookEvent(
+        Long id,
+        OutboxEventTypeEnum type,
+        String orderingKey,
+        LocalDateTime createdAt,
+        @JsonRawValue String data) {
+
+    public static WebhookEvent of(OutboxEvent event) {
+        return new WebhookEvent(event.getId(), event.getEventType(), event.getOrderingKey(), event.getCreatedAt(), event.getPayload());
+    }
+}
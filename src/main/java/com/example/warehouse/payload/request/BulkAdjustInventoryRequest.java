@@ -0,0 +1,18 @@
+package com.example.warehouse.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkAdjustInventoryRequest {
+    @NotEmpty(message = "At least one adjustment line is required")
+    @Size(max = 5000, message = "A bulk adjustment cannot exceed 5000 lines")
+    private List<@Valid AdjustInventoryRequest> lines;
+
+    // true: any failing line rolls back the whole request; false: failing lines are reported and skipped
+    private boolean atomic = true;
+}
@@ -0,0 +1,21 @@
+package com.example.warehouse.payload.request;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+/**
+ * Optional filters for listing inventory; every field left empty matches all rows.
+ */
+@Data
+public class InventoryFilterRequest {
+    private Integer productId;
+    private String sku;
+    private Integer warehouseId;
+    private Integer zoneId;
+
+    @Min(value = 0, message = "Minimum quantity cannot be negative")
+    private Integer minQuantity;
+
+    @Min(value = 0, message = "Maximum quantity cannot be negative")
+    private Integer maxQuantity;
+}
@@ -0,0 +1,31 @@
+package com.example.warehouse.payload.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ReserveStockRequest {
+    @NotNull(message = "Product ID is required")
+    private Integer productId;
+
+    @NotNull(message = "Warehouse ID is required")
+    private Integer warehouseId;
+
+    @NotNull(message = "Zone ID is required")
+    private Integer zoneId;
+
+    @NotNull(message = "Quantity to reserve is required")
+    @Min(value = 1, message = "Quantity to reserve must be at least 1")
+    private Integer quantity;
+
+    // How long the hold lasts; the configured default applies when omitted
+    @Min(value = 1, message = "Reservation TTL must be at least 1 second")
+    @Max(value = 604800, message = "Reservation TTL cannot exceed 7 days")
+    private Integer ttlSeconds;
+
+    private String referenceType;
+    private String referenceId;
+    private String note;
+}
@@ -0,0 +1,21 @@
+package com.example.warehouse.payload.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class TransferOrderLineRequest {
+    @NotNull(message = "Product ID is required")
+    private Integer productId;
+
+    @NotNull(message = "Source Zone ID is required")
+    private Integer sourceZoneId;
+
+    @NotNull(message = "Destination Zone ID is required")
+    private Integer destinationZoneId;
+
+    @NotNull(message = "Quantity to transfer is required")
+    @Min(value = 1, message = "Quantity to transfer must be at least 1")
+    private Integer quantity;
+}
@@ -0,0 +1,25 @@
+package com.example.warehouse.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TransferOrderRequest {
+    @NotNull(message = "Source Warehouse ID is required")
+    private Integer sourceWarehouseId;
+
+    // Same as the source for a transfer between zones of one warehouse
+    @NotNull(message = "Destination Warehouse ID is required")
+    private Integer destinationWarehouseId;
+
+    @NotEmpty(message = "At least one transfer line is required")
+    @Size(max = 5000, message = "A transfer order cannot exceed 5000 lines")
+    private List<@Valid TransferOrderLineRequest> lines;
+
+    private String note;
+}
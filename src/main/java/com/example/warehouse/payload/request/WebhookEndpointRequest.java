@@ -0,0 +1,40 @@
+package com.example.warehouse.payload.request;
+
+import com.example.warehouse.enums.OutboxEventTypeEnum;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+public class WebhookEndpointRequest {
+
+    @NotBlank(message = "Webhook name is required")
+    @Size(max = 100, message = "Webhook name cannot exceed 100 characters")
+    private String name;
+
+    @NotBlank(message = "Webhook URL is required")
+    @Size(max = 500, message = "Webhook URL cannot exceed 500 characters")
+    @Pattern(regexp = "^https?://.+", message = "Webhook URL must be an http or https URL")
+    private String url;
+
+    // Signs every batch when set
+    @Size(max = 255, message = "Webhook secret cannot exceed 255 characters")
+    private String secret;
+
+    // The event types to receive; all types when omitted or empty
+    private Set<OutboxEventTypeEnum> eventTypes;
+
+    @NotNull(message = "Batch size is required")
+    @Min(value = 1, message = "Batch size must be at least 1")
+    @Max(value = 1000, message = "Batch size cannot exceed 1000")
+    private Integer batchSize;
+
+    @NotNull(message = "Maximum concurrency is required")
+    @Min(value = 1, message = "Maximum concurrency must be at least 1")
+    @Max(value = 32, message = "Maximum concurrency cannot exceed 32")
+    private Integer maxConcurrency;
+
+    @NotNull(message = "Active status is required")
+    private Boolean isActive;
+}
@@ -0,0 +1,16 @@
+package com.example.warehouse.payload.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AdjustmentCombinerStatsResponse {
+    private boolean enabled;
+    private int activeKeys; // locations with adjustments waiting or in flight
+    private long requests; // since startup
+    private long batches;
+    private long rejected;
+    private double averageBatchSize;
+    private int largestBatch;
+}
@@ -0,0 +1,20 @@
+package com.example.warehouse.payload.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AuditWriterStatsResponse {
+    private boolean running;
+    private int queueDepth;
+    private int queueCapacity;
+    private long enqueued;
+    private long written;
+    private long failed;
+    private long writtenByCaller; // events written on the caller's thread because the queue stayed full
+    private long drains;
+    private double lastDrainMillis;
+    private double averageDrainMillis;
+    private double maxDrainMillis;
+}
@@ -0,0 +1,19 @@
+package com.example.warehouse.payload.response;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+@Data
+@Builder
+@Jacksonized
+public class BulkAdjustInventoryResponse {
+    private int totalLines;
+    private int appliedLines;
+    private int failedLines;
+    private long elapsedMillis;
+    private double linesPerSecond;
+    private List<BulkAdjustLineResult> lines;
+}
@@ -0,0 +1,19 @@
+package com.example.warehouse.payload.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+@Data
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkAdjustLineResult {
+    private int lineIndex;
+    private boolean applied;
+    private ProductInventoryResponse inventory;
+    private Integer quantityBefore;
+    private Integer quantityAfter;
+    private String error;
+}
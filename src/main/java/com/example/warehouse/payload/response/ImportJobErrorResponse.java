@@ -0,0 +1,11 @@
+package com.example.warehouse.payload.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImportJobErrorResponse {
+    private Long documentRow;
+    private String message;
+}
@@ -0,0 +1,28 @@
+package com.example.warehouse.payload.response;
+
+import com.example.warehouse.enums.DataFormatEnum;
+import com.example.warehouse.enums.ImportJobStatusEnum;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobResponse {
+    private Long id;
+    private DataFormatEnum format;
+    private ImportJobStatusEnum status;
+    private String createdBy;
+    private long processedRows;
+    private long importedRows;
+    private long rejectedRows;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    // Only included right after an upload or resume: how long this run took
+    private Long elapsedMillis;
+}
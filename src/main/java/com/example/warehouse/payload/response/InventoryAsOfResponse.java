@@ -0,0 +1,19 @@
+package com.example.warehouse.payload.response;
+
+import com.example.warehouse.model.InventoryAsOfRow;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class InventoryAsOfResponse {
+    private LocalDateTime asOf;
+    // The checkpoint the quantities were replayed from; null if there was none to start from
+    private LocalDateTime checkpointTakenAt;
+    private long replayedLogs;
+    private long totalQuantity;
+    private List<InventoryAsOfRow> rows;
+}
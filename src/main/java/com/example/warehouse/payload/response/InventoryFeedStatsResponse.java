@@ -0,0 +1,18 @@
+package com.example.warehouse.payload.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class InventoryFeedStatsResponse {
+    private int subscribers;
+    private int maxSubscribers;
+    private int clientBufferSize;
+    private String lastEventId;
+    private int replayCapacity;
+    private long published;
+    private long delivered;
+    private long replayed;
+    private long resets; // clients told to reload because their buffer overflowed or their Last-Event-ID was too old
+}
@@ -0,0 +1,20 @@
+package com.example.warehouse.payload.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class JournalStatsResponse {
+    private String directory;
+    private int locations;
+    private long lastSequence;
+    private long durableSequence;
+    private long snapshotSequence;
+    private long lastSnapshotMillis; // epoch millis, 0 if no snapshot was written since startup
+    private int segments;
+    private long appendedRecords; // since startup
+    private long flushes;
+    private double averageRecordsPerFlush;
+    private boolean failed;
+}
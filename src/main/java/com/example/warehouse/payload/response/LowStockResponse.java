@@ -0,0 +1,17 @@
+package com.example.warehouse.payload.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class LowStockResponse {
+    private Integer productId;
+    private String productSku;
+    private long onHand;
+    private int minimumStock;
+    private long shortfall;
+    private LocalDateTime belowSince; // null if the product was already below its minimum at startup
+}
@@ -0,0 +1,19 @@
+package com.example.warehouse.payload.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LowStockStatsResponse {
+    private boolean running;
+    private int trackedProducts;
+    private int breaches;
+    private long crossings; // since startup
+    private long recoveries;
+    private int pendingNotifications;
+    private long notificationBatches;
+    private long notifiedEvents;
+    private long reconciliations;
+    private long corrections; // products whose total a reconciliation corrected
+}
@@ -1,12 +1,16 @@
 package com.example.warehouse.payload.response;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@Jacksonized // Replayed idempotent responses are read back from their stored JSON
+@AllArgsConstructor // Used by the JPQL constructor expression in ProductInventoryRepository
 public class ProductInventoryResponse {
     private Long id;
     private String productName;
@@ -14,5 +18,7 @@ public class ProductInventoryResponse {
     private String warehouseName;
     private String zoneName;
     private Integer quantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
     private LocalDateTime updatedAt;
 }
@@ -1,5 +1,6 @@
 package com.example.warehouse.payload.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -19,4 +20,7 @@ public class ProductResponse {
     private Boolean isActive;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // On hand across all locations; only filled in by the read endpoints
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalOnHand;
 }
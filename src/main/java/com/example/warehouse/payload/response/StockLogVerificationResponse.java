@@ -0,0 +1,25 @@
+package com.example.warehouse.payload.response;
+
+import com.example.warehouse.enums.StockLogIssueEnum;
+import com.example.warehouse.model.StockLogIssue;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class StockLogVerificationResponse {
+    private LocalDateTime startedAt;
+    private long elapsedMillis;
+    private int rangesChecked;
+    private long inventoriesChecked;
+    private long logsChecked;
+    private long logsPerSecond;
+    private long issuesFound;
+    private Map<StockLogIssueEnum, Long> issuesByType;
+    // The first issues found, by inventory row, up to the configured limit
+    private List<StockLogIssue> issues;
+}
@@ -0,0 +1,26 @@
+package com.example.warehouse.payload.response;
+
+import com.example.warehouse.enums.ReferenceActionEnum;
+import com.example.warehouse.enums.ReservationStatusEnum;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class StockReservationResponse {
+    private Long id;
+    private Long inventoryId;
+    private String productSku;
+    private String warehouseName;
+    private String zoneName;
+    private Integer quantity;
+    private ReservationStatusEnum status;
+    private ReferenceActionEnum referenceType;
+    private String referenceId;
+    private String note;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,33 @@
+package com.example.warehouse.payload.response;
+
+import com.example.warehouse.enums.StockTakeStatusEnum;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockTakeResponse {
+    private Long id;
+    private String warehouseName;
+    private String zoneName;
+    private StockTakeStatusEnum status;
+    private boolean countMissingAsZero;
+    private String note;
+    private String createdBy;
+    private int countedLines;
+    private int unknownLines;
+    private int varianceLines;
+    private int appliedLines;
+    private int rejectedLines;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    // Only included right after an upload: the first lines that could not be matched to a location
+    private List<String> unknownLineSamples;
+    private Long elapsedMillis;
+}
@@ -0,0 +1,20 @@
+package com.example.warehouse.payload.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockTakeVarianceResponse {
+    private Long id;
+    private String productSku;
+    private String productName;
+    private String zoneCode;
+    private Integer systemQuantity;
+    private Integer countedQuantity;
+    private Integer variance;
+    private boolean applied;
+    private String error;
+}
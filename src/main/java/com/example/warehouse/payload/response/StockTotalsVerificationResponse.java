@@ -0,0 +1,20 @@
+package com.example.warehouse.payload.response;
+
+import com.example.warehouse.model.StockTotalDrift;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class StockTotalsVerificationResponse {
+    private LocalDateTime startedAt;
+    private long elapsedMillis;
+    private int rangesChecked;
+    private int driftedTotals;
+    private boolean repaired;
+    // The first drifted totals found, up to the configured limit
+    private List<StockTotalDrift> drifts;
+}
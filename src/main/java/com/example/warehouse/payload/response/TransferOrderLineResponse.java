@@ -0,0 +1,18 @@
+package com.example.warehouse.payload.response;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+@Data
+@Builder
+@Jacksonized
+public class TransferOrderLineResponse {
+    private Long id;
+    private Integer productId;
+    private String productName;
+    private String productSku;
+    private String sourceZoneName;
+    private String destinationZoneName;
+    private Integer quantity;
+}
@@ -0,0 +1,27 @@
+package com.example.warehouse.payload.response;
+
+import com.example.warehouse.enums.TransferOrderStatusEnum;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@Jacksonized
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransferOrderResponse {
+    private Long id;
+    private String sourceWarehouseName;
+    private String destinationWarehouseName;
+    private TransferOrderStatusEnum status;
+    private String note;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    // Only included when a single order is returned
+    private List<TransferOrderLineResponse> lines;
+}
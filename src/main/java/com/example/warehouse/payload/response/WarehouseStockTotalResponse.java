@@ -0,0 +1,17 @@
+package com.example.warehouse.payload.response;
+
+import com.example.warehouse.model.StockTotalRow;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class WarehouseStockTotalResponse {
+    private Integer warehouseId;
+    private String warehouseCode;
+    private String warehouseName;
+    private long totalOnHand;
+    private List<StockTotalRow> zones;
+}
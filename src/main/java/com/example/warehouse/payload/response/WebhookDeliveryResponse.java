@@ -0,0 +1,23 @@
+package com.example.warehouse.payload.response;
+
+import com.example.warehouse.enums.OutboxEventTypeEnum;
+import com.example.warehouse.enums.WebhookDeliveryStatusEnum;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class WebhookDeliveryResponse {
+    private Long id;
+    private Long eventId;
+    private OutboxEventTypeEnum eventType;
+    private String orderingKey;
+    private WebhookDeliveryStatusEnum status;
+    private Integer attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime deliveredAt;
+}
@@ -0,0 +1,14 @@
+package com.example.warehouse.payload.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class WebhookDispatcherStatsResponse {
+    private boolean running;
+    private int inFlightBatches;
+    private long batchesSent;
+    private long eventsDelivered;
+    private long failedBatches; // batches that will be retried, or whose deliveries ran out of attempts
+}
@@ -0,0 +1,28 @@
+package com.example.warehouse.payload.response;
+
+import com.example.warehouse.enums.OutboxEventTypeEnum;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WebhookEndpointResponse {
+    private Integer id;
+    private String name;
+    private String url;
+    private boolean signed;
+    private Set<OutboxEventTypeEnum> eventTypes;
+    private Integer batchSize;
+    private Integer maxConcurrency;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    // Only included when a single endpoint is retrieved
+    private Long pendingDeliveries;
+    private Long failedDeliveries;
+}
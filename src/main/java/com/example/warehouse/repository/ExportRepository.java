@@ -0,0 +1,112 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.model.InventoryExportRow;
+import com.example.warehouse.model.StockLogExportRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only JDBC reads for the export endpoints.
+ * <p>
+ * Rows are handed to the consumer one at a time as the driver reads them, never collected. With MySQL
+ * Connector/J the default fetch size of Integer.MIN_VALUE streams the result set row by row; a positive
+ * value together with useCursorFetch=true on the JDBC URL fetches it in chunks of that size instead.
+ */
+@Repository
+public class ExportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public ExportRepository(JdbcTemplate jdbcTemplate, @Value("${app.export.fetch-size:-2147483648}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    public void streamInventory(Integer warehouseId, Integer zoneId, Consumer<InventoryExportRow> consumer) {
+        stream("""
+                        SELECT i.id, p.sku, p.name, w.code AS warehouse_code, z.code AS zone_code,
+                               i.quantity, i.reserved_quantity, i.updated_at
+                        FROM product_inventories i
+                        JOIN products p ON p.id = i.product_id
+                        JOIN warehouses w ON w.id = i.warehouse_id
+                        JOIN warehouse_zones z ON z.id = i.zone_id
+                        WHERE (? IS NULL OR i.warehouse_id = ?) AND (? IS NULL OR i.zone_id = ?)
+                        ORDER BY i.id
+                        """,
+                rs -> consumer.accept(new InventoryExportRow(
+                        rs.getLong("id"),
+                        rs.getString("sku"),
+                        rs.getString("name"),
+                        rs.getString("warehouse_code"),
+                        rs.getString("zone_code"),
+                        rs.getInt("quantity"),
+                        rs.getInt("reserved_quantity"),
+                        toLocalDateTime(rs.getTimestamp("updated_at")))),
+                warehouseId, warehouseId, zoneId, zoneId);
+    }
+
+    /**
+     * Streams the stock logs created in [from, to) in (created_at, id) order, which is the order of both
+     * indexes that can serve the range: idx_stock_logs_warehouse_created with a warehouse filter and
+     * idx_stock_logs_created without one. The rows come straight off the index, with no sort.
+     */
+    public void streamStockLogs(LocalDateTime from, LocalDateTime to, Integer warehouseId, Integer zoneId,
+                                StockLogEnum type, Consumer<StockLogExportRow> consumer) {
+        String typeName = type != null ? type.name() : null;
+        stream("""
+                        SELECT l.id, l.created_at, l.type, p.sku, w.code AS warehouse_code, z.code AS zone_code,
+                               l.quantity_before, l.quantity_change, l.quantity_after,
+                               l.reference_type, l.reference_id, u.username, l.note
+                        FROM stock_logs l
+                        JOIN products p ON p.id = l.product_id
+                        JOIN warehouses w ON w.id = l.warehouse_id
+                        JOIN warehouse_zones z ON z.id = l.zone_id
+                        LEFT JOIN users u ON u.id = l.actor_id
+                        WHERE l.created_at >= ? AND l.created_at < ?
+                          AND (? IS NULL OR l.warehouse_id = ?)
+                          AND (? IS NULL OR l.zone_id = ?)
+                          AND (? IS NULL OR l.type = ?)
+                        ORDER BY l.created_at, l.id
+                        """,
+                rs -> consumer.accept(new StockLogExportRow(
+                        rs.getLong("id"),
+                        toLocalDateTime(rs.getTimestamp("created_at")),
+                        rs.getString("type"),
+                        rs.getString("sku"),
+                        rs.getString("warehouse_code"),
+                        rs.getString("zone_code"),
+                        rs.getInt("quantity_before"),
+                        rs.getInt("quantity_change"),
+                        rs.getInt("quantity_after"),
+                        rs.getString("reference_type"),
+                        rs.getString("reference_id"),
+                        rs.getString("username"),
+                        rs.getString("note"))),
+                Timestamp.valueOf(from), Timestamp.valueOf(to), warehouseId, warehouseId, zoneId, zoneId, typeName, typeName);
+    }
+
+    private void stream(String sql, RowCallbackHandler handler, Object... args) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, handler);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
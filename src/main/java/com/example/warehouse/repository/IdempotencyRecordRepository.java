@@ -0,0 +1,73 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    /**
+     * Takes over an expired key, whether it holds an old response or a claim abandoned by a crashed request.
+     *
+     * @return 1 if this caller now holds the claim, 0 if another request took it first
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE IdempotencyRecord r
+            SET r.requestHash = :requestHash, r.claimToken = :claimToken, r.responseStatus = NULL, r.responseBody = NULL,
+                r.expiresAt = :leaseUntil
+            WHERE r.recordKey = :recordKey AND r.expiresAt < :now
+            """)
+    int takeOver(@Param("recordKey") String recordKey,
+                 @Param("requestHash") String requestHash,
+                 @Param("claimToken") String claimToken,
+                 @Param("leaseUntil") LocalDateTime leaseUntil,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Renews the lease of a claim still held by the given token. The row lock it takes lasts until the
+     * transaction ends, so a takeover waits until the response is stored or the claim released.
+     *
+     * @return 1 if the claim is still held by the token, 0 if another request took it over
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE IdempotencyRecord r
+            SET r.expiresAt = :leaseUntil
+            WHERE r.recordKey = :recordKey AND r.claimToken = :claimToken AND r.responseStatus IS NULL
+            """)
+    int renewClaim(@Param("recordKey") String recordKey,
+                   @Param("claimToken") String claimToken,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE IdempotencyRecord r
+            SET r.responseStatus = :status, r.responseBody = :body, r.expiresAt = :expiresAt
+            WHERE r.recordKey = :recordKey AND r.claimToken = :claimToken
+            """)
+    int complete(@Param("recordKey") String recordKey,
+                 @Param("claimToken") String claimToken,
+                 @Param("status") int status,
+                 @Param("body") String body,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Drops a claim whose request failed, so the client can retry with the same key.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM IdempotencyRecord r
+            WHERE r.recordKey = :recordKey AND r.claimToken = :claimToken AND r.responseStatus IS NULL
+            """)
+    int releaseClaim(@Param("recordKey") String recordKey, @Param("claimToken") String claimToken);
+
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
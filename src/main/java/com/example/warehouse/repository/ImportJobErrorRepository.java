@@ -0,0 +1,12 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.ImportJobError;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, Long> {
+    Page<ImportJobError> findByImportJobId(Long importJobId, Pageable pageable);
+}
@@ -0,0 +1,72 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.ImportJob;
+import com.example.warehouse.enums.ImportJobStatusEnum;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    @EntityGraph(attributePaths = {"actor"})
+    Optional<ImportJob> findWithActorById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"actor"})
+    Page<ImportJob> findAll(Pageable pageable);
+
+    /**
+     * Records a committed chunk. Runs in the chunk's own transaction, so the counters never get ahead
+     * of (or fall behind) the rows actually written. Also flushes and clears the persistence context.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ImportJob j
+            SET j.processedRows = :processedRows,
+                j.importedRows = j.importedRows + :imported,
+                j.rejectedRows = j.rejectedRows + :rejected,
+                j.updatedAt = :now
+            WHERE j.id = :id
+            """)
+    int advance(@Param("id") Long id,
+                @Param("processedRows") long processedRows,
+                @Param("imported") long imported,
+                @Param("rejected") long rejected,
+                @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ImportJob j
+            SET j.status = :status, j.error = :error, j.updatedAt = :now, j.completedAt = :now
+            WHERE j.id = :id
+            """)
+    int finish(@Param("id") Long id,
+               @Param("status") ImportJobStatusEnum status,
+               @Param("error") String error,
+               @Param("now") LocalDateTime now);
+
+    /**
+     * Claims a job for resuming: a failed job, or a running one that stopped advancing before
+     * staleBefore (its process died mid-import). Only one concurrent caller gets the claim.
+     *
+     * @return 1 if this caller may resume the job, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ImportJob j
+            SET j.status = com.example.warehouse.enums.ImportJobStatusEnum.RUNNING,
+                j.error = NULL, j.completedAt = NULL, j.updatedAt = :now
+            WHERE j.id = :id
+              AND (j.status = com.example.warehouse.enums.ImportJobStatusEnum.FAILED
+                   OR (j.status = com.example.warehouse.enums.ImportJobStatusEnum.RUNNING AND j.updatedAt < :staleBefore))
+            """)
+    int claimForResume(@Param("id") Long id, @Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+}
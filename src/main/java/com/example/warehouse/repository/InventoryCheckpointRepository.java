@@ -0,0 +1,17 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.InventoryCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface InventoryCheckpointRepository extends JpaRepository<InventoryCheckpoint, Long> {
+    Optional<InventoryCheckpoint> findFirstByOrderBySequenceDesc();
+
+    Optional<InventoryCheckpoint> findFirstByTakenAtLessThanEqualOrderByTakenAtDesc(LocalDateTime takenAt);
+
+    Optional<InventoryCheckpoint> findFirstByTakenAtGreaterThanOrderByTakenAtAsc(LocalDateTime takenAt);
+}
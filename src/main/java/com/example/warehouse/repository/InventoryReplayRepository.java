@@ -0,0 +1,142 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.model.InventoryAsOfRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Set-wise SQL for checkpoints and point-in-time inventory.
+ * <p>
+ * A quantity at a point in time is the quantity in a checkpoint plus (or, going back from a later checkpoint,
+ * minus) the quantity changes of the stock logs between the checkpoint and that point. Both sides are summed
+ * per inventory row in one UNION ALL ... GROUP BY, reading the checkpoint rows by primary key and the logs
+ * through idx_stock_logs_created.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryReplayRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Counts the stock logs created in (after, until]; from the beginning when after is null.
+     */
+    public long countLogs(LocalDateTime after, LocalDateTime until) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM stock_logs WHERE " + timeRange(after, until, args);
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Writes the rows of a new checkpoint: the previous checkpoint's quantities plus the stock logs created in
+     * (previousTakenAt, takenAt]. Rows that come to zero are left out.
+     *
+     * @param previousCheckpointId The checkpoint to build on, or null to sum all logs up to takenAt
+     * @return The number of rows written
+     */
+    public int insertCheckpointRows(Long checkpointId, Long previousCheckpointId, LocalDateTime previousTakenAt, LocalDateTime takenAt) {
+        List<Object> args = new ArrayList<>();
+        args.add(checkpointId);
+        args.add(previousCheckpointId);
+        String logRange = timeRange(previousTakenAt, takenAt, args);
+        return jdbcTemplate.update("""
+                INSERT INTO inventory_checkpoint_rows (checkpoint_id, inventory_id, product_id, warehouse_id, zone_id, quantity)
+                SELECT ?, inventory_id, product_id, warehouse_id, zone_id, SUM(quantity)
+                FROM (
+                    SELECT inventory_id, product_id, warehouse_id, zone_id, quantity
+                    FROM inventory_checkpoint_rows WHERE checkpoint_id = ?
+                    UNION ALL
+                    SELECT inventory_id, product_id, warehouse_id, zone_id, quantity_change
+                    FROM stock_logs WHERE """ + logRange + """
+                ) d
+                GROUP BY inventory_id, product_id, warehouse_id, zone_id
+                HAVING SUM(quantity) <> 0
+                """, args.toArray());
+    }
+
+    /**
+     * Replays stock logs onto a checkpoint for the rows matching the filters. Each null filter matches everything.
+     *
+     * @param checkpointId The checkpoint to start from, or null to start from an empty inventory
+     * @param after        Logs created after this instant are replayed; from the beginning when null
+     * @param until        Logs created at or before this instant are replayed
+     * @param sign         1 to add the logs' changes (replaying forward), -1 to subtract them (replaying back)
+     * @param replayedLogs Receives the number of logs replayed
+     * @return Every matching row whose quantity is not zero, by warehouse, zone and SKU
+     */
+    public List<InventoryAsOfRow> findQuantities(Long checkpointId, LocalDateTime after, LocalDateTime until, int sign,
+                                                 Integer productId, Integer warehouseId, Integer zoneId,
+                                                 Consumer<Long> replayedLogs) {
+        List<Object> args = new ArrayList<>();
+        args.add(checkpointId);
+        addFilterArgs(args, productId, warehouseId, zoneId);
+        args.add(sign);
+        String logRange = timeRange(after, until, args);
+        addFilterArgs(args, productId, warehouseId, zoneId);
+
+        String filters = """
+                (? IS NULL OR product_id = ?) AND (? IS NULL OR warehouse_id = ?) AND (? IS NULL OR zone_id = ?)
+                """;
+        long[] logs = {0};
+        List<InventoryAsOfRow> rows = new ArrayList<>();
+        jdbcTemplate.query("""
+                        SELECT a.inventory_id, a.product_id, p.sku, a.warehouse_id, w.code AS warehouse_code,
+                               a.zone_id, z.code AS zone_code, a.quantity, a.logs
+                        FROM (
+                            SELECT inventory_id, product_id, warehouse_id, zone_id, SUM(quantity) AS quantity, SUM(is_log) AS logs
+                            FROM (
+                                SELECT inventory_id, product_id, warehouse_id, zone_id, quantity, 0 AS is_log
+                                FROM inventory_checkpoint_rows
+                                WHERE checkpoint_id = ? AND """ + filters + """
+                                UNION ALL
+                                SELECT inventory_id, product_id, warehouse_id, zone_id, ? * quantity_change, 1
+                                FROM stock_logs
+                                WHERE """ + logRange + " AND " + filters + """
+                            ) d
+                            GROUP BY inventory_id, product_id, warehouse_id, zone_id
+                        ) a
+                        JOIN products p ON p.id = a.product_id
+                        JOIN warehouses w ON w.id = a.warehouse_id
+                        JOIN warehouse_zones z ON z.id = a.zone_id
+                        ORDER BY w.code, z.code, p.sku
+                        """,
+                rs -> {
+                    logs[0] += rs.getLong("logs");
+                    int quantity = rs.getInt("quantity");
+                    if (quantity != 0) {
+                        rows.add(new InventoryAsOfRow(rs.getLong("inventory_id"), rs.getInt("product_id"), rs.getString("sku"),
+                                rs.getInt("warehouse_id"), rs.getString("warehouse_code"), rs.getInt("zone_id"),
+                                rs.getString("zone_code"), quantity));
+                    }
+                },
+                args.toArray());
+        replayedLogs.accept(logs[0]);
+        return rows;
+    }
+
+    private static String timeRange(LocalDateTime after, LocalDateTime until, List<Object> args) {
+        args.add(Timestamp.valueOf(until));
+        if (after == null) {
+            return "created_at <= ?";
+        }
+        args.add(Timestamp.valueOf(after));
+        return "created_at <= ? AND created_at > ?";
+    }
+
+    private static void addFilterArgs(List<Object> args, Integer productId, Integer warehouseId, Integer zoneId) {
+        args.add(productId);
+        args.add(productId);
+        args.add(warehouseId);
+        args.add(warehouseId);
+        args.add(zoneId);
+        args.add(zoneId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.JournalShipment;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JournalShipmentRepository extends JpaRepository<JournalShipment, String> {
+
+    // Taken at the start of every shipped batch, so two shippers of the same site cannot apply a batch twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM JournalShipment s WHERE s.siteId = :siteId")
+    Optional<JournalShipment> findForUpdate(@Param("siteId") String siteId);
+}
@@ -0,0 +1,130 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.model.InventoryKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * Plain JDBC for opening-balance imports.
+ * <p>
+ * Inventory rows use IDENTITY keys, which Hibernate cannot batch-insert, so a chunk of them goes out as
+ * one JDBC batch (a multi-row INSERT with rewriteBatchedStatements) and the generated keys are read back
+ * in insert order. The reference data used for validation is loaded as bare ID sets.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OpeningBalanceImportRepository {
+
+    // Keeps the tuple IN lists well below MySQL's limit of 65535 placeholders per statement
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Set<Integer> findProductIds() {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM products", Integer.class));
+    }
+
+    /**
+     * @return Zone ID to the ID of the warehouse it belongs to, for every zone
+     */
+    public Map<Integer, Integer> findZoneWarehouseIds() {
+        Map<Integer, Integer> zoneWarehouseIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, warehouse_id FROM warehouse_zones",
+                rs -> {
+                    zoneWarehouseIds.put(rs.getInt("id"), rs.getInt("warehouse_id"));
+                });
+        return zoneWarehouseIds;
+    }
+
+    public Set<Integer> findWarehouseIds() {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM warehouses", Integer.class));
+    }
+
+    /**
+     * @return The given locations that already hold an inventory row
+     */
+    public Set<InventoryKey> findExistingLocations(List<InventoryKey> keys) {
+        Set<InventoryKey> existing = new HashSet<>();
+        for (int from = 0; from < keys.size(); from += LOOKUP_BATCH_SIZE) {
+            List<InventoryKey> batch = keys.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, keys.size()));
+            Object[] args = new Object[batch.size() * 3];
+            for (int i = 0; i < batch.size(); i++) {
+                args[i * 3] = batch.get(i).productId();
+                args[i * 3 + 1] = batch.get(i).warehouseId();
+                args[i * 3 + 2] = batch.get(i).zoneId();
+            }
+            String tuples = String.join(", ", Collections.nCopies(batch.size(), "(?, ?, ?)"));
+            jdbcTemplate.query(
+                    "SELECT product_id, warehouse_id, zone_id FROM product_inventories"
+                            + " WHERE (product_id, warehouse_id, zone_id) IN (" + tuples + ")",
+                    rs -> {
+                        existing.add(new InventoryKey(rs.getInt("product_id"), rs.getInt("warehouse_id"), rs.getInt("zone_id")));
+                    },
+                    args);
+        }
+        return existing;
+    }
+
+    /**
+     * Inserts one inventory row per location in a single JDBC batch.
+     *
+     * @return The generated IDs, in the order of the given locations
+     */
+    public List<Long> insertInventories(List<InventoryKey> keys, List<Integer> quantities) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement("""
+                        INSERT INTO product_inventories
+                            (product_id, warehouse_id, zone_id, quantity, reserved_quantity, created_at, updated_at)
+                        VALUES (?, ?, ?, ?, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                        """, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int index) throws SQLException {
+                        InventoryKey key = keys.get(index);
+                        statement.setInt(1, key.productId());
+                        statement.setInt(2, key.warehouseId());
+                        statement.setInt(3, key.zoneId());
+                        statement.setInt(4, quantities.get(index));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return keys.size();
+                    }
+                },
+                keyHolder);
+        return keyHolder.getKeyList().stream()
+                .map(generated -> ((Number) generated.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    /**
+     * Records rejected rows of a job in one JDBC batch.
+     */
+    public void insertErrors(Long importJobId, List<Long> documentRows, List<String> messages) {
+        jdbcTemplate.batchUpdate("INSERT INTO import_job_errors (import_job_id, document_row, message) VALUES (?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int index) throws SQLException {
+                        statement.setLong(1, importJobId);
+                        statement.setLong(2, documentRows.get(index));
+                        statement.setString(3, messages.get(index));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return documentRows.size();
+                    }
+                });
+    }
+}
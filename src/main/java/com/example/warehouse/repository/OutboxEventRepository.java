@@ -0,0 +1,41 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    @Query("SELECT o.id AS id, o.createdAt AS createdAt FROM OutboxEvent o WHERE o.dispatchedAt IS NULL ORDER BY o.id")
+    List<UndispatchedEvent> findUndispatched(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.dispatchedAt = :now WHERE o.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes dispatched events that no longer have a delivery, i.e. every delivery was purged.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM outbox_events
+            WHERE dispatched_at < :before
+              AND NOT EXISTS (SELECT 1 FROM webhook_deliveries d WHERE d.outbox_event_id = outbox_events.id)
+            LIMIT :limit
+            """, nativeQuery = true)
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    interface UndispatchedEvent {
+        Long getId();
+
+        LocalDateTime getCreatedAt();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plain JDBC for the outbox.
+ * <p>
+ * Events use IDENTITY keys, which Hibernate cannot batch-insert, so the events of a transaction go out as
+ * one JDBC batch. The fan-out creates the delivery rows of many events with a single INSERT ... SELECT.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the events in one JDBC batch, joining the caller's transaction.
+     */
+    public void insertEvents(List<OutboxEvent> events) {
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_events (event_type, ordering_key, payload, created_at) VALUES (?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int index) throws SQLException {
+                        OutboxEvent event = events.get(index);
+                        statement.setString(1, event.getEventType().name());
+                        statement.setString(2, event.getOrderingKey());
+                        statement.setString(3, event.getPayload());
+                        statement.setTimestamp(4, Timestamp.valueOf(event.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return events.size();
+                    }
+                });
+    }
+
+    /**
+     * Creates a pending delivery of each event for every active endpoint subscribed to its type.
+     * Deliveries that already exist are left alone, so repeating a fan-out is harmless.
+     *
+     * @return The number of deliveries created
+     */
+    public int insertDeliveries(List<Long> eventIds, LocalDateTime now) {
+        String placeholders = String.join(", ", Collections.nCopies(eventIds.size(), "?"));
+        List<Object> args = new ArrayList<>(eventIds.size() + 2);
+        Timestamp timestamp = Timestamp.valueOf(now);
+        args.add(timestamp);
+        args.add(timestamp);
+        args.addAll(eventIds);
+        return jdbcTemplate.update("""
+                INSERT IGNORE INTO webhook_deliveries (endpoint_id, outbox_event_id, status, attempts, next_attempt_at, created_at)
+                SELECT e.id, o.id, 'PENDING', 0, ?, ?
+                FROM outbox_events o
+                JOIN webhook_endpoints e
+                  ON e.is_active = 1 AND (e.event_types IS NULL OR FIND_IN_SET(o.event_type, e.event_types) > 0)
+                WHERE o.id IN (""" + placeholders + ")",
+                args.toArray());
+    }
+}
@@ -1,12 +1,140 @@
 package com.example.warehouse.repository;
 
 import com.example.warehouse.entity.ProductInventory;
+import com.example.warehouse.payload.response.ProductInventoryResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductInventoryRepository extends JpaRepository<ProductInventory, Long> {
+    @EntityGraph(attributePaths = {"product", "warehouse", "zone"})
     Optional<ProductInventory> findByProductIdAndWarehouseIdAndZoneId(Integer productId, Integer warehouseId, Integer zoneId);
+
+    // Superset lookup for batches; callers filter the result down to the exact keys they need
+    List<ProductInventory> findByProductIdInAndWarehouseIdInAndZoneIdIn(
+            Collection<Integer> productIds, Collection<Integer> warehouseIds, Collection<Integer> zoneIds);
+
+    @EntityGraph(attributePaths = {"product", "warehouse", "zone"})
+    List<ProductInventory> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Lists inventory as response rows straight from one joined select (plus the count query),
+     * instead of loading entities and lazily resolving product, warehouse and zone per row.
+     * Null filters match everything.
+     */
+    @Query(value = """
+            SELECT new com.example.warehouse.payload.response.ProductInventoryResponse(
+                i.id, p.name, p.sku, w.name, z.name, i.quantity, i.reservedQuantity,
+                i.quantity - i.reservedQuantity, i.updatedAt)
+            FROM ProductInventory i
+            JOIN i.product p
+            JOIN i.warehouse w
+            JOIN i.zone z
+            WHERE (:productId IS NULL OR p.id = :productId)
+              AND (:sku IS NULL OR p.sku = :sku)
+              AND (:warehouseId IS NULL OR w.id = :warehouseId)
+              AND (:zoneId IS NULL OR z.id = :zoneId)
+              AND (:minQuantity IS NULL OR i.quantity >= :minQuantity)
+              AND (:maxQuantity IS NULL OR i.quantity <= :maxQuantity)
+            """,
+            countQuery = """
+            SELECT COUNT(i)
+            FROM ProductInventory i
+            JOIN i.product p
+            WHERE (:productId IS NULL OR p.id = :productId)
+              AND (:sku IS NULL OR p.sku = :sku)
+              AND (:warehouseId IS NULL OR i.warehouse.id = :warehouseId)
+              AND (:zoneId IS NULL OR i.zone.id = :zoneId)
+              AND (:minQuantity IS NULL OR i.quantity >= :minQuantity)
+              AND (:maxQuantity IS NULL OR i.quantity <= :maxQuantity)
+            """)
+    Page<ProductInventoryResponse> findInventoryResponses(@Param("productId") Integer productId,
+                                                          @Param("sku") String sku,
+                                                          @Param("warehouseId") Integer warehouseId,
+                                                          @Param("zoneId") Integer zoneId,
+                                                          @Param("minQuantity") Integer minQuantity,
+                                                          @Param("maxQuantity") Integer maxQuantity,
+                                                          Pageable pageable);
+
+    /**
+     * Applies a quantity delta to a single product location in one conditional statement.
+     * The row is only written if the resulting quantity still covers the reserved quantity, so concurrent
+     * callers can never lose updates, drive stock below zero or take stock held by reservations.
+     *
+     * @return the number of rows written (1 on success, 0 if the row is missing or available stock is insufficient)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ProductInventory i
+            SET i.quantity = i.quantity + :delta, i.updatedAt = CURRENT_TIMESTAMP
+            WHERE i.product.id = :productId AND i.warehouse.id = :warehouseId AND i.zone.id = :zoneId
+              AND i.quantity + :delta >= i.reservedQuantity
+            """)
+    int applyQuantityDelta(@Param("productId") Integer productId,
+                           @Param("warehouseId") Integer warehouseId,
+                           @Param("zoneId") Integer zoneId,
+                           @Param("delta") int delta);
+
+    /**
+     * Same as {@link #applyQuantityDelta(Integer, Integer, Integer, int)}, for callers that already know the row ID.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ProductInventory i
+            SET i.quantity = i.quantity + :delta, i.updatedAt = CURRENT_TIMESTAMP
+            WHERE i.id = :id AND i.quantity + :delta >= i.reservedQuantity
+            """)
+    int applyQuantityDeltaById(@Param("id") Long id, @Param("delta") int delta);
+
+    /*
+     * Reservation counters. Each is a single conditional UPDATE by primary key: no read-modify-write,
+     * no explicit locks, and the row lock is held only for the statement's own transaction.
+     */
+
+    /**
+     * Holds stock for a reservation if enough of it is available (on hand minus already reserved).
+     *
+     * @return 1 if the stock was reserved, 0 if not enough is available
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ProductInventory i
+            SET i.reservedQuantity = i.reservedQuantity + :quantity, i.updatedAt = CURRENT_TIMESTAMP
+            WHERE i.id = :id AND i.quantity - i.reservedQuantity >= :quantity
+            """)
+    int reserveQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Gives held stock back to the available pool.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ProductInventory i
+            SET i.reservedQuantity = i.reservedQuantity - :quantity, i.updatedAt = CURRENT_TIMESTAMP
+            WHERE i.id = :id AND i.reservedQuantity >= :quantity
+            """)
+    int releaseReservedQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Issues held stock: on-hand and reserved quantity both drop by the reserved amount.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ProductInventory i
+            SET i.quantity = i.quantity - :quantity,
+                i.reservedQuantity = i.reservedQuantity - :quantity,
+                i.updatedAt = CURRENT_TIMESTAMP
+            WHERE i.id = :id AND i.reservedQuantity >= :quantity AND i.quantity >= :quantity
+            """)
+    int consumeReservedQuantity(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -0,0 +1,92 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.model.StockLogChainRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only JDBC reads for verifying the stock log history of inventory rows.
+ * <p>
+ * The logs of a range of inventory rows come off idx_stock_logs_inventory_chain, which holds every column read,
+ * already in (inventory_id, created_at, id) order: the scan neither sorts nor visits the table rows. As in
+ * ExportRepository, a fetch size of Integer.MIN_VALUE makes Connector/J stream the rows one at a time.
+ */
+@Repository
+public class StockLogChainRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public StockLogChainRepository(JdbcTemplate jdbcTemplate, @Value("${app.stock-log-verify.fetch-size:-2147483648}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Returns the lowest and highest inventory ID found in either the inventory or the stock logs, or null if both are empty.
+     */
+    public long[] findInventoryIdRange() {
+        return jdbcTemplate.query("""
+                        SELECT MIN(id), MAX(id) FROM (
+                            SELECT MIN(id) AS id FROM product_inventories
+                            UNION ALL SELECT MAX(id) FROM product_inventories
+                            UNION ALL SELECT MIN(inventory_id) FROM stock_logs
+                            UNION ALL SELECT MAX(inventory_id) FROM stock_logs
+                        ) r
+                        """,
+                rs -> {
+                    rs.next();
+                    long min = rs.getLong(1);
+                    return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+                });
+    }
+
+    /**
+     * Retrieves the quantity of every inventory row with an ID in [fromId, toId].
+     */
+    public Map<Long, Integer> findQuantities(long fromId, long toId) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT id, quantity FROM product_inventories WHERE id BETWEEN ? AND ?",
+                rs -> {
+                    quantities.put(rs.getLong(1), rs.getInt(2));
+                },
+                fromId, toId);
+        return quantities;
+    }
+
+    /**
+     * Streams the stock logs of the inventory rows with an ID in [fromId, toId], by inventory row and then in
+     * the order they were written.
+     */
+    public void streamLogs(long fromId, long toId, Consumer<StockLogChainRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                            SELECT inventory_id, id, created_at, quantity_before, quantity_change, quantity_after
+                            FROM stock_logs
+                            WHERE inventory_id BETWEEN ? AND ?
+                            ORDER BY inventory_id, created_at, id
+                            """,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, fromId);
+            statement.setLong(2, toId);
+            return statement;
+        }, rs -> {
+            consumer.accept(new StockLogChainRow(
+                    rs.getLong(1),
+                    rs.getLong(2),
+                    rs.getObject(3, LocalDateTime.class),
+                    rs.getInt(4),
+                    rs.getInt(5),
+                    rs.getInt(6)));
+        });
+    }
+}
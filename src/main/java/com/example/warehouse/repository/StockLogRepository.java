@@ -3,10 +3,84 @@ package com.example.warehouse.repository;
 import com.example.warehouse.entity.StockLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface StockLogRepository extends JpaRepository<StockLog, Long> {
     Page<StockLog> findByInventoryId(Long inventoryId, Pageable pageable);
+
+    /*
+     * Keyset pagination over the (owner, created_at, id) indexes on stock_logs.
+     * Each query reads stock_logs alone and seeks straight to its starting row, so every page costs the
+     * same however deep it is; returning a Slice skips the count query. Products and actors referenced by
+     * a page are loaded in batches, warehouses and zones come from the second-level cache.
+     * Pass an unsorted Pageable; the order is fixed here.
+     */
+
+    @Query("""
+            SELECT l FROM StockLog l
+            WHERE l.inventory.id = :inventoryId
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    Slice<StockLog> findHistoryFirstPage(@Param("inventoryId") Long inventoryId, Pageable pageable);
+
+    @Query("""
+            SELECT l FROM StockLog l
+            WHERE l.inventory.id = :inventoryId
+              AND (l.createdAt < :createdAt OR (l.createdAt = :createdAt AND l.id < :id))
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    Slice<StockLog> findHistoryPageAfter(@Param("inventoryId") Long inventoryId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    @Query("""
+            SELECT l FROM StockLog l
+            WHERE l.product.id = :productId
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    Slice<StockLog> findProductHistoryFirstPage(@Param("productId") Integer productId, Pageable pageable);
+
+    @Query("""
+            SELECT l FROM StockLog l
+            WHERE l.product.id = :productId
+              AND (l.createdAt < :createdAt OR (l.createdAt = :createdAt AND l.id < :id))
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    Slice<StockLog> findProductHistoryPageAfter(@Param("productId") Integer productId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query("""
+            SELECT l FROM StockLog l
+            WHERE l.warehouse.id = :warehouseId
+              AND l.createdAt >= :from AND l.createdAt < :to
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    Slice<StockLog> findWarehouseHistoryFirstPage(@Param("warehouseId") Integer warehouseId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to,
+                                                  Pageable pageable);
+
+    // The cursor already lies before the range's end, so only the start bound is needed
+    @Query("""
+            SELECT l FROM StockLog l
+            WHERE l.warehouse.id = :warehouseId
+              AND l.createdAt >= :from
+              AND (l.createdAt < :createdAt OR (l.createdAt = :createdAt AND l.id < :id))
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    Slice<StockLog> findWarehouseHistoryPageAfter(@Param("warehouseId") Integer warehouseId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id,
+                                                  Pageable pageable);
 }
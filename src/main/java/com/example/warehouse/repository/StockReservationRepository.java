@@ -0,0 +1,59 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.StockReservation;
+import com.example.warehouse.enums.ReservationStatusEnum;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    @EntityGraph(attributePaths = {"inventory.product", "inventory.warehouse", "inventory.zone"})
+    Optional<StockReservation> findWithInventoryById(Long id);
+
+    @Query("""
+            SELECT r FROM StockReservation r
+            WHERE r.status = com.example.warehouse.enums.ReservationStatusEnum.ACTIVE AND r.expiresAt <= :now
+            ORDER BY r.expiresAt
+            """)
+    List<StockReservation> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Moves an active, unexpired reservation to a final state. Exactly one caller can win this transition,
+     * so a reservation is never confirmed, released or expired twice.
+     *
+     * @return 1 if the transition happened, 0 if the reservation is missing, no longer active or expired
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE StockReservation r
+            SET r.status = :status, r.updatedAt = CURRENT_TIMESTAMP
+            WHERE r.id = :id
+              AND r.status = com.example.warehouse.enums.ReservationStatusEnum.ACTIVE
+              AND r.expiresAt > :now
+            """)
+    int closeActive(@Param("id") Long id, @Param("status") ReservationStatusEnum status, @Param("now") LocalDateTime now);
+
+    /**
+     * Marks an overdue reservation as expired, unless it was closed concurrently.
+     *
+     * @return 1 if this caller expired it, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+            UPDATE StockReservation r
+            SET r.status = com.example.warehouse.enums.ReservationStatusEnum.EXPIRED, r.updatedAt = CURRENT_TIMESTAMP
+            WHERE r.id = :id
+              AND r.status = com.example.warehouse.enums.ReservationStatusEnum.ACTIVE
+              AND r.expiresAt <= :now
+            """)
+    int expire(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
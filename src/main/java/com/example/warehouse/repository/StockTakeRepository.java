@@ -0,0 +1,20 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.StockTake;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StockTakeRepository extends JpaRepository<StockTake, Long> {
+    @EntityGraph(attributePaths = {"warehouse", "zone", "actor"})
+    Optional<StockTake> findWithLocationById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"warehouse", "zone", "actor"})
+    Page<StockTake> findAll(Pageable pageable);
+}
@@ -0,0 +1,131 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.model.StockCountRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Set-wise SQL over the `stock_take_lines` staging table.
+ * <p>
+ * Count documents are too large to push through the persistence context line by line, so their lines
+ * are batch-inserted with plain JDBC, and resolving SKUs and zone codes and diffing against
+ * `product_inventories` each happen in a single statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockTakeStagingRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stages a batch of count lines; sent as one multi-row INSERT with rewriteBatchedStatements.
+     *
+     * @param firstRowNumber The row number of the first line, for error reporting
+     */
+    public void insertLines(Long stockTakeId, int firstRowNumber, List<StockCountRow> rows) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO stock_take_lines (stock_take_id, document_row, sku, zone_code, counted_quantity) VALUES (?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int index) throws SQLException {
+                        StockCountRow row = rows.get(index);
+                        statement.setLong(1, stockTakeId);
+                        statement.setInt(2, firstRowNumber + index);
+                        statement.setString(3, row.sku());
+                        statement.setString(4, row.zoneCode());
+                        statement.setInt(5, row.quantity());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                });
+    }
+
+    /**
+     * Resolves SKUs and zone codes of all staged lines at once. Lines naming an unknown product, or a
+     * zone outside the counted warehouse (or zone), are left unresolved.
+     *
+     * @param zoneId The counted zone, or null for a whole-warehouse count
+     * @return The number of resolved lines
+     */
+    public int resolveLocations(Long stockTakeId, Integer warehouseId, Integer zoneId) {
+        return jdbcTemplate.update("""
+                UPDATE stock_take_lines s
+                JOIN products p ON p.sku = s.sku
+                JOIN warehouse_zones z ON z.code = s.zone_code
+                SET s.product_id = p.id, s.zone_id = z.id
+                WHERE s.stock_take_id = ? AND z.warehouse_id = ? AND (? IS NULL OR z.id = ?)
+                """, stockTakeId, warehouseId, zoneId, zoneId);
+    }
+
+    public List<String> findUnresolved(Long stockTakeId, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT document_row, sku, zone_code FROM stock_take_lines
+                        WHERE stock_take_id = ? AND product_id IS NULL
+                        ORDER BY document_row
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> String.format("Row %d: SKU '%s' in zone '%s' is unknown or outside the counted location",
+                        rs.getInt("document_row"), rs.getString("sku"), rs.getString("zone_code")),
+                stockTakeId, limit);
+    }
+
+    /**
+     * Diffs the staged counts against the current inventory in one INSERT ... SELECT.
+     * Repeated lines for a location are summed. With countMissingAsZero, locations in scope that hold
+     * stock but are missing from the document are counted as zero.
+     *
+     * @return The number of variances found
+     */
+    public int insertVariances(Long stockTakeId, Integer warehouseId, Integer zoneId, boolean countMissingAsZero) {
+        String counted = """
+                INSERT INTO stock_take_variances
+                    (stock_take_id, product_id, zone_id, system_quantity, counted_quantity, variance, applied)
+                SELECT ?, c.product_id, c.zone_id, COALESCE(i.quantity, 0), c.counted, c.counted - COALESCE(i.quantity, 0), FALSE
+                FROM (
+                    SELECT product_id, zone_id, SUM(counted_quantity) AS counted
+                    FROM stock_take_lines
+                    WHERE stock_take_id = ? AND product_id IS NOT NULL
+                    GROUP BY product_id, zone_id
+                ) c
+                LEFT JOIN product_inventories i
+                    ON i.product_id = c.product_id AND i.warehouse_id = ? AND i.zone_id = c.zone_id
+                WHERE c.counted <> COALESCE(i.quantity, 0)
+                """;
+        if (!countMissingAsZero) {
+            return jdbcTemplate.update(counted, stockTakeId, stockTakeId, warehouseId);
+        }
+        return jdbcTemplate.update(counted + """
+                UNION ALL
+                SELECT ?, i.product_id, i.zone_id, i.quantity, 0, -i.quantity, FALSE
+                FROM product_inventories i
+                WHERE i.warehouse_id = ? AND (? IS NULL OR i.zone_id = ?) AND i.quantity <> 0
+                  AND NOT EXISTS (
+                      SELECT 1 FROM stock_take_lines s
+                      WHERE s.stock_take_id = ? AND s.product_id = i.product_id AND s.zone_id = i.zone_id)
+                """, stockTakeId, stockTakeId, warehouseId, stockTakeId, warehouseId, zoneId, zoneId, stockTakeId);
+    }
+
+    /**
+     * Records whether each variance of a batch was applied, in one JDBC batch.
+     */
+    public void recordOutcomes(List<Long> varianceIds, List<String> errors) {
+        jdbcTemplate.batchUpdate("UPDATE stock_take_variances SET applied = ?, error = ? WHERE id = ?",
+                IntStream.range(0, varianceIds.size())
+                        .mapToObj(index -> new Object[]{errors.get(index) == null, errors.get(index), varianceIds.get(index)})
+                        .toList());
+    }
+
+    public int deleteLines(Long stockTakeId) {
+        return jdbcTemplate.update("DELETE FROM stock_take_lines WHERE stock_take_id = ?", stockTakeId);
+    }
+}
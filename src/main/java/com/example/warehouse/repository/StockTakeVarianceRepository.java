@@ -0,0 +1,28 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.StockTakeVariance;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockTakeVarianceRepository extends JpaRepository<StockTakeVariance, Long> {
+    @EntityGraph(attributePaths = {"product", "zone"})
+    Page<StockTakeVariance> findByStockTakeId(Long stockTakeId, Pageable pageable);
+
+    /**
+     * Reads the next batch of variances to apply, in ID order.
+     */
+    @Query("""
+            SELECT v FROM StockTakeVariance v
+            WHERE v.stockTakeId = :stockTakeId AND v.id > :afterId
+            ORDER BY v.id
+            """)
+    List<StockTakeVariance> findBatchAfter(@Param("stockTakeId") Long stockTakeId, @Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,175 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.enums.StockTotalScopeEnum;
+import com.example.warehouse.model.ProductStockLevel;
+import com.example.warehouse.model.StockTotalRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC for the stock total tables.
+ * <p>
+ * Changes are added to one slot of each total with a single multi-row INSERT ... ON DUPLICATE KEY UPDATE per
+ * table, in ascending ID order, so concurrent writers of the same slot lock its rows in the same sequence.
+ * Reads sum the slots of each total.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockTotalsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds quantity changes to the given slot of the totals, creating the slot rows that don't exist yet.
+     * Joins the caller's transaction.
+     */
+    public void addChanges(StockTotalScopeEnum scope, int slot, SortedMap<Integer, Long> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(changes.size() * 3);
+        changes.forEach((id, change) -> {
+            args.add(id);
+            args.add(slot);
+            args.add(change);
+        });
+        jdbcTemplate.update("INSERT INTO " + table(scope) + " (" + idColumn(scope) + ", slot, quantity) VALUES "
+                        + String.join(", ", Collections.nCopies(changes.size(), "(?, ?, ?)"))
+                        + " ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity)",
+                args.toArray());
+    }
+
+    /**
+     * Sums the slots of the given totals. IDs without a total are left out.
+     */
+    public Map<Integer, Long> findTotals(StockTotalScopeEnum scope, Collection<Integer> ids) {
+        Map<Integer, Long> totals = new HashMap<>();
+        if (ids.isEmpty()) {
+            return totals;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.query("SELECT " + idColumn(scope) + ", SUM(quantity) FROM " + table(scope)
+                        + " WHERE " + idColumn(scope) + " IN (" + placeholders + ") GROUP BY " + idColumn(scope),
+                rs -> {
+                    totals.put(rs.getInt(1), rs.getLong(2));
+                },
+                ids.toArray());
+        return totals;
+    }
+
+    /**
+     * Lists the total of every warehouse, by name. Warehouses that never held stock have no total.
+     */
+    public List<StockTotalRow> findWarehouseTotals() {
+        return jdbcTemplate.query("""
+                        SELECT w.id, w.code, w.name, SUM(t.quantity)
+                        FROM warehouse_stock_totals t
+                        JOIN warehouses w ON w.id = t.warehouse_id
+                        GROUP BY w.id, w.code, w.name
+                        ORDER BY w.name
+                        """,
+                (rs, rowNum) -> new StockTotalRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getLong(4)));
+    }
+
+    /**
+     * Lists the total of every zone of a warehouse, by name.
+     */
+    public List<StockTotalRow> findZoneTotals(Integer warehouseId) {
+        return jdbcTemplate.query("""
+                        SELECT z.id, z.code, z.name, SUM(t.quantity)
+                        FROM zone_stock_totals t
+                        JOIN warehouse_zones z ON z.id = t.zone_id
+                        WHERE z.warehouse_id = ?
+                        GROUP BY z.id, z.code, z.name
+                        ORDER BY z.name
+                        """,
+                (rs, rowNum) -> new StockTotalRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getLong(4)),
+                warehouseId);
+    }
+
+    /**
+     * Opens the snapshot of the current REPEATABLE READ transaction now, rather than at its next read.
+     */
+    public void openSnapshot() {
+        jdbcTemplate.query("SELECT 1 FROM product_stock_totals LIMIT 1", rs -> {
+        });
+    }
+
+    /**
+     * Streams the minimum stock and on-hand total of every product, including products without stock.
+     */
+    public void forEachProductLevel(Consumer<ProductStockLevel> consumer) {
+        jdbcTemplate.query("""
+                        SELECT p.id, p.sku, p.minimum_stock, COALESCE(SUM(t.quantity), 0)
+                        FROM products p
+                        LEFT JOIN product_stock_totals t ON t.product_id = p.id
+                        GROUP BY p.id, p.sku, p.minimum_stock
+                        """,
+                rs -> {
+                    consumer.accept(new ProductStockLevel(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getLong(4)));
+                });
+    }
+
+    /**
+     * Returns the lowest and highest ID found in either the inventory or the totals, or null if both are empty.
+     */
+    public int[] findIdRange(StockTotalScopeEnum scope) {
+        return jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM ("
+                        + "SELECT MIN(" + idColumn(scope) + ") AS id FROM product_inventories"
+                        + " UNION ALL SELECT MAX(" + idColumn(scope) + ") FROM product_inventories"
+                        + " UNION ALL SELECT MIN(" + idColumn(scope) + ") FROM " + table(scope)
+                        + " UNION ALL SELECT MAX(" + idColumn(scope) + ") FROM " + table(scope) + ") r",
+                rs -> {
+                    rs.next();
+                    int min = rs.getInt(1);
+                    return rs.wasNull() ? null : new int[]{min, rs.getInt(2)};
+                });
+    }
+
+    /**
+     * Compares the totals with the sums of product_inventories for the IDs in [fromId, toId], in one statement,
+     * so both sides are read from the same snapshot.
+     *
+     * @return {recorded, expected} per ID whose total is not what the inventory adds up to
+     */
+    public Map<Integer, long[]> findDrift(StockTotalScopeEnum scope, int fromId, int toId) {
+        Map<Integer, long[]> drift = new HashMap<>();
+        String id = idColumn(scope);
+        jdbcTemplate.query("SELECT id, SUM(recorded), SUM(expected) FROM ("
+                        + "SELECT " + id + " AS id, quantity AS recorded, 0 AS expected FROM " + table(scope)
+                        + " WHERE " + id + " BETWEEN ? AND ?"
+                        + " UNION ALL SELECT " + id + ", 0, quantity FROM product_inventories WHERE " + id + " BETWEEN ? AND ?"
+                        + ") d GROUP BY id HAVING SUM(recorded) <> SUM(expected)",
+                rs -> {
+                    drift.put(rs.getInt(1), new long[]{rs.getLong(2), rs.getLong(3)});
+                },
+                fromId, toId, fromId, toId);
+        return drift;
+    }
+
+    private static String table(StockTotalScopeEnum scope) {
+        return switch (scope) {
+            case PRODUCT -> "product_stock_totals";
+            case WAREHOUSE -> "warehouse_stock_totals";
+            case ZONE -> "zone_stock_totals";
+        };
+    }
+
+    private static String idColumn(StockTotalScopeEnum scope) {
+        return switch (scope) {
+            case PRODUCT -> "product_id";
+            case WAREHOUSE -> "warehouse_id";
+            case ZONE -> "zone_id";
+        };
+    }
+}
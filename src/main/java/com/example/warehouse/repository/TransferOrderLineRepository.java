@@ -0,0 +1,22 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.TransferOrderLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TransferOrderLineRepository extends JpaRepository<TransferOrderLine, Long> {
+    @Query("""
+            SELECT l FROM TransferOrderLine l
+            JOIN FETCH l.product
+            JOIN FETCH l.sourceZone
+            JOIN FETCH l.destinationZone
+            WHERE l.transferOrder.id = :transferOrderId
+            ORDER BY l.id
+            """)
+    List<TransferOrderLine> findWithLocationsByTransferOrderId(@Param("transferOrderId") Long transferOrderId);
+}
@@ -0,0 +1,43 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.TransferOrder;
+import com.example.warehouse.enums.TransferOrderStatusEnum;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface TransferOrderRepository extends JpaRepository<TransferOrder, Long> {
+    @EntityGraph(attributePaths = {"sourceWarehouse", "destinationWarehouse", "actor"})
+    Optional<TransferOrder> findWithWarehousesById(Long id);
+
+    @EntityGraph(attributePaths = {"sourceWarehouse", "destinationWarehouse", "actor"})
+    Page<TransferOrder> findByStatus(TransferOrderStatusEnum status, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"sourceWarehouse", "destinationWarehouse", "actor"})
+    Page<TransferOrder> findAll(Pageable pageable);
+
+    /**
+     * Moves an in-transit order to a final state. The row lock taken here makes concurrent receive and
+     * cancel calls for the same order queue up, and only the first of them sees the order in transit.
+     *
+     * @return 1 if the transition happened, 0 if the order is missing or no longer in transit
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE TransferOrder o
+            SET o.status = :status, o.completedAt = :now, o.updatedAt = CURRENT_TIMESTAMP
+            WHERE o.id = :id
+              AND o.status = com.example.warehouse.enums.TransferOrderStatusEnum.IN_TRANSIT
+            """)
+    int closeInTransit(@Param("id") Long id, @Param("status") TransferOrderStatusEnum status, @Param("now") LocalDateTime now);
+}
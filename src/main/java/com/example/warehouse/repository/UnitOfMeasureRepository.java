@@ -1,7 +1,10 @@
 package com.example.warehouse.repository;
 
 import com.example.warehouse.entity.UnitOfMeasure;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,8 +12,10 @@ import java.util.Optional;
 @Repository
 public interface UnitOfMeasureRepository extends JpaRepository<UnitOfMeasure, Integer> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UnitOfMeasure> findByName(String name);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UnitOfMeasure> findByAbbreviation(String abbreviation);
 
     boolean existsByName(String name);
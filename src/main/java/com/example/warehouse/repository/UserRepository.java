@@ -3,8 +3,11 @@ package com.example.warehouse.repository;
 import com.example.warehouse.entity.User;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +20,29 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     Boolean existsByEmail(String email);
 
     long countByRoles_Name(String roleAdmin);
+
+    // Every existing user; a token whose user is missing here belongs to a deleted account
+    @Query("SELECT u.id AS id, u.securityVersion AS securityVersion FROM User u")
+    List<SecurityVersionView> findSecurityVersions();
+
+    @Query("SELECT u.securityVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findSecurityVersionById(@Param("id") Integer id);
+
+    // Changes whenever a user is created, deleted or has their version bumped; cheap enough to poll every second
+    @Query("SELECT COUNT(u) AS users, COALESCE(MAX(u.id), 0) AS maxId, COALESCE(SUM(u.securityVersion), 0) AS versionSum FROM User u")
+    SecurityFingerprint findSecurityFingerprint();
+
+    interface SecurityVersionView {
+        Integer getId();
+
+        Integer getSecurityVersion();
+    }
+
+    interface SecurityFingerprint {
+        Long getUsers();
+
+        Integer getMaxId();
+
+        Long getVersionSum();
+    }
 }
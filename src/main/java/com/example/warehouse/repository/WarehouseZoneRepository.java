@@ -2,9 +2,12 @@ package com.example.warehouse.repository;
 
 import com.example.warehouse.entity.Warehouse;
 import com.example.warehouse.entity.WarehouseZone;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,6 +16,7 @@ import java.util.Optional;
 @Repository
 public interface WarehouseZoneRepository extends JpaRepository<WarehouseZone, Integer> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<WarehouseZone> findByWarehouseId(Integer warehouseId);
 
     Optional<WarehouseZone> findByWarehouseIdAndId(Integer warehouseId, Integer zoneId);
@@ -0,0 +1,81 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.WebhookDelivery;
+import com.example.warehouse.enums.WebhookDeliveryStatusEnum;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+    /**
+     * An endpoint's pending deliveries in event order, including those still waiting for a retry.
+     */
+    @Query("""
+            SELECT d FROM WebhookDelivery d JOIN FETCH d.outboxEvent o
+            WHERE d.endpointId = :endpointId
+              AND d.status = com.example.warehouse.enums.WebhookDeliveryStatusEnum.PENDING
+            ORDER BY o.id
+            """)
+    List<WebhookDelivery> findPending(@Param("endpointId") Integer endpointId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"outboxEvent"})
+    Page<WebhookDelivery> findByEndpointId(Integer endpointId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"outboxEvent"})
+    Page<WebhookDelivery> findByEndpointIdAndStatus(Integer endpointId, WebhookDeliveryStatusEnum status, Pageable pageable);
+
+    long countByEndpointIdAndStatus(Integer endpointId, WebhookDeliveryStatusEnum status);
+
+    @Modifying
+    @Query("""
+            UPDATE WebhookDelivery d
+            SET d.status = com.example.warehouse.enums.WebhookDeliveryStatusEnum.DELIVERED,
+                d.attempts = d.attempts + 1, d.lastError = NULL, d.deliveredAt = :now
+            WHERE d.id IN :ids
+            """)
+    int markDelivered(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Records a failed attempt; deliveries that have used up their attempts become FAILED.
+     * The status is assigned first because MySQL evaluates later assignments against already updated columns.
+     */
+    @Modifying
+    @Query("""
+            UPDATE WebhookDelivery d
+            SET d.status = CASE WHEN d.attempts + 1 >= :maxAttempts
+                                THEN com.example.warehouse.enums.WebhookDeliveryStatusEnum.FAILED
+                                ELSE com.example.warehouse.enums.WebhookDeliveryStatusEnum.PENDING END,
+                d.attempts = d.attempts + 1, d.lastError = :error, d.nextAttemptAt = :nextAttemptAt
+            WHERE d.id IN :ids
+            """)
+    int recordFailedAttempt(@Param("ids") Collection<Long> ids,
+                            @Param("error") String error,
+                            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                            @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Puts an endpoint's failed deliveries back in line with a fresh set of attempts.
+     */
+    @Modifying
+    @Query("""
+            UPDATE WebhookDelivery d
+            SET d.status = com.example.warehouse.enums.WebhookDeliveryStatusEnum.PENDING, d.attempts = 0, d.nextAttemptAt = :now
+            WHERE d.endpointId = :endpointId
+              AND d.status = com.example.warehouse.enums.WebhookDeliveryStatusEnum.FAILED
+            """)
+    int retryFailed(@Param("endpointId") Integer endpointId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM webhook_deliveries WHERE status = 'DELIVERED' AND delivered_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteDeliveredBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
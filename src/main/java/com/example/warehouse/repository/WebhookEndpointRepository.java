@@ -0,0 +1,17 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.WebhookEndpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WebhookEndpointRepository extends JpaRepository<WebhookEndpoint, Integer> {
+    List<WebhookEndpoint> findByIsActiveTrue();
+
+    Optional<WebhookEndpoint> findByName(String name);
+
+    boolean existsByName(String name);
+}
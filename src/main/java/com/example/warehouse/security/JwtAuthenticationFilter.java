@@ -1,6 +1,7 @@
 package com.example.warehouse.security;
 
 import com.example.warehouse.repository.UserRepository;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,6 +18,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -24,6 +26,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final SecurityVersionRegistry securityVersionRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -39,16 +43,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        final String username = jwtService.extractUsername(jwt);
+        final VerifiedToken token;
+        try {
+            token = jwtService.verify(jwt);
+        } catch (JwtException ex) {
+            // An invalid or expired token simply leaves the request unauthenticated
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String username = token.username();
 
         // If the token is valid, configure Spring Security to manually set authentication
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // The user lookup logic is now performed directly in the filter.
-            UserDetails userDetails = this.userRepository.findByUsername(username)
-                    .map(SecurityUser::new)
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+            UserDetails userDetails = resolvePrincipal(token, username);
+            if (userDetails == null) {
+                // Self-contained token revoked by a role, status or password change
+                filterChain.doFilter(request, response);
+                return;
+            }
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(token, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null, // Credentials are not needed as we are using JWT
@@ -63,6 +77,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(VerifiedToken token, String username) {
+        if (securityVersionRegistry.isEnabled()) {
+            Optional<JwtService.StatelessPrincipal> stateless = jwtService.toStatelessPrincipal(token);
+            if (stateless.isPresent()) {
+                JwtService.StatelessPrincipal principal = stateless.get();
+                Integer userId = principal.user().user().getId();
+                return securityVersionRegistry.isRevoked(userId, principal.securityVersion()) ? null : principal.user();
+            }
+            // Tokens issued before the authority claims existed fall through to the lookup below
+        }
+
+        // Steady-state traffic is served from the principal cache; only misses hit the database.
+        return principalCache.getOrLoad(username, name -> userRepository.findByUsername(name).map(SecurityUser::new))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         final String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
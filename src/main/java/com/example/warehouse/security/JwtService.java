@@ -1,70 +1,187 @@
 package com.example.warehouse.security;
 
+import com.example.warehouse.entity.Role;
+import com.example.warehouse.entity.User;
+import com.example.warehouse.payload.response.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class JwtService {
 
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_SECURITY_VERSION = "sv";
+
     @Value("${jwt.secret.key}")
     private String jwtSecret;
 
     @Value("${jwt.expiration.ms}")
     private long jwtExpiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    @Value("${app.security.token-cache.max-size:10000}")
+    private int tokenCacheMaxSize;
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
+    // Built once at startup; both are immutable and thread-safe
+    private SecretKey signInKey;
+    private JwtParser jwtParser;
+
+    // Recently verified tokens, keyed by the compact token itself and kept until the token expires.
+    // Looking a token up costs a string hash and compare, far less than re-checking the signature.
+    private Cache<String, VerifiedToken> verifiedTokens;
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser().verifyWith(signInKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfter(Expiry.creating((String token, VerifiedToken verified) ->
+                        Duration.between(Instant.now(), verified.expiresAt())))
+                .evictionListener((String token, VerifiedToken verified, RemovalCause cause) -> {
+                    if (cause == RemovalCause.EXPIRED) {
+                        expirations.increment();
+                    } else {
+                        evictions.increment();
+                    }
+                })
+                .recordStats()
+                .build();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Verifies the token's signature and expiry with a single parse.
+     * Tokens seen recently are answered from the cache without re-verifying the signature.
+     * A token without an {@code iat} claim is accepted with a null issue time; one without {@code exp} is rejected.
+     *
+     * @param token The compact JWT string.
+     * @return The verified token.
+     * @throws JwtException if the token is malformed, tampered with or expired.
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() == null) {
+            // Never issued by this service; a token without an expiry would be valid forever
+            throw new MalformedJwtException("Token has no expiration claim");
+        }
+        Date issuedAt = claims.getIssuedAt();
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                issuedAt != null ? issuedAt.toInstant() : null,
+                claims.getExpiration().toInstant(),
+                claims
+        );
+        verifiedTokens.put(token, verified);
+        return verified;
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String extractUsername(String token) {
+        return verify(token).username();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.username().equals(userDetails.getUsername()) && !token.isExpired();
     }
 
     public String generateToken(UserDetails userDetails) {
         log.info("Token expire in: {} ms", jwtExpiration);
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (userDetails instanceof SecurityUser securityUser) {
+            // Enough of the principal to authorize requests without loading the user (see JwtAuthenticationFilter)
+            User user = securityUser.user();
+            builder.claim(CLAIM_USER_ID, user.getId())
+                    .claim(CLAIM_ROLES, user.getRoles().stream().map(Role::getName).sorted().toList())
+                    .claim(CLAIM_SECURITY_VERSION, user.getSecurityVersion());
+        }
+        return builder
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Rebuilds the principal from the claims of a self-contained token.
+     * The User inside only carries what authorization needs; it is never persisted as an actor
+     * (see SecurityContextService#getCurrentActor).
+     *
+     * @param token A verified token.
+     * @return The principal, or empty if the token was issued without the authority claims.
+     */
+    public Optional<StatelessPrincipal> toStatelessPrincipal(VerifiedToken token) {
+        Claims claims = token.claims();
+        Integer userId = claims.get(CLAIM_USER_ID, Integer.class);
+        Integer securityVersion = claims.get(CLAIM_SECURITY_VERSION, Integer.class);
+        List<?> roleNames = claims.get(CLAIM_ROLES, List.class);
+        if (userId == null || securityVersion == null || roleNames == null) {
+            return Optional.empty();
+        }
+
+        Set<Role> roles = roleNames.stream()
+                .map(name -> Role.builder().name(String.valueOf(name)).build())
+                .collect(Collectors.toSet());
+        User user = User.builder()
+                .id(userId)
+                .username(token.username())
+                .isActive(true)
+                .securityVersion(securityVersion)
+                .roles(roles)
+                .build();
+        return Optional.of(new StatelessPrincipal(new SecurityUser(user), securityVersion));
+    }
+
+    public CacheStatsResponse getTokenCacheStats() {
+        CacheStats stats = verifiedTokens.stats();
+        return CacheStatsResponse.builder()
+                .name("verified-tokens")
+                .size((int) verifiedTokens.estimatedSize())
+                .maxSize(tokenCacheMaxSize)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .hitRatio(stats.hitRate())
+                .build();
+    }
+
+    /**
+     * A principal rebuilt from token claims, with the security version the token was issued under.
+     */
+    public record StatelessPrincipal(SecurityUser user, int securityVersion) {
     }
 }
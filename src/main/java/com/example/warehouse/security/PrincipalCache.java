@@ -0,0 +1,103 @@
+package com.example.warehouse.security;
+
+import com.example.warehouse.payload.response.CacheStatsResponse;
+import com.example.warehouse.utility.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caches authenticated principals by username so the JWT filter doesn't hit the database on every request.
+ * Entries live for a fixed TTL and are evicted explicitly whenever a user's roles, active flag or password change.
+ * <p>
+ * Every eviction bumps a generation counter before removing anything. A principal is only cached if no eviction
+ * happened while it was being loaded, so a load that read the old state just before a change committed can't
+ * put it back after the eviction ran.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final Cache<String, SecurityUser> cache;
+    private final int maxSize;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public PrincipalCache(
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+            @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .evictionListener((String username, SecurityUser user, RemovalCause cause) -> {
+                    if (cause == RemovalCause.EXPIRED) {
+                        expirations.increment();
+                    } else {
+                        evictions.increment();
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached principal, loading and caching it on a miss.
+     */
+    public Optional<SecurityUser> getOrLoad(String username, Function<String, Optional<SecurityUser>> loader) {
+        SecurityUser cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        Optional<SecurityUser> loaded = loader.apply(username);
+        // Atomic with respect to other writes of the key; an eviction bumps the generation before it removes
+        loaded.ifPresent(user -> cache.asMap().compute(username,
+                (key, current) -> generation.get() == loadedAt ? user : current));
+        return loaded;
+    }
+
+    /**
+     * Evicts a user once the current transaction commits, so a concurrent request
+     * can't re-cache the old state between the eviction and the commit.
+     */
+    public void evictAfterCommit(String username) {
+        TransactionUtil.runAfterCommit(() -> {
+            generation.incrementAndGet();
+            cache.invalidate(username);
+            log.debug("Evicted cached principal for user: {}", username);
+        });
+    }
+
+    public void evictAllAfterCommit() {
+        TransactionUtil.runAfterCommit(() -> {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        });
+    }
+
+    public CacheStatsResponse getStats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .name("principals")
+                .size((int) cache.estimatedSize())
+                .maxSize(maxSize)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .hitRatio(stats.hitRate())
+                .build();
+    }
+}
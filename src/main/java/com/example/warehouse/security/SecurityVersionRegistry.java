@@ -0,0 +1,138 @@
+package com.example.warehouse.security;
+
+import com.example.warehouse.entity.User;
+import com.example.warehouse.repository.UserRepository;
+import com.example.warehouse.utility.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the security version of every user, bumped whenever their roles, active flag or password change.
+ * <p>
+ * Self-contained tokens carry the version they were issued with; a token is revoked once the user's
+ * version moves past it, or once the user no longer exists. Bumps and deletions made on this node apply
+ * as soon as they commit. Other nodes poll a cheap fingerprint of the users table every refresh-ms and
+ * reload the versions only when it changes, so remote revocations lag by at most one poll. A user created
+ * since the last reload is looked up on first sight; one that isn't found is treated as deleted.
+ */
+@Component
+@Slf4j
+public class SecurityVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final long tokenLifetimeMs;
+    private final boolean enabled;
+
+    private volatile Map<Integer, Integer> versions = Map.of();
+    private volatile UserRepository.SecurityFingerprint fingerprint;
+
+    // Deleted or unknown users, remembered until their last token has expired so they aren't looked up again
+    private final Map<Integer, Long> revokedUntil = new ConcurrentHashMap<>();
+
+    public SecurityVersionRegistry(
+            UserRepository userRepository,
+            PrincipalCache principalCache,
+            @Value("${jwt.expiration.ms}") long tokenLifetimeMs,
+            @Value("${app.security.stateless-tokens.enabled:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Increments the user's security version (persisted with the surrounding transaction) and,
+     * once it commits, revokes the user's existing tokens and cached principal on this node.
+     */
+    public void bump(User user) {
+        int newVersion = user.getSecurityVersion() + 1;
+        user.setSecurityVersion(newVersion);
+        Integer userId = user.getId();
+        TransactionUtil.runAfterCommit(() -> recordVersion(userId, newVersion));
+        principalCache.evictAfterCommit(user.getUsername());
+    }
+
+    /**
+     * Revokes every token of a user that is being deleted. Other nodes see the user missing on their next poll.
+     */
+    public void revokeDeleted(User user) {
+        Integer userId = user.getId();
+        TransactionUtil.runAfterCommit(() -> revoke(userId));
+        principalCache.evictAfterCommit(user.getUsername());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isRevoked(Integer userId, int tokenVersion) {
+        if (revokedUntil.containsKey(userId)) {
+            return true;
+        }
+        Integer current = versions.get(userId);
+        if (current == null) {
+            // Created after the last reload, or deleted; one lookup settles which
+            Optional<Integer> found = userRepository.findSecurityVersionById(userId);
+            if (found.isEmpty()) {
+                revoke(userId);
+                return true;
+            }
+            current = found.get();
+            recordVersion(userId, current);
+        }
+        return tokenVersion < current;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.stateless-tokens.refresh-ms:1000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        revokedUntil.values().removeIf(deadline -> deadline < now);
+
+        UserRepository.SecurityFingerprint latest = userRepository.findSecurityFingerprint();
+        if (fingerprint != null && sameFingerprint(fingerprint, latest)) {
+            return;
+        }
+        reload(userRepository.findSecurityVersions());
+        fingerprint = latest;
+        log.debug("Reloaded security versions for {} users", versions.size());
+    }
+
+    private void revoke(Integer userId) {
+        revokedUntil.put(userId, System.currentTimeMillis() + tokenLifetimeMs);
+    }
+
+    // Versions only grow, so a local bump that committed after the reload's read must survive it
+    private synchronized void reload(List<UserRepository.SecurityVersionView> rows) {
+        Map<Integer, Integer> current = versions;
+        Map<Integer, Integer> updated = new HashMap<>(rows.size() * 2);
+        for (UserRepository.SecurityVersionView row : rows) {
+            updated.put(row.getId(), Math.max(row.getSecurityVersion(), current.getOrDefault(row.getId(), 0)));
+        }
+        versions = Map.copyOf(updated);
+    }
+
+    // Copy-on-write keeps isRevoked lock-free; bumps are rare compared to token checks
+    private synchronized void recordVersion(Integer userId, int version) {
+        Map<Integer, Integer> updated = new HashMap<>(versions);
+        updated.merge(userId, version, Math::max);
+        versions = Map.copyOf(updated);
+    }
+
+    private static boolean sameFingerprint(UserRepository.SecurityFingerprint a, UserRepository.SecurityFingerprint b) {
+        return a.getUsers().equals(b.getUsers())
+                && a.getMaxId().equals(b.getMaxId())
+                && a.getVersionSum().equals(b.getVersionSum());
+    }
+}
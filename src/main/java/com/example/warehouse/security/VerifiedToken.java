@@ -0,0 +1,16 @@
+package com.example.warehouse.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * The result of verifying a JWT once: its signature has been checked and it was not expired at verification time.
+ * The claims are the immutable payload produced by the parser; {@code issuedAt} is null if the token has no {@code iat}.
+ */
+public record VerifiedToken(String username, Instant issuedAt, Instant expiresAt, Claims claims) {
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
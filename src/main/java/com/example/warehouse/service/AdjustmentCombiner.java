@@ -0,0 +1,255 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.User;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.mapper.ProductInventoryMapper;
+import com.example.warehouse.model.InventoryKey;
+import com.example.warehouse.model.MovementResult;
+import com.example.warehouse.payload.request.AdjustInventoryRequest;
+import com.example.warehouse.payload.response.AdjustmentCombinerStatsResponse;
+import com.example.warehouse.payload.response.ProductInventoryResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Combines concurrent single adjustments of the same product location into one transaction.
+ * <p>
+ * Without it, every adjustment of a hot location waits for the row lock and commits on its own. Here, only one
+ * batch per location is in its transaction at a time; requests arriving meanwhile join the next batch, whose
+ * leader (the request that opened it) runs it once the previous batch has committed. A batch is applied by
+ * {@link ProductInventoryService#adjustInventoryCombined} as one quantity update plus one StockLog per request,
+ * and each request gets its own before/after quantities or its own rejection. An uncontended request forms a
+ * batch of one and runs at once, unless max-wait-ms asks the leader to linger for more requests.
+ * <p>
+ * Only requests made outside a transaction are combined, and a batch commits before its requests get their
+ * results. A request inside a transaction (e.g. one storing its Idempotency-Key response) is adjusted directly in
+ * that transaction: waiting in a batch it would hold its connection idle, and its adjustment must commit or roll
+ * back together with its other writes.
+ */
+@Component
+public class AdjustmentCombiner {
+
+    private record Pending(AdjustInventoryRequest request, User actor, CompletableFuture<ProductInventoryResponse> result) {
+    }
+
+    private static final class KeyState {
+        private final ReentrantLock executing = new ReentrantLock();
+        private List<Pending> open; // the batch still accepting requests; guarded by this
+        private int users; // requests currently using this state; changed in ConcurrentHashMap.compute only
+    }
+
+    private final ProductInventoryService inventoryService;
+    private final SecurityContextService securityContextService;
+    private final ProductInventoryMapper inventoryMapper;
+    private final TransactionTemplate batchTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitMs;
+
+    private final Map<InventoryKey, KeyState> keys = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+
+    public AdjustmentCombiner(
+            ProductInventoryService inventoryService,
+            SecurityContextService securityContextService,
+            ProductInventoryMapper inventoryMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.adjust-combiner.enabled:true}") boolean enabled,
+            @Value("${app.adjust-combiner.max-batch-size:100}") int maxBatchSize,
+            @Value("${app.adjust-combiner.max-wait-ms:0}") long maxWaitMs) {
+        this.inventoryService = inventoryService;
+        this.securityContextService = securityContextService;
+        this.inventoryMapper = inventoryMapper;
+        this.batchTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * Adjusts the quantity of a product in a specific location, possibly together with concurrent adjustments
+     * of the same location. Returns once the adjustment has committed, or, inside a transaction, once it has been
+     * applied in that transaction.
+     *
+     * @throws ResourceConflictException if the adjustment would make the stock negative or release reserved stock.
+     */
+    public ProductInventoryResponse adjust(AdjustInventoryRequest request) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return inventoryService.adjustInventory(request);
+        }
+        // Fail on a bad reference type here, so one bad request can't reject the rest of its batch
+        ProductInventoryService.toReferenceType(request.getReferenceType());
+        requests.increment();
+
+        InventoryKey key = new InventoryKey(request.getProductId(), request.getWarehouseId(), request.getZoneId());
+        Pending pending = new Pending(request, securityContextService.getCurrentActor(), new CompletableFuture<>());
+        KeyState state = keys.compute(key, (k, current) -> {
+            KeyState used = current != null ? current : new KeyState();
+            used.users++;
+            return used;
+        });
+        try {
+            List<Pending> batch = join(state, pending);
+            if (batch != null) {
+                lead(key, state, batch);
+            }
+        } finally {
+            keys.computeIfPresent(key, (k, current) -> --current.users == 0 ? null : current);
+        }
+        return await(pending.result());
+    }
+
+    public AdjustmentCombinerStatsResponse getStats() {
+        long batchCount = batches.sum();
+        long requestCount = requests.sum();
+        return AdjustmentCombinerStatsResponse.builder()
+                .enabled(enabled)
+                .activeKeys(keys.size())
+                .requests(requestCount)
+                .batches(batchCount)
+                .rejected(rejected.sum())
+                .averageBatchSize(batchCount == 0 ? 0 : (double) requestCount / batchCount)
+                .largestBatch(largestBatch.get())
+                .build();
+    }
+
+    /**
+     * Adds the request to the open batch of its location, or opens a new one if there is none or it is full.
+     *
+     * @return The new batch if this request opened it and must lead it, otherwise null.
+     */
+    private List<Pending> join(KeyState state, Pending pending) {
+        synchronized (state) {
+            if (state.open != null && state.open.size() < maxBatchSize) {
+                state.open.add(pending);
+                if (state.open.size() == maxBatchSize) {
+                    state.notifyAll();
+                }
+                return null;
+            }
+            state.open = new ArrayList<>();
+            state.open.add(pending);
+            return state.open;
+        }
+    }
+
+    private void lead(InventoryKey key, KeyState state, List<Pending> batch) {
+        state.executing.lock(); // requests keep joining the batch while the previous one of this location commits
+        try {
+            List<Pending> closed;
+            synchronized (state) {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                long remaining;
+                while (batch.size() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(state, remaining);
+                }
+                if (state.open == batch) {
+                    state.open = null;
+                }
+                closed = List.copyOf(batch);
+            }
+            execute(key, closed);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            IllegalStateException error = new IllegalStateException("Interrupted while waiting to adjust inventory");
+            synchronized (state) {
+                if (state.open == batch) {
+                    state.open = null;
+                }
+                batch.forEach(pending -> pending.result().completeExceptionally(error));
+            }
+        } finally {
+            state.executing.unlock();
+        }
+    }
+
+    private void execute(InventoryKey key, List<Pending> batch) {
+        batches.increment();
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+        if (batch.size() == 1) {
+            // A batch of one is led by its own request, on its own thread, so it takes the regular path
+            Pending single = batch.get(0);
+            try {
+                single.result().complete(inventoryService.adjustInventory(single.request()));
+            } catch (ResourceConflictException ex) {
+                rejected.increment();
+                single.result().completeExceptionally(ex);
+            } catch (RuntimeException ex) {
+                single.result().completeExceptionally(ex);
+            }
+            return;
+        }
+        try {
+            // Results are handed out only after the commit; until then a failure must reach every request
+            List<Runnable> completions = batchTemplate.execute(status -> {
+                List<MovementResult> results = inventoryService.adjustInventoryCombined(
+                        key,
+                        batch.stream().map(Pending::request).toList(),
+                        batch.stream().map(Pending::actor).toList());
+
+                List<Runnable> outcomes = new ArrayList<>(results.size());
+                for (MovementResult result : results) {
+                    CompletableFuture<ProductInventoryResponse> future = batch.get(result.index()).result();
+                    if (!result.applied()) {
+                        ResourceConflictException rejection = new ResourceConflictException(result.error());
+                        outcomes.add(() -> {
+                            rejected.increment();
+                            future.completeExceptionally(rejection);
+                        });
+                        continue;
+                    }
+                    // The row holds the batch's final quantity; each caller sees the quantity its own adjustment left
+                    ProductInventoryResponse response = inventoryMapper.toResponse(result.inventory());
+                    response.setQuantity(result.quantityAfter());
+                    response.setAvailableQuantity(result.quantityAfter() - response.getReservedQuantity());
+                    outcomes.add(() -> future.complete(response));
+                }
+                return outcomes;
+            });
+            completions.forEach(Runnable::run);
+        } catch (RuntimeException ex) {
+            batch.forEach(pending -> pending.result().completeExceptionally(ex));
+        }
+    }
+
+    /**
+     * Returns the number of requests waiting in the open batch of the location.
+     */
+    int queued(InventoryKey key) {
+        KeyState state = keys.get(key);
+        if (state == null) {
+            return 0;
+        }
+        synchronized (state) {
+            return state.open == null ? 0 : state.open.size();
+        }
+    }
+
+    private static ProductInventoryResponse await(CompletableFuture<ProductInventoryResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
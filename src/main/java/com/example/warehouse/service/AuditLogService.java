@@ -5,11 +5,14 @@ import com.example.warehouse.entity.User;
 import com.example.warehouse.enums.AuditActionEnum;
 import com.example.warehouse.exception.ResourceNotFoundException;
 import com.example.warehouse.mapper.AuditLogMapper;
+import com.example.warehouse.model.AuditEvent;
 import com.example.warehouse.payload.response.AuditLogResponse;
 import com.example.warehouse.repository.AuditLogRepository;
 import com.example.warehouse.repository.UserRepository;
+import com.example.warehouse.utility.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,10 +26,25 @@ public class AuditLogService {
     private final AuditLogRepository auditLogRepository;
     private final AuditLogMapper auditLogMapper;
     private final UserRepository userRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final OutboxService outboxService;
+
+    @Value("${app.audit.async.enabled:true}")
+    private boolean asyncEnabled;
+
+    @Value("${app.audit.async.after-commit:true}")
+    private boolean afterCommit;
 
     /**
      * Creates and saves an audit log entry. This is the primary method for logging actions.
      * It's designed to be called from other services (e.g., UserService, ProductService).
+     * <p>
+     * In async mode the entry is handed to the {@link AuditLogWriter} instead of being inserted in the
+     * caller's transaction. With after-commit enabled, it is only queued once the caller's transaction
+     * commits, so no audit entry is ever written for a change that was rolled back. Queued entries are held in
+     * memory, though, and lost if the process dies before the writer drains them.
+     * <p>
+     * Either way an AUDIT_LOGGED outbox event is written in the caller's transaction.
      *
      * @param actor         The user who performed the action. Can be null for system actions.
      * @param action        The type of action performed (e.g., CREATE_USER).
@@ -36,6 +54,18 @@ public class AuditLogService {
      */
     @Transactional
     public void logAction(User actor, AuditActionEnum action, String tableAffected, String objectId, String note) {
+        AuditEvent event = new AuditEvent(actor != null ? actor.getId() : null, action, tableAffected, objectId, note);
+        outboxService.recordAuditEvent(event);
+
+        if (asyncEnabled) {
+            if (afterCommit) {
+                TransactionUtil.runAfterCommit(() -> auditLogWriter.enqueue(event));
+            } else {
+                auditLogWriter.enqueue(event);
+            }
+            return;
+        }
+
         AuditLog auditLog = AuditLog.builder()
                 .actor(actor)
                 .action(action)
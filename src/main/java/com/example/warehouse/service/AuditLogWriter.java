@@ -0,0 +1,206 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.AuditLog;
+import com.example.warehouse.model.AuditEvent;
+import com.example.warehouse.payload.response.AuditWriterStatsResponse;
+import com.example.warehouse.repository.AuditLogRepository;
+import com.example.warehouse.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background writer for audit events.
+ * <p>
+ * Callers enqueue events into a bounded in-memory queue; a single drain thread takes them off in
+ * batches and writes each batch with one saveAll call in its own transaction. When the queue stays
+ * full for longer than the offer timeout, the caller writes its own event (backpressure instead of
+ * dropping). Pending events are flushed when the application shuts down.
+ * <p>
+ * The queue lives in memory only: events still queued when the process crashes or is killed are lost.
+ * Where every audit row must survive that, set app.audit.async.enabled=false to insert in the caller's
+ * transaction; the AUDIT_LOGGED outbox event is written there either way.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter implements SmartLifecycle {
+
+    private final AuditLogRepository auditLogRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+
+    private volatile boolean running;
+    private Thread drainThread;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder writtenByCaller = new LongAdder();
+    private final LongAdder drains = new LongAdder();
+    private final LongAdder totalDrainNanos = new LongAdder();
+    private final AtomicLong maxDrainNanos = new AtomicLong();
+    private volatile long lastDrainNanos;
+
+    public AuditLogWriter(
+            AuditLogRepository auditLogRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.audit.async.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.audit.async.batch-size:200}") int batchSize,
+            @Value("${app.audit.async.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.auditLogRepository = auditLogRepository;
+        this.userRepository = userRepository;
+        // Always a new transaction: caller-runs writes happen from afterCommit callbacks of the caller's transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    /**
+     * Queues an event for the background writer. If the writer isn't running, or the queue is still
+     * full after the offer timeout, the event is written synchronously on the calling thread.
+     */
+    public void enqueue(AuditEvent event) {
+        enqueued.increment();
+        if (running) {
+            try {
+                if (queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writtenByCaller.increment();
+        writeBatch(List.of(event));
+    }
+
+    /**
+     * Writes events synchronously in one transaction, bypassing the queue.
+     */
+    public void writeBatch(List<AuditEvent> events) {
+        long startedAt = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    auditLogRepository.saveAll(events.stream().map(this::toEntity).toList()));
+            written.add(events.size());
+        } catch (RuntimeException ex) {
+            if (events.size() == 1) {
+                failed.increment();
+                log.error("Failed to write audit log {}: {}", events.get(0), ex.getMessage());
+            } else {
+                // Isolate the offending event(s) so one bad row doesn't lose the whole batch
+                log.warn("Audit batch of {} failed, retrying events individually: {}", events.size(), ex.getMessage());
+                events.forEach(event -> writeBatch(List.of(event)));
+            }
+        }
+        recordDrain(System.nanoTime() - startedAt);
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private AuditLog toEntity(AuditEvent event) {
+        return AuditLog.builder()
+                .actor(event.actorId() != null ? userRepository.getReferenceById(event.actorId()) : null)
+                .action(event.action())
+                .tableAffected(event.tableAffected())
+                .objectId(event.objectId())
+                .note(event.note())
+                .build();
+    }
+
+    private void recordDrain(long nanos) {
+        drains.increment();
+        totalDrainNanos.add(nanos);
+        lastDrainNanos = nanos;
+        maxDrainNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public AuditWriterStatsResponse getStats() {
+        long drainCount = drains.sum();
+        return AuditWriterStatsResponse.builder()
+                .running(running)
+                .queueDepth(queue.size())
+                .queueCapacity(queueCapacity)
+                .enqueued(enqueued.sum())
+                .written(written.sum())
+                .failed(failed.sum())
+                .writtenByCaller(writtenByCaller.sum())
+                .drains(drainCount)
+                .lastDrainMillis(lastDrainNanos / 1_000_000.0)
+                .averageDrainMillis(drainCount == 0 ? 0 : totalDrainNanos.sum() / 1_000_000.0 / drainCount)
+                .maxDrainMillis(maxDrainNanos.get() / 1_000_000.0)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        drainThread = new Thread(this::drainLoop, "audit-log-writer");
+        drainThread.setDaemon(true);
+        drainThread.start();
+        log.info("Audit log writer started (capacity: {}, batch size: {})", queueCapacity, batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (drainThread != null) {
+            try {
+                drainThread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Anything still queued (e.g. the drain thread timed out) is written here before the datasource goes away
+        List<AuditEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+        log.info("Audit log writer stopped after writing {} events", written.sum());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.enums.DataFormatEnum;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.exception.BadRequestException;
+import com.example.warehouse.model.InventoryExportRow;
+import com.example.warehouse.model.StockLogExportRow;
+import com.example.warehouse.repository.ExportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service for bulk exports of inventory and stock logs.
+ * <p>
+ * Filters are validated when the export is requested, so a bad request still gets a normal error
+ * response. The returned body then streams rows from a forward-only JDBC cursor straight into the
+ * response, optionally through gzip; no more than one row is held at a time, whatever the export size.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    public ExportService(ExportRepository exportRepository, ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public StreamingResponseBody exportInventory(DataFormatEnum format, Integer warehouseId, Integer zoneId, boolean gzip) {
+        log.info("Exporting inventory as {} (warehouse ID: {}, zone ID: {}, gzip: {})", format, warehouseId, zoneId, gzip);
+        return output -> write(output, format, gzip, InventoryExportRow.class,
+                rows -> exportRepository.streamInventory(warehouseId, zoneId, rows));
+    }
+
+    /**
+     * Exports the stock logs created in [from, to).
+     *
+     * @param to The exclusive end of the range; defaults to now.
+     */
+    public StreamingResponseBody exportStockLogs(DataFormatEnum format, LocalDateTime from, LocalDateTime to,
+                                                 Integer warehouseId, Integer zoneId, StockLogEnum type, boolean gzip) {
+        LocalDateTime until = to != null ? to : LocalDateTime.now();
+        if (!from.isBefore(until)) {
+            throw new BadRequestException("The start of the time range must be before its end.");
+        }
+
+        log.info("Exporting stock logs as {} between {} and {} (warehouse ID: {}, zone ID: {}, type: {}, gzip: {})",
+                format, from, until, warehouseId, zoneId, type, gzip);
+        return output -> write(output, format, gzip, StockLogExportRow.class,
+                rows -> exportRepository.streamStockLogs(from, until, warehouseId, zoneId, type, rows));
+    }
+
+    private <T> void write(OutputStream target, DataFormatEnum format, boolean gzip, Class<T> rowType,
+                           Consumer<Consumer<T>> source) throws IOException {
+        long startedAt = System.nanoTime();
+        long[] rowCount = {0};
+        OutputStream output = gzip ? new GZIPOutputStream(target, GZIP_BUFFER_SIZE) : target;
+
+        ObjectWriter writer = format == DataFormatEnum.CSV
+                ? csvMapper.writerFor(rowType).with(csvMapper.schemaFor(rowType).withHeader())
+                : objectMapper.writerFor(rowType).withRootValueSeparator("\n");
+        try (SequenceWriter rows = writer.writeValues(output)) {
+            source.accept(row -> {
+                try {
+                    rows.write(row);
+                    rowCount[0]++;
+                } catch (IOException ex) {
+                    // Usually the client went away; unwinding here stops the JDBC read as well
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            if (format == DataFormatEnum.NDJSON && rowCount[0] > 0) {
+                // The separator only goes between values; NDJSON ends every line, including the last
+                rows.flush();
+                output.write('\n');
+            }
+        } catch (UncheckedIOException ex) {
+            log.warn("{} export aborted after {} rows: {}", rowType.getSimpleName(), rowCount[0], ex.getCause().getMessage());
+            throw ex.getCause();
+        }
+
+        log.info("Exported {} {} rows in {} ms", rowCount[0], rowType.getSimpleName(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+}
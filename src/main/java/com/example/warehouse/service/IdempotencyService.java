@@ -0,0 +1,308 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.IdempotencyRecord;
+import com.example.warehouse.entity.User;
+import com.example.warehouse.exception.BadRequestException;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.CacheStatsResponse;
+import com.example.warehouse.repository.IdempotencyRecordRepository;
+import com.example.warehouse.utility.ExpiringLruCache;
+import com.example.warehouse.utility.TransactionUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes mutations at most once per Idempotency-Key.
+ * <p>
+ * Keys are scoped to the calling user and the operation. Completed responses are stored in the
+ * `idempotency_keys` table in the same transaction as the mutation, and the most recent ones are kept
+ * in a bounded in-memory cache so most replays never touch the database. Concurrent duplicates on one
+ * instance wait for the request already executing and receive its response; across instances the
+ * primary key on the table lets exactly one of them claim the key, and the others get a conflict.
+ * <p>
+ * A claim is a short lease, so the key of a crashed request frees up. The request holding it renews it with
+ * its claim token as the first statement of the action's transaction and keeps the row locked until the
+ * response is stored; a request whose lease lapsed and was taken over in the meantime fails instead of
+ * running the action a second time.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final SecurityContextService securityContextService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate claimTemplate;
+    private final ExpiringLruCache<String, StoredResponse> cache;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Duration processingLease;
+    private final long waitTimeoutMs;
+    private final int purgeBatchSize;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository repository,
+            SecurityContextService securityContextService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.idempotency.cache.max-size:10000}") int cacheMaxSize,
+            @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${app.idempotency.processing-lease-seconds:60}") long processingLeaseSeconds,
+            @Value("${app.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs,
+            @Value("${app.idempotency.purge-batch-size:1000}") int purgeBatchSize) {
+        this.repository = repository;
+        this.securityContextService = securityContextService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Claims commit on their own so other instances see them while the mutation is still running
+        this.claimTemplate = new TransactionTemplate(transactionManager);
+        this.claimTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cache = new ExpiringLruCache<>("idempotency", cacheMaxSize);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.processingLease = Duration.ofSeconds(processingLeaseSeconds);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Runs the action once for the given key and returns its response; later calls with the same key
+     * and request get the stored response back without running the action. Without a key the action
+     * simply runs.
+     *
+     * @param idempotencyKey The client's Idempotency-Key header, may be null
+     * @param operation      Identifies the endpoint, so the same key can be used for different operations
+     * @param request        The request body, hashed to detect a key reused for a different request
+     * @param dataType       The type of the response data, used to rebuild replayed responses
+     * @param action         Performs the mutation; it joins the transaction the response is stored in
+     */
+    public <T> ResponseEntity<ApiResponse<T>> execute(String idempotencyKey, String operation, Object request,
+                                                      Class<T> dataType, Supplier<ResponseEntity<ApiResponse<T>>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        User actor = securityContextService.getCurrentActor();
+        String recordKey = sha256((actor != null ? actor.getId() : "anonymous") + "\n" + operation + "\n" + idempotencyKey);
+        String requestHash = sha256(operation + "\n" + toJson(request));
+
+        StoredResponse cached = cache.get(recordKey);
+        if (cached != null) {
+            return replay(cached, requestHash, dataType);
+        }
+
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(recordKey, execution);
+        if (running != null) {
+            return awaitDuplicate(running, idempotencyKey, operation, request, dataType, action, requestHash);
+        }
+
+        try {
+            String claimToken = UUID.randomUUID().toString();
+            StoredResponse stored = claim(recordKey, requestHash, claimToken);
+            if (stored != null) {
+                execution.complete(stored);
+                return replay(stored, requestHash, dataType);
+            }
+            return executeClaimed(recordKey, requestHash, claimToken, action, execution);
+        } catch (RuntimeException ex) {
+            execution.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(recordKey, execution);
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> awaitDuplicate(CompletableFuture<StoredResponse> running,
+                                                              String idempotencyKey, String operation, Object request,
+                                                              Class<T> dataType, Supplier<ResponseEntity<ApiResponse<T>>> action,
+                                                              String requestHash) {
+        StoredResponse stored;
+        try {
+            stored = running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // The first request failed and released its claim, so this one gets its own attempt
+            return execute(idempotencyKey, operation, request, dataType, action);
+        } catch (TimeoutException ex) {
+            throw inProgress();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+        return replay(stored, requestHash, dataType);
+    }
+
+    /**
+     * Claims the key for this request.
+     *
+     * @return the stored response if the key was already used, or null if this request now holds the claim
+     */
+    private StoredResponse claim(String recordKey, String requestHash, String claimToken) {
+        try {
+            return claimTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                IdempotencyRecord existing = repository.findById(recordKey).orElse(null);
+                if (existing == null) {
+                    repository.saveAndFlush(IdempotencyRecord.builder()
+                            .recordKey(recordKey)
+                            .requestHash(requestHash)
+                            .claimToken(claimToken)
+                            .expiresAt(now.plus(processingLease))
+                            .build());
+                    return null;
+                }
+                if (existing.getExpiresAt().isBefore(now)) {
+                    if (repository.takeOver(recordKey, requestHash, claimToken, now.plus(processingLease), now) == 1) {
+                        return null;
+                    }
+                    throw inProgress();
+                }
+                if (existing.getResponseStatus() == null) {
+                    throw existing.getRequestHash().equals(requestHash) ? inProgress() : keyReused();
+                }
+                return new StoredResponse(existing.getRequestHash(), existing.getResponseStatus(), existing.getResponseBody());
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance inserted the claim between our lookup and insert
+            throw inProgress();
+        } catch (PessimisticLockingFailureException ex) {
+            // The takeover waited for the row lock of a request still running past its lease
+            throw inProgress();
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> executeClaimed(String recordKey, String requestHash, String claimToken,
+                                                              Supplier<ResponseEntity<ApiResponse<T>>> action,
+                                                              CompletableFuture<StoredResponse> execution) {
+        try {
+            return transactionTemplate.execute(status -> {
+                // Also locks the claim until commit, so it can't be taken over while the action runs
+                if (repository.renewClaim(recordKey, claimToken, LocalDateTime.now().plus(processingLease)) == 0) {
+                    throw inProgress();
+                }
+                ResponseEntity<ApiResponse<T>> response = action.get();
+                StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(), toJson(response.getBody()));
+                LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+                if (repository.complete(recordKey, claimToken, stored.status(), stored.body(), expiresAt) == 0) {
+                    throw new IllegalStateException("Idempotency claim was lost while the request was running");
+                }
+                long expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                TransactionUtil.runAfterCommit(() -> {
+                    cache.put(recordKey, stored, expiresAtMillis);
+                    execution.complete(stored);
+                });
+                return response;
+            });
+        } catch (RuntimeException ex) {
+            // Nothing was committed, so the key is free for the client's retry, unless another request took it over
+            try {
+                claimTemplate.executeWithoutResult(status -> repository.releaseClaim(recordKey, claimToken));
+            } catch (RuntimeException releaseEx) {
+                log.warn("Failed to release idempotency claim, it will lapse with its lease: {}", releaseEx.getMessage());
+            }
+            throw ex;
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> replay(StoredResponse stored, String requestHash, Class<T> dataType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw keyReused();
+        }
+        try {
+            JsonNode body = objectMapper.readTree(stored.body());
+            JsonNode data = body.get("data");
+            T value = data == null || data.isNull() ? null : objectMapper.treeToValue(data, dataType);
+            return ResponseEntity.status(stored.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(ApiResponse.success(body.path("message").asText(null), value));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response could not be read", ex);
+        }
+    }
+
+    /**
+     * Deletes expired keys in batches, so a large backlog never holds long locks.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        try {
+            int deleted;
+            int total = 0;
+            do {
+                deleted = claimTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now(), purgeBatchSize));
+                total += deleted;
+            } while (deleted == purgeBatchSize);
+            if (total > 0) {
+                log.info("Purged {} expired idempotency keys", total);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Idempotency key purge failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    public CacheStatsResponse getCacheStats() {
+        return cache.stats();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize idempotent request or response", ex);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static ResourceConflictException inProgress() {
+        return new ResourceConflictException("A request with this " + HEADER + " is still being processed.");
+    }
+
+    private static BadRequestException keyReused() {
+        return new BadRequestException(HEADER + " was already used for a different request.");
+    }
+
+    private record StoredResponse(String requestHash, int status, String body) {}
+}
@@ -0,0 +1,378 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.ProductInventory;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.model.InventoryChangedEvent;
+import com.example.warehouse.payload.response.InventoryFeedStatsResponse;
+import com.example.warehouse.utility.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * In-process broadcaster of committed inventory changes to Server-Sent Event subscribers.
+ * <p>
+ * Mutations hand over the rows they wrote; once the transaction commits, each row becomes an event with
+ * the next sequence number, is kept in a fixed-size replay ring and is offered to every subscriber whose
+ * warehouse and product filters match. Offers never block: every subscriber has a bounded buffer, and a
+ * subscriber that falls a full buffer behind loses its buffered events and receives a reset event telling
+ * it to reload the inventory instead. Buffers are written out by a small shared pool of sender threads,
+ * up to a batch of events per flush, so thousands of connections don't need thousands of threads.
+ * <p>
+ * Event IDs are "{stream}-{sequence}". A client reconnecting with Last-Event-ID gets the events it missed
+ * from the replay ring, or a reset if they are no longer there (or the ID is from before a restart).
+ */
+@Component
+@Slf4j
+public class InventoryChangeFeed implements SmartLifecycle {
+
+    public static final String EVENT_NAME = "inventory-changed";
+    public static final String RESET_EVENT_NAME = "reset";
+    private static final int MAX_EVENTS_PER_WRITE = 100;
+
+    private final int clientBufferSize;
+    private final int maxSubscribers;
+    private final int senderThreads;
+    private final long emitterTimeoutMs;
+
+    // Distinguishes sequences of this process from those of earlier runs
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+    private final Object broadcastLock = new Object();
+    private final InventoryChangedEvent[] replayRing;
+    private volatile long lastSequence; // written under broadcastLock only
+
+    // Each subscription sits in exactly one index: by warehouse if it filters on warehouses, else by product if it filters on products
+    private final Set<Subscription> unfiltered = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, Set<Subscription>> byWarehouse = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Subscription>> byProduct = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+
+    private volatile boolean running;
+    private ExecutorService senders;
+
+    public InventoryChangeFeed(
+            @Value("${app.inventory-feed.client-buffer-size:1000}") int clientBufferSize,
+            @Value("${app.inventory-feed.replay-capacity:10000}") int replayCapacity,
+            @Value("${app.inventory-feed.max-subscribers:5000}") int maxSubscribers,
+            @Value("${app.inventory-feed.sender-threads:4}") int senderThreads,
+            @Value("${app.inventory-feed.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.clientBufferSize = clientBufferSize;
+        this.replayRing = new InventoryChangedEvent[replayCapacity];
+        this.maxSubscribers = maxSubscribers;
+        this.senderThreads = senderThreads;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    /**
+     * Publishes the current state of the given rows once the current transaction commits. The rows are
+     * copied right away, so they must reflect what the transaction wrote.
+     */
+    public void publishAfterCommit(Collection<ProductInventory> inventories) {
+        if (!inventories.isEmpty()) {
+            publishChangesAfterCommit(inventories.stream().map(InventoryChangedEvent::of).toList());
+        }
+    }
+
+    /**
+     * Publishes changes of rows written without the persistence context (e.g. by JDBC batches) once the
+     * current transaction commits.
+     */
+    public void publishChangesAfterCommit(List<InventoryChangedEvent> changes) {
+        if (!changes.isEmpty()) {
+            TransactionUtil.runAfterCommit(() -> broadcast(changes));
+        }
+    }
+
+    /**
+     * Sequences the changes and offers them to the matching subscribers. Sequencing and fan-out happen
+     * under one lock, so every subscriber sees events in sequence order; offers never block.
+     */
+    void broadcast(List<InventoryChangedEvent> changes) {
+        synchronized (broadcastLock) {
+            long sequence = lastSequence;
+            for (InventoryChangedEvent change : changes) {
+                InventoryChangedEvent event = change.withSequence(++sequence);
+                replayRing[(int) (sequence % replayRing.length)] = event;
+                offerAll(unfiltered, event);
+                offerAll(byWarehouse.get(event.warehouseId()), event);
+                offerAll(byProduct.get(event.productId()), event);
+            }
+            lastSequence = sequence;
+        }
+        published.add(changes.size());
+    }
+
+    private static void offerAll(Set<Subscription> subscriptions, InventoryChangedEvent event) {
+        if (subscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(event)) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Opens a subscription.
+     *
+     * @param warehouseIds Only changes in these warehouses; empty for all
+     * @param productIds   Only changes of these products; empty for all
+     * @param lastEventId  The ID of the last event the client received, to replay what it missed; may be null
+     * @throws ResourceConflictException if the feed has reached its subscriber limit
+     */
+    public SseEmitter subscribe(Set<Integer> warehouseIds, Set<Integer> productIds, String lastEventId) {
+        if (!running) {
+            throw new ResourceConflictException("The inventory change feed is not running.");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResourceConflictException("The inventory change feed has reached its limit of " + maxSubscribers + " subscribers.");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscription subscription = new Subscription(emitter, Set.copyOf(warehouseIds), Set.copyOf(productIds));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(ex -> subscription.close());
+
+        // Registering and replaying under the broadcast lock leaves no gap (and no overlap) between the two
+        synchronized (broadcastLock) {
+            register(subscription);
+            replay(subscription, lastEventId);
+        }
+        // Commits the response headers right away rather than with the first change
+        subscription.heartbeatDue.set(true);
+        subscription.schedule();
+        return emitter;
+    }
+
+    private void register(Subscription subscription) {
+        if (!subscription.warehouseIds.isEmpty()) {
+            subscription.warehouseIds.forEach(id -> byWarehouse.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscription));
+        } else if (!subscription.productIds.isEmpty()) {
+            subscription.productIds.forEach(id -> byProduct.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscription));
+        } else {
+            unfiltered.add(subscription);
+        }
+    }
+
+    private void unregister(Subscription subscription) {
+        subscription.warehouseIds.forEach(id -> removeFrom(byWarehouse, id, subscription));
+        subscription.productIds.forEach(id -> removeFrom(byProduct, id, subscription));
+        unfiltered.remove(subscription);
+    }
+
+    private static void removeFrom(Map<Integer, Set<Subscription>> index, Integer id, Subscription subscription) {
+        index.computeIfPresent(id, (key, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    private void replay(Subscription subscription, String lastEventId) {
+        if (!StringUtils.hasText(lastEventId)) {
+            return;
+        }
+        long after = parseSequence(lastEventId);
+        long oldest = Math.max(1, lastSequence - replayRing.length + 1);
+        if (after < 0 || after > lastSequence || after + 1 < oldest) {
+            subscription.resetDue.set(true);
+            return;
+        }
+        for (long sequence = after + 1; sequence <= lastSequence; sequence++) {
+            InventoryChangedEvent event = replayRing[(int) (sequence % replayRing.length)];
+            if (subscription.matches(event)) {
+                subscription.offer(event);
+                replayed.increment();
+            }
+        }
+    }
+
+    /**
+     * @return The sequence named by an event ID of this stream, or -1 for a malformed or foreign ID
+     */
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(streamId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return streamId + "-" + sequence;
+    }
+
+    /**
+     * Sends a comment to every subscriber, so connections closed by the client are noticed and released.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory-feed.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        forEachSubscription(subscription -> {
+            subscription.heartbeatDue.set(true);
+            subscription.schedule();
+        });
+    }
+
+    private void forEachSubscription(Consumer<Subscription> action) {
+        Set<Subscription> all = new HashSet<>(unfiltered);
+        byWarehouse.values().forEach(all::addAll);
+        byProduct.values().forEach(all::addAll);
+        all.forEach(action);
+    }
+
+    public InventoryFeedStatsResponse getStats() {
+        return InventoryFeedStatsResponse.builder()
+                .subscribers(subscriberCount.get())
+                .maxSubscribers(maxSubscribers)
+                .clientBufferSize(clientBufferSize)
+                .lastEventId(eventId(lastSequence))
+                .replayCapacity(replayRing.length)
+                .published(published.sum())
+                .delivered(delivered.sum())
+                .replayed(replayed.sum())
+                .resets(resets.sum())
+                .build();
+    }
+
+    @Override
+    public void start() {
+        senders = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("inventory-feed-"));
+        running = true;
+        log.info("Inventory change feed started (stream: {}, sender threads: {})", streamId, senderThreads);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        forEachSubscription(subscription -> subscription.emitter.complete());
+        senders.shutdown();
+        try {
+            senders.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Inventory change feed stopped after publishing {} events", published.sum());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * One connected client: its filters, its bounded buffer and the flags its sender acts on.
+     */
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final Set<Integer> warehouseIds;
+        private final Set<Integer> productIds;
+        private final BlockingQueue<InventoryChangedEvent> buffer = new ArrayBlockingQueue<>(clientBufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean resetDue = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(SseEmitter emitter, Set<Integer> warehouseIds, Set<Integer> productIds) {
+            this.emitter = emitter;
+            this.warehouseIds = warehouseIds;
+            this.productIds = productIds;
+        }
+
+        private boolean matches(InventoryChangedEvent event) {
+            return (warehouseIds.isEmpty() || warehouseIds.contains(event.warehouseId()))
+                    && (productIds.isEmpty() || productIds.contains(event.productId()));
+        }
+
+        private void offer(InventoryChangedEvent event) {
+            if (!buffer.offer(event)) {
+                // The client is a full buffer behind; what it has missed can no longer be delivered in order
+                buffer.clear();
+                resetDue.set(true);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        /**
+         * Writes up to a batch of events with a single flush, then yields the sender thread to other
+         * subscribers, rescheduling itself if more is pending.
+         */
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> batch = new LinkedHashSet<>();
+                if (resetDue.getAndSet(false)) {
+                    batch.addAll(SseEmitter.event()
+                            .id(eventId(lastSequence))
+                            .name(RESET_EVENT_NAME)
+                            .data("Changes were missed; reload the inventory before applying further events.")
+                            .build());
+                    resets.increment();
+                }
+                if (heartbeatDue.getAndSet(false)) {
+                    batch.addAll(SseEmitter.event().comment("keep-alive").build());
+                }
+                int events = 0;
+                InventoryChangedEvent event;
+                while (events < MAX_EVENTS_PER_WRITE && (event = buffer.poll()) != null) {
+                    batch.addAll(SseEmitter.event().id(eventId(event.sequence())).name(EVENT_NAME).data(event).build());
+                    events++;
+                }
+                if (!batch.isEmpty()) {
+                    emitter.send(batch);
+                    delivered.add(events);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away (or the emitter already completed)
+                close();
+                emitter.completeWithError(ex);
+                return;
+            }
+            scheduled.set(false);
+            if (!buffer.isEmpty() || resetDue.get() || heartbeatDue.get()) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                unregister(this);
+                buffer.clear();
+                subscriberCount.decrementAndGet();
+            }
+        }
+    }
+}
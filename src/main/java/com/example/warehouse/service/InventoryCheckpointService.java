@@ -0,0 +1,149 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.InventoryCheckpoint;
+import com.example.warehouse.exception.BadRequestException;
+import com.example.warehouse.model.InventoryAsOfRow;
+import com.example.warehouse.payload.response.InventoryAsOfResponse;
+import com.example.warehouse.repository.InventoryCheckpointRepository;
+import com.example.warehouse.repository.InventoryReplayRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Answers "what was on hand at time T" from inventory checkpoints and the stock logs around them.
+ * <p>
+ * A checkpoint is added once the stock logs since the previous one reach max-logs, or its max-interval has
+ * passed, so no as-of query replays more than about max-logs logs: it starts from whichever neighbouring
+ * checkpoint has fewer logs in between. Checkpoints are derived from the stock logs alone, never from
+ * `product_inventories`, and only cover logs older than the settle delay, by which time every transaction
+ * that wrote one has committed.
+ */
+@Service
+@Slf4j
+public class InventoryCheckpointService {
+
+    private final InventoryCheckpointRepository checkpointRepository;
+    private final InventoryReplayRepository replayRepository;
+    private final TransactionTemplate checkpointTemplate;
+    private final long maxLogs;
+    private final Duration maxInterval;
+    private final Duration settleDelay;
+
+    public InventoryCheckpointService(
+            InventoryCheckpointRepository checkpointRepository,
+            InventoryReplayRepository replayRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.inventory-checkpoints.max-logs:100000}") long maxLogs,
+            @Value("${app.inventory-checkpoints.max-interval-hours:24}") long maxIntervalHours,
+            @Value("${app.inventory-checkpoints.settle-seconds:300}") long settleSeconds) {
+        this.checkpointRepository = checkpointRepository;
+        this.replayRepository = replayRepository;
+        // READ COMMITTED: the INSERT ... SELECT then reads stock_logs without locking ranges against new logs
+        this.checkpointTemplate = new TransactionTemplate(transactionManager);
+        this.checkpointTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.maxLogs = maxLogs;
+        this.maxInterval = Duration.ofHours(maxIntervalHours);
+        this.settleDelay = Duration.ofSeconds(settleSeconds);
+    }
+
+    /**
+     * Retrieves the on-hand quantity of every inventory row matching the filters at the given instant.
+     * At least one filter is required: a product, a warehouse, or a warehouse and zone.
+     */
+    @Transactional(readOnly = true)
+    public InventoryAsOfResponse getInventoryAsOf(LocalDateTime asOf, Integer productId, Integer warehouseId, Integer zoneId) {
+        if (productId == null && warehouseId == null && zoneId == null) {
+            throw new BadRequestException("A product, warehouse or zone is required.");
+        }
+        if (asOf.isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("The point in time cannot be in the future.");
+        }
+
+        Optional<InventoryCheckpoint> before = checkpointRepository.findFirstByTakenAtLessThanEqualOrderByTakenAtDesc(asOf);
+        Optional<InventoryCheckpoint> after = checkpointRepository.findFirstByTakenAtGreaterThanOrderByTakenAtAsc(asOf);
+        boolean replayBack = after.isPresent() && (before.isEmpty()
+                || replayRepository.countLogs(asOf, after.get().getTakenAt())
+                < replayRepository.countLogs(before.get().getTakenAt(), asOf));
+
+        long[] replayedLogs = {0};
+        List<InventoryAsOfRow> rows;
+        InventoryCheckpoint checkpoint;
+        if (replayBack) {
+            checkpoint = after.get();
+            rows = replayRepository.findQuantities(checkpoint.getId(), asOf, checkpoint.getTakenAt(), -1,
+                    productId, warehouseId, zoneId, count -> replayedLogs[0] = count);
+        } else {
+            checkpoint = before.orElse(null);
+            rows = replayRepository.findQuantities(checkpoint != null ? checkpoint.getId() : null,
+                    checkpoint != null ? checkpoint.getTakenAt() : null, asOf, 1,
+                    productId, warehouseId, zoneId, count -> replayedLogs[0] = count);
+        }
+
+        log.info("Computed inventory as of {} for product {}, warehouse {}, zone {} from checkpoint {} replaying {} logs",
+                asOf, productId, warehouseId, zoneId, checkpoint != null ? checkpoint.getId() : null, replayedLogs[0]);
+        return InventoryAsOfResponse.builder()
+                .asOf(asOf)
+                .checkpointTakenAt(checkpoint != null ? checkpoint.getTakenAt() : null)
+                .replayedLogs(replayedLogs[0])
+                .totalQuantity(rows.stream().mapToLong(InventoryAsOfRow::quantity).sum())
+                .rows(rows)
+                .build();
+    }
+
+    /**
+     * Adds a checkpoint if enough stock logs or time have accumulated since the last one. Safe to run on several
+     * instances at once: the checkpoint sequence is unique, so only one of them adds each checkpoint.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory-checkpoints.check-interval-ms:60000}")
+    public void createCheckpointIfDue() {
+        try {
+            LocalDateTime takenAt = LocalDateTime.now().minus(settleDelay);
+            InventoryCheckpoint previous = checkpointRepository.findFirstByOrderBySequenceDesc().orElse(null);
+            if (previous != null && !takenAt.isAfter(previous.getTakenAt())) {
+                return;
+            }
+
+            LocalDateTime previousTakenAt = previous != null ? previous.getTakenAt() : null;
+            long logCount = replayRepository.countLogs(previousTakenAt, takenAt);
+            boolean due = previous == null
+                    ? logCount > 0
+                    : logCount >= maxLogs || (logCount > 0 && !previousTakenAt.plus(maxInterval).isAfter(takenAt));
+            if (due) {
+                createCheckpoint(previous, takenAt, logCount);
+            }
+        } catch (DataIntegrityViolationException ex) {
+            log.info("Inventory checkpoint was added by another instance");
+        } catch (RuntimeException ex) {
+            log.error("Inventory checkpoint failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private void createCheckpoint(InventoryCheckpoint previous, LocalDateTime takenAt, long logCount) {
+        long startedAt = System.nanoTime();
+        InventoryCheckpoint checkpoint = checkpointTemplate.execute(status -> {
+            InventoryCheckpoint created = checkpointRepository.saveAndFlush(InventoryCheckpoint.builder()
+                    .sequence(previous != null ? previous.getSequence() + 1 : 1)
+                    .takenAt(takenAt)
+                    .logCount(logCount)
+                    .build());
+            created.setRowCount(replayRepository.insertCheckpointRows(created.getId(),
+                    previous != null ? previous.getId() : null, previous != null ? previous.getTakenAt() : null, takenAt));
+            return checkpointRepository.save(created);
+        });
+
+        log.info("Inventory checkpoint {} taken at {}: {} rows, {} logs folded in, {} ms",
+                checkpoint.getSequence(), takenAt, checkpoint.getRowCount(), logCount, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+}
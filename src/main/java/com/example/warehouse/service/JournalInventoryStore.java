@@ -0,0 +1,379 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.model.InventoryKey;
+import com.example.warehouse.model.JournalRecord;
+import com.example.warehouse.model.StockMovement;
+import com.example.warehouse.payload.response.JournalStatsResponse;
+import com.example.warehouse.utility.MovementJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Inventory quantities of a standalone site, held in memory and made durable by a {@link MovementJournal}.
+ * <p>
+ * Movements are checked against and applied to the in-memory quantities and appended to the journal under one
+ * lock, so the journal order is the order in which quantities changed; callers then wait for the group commit
+ * outside the lock. Reads never take the lock. Once enough records have been appended, a snapshot of all
+ * quantities is written in the background, and a restart loads the newest snapshot and replays only the
+ * journal records after it. Segments are never deleted here: they are what the journal shipper loads into
+ * the central database.
+ */
+@Component
+@Profile("standalone")
+@Slf4j
+public class JournalInventoryStore implements SmartLifecycle {
+
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{20})\\.snap");
+    private static final int SNAPSHOT_MAGIC = 0x534E4150; // "SNAP"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /**
+     * The quantity of one product location and when it last changed.
+     */
+    public record StoredQuantity(int quantity, long updatedAtMillis) {
+    }
+
+    /**
+     * The outcome of one movement; on success, the quantities are the ones written for this particular movement.
+     */
+    public record Outcome(boolean applied, int quantityBefore, int quantityAfter, String error) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long groupCommitWindowMicros;
+    private final long snapshotEveryRecords;
+
+    private final Map<InventoryKey, StoredQuantity> quantities = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private long lastSequence; // written under writeLock only
+    private volatile long snapshotSequence;
+    private volatile long lastSnapshotMillis;
+    private volatile boolean failed;
+    private volatile boolean running;
+    private MovementJournal journal;
+
+    public JournalInventoryStore(
+            @Value("${app.journal.directory:./data/journal}") String directory,
+            @Value("${app.journal.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${app.journal.group-commit-window-micros:0}") long groupCommitWindowMicros,
+            @Value("${app.journal.snapshot-every-records:100000}") long snapshotEveryRecords) {
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.groupCommitWindowMicros = groupCommitWindowMicros;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+    }
+
+    /**
+     * Applies a batch of movements in order; null entries are skipped and get a null outcome.
+     * Returns once every applied movement is durable in the journal.
+     *
+     * @param actorId      The user making the movements, journaled with each of them; null if there is none.
+     * @param allOrNothing If true, the first movement that would make a quantity negative aborts the batch
+     *                     with a ResourceConflictException and nothing is applied.
+     * @return One outcome per movement, in input order.
+     * @throws IllegalStateException if the journal can no longer be written.
+     */
+    public List<Outcome> apply(List<StockMovement> movements, Integer actorId, boolean allOrNothing) {
+        Outcome[] outcomes = new Outcome[movements.size()];
+        long durableUpTo;
+
+        synchronized (writeLock) {
+            if (!running || failed) {
+                throw new IllegalStateException("The movement journal is not accepting movements");
+            }
+
+            long now = System.currentTimeMillis();
+            Map<InventoryKey, Integer> pending = new HashMap<>();
+            List<JournalRecord> records = new ArrayList<>();
+            for (int index = 0; index < movements.size(); index++) {
+                StockMovement movement = movements.get(index);
+                if (movement == null) {
+                    continue;
+                }
+                InventoryKey key = movement.key();
+                Integer pendingQuantity = pending.get(key);
+                int quantityBefore = pendingQuantity != null ? pendingQuantity : currentQuantity(key);
+                int quantityAfter = quantityBefore + movement.quantityChange();
+                if (quantityAfter < 0) {
+                    String error = "Adjustment would result in negative stock. Current quantity: " + quantityBefore;
+                    if (allOrNothing) {
+                        throw new ResourceConflictException("Line " + index + ": " + error);
+                    }
+                    outcomes[index] = new Outcome(false, quantityBefore, quantityBefore, error);
+                    continue;
+                }
+
+                pending.put(key, quantityAfter);
+                records.add(new JournalRecord(lastSequence + records.size() + 1, now, key.productId(), key.warehouseId(),
+                        key.zoneId(), movement.quantityChange(), actorId, movement.type(), movement.note()));
+                outcomes[index] = new Outcome(true, quantityBefore, quantityAfter, null);
+            }
+            if (records.isEmpty()) {
+                return Arrays.asList(outcomes);
+            }
+
+            try {
+                durableUpTo = journal.append(records);
+            } catch (IOException ex) {
+                failed = true;
+                throw new IllegalStateException("Failed to append to the movement journal", ex);
+            }
+            lastSequence = durableUpTo;
+            pending.forEach((key, quantity) -> quantities.put(key, new StoredQuantity(quantity, now)));
+        }
+
+        awaitDurable(durableUpTo);
+        return Arrays.asList(outcomes);
+    }
+
+    public Optional<StoredQuantity> find(InventoryKey key) {
+        return Optional.ofNullable(quantities.get(key));
+    }
+
+    /**
+     * Returns a copy of all product locations, in no particular order.
+     * Movements applied while the copy is taken may or may not be included.
+     */
+    public Map<InventoryKey, StoredQuantity> findAll() {
+        return new HashMap<>(quantities);
+    }
+
+    /**
+     * Writes a snapshot once enough records have been appended since the last one.
+     */
+    @Scheduled(fixedDelayString = "${app.journal.snapshot-check-ms:10000}")
+    public void snapshotIfDue() {
+        if (running && !failed && journal.getLastSequence() - snapshotSequence >= snapshotEveryRecords) {
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * Writes all quantities to a new snapshot file and removes the older ones.
+     * The copy is taken under the write lock, so it matches exactly one journal sequence.
+     */
+    synchronized void writeSnapshot() {
+        Map<InventoryKey, StoredQuantity> copy;
+        long sequence;
+        synchronized (writeLock) {
+            sequence = lastSequence;
+            copy = new HashMap<>(quantities);
+        }
+        if (sequence == snapshotSequence) {
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            // A snapshot must never get ahead of the journal, or a crash could lose records it already reflects
+            journal.awaitDurable(sequence);
+            Path target = directory.resolve(String.format("snapshot-%020d.snap", sequence));
+            Path temporary = directory.resolve(target.getFileName() + ".tmp");
+            writeSnapshotFile(temporary, sequence, copy);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            for (Map.Entry<Long, Path> older : listSnapshots().headMap(sequence).entrySet()) {
+                Files.deleteIfExists(older.getValue());
+            }
+            snapshotSequence = sequence;
+            lastSnapshotMillis = System.currentTimeMillis();
+            log.info("Wrote journal snapshot of {} locations at sequence {} in {} ms",
+                    copy.size(), sequence, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (IOException ex) {
+            log.error("Failed to write a journal snapshot at sequence {}", sequence, ex);
+        }
+    }
+
+    public JournalStatsResponse getStats() {
+        long flushes = journal == null ? 0 : journal.getFlushes();
+        long appended = journal == null ? 0 : journal.getAppendedRecords();
+        return JournalStatsResponse.builder()
+                .directory(directory.toAbsolutePath().toString())
+                .locations(quantities.size())
+                .lastSequence(journal == null ? 0 : journal.getLastSequence())
+                .durableSequence(journal == null ? 0 : journal.getDurableSequence())
+                .snapshotSequence(snapshotSequence)
+                .lastSnapshotMillis(lastSnapshotMillis)
+                .segments(journal == null ? 0 : journal.getSegmentCount())
+                .appendedRecords(appended)
+                .flushes(flushes)
+                .averageRecordsPerFlush(flushes == 0 ? 0 : (double) appended / flushes)
+                .failed(failed || (journal != null && journal.isFailed()))
+                .build();
+    }
+
+    @Override
+    public void start() {
+        long startedAt = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            snapshotSequence = loadSnapshot();
+            long[] replayed = new long[1];
+            journal = MovementJournal.open(directory, segmentSize, TimeUnit.MICROSECONDS.toNanos(groupCommitWindowMicros),
+                    snapshotSequence, record -> {
+                        replay(record);
+                        replayed[0]++;
+                    });
+            synchronized (writeLock) {
+                lastSequence = journal.getLastSequence();
+            }
+            running = true;
+            log.info("Movement journal recovered {} locations at sequence {} ({} records replayed after the snapshot) in {} ms",
+                    quantities.size(), lastSequence, replayed[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to open the movement journal in " + directory, ex);
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (writeLock) {
+            running = false;
+        }
+        if (journal == null) {
+            return;
+        }
+        // A final snapshot keeps the next startup short; it is skipped if the journal has failed
+        if (!failed && !journal.isFailed()) {
+            writeSnapshot();
+        }
+        try {
+            journal.close();
+        } catch (IOException ex) {
+            log.error("Failed to close the movement journal", ex);
+        }
+        log.info("Movement journal stopped at sequence {}", journal.getLastSequence());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so requests never reach a store that isn't open.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private int currentQuantity(InventoryKey key) {
+        StoredQuantity stored = quantities.get(key);
+        return stored == null ? 0 : stored.quantity();
+    }
+
+    private void awaitDurable(long sequence) {
+        try {
+            journal.awaitDurable(sequence);
+        } catch (IOException ex) {
+            failed = true;
+            throw new IllegalStateException("Failed to flush the movement journal", ex);
+        }
+    }
+
+    private void replay(JournalRecord record) {
+        quantities.merge(record.key(), new StoredQuantity(record.quantityChange(), record.timestampMillis()),
+                (current, change) -> new StoredQuantity(current.quantity() + change.quantity(), change.updatedAtMillis()));
+    }
+
+    /**
+     * Loads the newest readable snapshot into memory.
+     *
+     * @return The journal sequence the snapshot reflects, or 0 if there is none.
+     */
+    private long loadSnapshot() throws IOException {
+        for (Map.Entry<Long, Path> snapshot : listSnapshots().descendingMap().entrySet()) {
+            try {
+                quantities.putAll(readSnapshotFile(snapshot.getValue(), snapshot.getKey()));
+                return snapshot.getKey();
+            } catch (IOException ex) {
+                log.warn("Skipping unreadable journal snapshot {}: {}", snapshot.getValue().getFileName(), ex.getMessage());
+            }
+        }
+        return 0;
+    }
+
+    private NavigableMap<Long, Path> listSnapshots() throws IOException {
+        NavigableMap<Long, Path> snapshots = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                Matcher matcher = SNAPSHOT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    snapshots.put(Long.parseLong(matcher.group(1)), path);
+                }
+            });
+        }
+        return snapshots;
+    }
+
+    static void writeSnapshotFile(Path path, long sequence, Map<InventoryKey, StoredQuantity> quantities) throws IOException {
+        CRC32C checksum = new CRC32C();
+        try (OutputStream file = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), checksum))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(sequence);
+            out.writeInt(quantities.size());
+            for (Map.Entry<InventoryKey, StoredQuantity> entry : quantities.entrySet()) {
+                out.writeInt(entry.getKey().productId());
+                out.writeInt(entry.getKey().warehouseId());
+                out.writeInt(entry.getKey().zoneId());
+                out.writeInt(entry.getValue().quantity());
+                out.writeLong(entry.getValue().updatedAtMillis());
+            }
+            // The checksum itself is written past the checked stream
+            out.flush();
+            new DataOutputStream(file).writeLong(checksum.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    static Map<InventoryKey, StoredQuantity> readSnapshotFile(Path path, long expectedSequence) throws IOException {
+        CRC32C checksum = new CRC32C();
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, checksum));
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not a journal snapshot");
+            }
+            if (in.readLong() != expectedSequence) {
+                throw new IOException("Snapshot sequence does not match its file name");
+            }
+            int count = in.readInt();
+            Map<InventoryKey, StoredQuantity> quantities = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                InventoryKey key = new InventoryKey(in.readInt(), in.readInt(), in.readInt());
+                quantities.put(key, new StoredQuantity(in.readInt(), in.readLong()));
+            }
+            long expectedChecksum = checksum.getValue();
+            if (new DataInputStream(file).readLong() != expectedChecksum) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+            return quantities;
+        }
+    }
+}
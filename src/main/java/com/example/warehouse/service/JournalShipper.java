@@ -0,0 +1,171 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.JournalShipment;
+import com.example.warehouse.entity.User;
+import com.example.warehouse.enums.ReferenceActionEnum;
+import com.example.warehouse.model.JournalRecord;
+import com.example.warehouse.model.MovementResult;
+import com.example.warehouse.model.StockMovement;
+import com.example.warehouse.repository.JournalShipmentRepository;
+import com.example.warehouse.repository.UserRepository;
+import com.example.warehouse.utility.MovementJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ships the movement journal of a standalone site into the central database, then exits.
+ * <p>
+ * Run against the central database with a copy of the site's journal directory. Records are applied in
+ * journal order, in batches, through {@link ProductInventoryService#applyMovements}; each batch commits
+ * together with the site's shipment cursor, so an interrupted run resumes after the last committed batch
+ * and never applies a record twice. Records the central stock cannot take (e.g. they would make a
+ * quantity negative there) are logged, counted and skipped instead of stopping the shipment.
+ * <p>
+ * Each stock log is attributed to the user who made the movement on site. Sites are seeded from the central
+ * database, so user IDs match; a record whose user no longer exists centrally is logged without an actor.
+ */
+@Component
+@Profile("journal-ship")
+@Slf4j
+public class JournalShipper implements ApplicationRunner {
+
+    private final ProductInventoryService inventoryService;
+    private final JournalShipmentRepository shipmentRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurableApplicationContext context;
+    private final Path directory;
+    private final String siteId;
+    private final int batchSize;
+
+    private long shippedRecords;
+    private long rejectedRecords;
+
+    public JournalShipper(
+            ProductInventoryService inventoryService,
+            JournalShipmentRepository shipmentRepository,
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            ConfigurableApplicationContext context,
+            @Value("${app.journal.directory:./data/journal}") String directory,
+            @Value("${app.journal.ship.site-id:}") String siteId,
+            @Value("${app.journal.ship.batch-size:1000}") int batchSize) {
+        this.inventoryService = inventoryService;
+        this.shipmentRepository = shipmentRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.context = context;
+        this.directory = Path.of(directory);
+        this.siteId = siteId;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            ship();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Shipping the movement journal of site '{}' failed; rerun to resume", siteId, ex);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    void ship() throws IOException {
+        if (!StringUtils.hasText(siteId)) {
+            throw new IllegalStateException("app.journal.ship.site-id is required to ship a journal");
+        }
+        long startedAt = System.nanoTime();
+        long startSequence = shipmentRepository.findById(siteId).map(JournalShipment::getLastSequence).orElse(0L);
+        log.info("Shipping the movement journal of site '{}' from {} after sequence {}", siteId, directory.toAbsolutePath(), startSequence);
+
+        List<JournalRecord> batch = new ArrayList<>(batchSize);
+        long lastSequence = MovementJournal.read(directory, startSequence, record -> {
+            batch.add(record);
+            if (batch.size() == batchSize) {
+                shipBatch(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            shipBatch(batch);
+        }
+
+        log.info("Shipped the movement journal of site '{}' up to sequence {}: {} records applied, {} rejected, in {} ms",
+                siteId, lastSequence, shippedRecords, rejectedRecords, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    private void shipBatch(List<JournalRecord> batch) {
+        long firstSequence = batch.get(0).sequence();
+        long lastSequence = batch.get(batch.size() - 1).sequence();
+
+        int rejected = transactionTemplate.execute(status -> {
+            JournalShipment shipment = shipmentRepository.findForUpdate(siteId)
+                    .orElseGet(() -> JournalShipment.builder().siteId(siteId).build());
+            if (shipment.getLastSequence() != firstSequence - 1) {
+                throw new IllegalStateException("Site '" + siteId + "' has been shipped up to sequence " + shipment.getLastSequence()
+                        + " by another run, but this batch starts at " + firstSequence);
+            }
+
+            List<StockMovement> movements = batch.stream()
+                    .map(record -> new StockMovement(record.key(), record.quantityChange(), record.type(), describe(record),
+                            ReferenceActionEnum.SITE_JOURNAL, siteId + ":" + record.sequence()))
+                    .toList();
+            Map<Integer, User> users = userRepository.findAllById(batch.stream()
+                            .map(JournalRecord::actorId).filter(Objects::nonNull).collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            List<User> actors = batch.stream()
+                    .map(record -> record.actorId() != null ? users.get(record.actorId()) : null)
+                    .toList();
+            int rejectedInBatch = 0;
+            for (MovementResult result : inventoryService.applyMovements(movements, actors, false)) {
+                if (!result.applied()) {
+                    rejectedInBatch++;
+                    log.warn("Journal record {} of site '{}' was rejected: {}", batch.get(result.index()).sequence(), siteId, result.error());
+                }
+            }
+
+            shipment.setLastSequence(lastSequence);
+            shipment.setShippedRecords(shipment.getShippedRecords() + batch.size() - rejectedInBatch);
+            shipment.setRejectedRecords(shipment.getRejectedRecords() + rejectedInBatch);
+            shipmentRepository.save(shipment);
+            return rejectedInBatch;
+        });
+
+        shippedRecords += batch.size() - rejected;
+        rejectedRecords += rejected;
+        log.info("Shipped journal records {} to {} of site '{}'", firstSequence, lastSequence, siteId);
+    }
+
+    /**
+     * Stock logs get the time they are shipped, so the time the movement happened on site is kept in the note.
+     */
+    private static String describe(JournalRecord record) {
+        LocalDateTime recordedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestampMillis()), ZoneId.systemDefault());
+        String recorded = "recorded on site at " + recordedAt;
+        return StringUtils.hasText(record.note()) ? record.note() + " (" + recorded + ")" : recorded;
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.enums.LowStockEventTypeEnum;
+import com.example.warehouse.model.LowStockEvent;
+import com.example.warehouse.payload.response.LowStockResponse;
+import com.example.warehouse.payload.response.LowStockStatsResponse;
+import com.example.warehouse.repository.StockTotalsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Detects products whose on-hand total crosses their minimum stock, as the crossing happens.
+ * <p>
+ * Keeps every product's minimum and on-hand total in memory: loaded from the stock totals at startup, then
+ * moved by the per-product changes StockTotalsService hands over after each commit, and by product saves.
+ * Each change is one map update and one comparison, whatever the size of the catalog, and only a change of
+ * side (below the minimum or not) marks the product for notification. Marked products are notified in
+ * batches as LOW_STOCK_CHANGED outbox events; a product that crossed and came back between two batches
+ * is not notified at all.
+ * <p>
+ * Sees the stock changes committed by this instance as they happen, and every reconcile-interval-ms reloads the
+ * totals, which brings in the changes committed by other instances. A load never stops the changes: those committed
+ * after its snapshot are tracked and added to the totals it reads, which already hold the ones committed before.
+ * To tell the two apart, a stock change holds the commit gate shared from before its commit until it is handed
+ * over, and a load holds it exclusively only while it opens its snapshot; any change handed over once tracking
+ * has started therefore committed after the snapshot.
+ * A change of side found by a reload is taken as notified, like the startup load, since the instance that
+ * committed it notified it.
+ */
+@Component
+@Slf4j
+public class LowStockDetector implements SmartLifecycle {
+
+    private static final class ProductLevel {
+        private String sku;
+        private int minimumStock;
+        private long onHand;
+        private boolean below;
+        private boolean notifiedBelow; // the side the last notification (or the startup load) reported
+        private LocalDateTime changedAt; // when it last changed sides; null if its side is the one loaded at startup
+    }
+
+    private final StockTotalsRepository stockTotalsRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate;
+
+    private final Map<Integer, ProductLevel> levels = new ConcurrentHashMap<>();
+    private final Set<Integer> breaches = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+    private final LongAdder crossings = new LongAdder();
+    private final LongAdder recoveries = new LongAdder();
+    private final LongAdder notificationBatches = new LongAdder();
+    private final LongAdder notifiedEvents = new LongAdder();
+    private final LongAdder reconciliations = new LongAdder();
+    private final LongAdder corrections = new LongAdder();
+
+    private volatile boolean running;
+    private volatile Map<Integer, Long> changedDuringLoad; // changes committed after a load's snapshot; null otherwise
+    private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock();
+
+    public LowStockDetector(
+            StockTotalsRepository stockTotalsRepository,
+            OutboxService outboxService,
+            TransactionTemplate transactionTemplate) {
+        this.stockTotalsRepository = stockTotalsRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        // REPEATABLE READ: the whole load reads from the snapshot opened under the commit gate
+        this.snapshotTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Enters the commit gate; call right before committing stock changes, on the committing thread.
+     * A load opening its snapshot meanwhile waits until {@link #endStockCommit()}, so the changes must be
+     * handed to onStockCommitted before that.
+     */
+    public void beginStockCommit() {
+        commitGate.readLock().lock();
+    }
+
+    public void endStockCommit() {
+        commitGate.readLock().unlock();
+    }
+
+    /**
+     * Moves the on-hand totals by committed changes, keyed by product ID.
+     */
+    public void onStockCommitted(Map<Integer, Long> changes) {
+        if (!running && changedDuringLoad == null) {
+            return; // the startup load has yet to read the totals these changes were added to
+        }
+        changes.forEach((productId, change) -> levels.compute(productId, (id, level) -> {
+            // Tracked only once the load's snapshot is open, so the change is not in its row; inside the
+            // product's lock, so the row is either not read yet or already applied when the change lands
+            Map<Integer, Long> tracked = changedDuringLoad;
+            if (tracked != null) {
+                tracked.merge(id, change, Long::sum);
+            }
+            if (level == null) {
+                ProductLevel unknown = new ProductLevel(); // not loaded or saved yet; whichever comes sets the minimum
+                unknown.onHand = change;
+                return unknown;
+            }
+            level.onHand += change;
+            evaluate(id, level);
+            return level;
+        }));
+    }
+
+    /**
+     * Takes over the SKU and minimum stock of a created or updated product. Call after the product is committed.
+     */
+    public void onProductSaved(Integer productId, String sku, int minimumStock) {
+        levels.compute(productId, (id, level) -> {
+            ProductLevel updated = level != null ? level : new ProductLevel();
+            updated.sku = sku;
+            updated.minimumStock = minimumStock;
+            evaluate(id, updated);
+            return updated;
+        });
+    }
+
+    public void onProductDeleted(Integer productId) {
+        levels.remove(productId);
+        breaches.remove(productId);
+        pending.remove(productId);
+    }
+
+    /**
+     * Lists the products currently below their minimum stock, largest shortfall first.
+     */
+    public List<LowStockResponse> getBreaches() {
+        List<LowStockResponse> responses = new ArrayList<>(breaches.size());
+        for (Integer productId : breaches) {
+            levels.computeIfPresent(productId, (id, level) -> {
+                if (level.below) {
+                    responses.add(LowStockResponse.builder()
+                            .productId(id)
+                            .productSku(level.sku)
+                            .onHand(level.onHand)
+                            .minimumStock(level.minimumStock)
+                            .shortfall(level.minimumStock - level.onHand)
+                            .belowSince(level.changedAt)
+                            .build());
+                }
+                return level;
+            });
+        }
+        responses.sort(Comparator.comparingLong(LowStockResponse::getShortfall).reversed()
+                .thenComparing(LowStockResponse::getProductId));
+        return responses;
+    }
+
+    /**
+     * Notifies the products whose side differs from the one last notified, in one outbox transaction.
+     */
+    @Scheduled(fixedDelayString = "${app.low-stock.notify-interval-ms:5000}")
+    public void notifyCrossings() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Integer> productIds = new ArrayList<>(pending);
+        pending.removeAll(productIds);
+
+        List<LowStockEvent> events = new ArrayList<>();
+        for (Integer productId : productIds) {
+            levels.computeIfPresent(productId, (id, level) -> {
+                if (level.below != level.notifiedBelow) {
+                    events.add(new LowStockEvent(id, level.sku,
+                            level.below ? LowStockEventTypeEnum.CROSSED_BELOW_MINIMUM : LowStockEventTypeEnum.RECOVERED,
+                            level.onHand, level.minimumStock, level.changedAt));
+                }
+                return level;
+            });
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxService.recordLowStockEvents(events));
+        } catch (RuntimeException ex) {
+            pending.addAll(productIds);
+            log.error("Could not record {} low stock events; retrying with the next batch", events.size(), ex);
+            return;
+        }
+        for (LowStockEvent event : events) {
+            levels.computeIfPresent(event.productId(), (id, level) -> {
+                level.notifiedBelow = event.type() == LowStockEventTypeEnum.CROSSED_BELOW_MINIMUM;
+                return level;
+            });
+        }
+        notificationBatches.increment();
+        notifiedEvents.add(events.size());
+        log.info("Notified {} low stock crossings", events.size());
+    }
+
+    /**
+     * Reloads the totals and minimums, correcting what this instance missed, such as changes committed by others.
+     */
+    @Scheduled(fixedDelayString = "${app.low-stock.reconcile-interval-ms:60000}",
+            initialDelayString = "${app.low-stock.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (!running) {
+            return;
+        }
+        try {
+            long startedAt = System.nanoTime();
+            int corrected = load(false);
+            reconciliations.increment();
+            corrections.add(corrected);
+            if (corrected > 0) {
+                log.info("Low stock detector corrected {} product totals in {} ms",
+                        corrected, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            }
+        } catch (RuntimeException ex) {
+            log.error("Low stock reconciliation failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    public LowStockStatsResponse getStats() {
+        return LowStockStatsResponse.builder()
+                .running(running)
+                .trackedProducts(levels.size())
+                .breaches(breaches.size())
+                .crossings(crossings.sum())
+                .recoveries(recoveries.sum())
+                .pendingNotifications(pending.size())
+                .notificationBatches(notificationBatches.sum())
+                .notifiedEvents(notifiedEvents.sum())
+                .reconciliations(reconciliations.sum())
+                .corrections(corrections.sum())
+                .build();
+    }
+
+    @Override
+    public void start() {
+        long startedAt = System.nanoTime();
+        load(true);
+        running = true;
+        log.info("Low stock detector started with {} products, {} below their minimum, in {} ms",
+                levels.size(), breaches.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        notifyCrossings();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Load before the web server takes requests, so no stock change slips between the load and the first update
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * Reads every product's total and minimum, adding the changes committed after the snapshot to the totals.
+     * Products that are no longer in the database are dropped.
+     *
+     * @return The number of loaded products whose total differed from the one tracked.
+     */
+    private int load(boolean startup) {
+        Map<Integer, Long> tracked = new ConcurrentHashMap<>();
+        Set<Integer> known = Set.copyOf(levels.keySet());
+        Set<Integer> seen = new HashSet<>();
+        AtomicInteger corrected = new AtomicInteger();
+        snapshotTemplate.executeWithoutResult(status -> {
+            // No change is between its commit and its hand-over here: the ones before are in the snapshot and
+            // already applied, the ones after are tracked
+            commitGate.writeLock().lock();
+            try {
+                stockTotalsRepository.openSnapshot();
+                changedDuringLoad = tracked;
+            } finally {
+                commitGate.writeLock().unlock();
+            }
+            try {
+                stockTotalsRepository.forEachProductLevel(row -> {
+                    seen.add(row.productId());
+                    levels.compute(row.productId(), (id, level) -> {
+                        ProductLevel loaded = level != null ? level : new ProductLevel();
+                        long onHand = row.onHand() + tracked.getOrDefault(id, 0L);
+                        if (level != null && level.sku != null && level.onHand != onHand) {
+                            corrected.incrementAndGet();
+                        }
+                        loaded.sku = row.productSku();
+                        loaded.minimumStock = row.minimumStock();
+                        loaded.onHand = onHand;
+                        boolean below = onHand < loaded.minimumStock;
+                        if (below != loaded.below) {
+                            loaded.below = below;
+                            loaded.notifiedBelow = below;
+                            loaded.changedAt = startup ? null : LocalDateTime.now();
+                            if (below) {
+                                breaches.add(id);
+                            } else {
+                                breaches.remove(id);
+                            }
+                        }
+                        return loaded;
+                    });
+                });
+            } finally {
+                changedDuringLoad = null;
+            }
+        });
+        for (Integer productId : known) {
+            if (!seen.contains(productId)) {
+                onProductDeleted(productId);
+            }
+        }
+        return corrected.get();
+    }
+
+    /**
+     * Called inside the map's lock of the product: records a change of side and marks the product for notification.
+     */
+    private void evaluate(Integer productId, ProductLevel level) {
+        boolean below = level.onHand < level.minimumStock;
+        if (below == level.below) {
+            return;
+        }
+        level.below = below;
+        level.changedAt = LocalDateTime.now();
+        if (below) {
+            breaches.add(productId);
+            crossings.increment();
+        } else {
+            breaches.remove(productId);
+            recoveries.increment();
+        }
+        pending.add(productId);
+    }
+}
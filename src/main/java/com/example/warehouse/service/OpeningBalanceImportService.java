@@ -0,0 +1,396 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.ImportJob;
+import com.example.warehouse.entity.StockLog;
+import com.example.warehouse.entity.User;
+import com.example.warehouse.enums.DataFormatEnum;
+import com.example.warehouse.enums.ImportJobStatusEnum;
+import com.example.warehouse.enums.ReferenceActionEnum;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.exception.BadRequestException;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.exception.ResourceNotFoundException;
+import com.example.warehouse.mapper.ImportJobMapper;
+import com.example.warehouse.model.InventoryChangedEvent;
+import com.example.warehouse.model.InventoryKey;
+import com.example.warehouse.model.OpeningBalanceRow;
+import com.example.warehouse.payload.response.ImportJobErrorResponse;
+import com.example.warehouse.payload.response.ImportJobResponse;
+import com.example.warehouse.repository.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Service for bulk imports of opening balances: creating the first inventory row of many locations at once.
+ * <p>
+ * The document is streamed with Jackson and never held in memory as a whole. Rows are taken in chunks:
+ * <ol>
+ *     <li>Each chunk is validated in parallel against product, warehouse and zone ID sets loaded once
+ *     per import, so checking a row costs no query.</li>
+ *     <li>Locations that already hold inventory, or appear earlier in the document, are rejected with one
+ *     lookup per chunk. Opening balances never overwrite stock.</li>
+ *     <li>The remaining rows are written in one transaction per chunk: the inventory rows as a single
+ *     JDBC batch, their INITIAL_STOCK logs as a Hibernate batch, and the job's progress counters.</li>
+ * </ol>
+ * Because the progress is committed with the chunk it describes, a failed or abandoned import is resumed
+ * by uploading the same document again: the rows already processed are skipped.
+ */
+@Service
+@Slf4j
+public class OpeningBalanceImportService {
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .readerFor(OpeningBalanceRow.class)
+            .with(CsvSchema.emptySchema().withHeader());
+    private static final ObjectReader NDJSON_READER = new ObjectMapper().readerFor(OpeningBalanceRow.class);
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final OpeningBalanceImportRepository importRepository;
+    private final StockLogRepository stockLogRepository;
+    private final ProductInventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseZoneRepository zoneRepository;
+    private final UserRepository userRepository;
+    private final ImportJobMapper importJobMapper;
+    private final SecurityContextService securityContextService;
+    private final InventoryChangeFeed inventoryChangeFeed;
+    private final OutboxService outboxService;
+    private final StockTotalsService stockTotalsService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxRecordedErrors;
+    private final long resumeAfterSeconds;
+
+    public OpeningBalanceImportService(
+            ImportJobRepository importJobRepository,
+            ImportJobErrorRepository importJobErrorRepository,
+            OpeningBalanceImportRepository importRepository,
+            StockLogRepository stockLogRepository,
+            ProductInventoryRepository inventoryRepository,
+            ProductRepository productRepository,
+            WarehouseRepository warehouseRepository,
+            WarehouseZoneRepository zoneRepository,
+            UserRepository userRepository,
+            ImportJobMapper importJobMapper,
+            SecurityContextService securityContextService,
+            InventoryChangeFeed inventoryChangeFeed,
+            OutboxService outboxService,
+            StockTotalsService stockTotalsService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.import.chunk-size:5000}") int chunkSize,
+            @Value("${app.import.max-recorded-errors:1000}") int maxRecordedErrors,
+            @Value("${app.import.resume-after-seconds:300}") long resumeAfterSeconds) {
+        this.importJobRepository = importJobRepository;
+        this.importJobErrorRepository = importJobErrorRepository;
+        this.importRepository = importRepository;
+        this.stockLogRepository = stockLogRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.productRepository = productRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.zoneRepository = zoneRepository;
+        this.userRepository = userRepository;
+        this.importJobMapper = importJobMapper;
+        this.securityContextService = securityContextService;
+        this.inventoryChangeFeed = inventoryChangeFeed;
+        this.outboxService = outboxService;
+        this.stockTotalsService = stockTotalsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxRecordedErrors = maxRecordedErrors;
+        this.resumeAfterSeconds = resumeAfterSeconds;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ImportJobResponse> getImportJobs(Pageable pageable) {
+        return importJobRepository.findAll(pageable).map(importJobMapper::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public ImportJobResponse getImportJobById(Long importJobId) {
+        return importJobMapper.toResponse(findImportJob(importJobId));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ImportJobErrorResponse> getErrors(Long importJobId, Pageable pageable) {
+        findImportJob(importJobId);
+        return importJobErrorRepository.findByImportJobId(importJobId, pageable).map(importJobMapper::toResponse);
+    }
+
+    /**
+     * Starts an import of opening balances.
+     *
+     * @param document Rows with the fields product_id, warehouse_id, zone_id and quantity; CSV with a header
+     *                 row, or one JSON object per line
+     * @return The job with its row counts; rejected rows are available separately
+     * @throws BadRequestException if the document is malformed; the chunks before the malformed row stay
+     *                             imported and the job can be resumed
+     */
+    public ImportJobResponse importOpeningBalances(DataFormatEnum format, InputStream document) {
+        User actor = securityContextService.getCurrentActor();
+        ImportJob importJob = transactionTemplate.execute(status -> importJobRepository.save(ImportJob.builder()
+                .actor(actor)
+                .format(format)
+                .status(ImportJobStatusEnum.RUNNING)
+                .updatedAt(LocalDateTime.now())
+                .build()));
+        return runImport(importJob, document);
+    }
+
+    /**
+     * Resumes a failed import, or one whose process stopped without finishing it.
+     *
+     * @param document The same document as the original upload; rows up to the job's processedRows are skipped
+     * @throws ResourceConflictException if the job is still running
+     */
+    public ImportJobResponse resumeImport(Long importJobId, DataFormatEnum format, InputStream document) {
+        ImportJob importJob = transactionTemplate.execute(status -> {
+            ImportJob existing = findImportJob(importJobId);
+            if (existing.getStatus() == ImportJobStatusEnum.COMPLETED) {
+                throw new BadRequestException("Import job #" + importJobId + " has already completed.");
+            }
+            if (existing.getFormat() != format) {
+                throw new BadRequestException("Import job #" + importJobId + " was started with a " + existing.getFormat() + " document.");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (importJobRepository.claimForResume(importJobId, now.minusSeconds(resumeAfterSeconds), now) == 0) {
+                throw new ResourceConflictException("Import job #" + importJobId + " is still running.");
+            }
+            return findImportJob(importJobId);
+        });
+        log.info("Resuming import job ID: {} after row {}", importJobId, importJob.getProcessedRows());
+        return runImport(importJob, document);
+    }
+
+    private ImportJobResponse runImport(ImportJob importJob, InputStream document) {
+        long startedAt = System.nanoTime();
+        long skipRows = importJob.getProcessedRows();
+        try {
+            ReferenceData referenceData = new ReferenceData(
+                    importRepository.findProductIds(),
+                    importRepository.findWarehouseIds(),
+                    importRepository.findZoneWarehouseIds());
+
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            long rowNumber = 0;
+            try (MappingIterator<OpeningBalanceRow> rows = reader(importJob.getFormat()).readValues(document)) {
+                while (rows.hasNextValue()) {
+                    OpeningBalanceRow row = rows.nextValue();
+                    rowNumber++;
+                    if (rowNumber <= skipRows) {
+                        continue;
+                    }
+                    chunk.add(new ImportRow(rowNumber, row));
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(importJob, chunk, referenceData);
+                        chunk.clear();
+                    }
+                }
+            } catch (JsonProcessingException ex) {
+                throw new BadRequestException("Invalid import document near row " + (rowNumber + 1) + ": " + ex.getOriginalMessage());
+            } catch (RuntimeJsonMappingException ex) {
+                throw new BadRequestException("Invalid import document near row " + (rowNumber + 1) + ": " + ex.getMessage());
+            } catch (IOException ex) {
+                throw new BadRequestException("The import document could not be read: " + ex.getMessage());
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(importJob, chunk, referenceData);
+            }
+            if (rowNumber < skipRows) {
+                throw new BadRequestException("The document has " + rowNumber + " rows, but " + skipRows
+                        + " were already processed; resume with the original document.");
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status ->
+                    importJobRepository.finish(importJob.getId(), ImportJobStatusEnum.COMPLETED, null, now));
+            importJob.setStatus(ImportJobStatusEnum.COMPLETED);
+            importJob.setUpdatedAt(now);
+            importJob.setCompletedAt(now);
+
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            log.info("Import job ID: {} processed {} rows ({} imported, {} rejected) in {} ms",
+                    importJob.getId(), rowNumber, importJob.getImportedRows(), importJob.getRejectedRows(), elapsedMillis);
+
+            ImportJobResponse response = importJobMapper.toResponse(importJob);
+            response.setElapsedMillis(elapsedMillis);
+            return response;
+        } catch (RuntimeException ex) {
+            markFailed(importJob, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Validates a chunk and writes its valid rows, their logs and the job's progress in one transaction.
+     */
+    private void writeChunk(ImportJob importJob, List<ImportRow> chunk, ReferenceData referenceData) {
+        // Pure CPU work over immutable sets, so the rows are checked in parallel
+        List<String> errors = new ArrayList<>(chunk.parallelStream()
+                .map(importRow -> validate(importRow.row(), referenceData))
+                .toList());
+        Long importJobId = importJob.getId();
+        Integer actorId = importJob.getActor() != null ? importJob.getActor().getId() : null;
+        long lastRowNumber = chunk.get(chunk.size() - 1).rowNumber();
+
+        int imported = transactionTemplate.execute(status -> {
+            List<InventoryKey> candidates = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (errors.get(i) == null) {
+                    candidates.add(toKey(chunk.get(i).row()));
+                }
+            }
+            Set<InventoryKey> existing = importRepository.findExistingLocations(candidates);
+
+            Set<InventoryKey> seen = new HashSet<>();
+            List<InventoryKey> keys = new ArrayList<>(candidates.size());
+            List<Integer> quantities = new ArrayList<>(candidates.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                if (errors.get(i) != null) {
+                    continue;
+                }
+                InventoryKey key = toKey(chunk.get(i).row());
+                if (existing.contains(key)) {
+                    errors.set(i, "Inventory already exists for this location.");
+                } else if (!seen.add(key)) {
+                    errors.set(i, "The location appears more than once in this document.");
+                } else {
+                    keys.add(key);
+                    quantities.add(chunk.get(i).row().quantity());
+                }
+            }
+
+            if (!keys.isEmpty()) {
+                List<Long> inventoryIds = importRepository.insertInventories(keys, quantities);
+                User actor = actorId != null ? userRepository.getReferenceById(actorId) : null;
+                LocalDateTime now = LocalDateTime.now();
+                List<StockLog> stockLogs = new ArrayList<>(keys.size());
+                List<InventoryChangedEvent> changes = new ArrayList<>(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    InventoryKey key = keys.get(i);
+                    stockLogs.add(buildStockLog(importJobId, inventoryIds.get(i), key, quantities.get(i), actor));
+                    changes.add(new InventoryChangedEvent(0, inventoryIds.get(i), key.productId(), key.warehouseId(), key.zoneId(),
+                            quantities.get(i), 0, now));
+                }
+                stockLogRepository.saveAll(stockLogs);
+                outboxService.recordStockLogs(stockLogs);
+                stockTotalsService.recordStockLogs(stockLogs);
+                inventoryChangeFeed.publishChangesAfterCommit(changes);
+            }
+            recordErrors(importJob, chunk, errors);
+            importJobRepository.advance(importJobId, lastRowNumber, keys.size(), chunk.size() - keys.size(), LocalDateTime.now());
+            return keys.size();
+        });
+
+        importJob.setProcessedRows(lastRowNumber);
+        importJob.setImportedRows(importJob.getImportedRows() + imported);
+        importJob.setRejectedRows(importJob.getRejectedRows() + chunk.size() - imported);
+    }
+
+    private static String validate(OpeningBalanceRow row, ReferenceData referenceData) {
+        if (row.productId() == null || row.warehouseId() == null || row.zoneId() == null || row.quantity() == null) {
+            return "product_id, warehouse_id, zone_id and quantity are required.";
+        }
+        if (row.quantity() < 0) {
+            return "quantity must be zero or more.";
+        }
+        if (!referenceData.productIds().contains(row.productId())) {
+            return "Product " + row.productId() + " does not exist.";
+        }
+        if (!referenceData.warehouseIds().contains(row.warehouseId())) {
+            return "Warehouse " + row.warehouseId() + " does not exist.";
+        }
+        if (!row.warehouseId().equals(referenceData.zoneWarehouseIds().get(row.zoneId()))) {
+            return "Zone " + row.zoneId() + " does not exist in warehouse " + row.warehouseId() + ".";
+        }
+        return null;
+    }
+
+    /**
+     * Records the rejected rows of a chunk, up to the job's limit of recorded errors.
+     */
+    private void recordErrors(ImportJob importJob, List<ImportRow> chunk, List<String> errors) {
+        long room = maxRecordedErrors - Math.min(importJob.getRejectedRows(), maxRecordedErrors);
+        List<Long> documentRows = new ArrayList<>();
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < chunk.size() && documentRows.size() < room; i++) {
+            if (errors.get(i) != null) {
+                documentRows.add(chunk.get(i).rowNumber());
+                messages.add(errors.get(i));
+            }
+        }
+        if (!documentRows.isEmpty()) {
+            importRepository.insertErrors(importJob.getId(), documentRows, messages);
+        }
+    }
+
+    private StockLog buildStockLog(Long importJobId, Long inventoryId, InventoryKey key, Integer quantity, User actor) {
+        return StockLog.builder()
+                .inventory(inventoryRepository.getReferenceById(inventoryId))
+                .product(productRepository.getReferenceById(key.productId()))
+                .warehouse(warehouseRepository.getReferenceById(key.warehouseId()))
+                .zone(zoneRepository.getReferenceById(key.zoneId()))
+                .actor(actor)
+                .type(StockLogEnum.INITIAL_STOCK)
+                .quantityBefore(0)
+                .quantityChange(quantity)
+                .quantityAfter(quantity)
+                .referenceType(ReferenceActionEnum.IMPORT_JOB)
+                .referenceId(importJobId.toString())
+                .note("Opening balance")
+                .build();
+    }
+
+    private void markFailed(ImportJob importJob, RuntimeException cause) {
+        String message = String.valueOf(cause.getMessage());
+        String error = message.length() > 500 ? message.substring(0, 500) : message;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    importJobRepository.finish(importJob.getId(), ImportJobStatusEnum.FAILED, error, LocalDateTime.now()));
+        } catch (RuntimeException ex) {
+            log.error("Failed to mark import job ID: {} as failed: {}", importJob.getId(), ex.getMessage());
+        }
+        log.warn("Import job ID: {} failed after row {}: {}", importJob.getId(), importJob.getProcessedRows(), cause.getMessage());
+    }
+
+    private static ObjectReader reader(DataFormatEnum format) {
+        return format == DataFormatEnum.CSV ? CSV_READER : NDJSON_READER;
+    }
+
+    private static InventoryKey toKey(OpeningBalanceRow row) {
+        return new InventoryKey(row.productId(), row.warehouseId(), row.zoneId());
+    }
+
+    private ImportJob findImportJob(Long importJobId) {
+        return importJobRepository.findWithActorById(importJobId)
+                .orElseThrow(() -> new ResourceNotFoundException("ImportJob", "id", importJobId));
+    }
+
+    private record ImportRow(long rowNumber, OpeningBalanceRow row) {
+    }
+
+    private record ReferenceData(Set<Integer> productIds, Set<Integer> warehouseIds, Map<Integer, Integer> zoneWarehouseIds) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.OutboxEvent;
+import com.example.warehouse.entity.StockLog;
+import com.example.warehouse.enums.OutboxEventTypeEnum;
+import com.example.warehouse.model.AuditEvent;
+import com.example.warehouse.model.LowStockEvent;
+import com.example.warehouse.model.StockLogEvent;
+import com.example.warehouse.repository.OutboxJdbcRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes outbox events for the webhook dispatcher.
+ * <p>
+ * Must be called inside the transaction making the change: the events are inserted right away and commit
+ * or roll back together with it. Inventory events are keyed by product and audit events by table, which
+ * is the order they are delivered in.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxJdbcRepository outboxJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public OutboxService(
+            OutboxJdbcRepository outboxJdbcRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.outbox.enabled:true}") boolean enabled) {
+        this.outboxJdbcRepository = outboxJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records an INVENTORY_CHANGED event per stock log. The logs must already have their IDs, i.e. have been saved.
+     */
+    public void recordStockLogs(Collection<StockLog> stockLogs) {
+        if (!enabled || stockLogs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxJdbcRepository.insertEvents(stockLogs.stream()
+                .map(StockLogEvent::of)
+                .map(event -> buildEvent(OutboxEventTypeEnum.INVENTORY_CHANGED, "product:" + event.productId(), event, now))
+                .toList());
+    }
+
+    /**
+     * Records a LOW_STOCK_CHANGED event per crossing, keyed by product like the inventory events.
+     */
+    public void recordLowStockEvents(Collection<LowStockEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxJdbcRepository.insertEvents(events.stream()
+                .map(event -> buildEvent(OutboxEventTypeEnum.LOW_STOCK_CHANGED, "product:" + event.productId(), event, now))
+                .toList());
+    }
+
+    public void recordAuditEvent(AuditEvent event) {
+        if (enabled) {
+            outboxJdbcRepository.insertEvents(List.of(
+                    buildEvent(OutboxEventTypeEnum.AUDIT_LOGGED, "audit:" + event.tableAffected(), event, LocalDateTime.now())));
+        }
+    }
+
+    private OutboxEvent buildEvent(OutboxEventTypeEnum type, String orderingKey, Object payload, LocalDateTime now) {
+        try {
+            return OutboxEvent.builder()
+                    .eventType(type)
+                    .orderingKey(orderingKey)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(now)
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox payload " + payload, ex);
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class ProductCategoryService {
     private final ProductCategoryMapper categoryMapper;
     private final AuditLogService auditLogService;
     private final SecurityContextService securityContextService;
+    private final ReferenceDataCacheService referenceDataCacheService;
 
     /**
      * Creates a new product category.
@@ -51,6 +52,7 @@ public class ProductCategoryService {
                 .build();
 
         ProductCategory savedCategory = categoryRepository.save(category);
+        referenceDataCacheService.evictCollectionAfterCommit(ProductCategory.class, "childCategories", request.getParentId());
 
         auditLogService.logAction(
                 securityContextService.getCurrentActor(),
@@ -127,6 +129,13 @@ public class ProductCategoryService {
             checkCircularDependency(categoryToUpdate, newParent);
         }
 
+        // Both the old and the new parent's cached child lists change when a category moves
+        if (categoryToUpdate.getParentCategory() != null) {
+            referenceDataCacheService.evictCollectionAfterCommit(ProductCategory.class, "childCategories", categoryToUpdate.getParentCategory().getId());
+        }
+        referenceDataCacheService.evictCollectionAfterCommit(ProductCategory.class, "childCategories", request.getParentId());
+        referenceDataCacheService.evictAfterCommit(ProductCategory.class, categoryId);
+
         categoryToUpdate.setName(request.getName());
         categoryToUpdate.setDescription(request.getDescription());
         categoryToUpdate.setParentCategory(newParent);
@@ -172,6 +181,11 @@ public class ProductCategoryService {
 
         log.info("Deleting category: {}", categoryToDelete.getName());
         categoryRepository.delete(categoryToDelete);
+        // Children are re-parented by the database, behind Hibernate's back
+        referenceDataCacheService.evictAllAfterCommit(ProductCategory.class);
+        if (categoryToDelete.getParentCategory() != null) {
+            referenceDataCacheService.evictCollectionAfterCommit(ProductCategory.class, "childCategories", categoryToDelete.getParentCategory().getId());
+        }
     }
 
     /**
@@ -3,27 +3,48 @@ package com.example.warehouse.service;
 import com.example.warehouse.entity.*;
 import com.example.warehouse.enums.ReferenceActionEnum;
 import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.exception.BadRequestException;
 import com.example.warehouse.exception.ResourceConflictException;
 import com.example.warehouse.exception.ResourceNotFoundException;
 import com.example.warehouse.mapper.ProductInventoryMapper;
 import com.example.warehouse.mapper.StockLogMapper;
+import com.example.warehouse.model.InventoryKey;
+import com.example.warehouse.model.MovementResult;
+import com.example.warehouse.model.StockLogCursor;
+import com.example.warehouse.model.StockMovement;
 import com.example.warehouse.payload.request.AdjustInventoryRequest;
-import com.example.warehouse.payload.request.MoveInventoryRequest;
+import com.example.warehouse.payload.request.BulkAdjustInventoryRequest;
+import com.example.warehouse.payload.request.InventoryFilterRequest;
+import com.example.warehouse.payload.response.BulkAdjustInventoryResponse;
+import com.example.warehouse.payload.response.BulkAdjustLineResult;
+import com.example.warehouse.payload.response.CursorPage;
 import com.example.warehouse.payload.response.ProductInventoryResponse;
 import com.example.warehouse.payload.response.StockLogResponse;
 import com.example.warehouse.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductInventoryService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+
     private final ProductInventoryRepository inventoryRepository;
     private final StockLogRepository stockLogRepository;
     private final ProductRepository productRepository;
@@ -32,11 +53,26 @@ public class ProductInventoryService {
     private final ProductInventoryMapper inventoryMapper;
     private final StockLogMapper stockLogMapper;
     private final SecurityContextService securityContextService;
+    private final InventoryChangeFeed inventoryChangeFeed;
+    private final OutboxService outboxService;
+    private final StockTotalsService stockTotalsService;
 
     @Transactional(readOnly = true)
-    public Page<ProductInventoryResponse> getAllInventory(Pageable pageable) {
-        log.info("Retrieving all product inventory records");
-        return inventoryRepository.findAll(pageable).map(inventoryMapper::toResponse);
+    public Page<ProductInventoryResponse> getAllInventory(InventoryFilterRequest filter, Pageable pageable) {
+        if (filter.getMinQuantity() != null && filter.getMaxQuantity() != null
+                && filter.getMinQuantity() > filter.getMaxQuantity()) {
+            throw new BadRequestException("Minimum quantity cannot be greater than maximum quantity.");
+        }
+
+        log.info("Retrieving product inventory records with filter: {}", filter);
+        return inventoryRepository.findInventoryResponses(
+                filter.getProductId(),
+                StringUtils.hasText(filter.getSku()) ? filter.getSku().trim() : null,
+                filter.getWarehouseId(),
+                filter.getZoneId(),
+                filter.getMinQuantity(),
+                filter.getMaxQuantity(),
+                pageable);
     }
 
     @Transactional(readOnly = true)
@@ -46,77 +82,320 @@ public class ProductInventoryService {
     }
 
     /**
-     * Adjusts the quantity of a product in a specific location.
-     * This creates a single transaction log (e.g., ADJUSTMENT_IN or ADJUSTMENT_OUT).
+     * Retrieves stock logs for an inventory row newest first, one keyset page at a time.
+     *
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param size   The page size (1 to {@value #MAX_HISTORY_PAGE_SIZE}).
      */
-    @Transactional
-    public ProductInventoryResponse adjustInventory(AdjustInventoryRequest request) {
-        ProductInventory inventory = findOrCreateInventory(request.getProductId(), request.getWarehouseId(), request.getZoneId());
+    @Transactional(readOnly = true)
+    public CursorPage<StockLogResponse> getStockLogsByInventoryId(Long inventoryId, String cursor, int size) {
+        log.info("Retrieving stock logs for inventory ID: {} after cursor: {}", inventoryId, cursor);
+        return readHistory(cursor, size,
+                page -> stockLogRepository.findHistoryFirstPage(inventoryId, page),
+                (position, page) -> stockLogRepository.findHistoryPageAfter(
+                        inventoryId, position.createdAt(), position.id(), page));
+    }
 
-        int quantityBefore = inventory.getQuantity();
-        int newQuantity = quantityBefore + request.getQuantityChange();
+    /**
+     * Retrieves stock logs of a product across all locations, newest first, one keyset page at a time.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<StockLogResponse> getStockLogsByProductId(Integer productId, String cursor, int size) {
+        log.info("Retrieving stock logs for product ID: {} after cursor: {}", productId, cursor);
+        return readHistory(cursor, size,
+                page -> stockLogRepository.findProductHistoryFirstPage(productId, page),
+                (position, page) -> stockLogRepository.findProductHistoryPageAfter(
+                        productId, position.createdAt(), position.id(), page));
+    }
 
-        if (newQuantity < 0) {
-            throw new ResourceConflictException("Adjustment would result in negative stock. Current quantity: " + quantityBefore);
+    /**
+     * Retrieves stock logs of a warehouse created in [from, to), newest first, one keyset page at a time.
+     *
+     * @param to The exclusive end of the range; defaults to now.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<StockLogResponse> getStockLogsByWarehouseId(
+            Integer warehouseId, LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        LocalDateTime until = to != null ? to : LocalDateTime.now();
+        if (!from.isBefore(until)) {
+            throw new BadRequestException("The start of the time range must be before its end.");
         }
 
-        inventory.setQuantity(newQuantity);
-        ProductInventory savedInventory = inventoryRepository.save(inventory);
+        log.info("Retrieving stock logs for warehouse ID: {} between {} and {} after cursor: {}", warehouseId, from, until, cursor);
+        return readHistory(cursor, size,
+                page -> stockLogRepository.findWarehouseHistoryFirstPage(warehouseId, from, until, page),
+                (position, page) -> stockLogRepository.findWarehouseHistoryPageAfter(
+                        warehouseId, from, position.createdAt(), position.id(), page));
+    }
+
+    /**
+     * Adjusts the quantity of a product in a specific location.
+     * This creates a single transaction log (e.g., ADJUSTMENT_IN or ADJUSTMENT_OUT).
+     */
+    @Transactional
+    public ProductInventoryResponse adjustInventory(AdjustInventoryRequest request) {
+        int quantityChange = request.getQuantityChange();
+        ProductInventory savedInventory = applyQuantityDelta(
+                request.getProductId(), request.getWarehouseId(), request.getZoneId(), quantityChange);
 
-        StockLogEnum type = request.getQuantityChange() > 0 ? StockLogEnum.ADJUSTMENT_IN : StockLogEnum.ADJUSTMENT_OUT;
+        StockLogEnum type = quantityChange > 0 ? StockLogEnum.ADJUSTMENT_IN : StockLogEnum.ADJUSTMENT_OUT;
 
         logTransaction(
                 savedInventory,
                 type,
-                request.getQuantityChange(),
-                quantityBefore,
+                quantityChange,
+                savedInventory.getQuantity() - quantityChange,
                 request.getNote(),
                 request.getReferenceType(),
                 request.getReferenceId()
         );
+        inventoryChangeFeed.publishAfterCommit(List.of(savedInventory));
 
-        log.info("Inventory adjusted for product ID: {}, new quantity: {}", request.getProductId(), newQuantity);
+        log.info("Inventory adjusted for product ID: {}, new quantity: {}", request.getProductId(), savedInventory.getQuantity());
         return inventoryMapper.toResponse(savedInventory);
     }
 
     /**
-     * Moves a specified quantity of a product from a source zone to a destination zone.
-     * This is an atomic operation that creates two transaction logs (MOVE_OUT and MOVE_IN).
+     * Applies concurrent adjustments of one product location as a single quantity update (see AdjustmentCombiner).
+     * Each adjustment is accepted or rejected on its own against the running quantity, in list order,
+     * and accepted ones get their own StockLog with their own actor.
+     *
+     * @return One result per adjustment, in input order; the inventory of applied results holds the final quantity.
      */
     @Transactional
-    public void moveInventory(MoveInventoryRequest request) {
-        if (request.getSourceZoneId().equals(request.getDestinationZoneId())) {
-            throw new ResourceConflictException("Source and destination zones cannot be the same.");
+    public List<MovementResult> adjustInventoryCombined(InventoryKey key, List<AdjustInventoryRequest> requests, List<User> actors) {
+        // A zero-delta update takes the row lock, so the quantity read next stays current until commit
+        if (inventoryRepository.applyQuantityDelta(key.productId(), key.warehouseId(), key.zoneId(), 0) == 0) {
+            findOrCreateInventory(key.productId(), key.warehouseId(), key.zoneId());
+            inventoryRepository.applyQuantityDelta(key.productId(), key.warehouseId(), key.zoneId(), 0);
+        }
+        ProductInventory locked = findWrittenInventory(key.productId(), key.warehouseId(), key.zoneId());
+        int reserved = locked.getReservedQuantity();
+
+        int[] quantityBefore = new int[requests.size()];
+        String[] errors = new String[requests.size()];
+        int running = locked.getQuantity();
+        int accepted = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            int quantityChange = requests.get(i).getQuantityChange();
+            if (running + quantityChange < reserved) {
+                errors[i] = "Adjustment would result in negative stock or release reserved stock. Current quantity: "
+                        + running + ", available: " + (running - reserved);
+                continue;
+            }
+            quantityBefore[i] = running;
+            running += quantityChange;
+            accepted++;
+        }
+
+        List<MovementResult> results = new ArrayList<>(requests.size());
+        if (accepted == 0) {
+            IntStream.range(0, requests.size()).forEach(i -> results.add(MovementResult.rejected(i, errors[i])));
+            return results;
+        }
+
+        inventoryRepository.applyQuantityDeltaById(locked.getId(), running - locked.getQuantity());
+        ProductInventory written = findWrittenInventory(key.productId(), key.warehouseId(), key.zoneId());
+        List<StockLog> stockLogs = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null) {
+                results.add(MovementResult.rejected(i, errors[i]));
+                continue;
+            }
+            AdjustInventoryRequest request = requests.get(i);
+            int quantityAfter = quantityBefore[i] + request.getQuantityChange();
+            results.add(MovementResult.applied(i, written, quantityBefore[i], quantityAfter));
+            stockLogs.add(buildStockLog(written, actors.get(i),
+                    request.getQuantityChange() > 0 ? StockLogEnum.ADJUSTMENT_IN : StockLogEnum.ADJUSTMENT_OUT,
+                    request.getQuantityChange(), quantityBefore[i], quantityAfter, request.getNote(),
+                    toReferenceType(request.getReferenceType()), request.getReferenceId()));
+        }
+
+        stockLogRepository.saveAll(stockLogs);
+        outboxService.recordStockLogs(stockLogs);
+        stockTotalsService.recordStockLogs(stockLogs);
+        inventoryChangeFeed.publishAfterCommit(List.of(written));
+
+        log.info("Applied {} of {} combined adjustments for product ID: {} in zone {}, new quantity: {}",
+                stockLogs.size(), requests.size(), key.productId(), key.zoneId(), written.getQuantity());
+        return results;
+    }
+
+    /**
+     * Applies many adjustment lines in a single transaction.
+     * In atomic mode any rejected line rolls back the whole request; otherwise rejected lines are reported and skipped.
+     */
+    @Transactional
+    public BulkAdjustInventoryResponse bulkAdjustInventory(BulkAdjustInventoryRequest request) {
+        long startedAt = System.nanoTime();
+        List<StockMovement> movements = request.getLines().stream()
+                .map(line -> new StockMovement(
+                        new InventoryKey(line.getProductId(), line.getWarehouseId(), line.getZoneId()),
+                        line.getQuantityChange(),
+                        line.getQuantityChange() > 0 ? StockLogEnum.ADJUSTMENT_IN : StockLogEnum.ADJUSTMENT_OUT,
+                        line.getNote(),
+                        toReferenceType(line.getReferenceType()),
+                        line.getReferenceId()))
+                .toList();
+
+        List<MovementResult> results = applyMovements(movements, request.isAtomic());
+
+        List<BulkAdjustLineResult> lineResults = results.stream()
+                .map(result -> BulkAdjustLineResult.builder()
+                        .lineIndex(result.index())
+                        .applied(result.applied())
+                        .inventory(inventoryMapper.toResponse(result.inventory()))
+                        .quantityBefore(result.quantityBefore())
+                        .quantityAfter(result.quantityAfter())
+                        .error(result.error())
+                        .build())
+                .toList();
+        int appliedLines = (int) results.stream().filter(MovementResult::applied).count();
+
+        long elapsedNanos = Math.max(System.nanoTime() - startedAt, 1);
+        double linesPerSecond = movements.size() * 1_000_000_000.0 / elapsedNanos;
+        log.info("Bulk adjustment applied {}/{} lines in {} ms ({} lines/s)",
+                appliedLines, movements.size(), elapsedNanos / 1_000_000, Math.round(linesPerSecond));
+
+        return BulkAdjustInventoryResponse.builder()
+                .totalLines(movements.size())
+                .appliedLines(appliedLines)
+                .failedLines(movements.size() - appliedLines)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .linesPerSecond(linesPerSecond)
+                .lines(lineResults)
+                .build();
+    }
+
+    /**
+     * Applies a batch of stock movements in one transaction.
+     * <p>
+     * Products, warehouses, zones and existing inventory rows are resolved with one query each.
+     * Rows are updated in {@link InventoryKey} order, so concurrent batches always lock in the same
+     * sequence and cannot deadlock. All StockLog rows are written together at the end.
+     *
+     * @param movements    The movements to apply.
+     * @param allOrNothing If true, the first rejected movement aborts the batch with a ResourceConflictException.
+     * @return One result per movement, in input order.
+     */
+    @Transactional
+    public List<MovementResult> applyMovements(List<StockMovement> movements, boolean allOrNothing) {
+        return applyMovements(movements, Collections.nCopies(movements.size(), securityContextService.getCurrentActor()), allOrNothing);
+    }
+
+    /**
+     * Applies a batch of stock movements made by different users, e.g. movements journaled on a standalone site.
+     *
+     * @param actors The actor of each movement, in input order; null entries are logged without an actor.
+     */
+    @Transactional
+    public List<MovementResult> applyMovements(List<StockMovement> movements, List<User> actors, boolean allOrNothing) {
+        Map<Integer, Product> products = productRepository.findAllById(collectIds(movements, InventoryKey::productId)).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Integer, Warehouse> warehouses = warehouseRepository.findAllById(collectIds(movements, InventoryKey::warehouseId)).stream()
+                .collect(Collectors.toMap(Warehouse::getId, Function.identity()));
+        Map<Integer, WarehouseZone> zones = zoneRepository.findAllById(collectIds(movements, InventoryKey::zoneId)).stream()
+                .collect(Collectors.toMap(WarehouseZone::getId, Function.identity()));
+
+        Map<InventoryKey, Long> inventoryIds = new HashMap<>();
+        if (!products.isEmpty() && !warehouses.isEmpty() && !zones.isEmpty()) {
+            inventoryRepository.findByProductIdInAndWarehouseIdInAndZoneIdIn(products.keySet(), warehouses.keySet(), zones.keySet())
+                    .forEach(inventory -> inventoryIds.put(keyOf(inventory), inventory.getId()));
         }
 
-        // 1. Get source inventory and validate quantity
-        ProductInventory sourceInventory = inventoryRepository
-                .findByProductIdAndWarehouseIdAndZoneId(request.getProductId(), request.getWarehouseId(), request.getSourceZoneId())
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found in source zone."));
+        // 1. Update rows in lock order; a stable sort keeps input order for repeated keys
+        int[] lockOrder = IntStream.range(0, movements.size()).boxed()
+                .sorted(Comparator.comparing(index -> movements.get(index).key()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        MovementResult[] results = new MovementResult[movements.size()];
 
-        if (sourceInventory.getQuantity() < request.getQuantity()) {
-            throw new ResourceConflictException("Insufficient stock in source zone. Available: " + sourceInventory.getQuantity());
+        for (int index : lockOrder) {
+            StockMovement movement = movements.get(index);
+            InventoryKey key = movement.key();
+            String error = validateLocation(key, products, warehouses, zones);
+
+            if (error == null) {
+                Long inventoryId = inventoryIds.get(key);
+                if (inventoryId == null && movement.quantityChange() < 0) {
+                    error = "Adjustment would result in negative stock. Current quantity: 0";
+                } else {
+                    if (inventoryId == null) {
+                        inventoryId = createInventory(products.get(key.productId()), warehouses.get(key.warehouseId()), zones.get(key.zoneId())).getId();
+                        inventoryIds.put(key, inventoryId);
+                    }
+                    if (inventoryRepository.applyQuantityDeltaById(inventoryId, movement.quantityChange()) == 0) {
+                        error = "Adjustment would result in negative stock or release reserved stock.";
+                    }
+                }
+            }
+
+            if (error != null) {
+                if (allOrNothing) {
+                    throw new ResourceConflictException("Line " + index + ": " + error);
+                }
+                results[index] = MovementResult.rejected(index, error);
+            }
         }
 
-        // 2. Get or create destination inventory
-        ProductInventory destInventory = findOrCreateInventory(request.getProductId(), request.getWarehouseId(), request.getDestinationZoneId());
+        // 2. Re-read the written rows in one query and derive each movement's before/after by walking back from the final quantity
+        Set<Long> touchedIds = IntStream.range(0, movements.size())
+                .filter(index -> results[index] == null)
+                .mapToObj(index -> inventoryIds.get(movements.get(index).key()))
+                .collect(Collectors.toSet());
+        Map<Long, ProductInventory> written = touchedIds.isEmpty() ? Map.of() : inventoryRepository.findByIdIn(touchedIds).stream()
+                .collect(Collectors.toMap(ProductInventory::getId, Function.identity()));
 
-        // 3. Perform the move on the source
-        int sourceQtyBefore = sourceInventory.getQuantity();
-        sourceInventory.setQuantity(sourceQtyBefore - request.getQuantity());
-        inventoryRepository.save(sourceInventory);
-        logTransaction(sourceInventory, StockLogEnum.GOODS_ISSUE, -request.getQuantity(), sourceQtyBefore, request.getNote(),
-                ReferenceActionEnum.SALES_ORDER.toString(), destInventory.getId().toString());
+        Map<Long, Integer> runningQuantities = new HashMap<>();
+        Deque<StockLog> stockLogs = new ArrayDeque<>();
+        for (int i = lockOrder.length - 1; i >= 0; i--) {
+            int index = lockOrder[i];
+            if (results[index] != null) {
+                continue;
+            }
+            StockMovement movement = movements.get(index);
+            ProductInventory inventory = written.get(inventoryIds.get(movement.key()));
+            int quantityAfter = runningQuantities.getOrDefault(inventory.getId(), inventory.getQuantity());
+            int quantityBefore = quantityAfter - movement.quantityChange();
+            runningQuantities.put(inventory.getId(), quantityBefore);
+
+            results[index] = MovementResult.applied(index, inventory, quantityBefore, quantityAfter);
+            stockLogs.addFirst(buildStockLog(inventory, actors.get(index), movement.type(), movement.quantityChange(), quantityBefore,
+                    quantityAfter, movement.note(), movement.referenceType(), movement.referenceId()));
+        }
+
+        // 3. Write all logs in one go so Hibernate can send them as a JDBC batch
+        stockLogRepository.saveAll(stockLogs);
+        outboxService.recordStockLogs(stockLogs);
+        stockTotalsService.recordStockLogs(stockLogs);
+        inventoryChangeFeed.publishAfterCommit(written.values());
+
+        log.info("Applied {} of {} stock movements", stockLogs.size(), movements.size());
+        return Arrays.asList(results);
+    }
 
-        // 4. Perform the move on the destination
-        int destQtyBefore = destInventory.getQuantity();
-        destInventory.setQuantity(destQtyBefore + request.getQuantity());
-        inventoryRepository.save(destInventory);
-        logTransaction(destInventory, StockLogEnum.GOODS_RECEIPT, request.getQuantity(), destQtyBefore, request.getNote(),
-                ReferenceActionEnum.PURCHASE_ORDER.toString(), destInventory.getId().toString());
+    /**
+     * Applies a quantity delta with a single conditional UPDATE, creating the inventory record first
+     * if it doesn't exist yet. The returned entity reflects the row exactly as this transaction wrote it.
+     */
+    private ProductInventory applyQuantityDelta(Integer productId, Integer warehouseId, Integer zoneId, int delta) {
+        if (inventoryRepository.applyQuantityDelta(productId, warehouseId, zoneId, delta) == 0) {
+            ProductInventory current = findOrCreateInventory(productId, warehouseId, zoneId);
+            if (inventoryRepository.applyQuantityDelta(productId, warehouseId, zoneId, delta) == 0) {
+                throw new ResourceConflictException("Adjustment would result in negative stock or release reserved stock. Current quantity: "
+                        + current.getQuantity() + ", available: " + availableQuantity(current));
+            }
+        }
+        return findWrittenInventory(productId, warehouseId, zoneId);
+    }
 
-        log.info("Moved {} units of product ID: {} from zone ID: {} to zone ID: {}",
-                request.getQuantity(), request.getProductId(), request.getSourceZoneId(), request.getDestinationZoneId());
+    /**
+     * Re-reads a row right after this transaction updated it. The row lock taken by the UPDATE is held
+     * until commit, so the quantity read here is the one that was actually written.
+     */
+    private ProductInventory findWrittenInventory(Integer productId, Integer warehouseId, Integer zoneId) {
+        return inventoryRepository.findByProductIdAndWarehouseIdAndZoneId(productId, warehouseId, zoneId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product " + productId + " in zone " + zoneId));
     }
 
     /**
@@ -133,16 +412,77 @@ public class ProductInventoryService {
                     WarehouseZone zone = zoneRepository.findByWarehouseIdAndId(warehouseId, zoneId)
                             .orElseThrow(() -> new ResourceNotFoundException("Zone", "id", zoneId));
 
-                    ProductInventory newInventory = ProductInventory.builder()
-                            .product(product)
-                            .warehouse(warehouse)
-                            .zone(zone)
-                            .quantity(0)
-                            .build();
-                    return inventoryRepository.save(newInventory);
+                    return createInventory(product, warehouse, zone);
                 });
     }
 
+    private ProductInventory createInventory(Product product, Warehouse warehouse, WarehouseZone zone) {
+        ProductInventory newInventory = ProductInventory.builder()
+                .product(product)
+                .warehouse(warehouse)
+                .zone(zone)
+                .quantity(0)
+                .build();
+        return inventoryRepository.save(newInventory);
+    }
+
+    static String validateLocation(InventoryKey key, Map<Integer, Product> products,
+                                   Map<Integer, Warehouse> warehouses, Map<Integer, WarehouseZone> zones) {
+        if (!products.containsKey(key.productId())) {
+            return "Product not found with id : '" + key.productId() + "'";
+        }
+        if (!warehouses.containsKey(key.warehouseId())) {
+            return "Warehouse not found with id : '" + key.warehouseId() + "'";
+        }
+        WarehouseZone zone = zones.get(key.zoneId());
+        if (zone == null || !zone.getWarehouse().getId().equals(key.warehouseId())) {
+            return "Zone not found with id : '" + key.zoneId() + "'";
+        }
+        return null;
+    }
+
+    static int availableQuantity(ProductInventory inventory) {
+        return inventory.getQuantity() - inventory.getReservedQuantity();
+    }
+
+    private static InventoryKey keyOf(ProductInventory inventory) {
+        return new InventoryKey(inventory.getProduct().getId(), inventory.getWarehouse().getId(), inventory.getZone().getId());
+    }
+
+    private static Set<Integer> collectIds(List<StockMovement> movements, Function<InventoryKey, Integer> idExtractor) {
+        return movements.stream().map(movement -> idExtractor.apply(movement.key())).collect(Collectors.toSet());
+    }
+
+    static ReferenceActionEnum toReferenceType(String referenceType) {
+        if (!StringUtils.hasText(referenceType)) {
+            return null;
+        }
+        try {
+            return ReferenceActionEnum.valueOf(referenceType);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unknown reference type: " + referenceType);
+        }
+    }
+
+    /**
+     * Records a stock log for a change another service made to the inventory row (e.g. confirming a reservation).
+     * The inventory must reflect the row as the caller's transaction wrote it.
+     */
+    public void recordStockLog(
+            ProductInventory inventory,
+            StockLogEnum type,
+            int quantityChange,
+            String note,
+            ReferenceActionEnum referenceType,
+            String referenceId) {
+        int quantityAfter = inventory.getQuantity();
+        StockLog stockLog = stockLogRepository.save(buildStockLog(inventory, securityContextService.getCurrentActor(), type,
+                quantityChange, quantityAfter - quantityChange, quantityAfter, note, referenceType, referenceId));
+        outboxService.recordStockLogs(List.of(stockLog));
+        stockTotalsService.recordStockLogs(List.of(stockLog));
+        inventoryChangeFeed.publishAfterCommit(List.of(inventory));
+    }
+
     /**
      * Creates and saves an immutable StockLog record for any inventory change.
      */
@@ -154,17 +494,64 @@ public class ProductInventoryService {
             String note,
             String referenceAction,
             String referenceId) {
-        StockLog stockLog = StockLog.builder()
+        StockLog stockLog = buildStockLog(inventory, securityContextService.getCurrentActor(), type, quantityChange,
+                quantityBefore, inventory.getQuantity(), note, toReferenceType(referenceAction), referenceId);
+        List<StockLog> saved = List.of(stockLogRepository.save(stockLog));
+        outboxService.recordStockLogs(saved);
+        stockTotalsService.recordStockLogs(saved);
+    }
+
+    private StockLog buildStockLog(
+            ProductInventory inventory,
+            User actor,
+            StockLogEnum type,
+            int quantityChange,
+            int quantityBefore,
+            int quantityAfter,
+            String note,
+            ReferenceActionEnum referenceType,
+            String referenceId) {
+        return StockLog.builder()
                 .inventory(inventory)
-                .actor(securityContextService.getCurrentActor())
+                .product(inventory.getProduct())
+                .warehouse(inventory.getWarehouse())
+                .zone(inventory.getZone())
+                .actor(actor)
                 .type(type)
                 .quantityBefore(quantityBefore)
                 .quantityChange(quantityChange)
-                .quantityAfter(inventory.getQuantity())
+                .quantityAfter(quantityAfter)
                 .note(note)
-                .referenceType(ReferenceActionEnum.valueOf(referenceAction))
+                .referenceType(referenceType)
                 .referenceId(referenceId)
                 .build();
-        stockLogRepository.save(stockLog);
+    }
+
+    private CursorPage<StockLogResponse> readHistory(
+            String cursor,
+            int size,
+            Function<Pageable, Slice<StockLog>> firstPage,
+            BiFunction<StockLogCursor, Pageable, Slice<StockLog>> pageAfter) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE + ".");
+        }
+
+        Pageable firstRows = PageRequest.ofSize(size);
+        Slice<StockLog> slice = StringUtils.hasText(cursor)
+                ? pageAfter.apply(StockLogCursor.decode(cursor), firstRows)
+                : firstPage.apply(firstRows);
+
+        List<StockLog> logs = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            StockLog last = logs.get(logs.size() - 1);
+            nextCursor = new StockLogCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPage.<StockLogResponse>builder()
+                .content(logs.stream().map(stockLogMapper::toResponse).toList())
+                .size(logs.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
     }
 }
@@ -13,6 +13,7 @@ import com.example.warehouse.payload.response.ProductResponse;
 import com.example.warehouse.repository.ProductCategoryRepository;
 import com.example.warehouse.repository.ProductRepository;
 import com.example.warehouse.repository.UnitOfMeasureRepository;
+import com.example.warehouse.utility.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -20,6 +21,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Service class for managing products.
  * Handles business logic for creating, reading, updating, and deleting products,
@@ -37,6 +41,8 @@ public class ProductService {
     private final AuditLogService auditLogService;
     private final SecurityContextService securityContextService;
     private final GeneratorService generatorService;
+    private final StockTotalsService stockTotalsService;
+    private final LowStockDetector lowStockDetector;
 
     /**
      * Retrieves a paginated list of all products.
@@ -46,7 +52,10 @@ public class ProductService {
     @Transactional(readOnly = true)
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
         log.info("Retrieving all products with pagination: {}", pageable);
-        return productRepository.findAll(pageable).map(productMapper::toProductResponse);
+        Page<ProductResponse> products = productRepository.findAll(pageable).map(productMapper::toProductResponse);
+        Map<Integer, Long> totals = stockTotalsService.getProductTotals(products.map(ProductResponse::getId).getContent());
+        products.forEach(product -> product.setTotalOnHand(totals.getOrDefault(product.getId(), 0L)));
+        return products;
     }
 
     /**
@@ -60,6 +69,7 @@ public class ProductService {
         log.info("Retrieving product by ID: {}", productId);
         return productRepository.findById(productId)
                 .map(productMapper::toProductResponse)
+                .map(this::withTotalOnHand)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
     }
 
@@ -74,6 +84,7 @@ public class ProductService {
         log.info("Retrieving product by SKU: {}", sku);
         return productRepository.findBySku(sku)
                 .map(productMapper::toProductResponse)
+                .map(this::withTotalOnHand)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "sku", sku));
     }
 
@@ -88,6 +99,7 @@ public class ProductService {
         log.info("Retrieving product by barcode: {}", barcode);
         return productRepository.findByBarcode(barcode)
                 .map(productMapper::toProductResponse)
+                .map(this::withTotalOnHand)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "barcode", barcode));
     }
 
@@ -132,6 +144,9 @@ public class ProductService {
                 String.format("Created product '%s' with SKU '%s'", savedProduct.getName(), savedProduct.getSku())
         );
 
+        TransactionUtil.runAfterCommit(() -> lowStockDetector.onProductSaved(
+                savedProduct.getId(), savedProduct.getSku(), savedProduct.getMinimumStock()));
+
         log.info("Product created: {}", savedProduct.getName());
         return productMapper.toProductResponse(savedProduct);
     }
@@ -174,6 +189,9 @@ public class ProductService {
                 String.format("Updated product '%s'", updatedProduct.getName())
         );
 
+        TransactionUtil.runAfterCommit(() -> lowStockDetector.onProductSaved(
+                updatedProduct.getId(), updatedProduct.getSku(), updatedProduct.getMinimumStock()));
+
         log.info("Product updated: {}", updatedProduct.getName());
         return productMapper.toProductResponse(updatedProduct);
     }
@@ -207,5 +225,11 @@ public class ProductService {
 
         log.info("Deleting product: {}", product.getName());
         productRepository.delete(product);
+        TransactionUtil.runAfterCommit(() -> lowStockDetector.onProductDeleted(productId));
+    }
+
+    private ProductResponse withTotalOnHand(ProductResponse product) {
+        product.setTotalOnHand(stockTotalsService.getProductTotals(List.of(product.getId())).getOrDefault(product.getId(), 0L));
+        return product;
     }
 }
@@ -0,0 +1,85 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.configuration.HibernateCacheConfig;
+import com.example.warehouse.payload.response.CacheRegionStatsResponse;
+import com.example.warehouse.payload.response.HibernateCacheStatsResponse;
+import com.example.warehouse.utility.TransactionUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+/**
+ * Explicit eviction and statistics for the second-level cache of reference data.
+ * <p>
+ * Hibernate keeps cached entities in step with changes made through the session, but not the inverse
+ * side of an association (e.g. a warehouse's zones when a zone is created) nor rows changed by the
+ * database itself (e.g. {@code ON DELETE SET NULL}). Write paths call into this service so those entries
+ * are dropped once the transaction commits.
+ */
+@Service
+public class ReferenceDataCacheService {
+
+    private final SessionFactory sessionFactory;
+
+    public ReferenceDataCacheService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public void evictAfterCommit(Class<?> entityClass, Object id) {
+        TransactionUtil.runAfterCommit(() -> cache().evictEntityData(entityClass, id));
+    }
+
+    public void evictAllAfterCommit(Class<?> entityClass) {
+        TransactionUtil.runAfterCommit(() -> cache().evictEntityData(entityClass));
+    }
+
+    /**
+     * Evicts one cached collection, e.g. {@code evictCollectionAfterCommit(Warehouse.class, "zones", warehouseId)}.
+     */
+    public void evictCollectionAfterCommit(Class<?> ownerClass, String property, Object ownerId) {
+        if (ownerId == null) {
+            return;
+        }
+        String role = ownerClass.getName() + "." + property;
+        TransactionUtil.runAfterCommit(() -> cache().evictCollectionData(role, ownerId));
+    }
+
+    public HibernateCacheStatsResponse getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return HibernateCacheStatsResponse.builder()
+                .secondLevelCacheHits(statistics.getSecondLevelCacheHitCount())
+                .secondLevelCacheMisses(statistics.getSecondLevelCacheMissCount())
+                .secondLevelCachePuts(statistics.getSecondLevelCachePutCount())
+                .queryCacheHits(statistics.getQueryCacheHitCount())
+                .queryCacheMisses(statistics.getQueryCacheMissCount())
+                .queryCachePuts(statistics.getQueryCachePutCount())
+                .entityLoads(statistics.getEntityLoadCount())
+                .regions(HibernateCacheConfig.BOUNDED_REGIONS.stream()
+                        .map(region -> toRegionStats(region, statistics.getCacheRegionStatistics(region)))
+                        .toList())
+                .build();
+    }
+
+    private Cache cache() {
+        return sessionFactory.getCache();
+    }
+
+    private static CacheRegionStatsResponse toRegionStats(String region, CacheRegionStatistics statistics) {
+        if (statistics == null) {
+            // Region not used yet (no query has been cached, for instance)
+            return CacheRegionStatsResponse.builder().region(region).build();
+        }
+        long hits = statistics.getHitCount();
+        long misses = statistics.getMissCount();
+        return CacheRegionStatsResponse.builder()
+                .region(region)
+                .hits(hits)
+                .misses(misses)
+                .puts(statistics.getPutCount())
+                .hitRatio(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.warehouse.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically returns the stock of expired reservations, one transaction per batch.
+ * Safe to run on several instances at once: each reservation is expired by exactly one of them.
+ */
+@Component
+@Slf4j
+public class ReservationSweeper {
+
+    private final StockReservationService reservationService;
+    private final int batchSize;
+
+    public ReservationSweeper(
+            StockReservationService reservationService,
+            @Value("${app.reservations.sweep-batch-size:500}") int batchSize) {
+        this.reservationService = reservationService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservations.sweep-interval-ms:5000}")
+    public void sweep() {
+        try {
+            int found;
+            do {
+                found = reservationService.expireOverdue(batchSize);
+            } while (found == batchSize);
+        } catch (RuntimeException ex) {
+            log.error("Reservation sweep failed: {}", ex.getMessage(), ex);
+        }
+    }
+}
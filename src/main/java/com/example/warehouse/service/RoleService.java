@@ -11,6 +11,7 @@ import com.example.warehouse.payload.request.RoleRequest;
 import com.example.warehouse.payload.response.RoleResponse;
 import com.example.warehouse.repository.RoleRepository;
 import com.example.warehouse.repository.UserRepository;
+import com.example.warehouse.security.SecurityVersionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -36,6 +37,8 @@ public class RoleService {
     private final RoleMapper roleMapper;
     private final AuditLogService auditLogService;
     private final SecurityContextService securityContextService;
+    private final ReferenceDataCacheService referenceDataCacheService;
+    private final SecurityVersionRegistry securityVersionRegistry;
 
     /**
      * Retrieves all roles in the system.
@@ -122,6 +125,9 @@ public class RoleService {
 
         role.setName(request.getName());
         Role updatedRole = roleRepository.save(role);
+        referenceDataCacheService.evictAfterCommit(Role.class, roleId);
+        // Every user holding this role now has tokens and cached principals with a stale authority name
+        updatedRole.getUsers().forEach(securityVersionRegistry::bump);
 
         auditLogService.logAction(
                 securityContextService.getCurrentActor(),
@@ -166,6 +172,7 @@ public class RoleService {
 
         log.info("Deleting role: {}", role.getName());
         roleRepository.delete(role);
+        referenceDataCacheService.evictAfterCommit(Role.class, roleId);
     }
 
     /**
@@ -187,6 +194,7 @@ public class RoleService {
 
         for (User user : users) {
             if (user.getRoles().add(role)) {
+                securityVersionRegistry.bump(user);
                 auditLogService.logAction(
                         securityContextService.getCurrentActor(),
                         AuditActionEnum.ASSIGN_ROLE_TO_USER,
@@ -226,6 +234,7 @@ public class RoleService {
         }
 
         if (user.getRoles().remove(role)) { // .remove() returns true if the role was present
+            securityVersionRegistry.bump(user);
             auditLogService.logAction(
                     securityContextService.getCurrentActor(),
                     AuditActionEnum.UNASSIGN_ROLE_FROM_USER,
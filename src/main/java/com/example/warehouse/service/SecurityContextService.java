@@ -1,7 +1,9 @@
 package com.example.warehouse.service;
 
 import com.example.warehouse.entity.User;
+import com.example.warehouse.repository.UserRepository;
 import com.example.warehouse.security.SecurityUser;
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -11,13 +13,19 @@ import org.springframework.stereotype.Service;
  * to retrieve information about the currently authenticated user.
  */
 @Service
+@RequiredArgsConstructor
 public class SecurityContextService {
 
+    private final UserRepository userRepository;
+
     /**
      * Retrieves the currently authenticated user from the SecurityContext.
      * This is the "actor" for audit logging purposes.
+     * <p>
+     * The principal's own User may be detached (principal cache) or rebuilt from token claims (stateless tokens),
+     * so the actor is a reference to the row by id; nothing is loaded unless a caller reads more than the id.
      *
-     * @return The authenticated User entity, or null if no user is authenticated or the principal is of an unexpected type.
+     * @return A reference to the authenticated User entity, or null if no user is authenticated or the principal is of an unexpected type.
      */
     public User getCurrentActor() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -29,11 +37,21 @@ public class SecurityContextService {
 
         Object principal = authentication.getPrincipal();
         if (principal instanceof SecurityUser) {
-            // Our custom SecurityUser directly holds the User entity
-            return ((SecurityUser) principal).user();
+            return userRepository.getReferenceById(((SecurityUser) principal).user().getId());
         }
 
         // Fallback for other principal types or system processes
         return null;
     }
+
+    /**
+     * The ID of the authenticated user, or null if there is none; reads the principal only.
+     */
+    public Integer getCurrentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getPrincipal() instanceof SecurityUser securityUser) {
+            return securityUser.user().getId();
+        }
+        return null;
+    }
 }
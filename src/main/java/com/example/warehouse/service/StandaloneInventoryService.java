@@ -0,0 +1,252 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.Product;
+import com.example.warehouse.entity.Warehouse;
+import com.example.warehouse.entity.WarehouseZone;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.exception.ResourceNotFoundException;
+import com.example.warehouse.model.InventoryKey;
+import com.example.warehouse.model.StockMovement;
+import com.example.warehouse.payload.request.AdjustInventoryRequest;
+import com.example.warehouse.payload.request.BulkAdjustInventoryRequest;
+import com.example.warehouse.payload.request.InventoryFilterRequest;
+import com.example.warehouse.payload.request.MoveInventoryRequest;
+import com.example.warehouse.payload.response.BulkAdjustInventoryResponse;
+import com.example.warehouse.payload.response.BulkAdjustLineResult;
+import com.example.warehouse.payload.response.ProductInventoryResponse;
+import com.example.warehouse.repository.ProductRepository;
+import com.example.warehouse.repository.WarehouseRepository;
+import com.example.warehouse.repository.WarehouseZoneRepository;
+import com.example.warehouse.service.JournalInventoryStore.Outcome;
+import com.example.warehouse.service.JournalInventoryStore.StoredQuantity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inventory operations of a standalone site. Quantities live in the {@link JournalInventoryStore} instead of
+ * the product_inventories table; products, warehouses and zones still come from the (embedded) database.
+ * <p>
+ * Requests and responses are those of {@link ProductInventoryService}, except that responses carry no
+ * inventory ID and no reserved quantity, since reservations are not available on a standalone site.
+ */
+@Service
+@Profile("standalone")
+@RequiredArgsConstructor
+@Slf4j
+public class StandaloneInventoryService {
+
+    private final JournalInventoryStore store;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseZoneRepository zoneRepository;
+    private final SecurityContextService securityContextService;
+
+    /**
+     * Lists product locations matching the filter, most recently changed first.
+     */
+    public Page<ProductInventoryResponse> getAllInventory(InventoryFilterRequest filter, Pageable pageable) {
+        Integer skuProductId = null;
+        if (StringUtils.hasText(filter.getSku())) {
+            Optional<Product> product = productRepository.findBySku(filter.getSku());
+            if (product.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            skuProductId = product.get().getId();
+        }
+        Integer productId = skuProductId;
+
+        List<Map.Entry<InventoryKey, StoredQuantity>> matching = store.findAll().entrySet().stream()
+                .filter(entry -> matches(filter.getProductId(), entry.getKey().productId())
+                        && matches(productId, entry.getKey().productId())
+                        && matches(filter.getWarehouseId(), entry.getKey().warehouseId())
+                        && matches(filter.getZoneId(), entry.getKey().zoneId())
+                        && (filter.getMinQuantity() == null || entry.getValue().quantity() >= filter.getMinQuantity())
+                        && (filter.getMaxQuantity() == null || entry.getValue().quantity() <= filter.getMaxQuantity()))
+                .sorted(Comparator.comparingLong((Map.Entry<InventoryKey, StoredQuantity> entry) -> entry.getValue().updatedAtMillis())
+                        .reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .toList();
+
+        List<Map.Entry<InventoryKey, StoredQuantity>> page = matching;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), matching.size());
+            page = matching.subList(from, Math.min(from + pageable.getPageSize(), matching.size()));
+        }
+        References references = loadReferences(page.stream().map(Map.Entry::getKey).toList());
+        List<ProductInventoryResponse> content = page.stream()
+                .map(entry -> references.toResponse(entry.getKey(), entry.getValue().quantity(), entry.getValue().updatedAtMillis()))
+                .toList();
+        return new PageImpl<>(content, pageable, matching.size());
+    }
+
+    /**
+     * Adjusts the quantity of a product in a specific location; the change is durable in the journal when this returns.
+     */
+    public ProductInventoryResponse adjustInventory(AdjustInventoryRequest request) {
+        StockMovement movement = toMovement(request);
+        References references = loadReferences(List.of(movement.key()));
+        String error = references.validate(movement.key());
+        if (error != null) {
+            throw new ResourceNotFoundException(error);
+        }
+
+        Outcome outcome = store.apply(List.of(movement), securityContextService.getCurrentActorId(), false).get(0);
+        if (!outcome.applied()) {
+            throw new ResourceConflictException(outcome.error());
+        }
+        log.debug("Inventory adjusted for product ID: {}, new quantity: {}", request.getProductId(), outcome.quantityAfter());
+        return references.toResponse(movement.key(), outcome.quantityAfter(), System.currentTimeMillis());
+    }
+
+    /**
+     * Applies many adjustment lines as one journal append.
+     * In atomic mode any rejected line rejects the whole request; otherwise rejected lines are reported and skipped.
+     */
+    public BulkAdjustInventoryResponse bulkAdjustInventory(BulkAdjustInventoryRequest request) {
+        long startedAt = System.nanoTime();
+        List<StockMovement> movements = request.getLines().stream().map(this::toMovement).toList();
+        References references = loadReferences(movements.stream().map(StockMovement::key).toList());
+
+        // Lines with an unknown location never reach the journal
+        String[] locationErrors = new String[movements.size()];
+        List<StockMovement> valid = new ArrayList<>(movements);
+        for (int index = 0; index < movements.size(); index++) {
+            String error = references.validate(movements.get(index).key());
+            if (error != null) {
+                if (request.isAtomic()) {
+                    throw new ResourceConflictException("Line " + index + ": " + error);
+                }
+                locationErrors[index] = error;
+                valid.set(index, null);
+            }
+        }
+
+        List<Outcome> outcomes = store.apply(valid, securityContextService.getCurrentActorId(), request.isAtomic());
+        long appliedAt = System.currentTimeMillis();
+
+        List<BulkAdjustLineResult> lineResults = new ArrayList<>(movements.size());
+        int appliedLines = 0;
+        for (int index = 0; index < movements.size(); index++) {
+            Outcome outcome = outcomes.get(index);
+            BulkAdjustLineResult.BulkAdjustLineResultBuilder line = BulkAdjustLineResult.builder().lineIndex(index);
+            if (outcome != null && outcome.applied()) {
+                appliedLines++;
+                line.applied(true)
+                        .inventory(references.toResponse(movements.get(index).key(), outcome.quantityAfter(), appliedAt))
+                        .quantityBefore(outcome.quantityBefore())
+                        .quantityAfter(outcome.quantityAfter());
+            } else {
+                line.applied(false).error(outcome != null ? outcome.error() : locationErrors[index]);
+            }
+            lineResults.add(line.build());
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - startedAt, 1);
+        double linesPerSecond = movements.size() * 1_000_000_000.0 / elapsedNanos;
+        log.info("Bulk adjustment applied {}/{} lines to the journal in {} ms ({} lines/s)",
+                appliedLines, movements.size(), elapsedNanos / 1_000_000, Math.round(linesPerSecond));
+
+        return BulkAdjustInventoryResponse.builder()
+                .totalLines(movements.size())
+                .appliedLines(appliedLines)
+                .failedLines(movements.size() - appliedLines)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .linesPerSecond(linesPerSecond)
+                .lines(lineResults)
+                .build();
+    }
+
+    /**
+     * Moves one product between two zones of a warehouse as a single journal append of an issue and a receipt.
+     */
+    public void moveInventory(MoveInventoryRequest request) {
+        if (request.getSourceZoneId().equals(request.getDestinationZoneId())) {
+            throw new ResourceConflictException("Source and destination zones cannot be the same.");
+        }
+
+        InventoryKey source = new InventoryKey(request.getProductId(), request.getWarehouseId(), request.getSourceZoneId());
+        InventoryKey destination = new InventoryKey(request.getProductId(), request.getWarehouseId(), request.getDestinationZoneId());
+        References references = loadReferences(List.of(source, destination));
+        for (InventoryKey key : List.of(source, destination)) {
+            String error = references.validate(key);
+            if (error != null) {
+                throw new ResourceNotFoundException(error);
+            }
+        }
+
+        store.apply(List.of(
+                new StockMovement(source, -request.getQuantity(), StockLogEnum.GOODS_ISSUE, request.getNote(), null, null),
+                new StockMovement(destination, request.getQuantity(), StockLogEnum.GOODS_RECEIPT, request.getNote(), null, null)),
+                securityContextService.getCurrentActorId(), true);
+        log.debug("Moved {} of product ID: {} from zone {} to zone {}",
+                request.getQuantity(), request.getProductId(), request.getSourceZoneId(), request.getDestinationZoneId());
+    }
+
+    /**
+     * Reference types are validated like on the central server, but only the note is journaled.
+     */
+    private StockMovement toMovement(AdjustInventoryRequest request) {
+        ProductInventoryService.toReferenceType(request.getReferenceType());
+        return new StockMovement(
+                new InventoryKey(request.getProductId(), request.getWarehouseId(), request.getZoneId()),
+                request.getQuantityChange(),
+                request.getQuantityChange() > 0 ? StockLogEnum.ADJUSTMENT_IN : StockLogEnum.ADJUSTMENT_OUT,
+                request.getNote(),
+                null,
+                null);
+    }
+
+    private References loadReferences(Collection<InventoryKey> keys) {
+        return new References(
+                productRepository.findAllById(keys.stream().map(InventoryKey::productId).collect(Collectors.toSet())).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity())),
+                warehouseRepository.findAllById(keys.stream().map(InventoryKey::warehouseId).collect(Collectors.toSet())).stream()
+                        .collect(Collectors.toMap(Warehouse::getId, Function.identity())),
+                zoneRepository.findAllById(keys.stream().map(InventoryKey::zoneId).collect(Collectors.toSet())).stream()
+                        .collect(Collectors.toMap(WarehouseZone::getId, Function.identity())));
+    }
+
+    private static boolean matches(Integer filter, int value) {
+        return filter == null || filter == value;
+    }
+
+    /**
+     * The products, warehouses and zones referenced by a request, loaded with one query each.
+     */
+    private record References(Map<Integer, Product> products, Map<Integer, Warehouse> warehouses, Map<Integer, WarehouseZone> zones) {
+
+        String validate(InventoryKey key) {
+            return ProductInventoryService.validateLocation(key, products, warehouses, zones);
+        }
+
+        ProductInventoryResponse toResponse(InventoryKey key, int quantity, long updatedAtMillis) {
+            Product product = products.get(key.productId());
+            Warehouse warehouse = warehouses.get(key.warehouseId());
+            WarehouseZone zone = zones.get(key.zoneId());
+            return ProductInventoryResponse.builder()
+                    .productName(product != null ? product.getName() : null)
+                    .productSku(product != null ? product.getSku() : null)
+                    .warehouseName(warehouse != null ? warehouse.getName() : null)
+                    .zoneName(zone != null ? zone.getName() : null)
+                    .quantity(quantity)
+                    .reservedQuantity(0)
+                    .availableQuantity(quantity)
+                    .updatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(updatedAtMillis), ZoneId.systemDefault()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.enums.StockLogIssueEnum;
+import com.example.warehouse.model.StockLogChainRow;
+import com.example.warehouse.model.StockLogIssue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks the stock log history of a range of inventory rows, fed one log at a time by inventory row and time.
+ * <p>
+ * Each row's history must start at zero, chain every log's quantity after into the next log's quantity before,
+ * and end at the row's quantity. Logs of a row sharing a timestamp (e.g. written by one bulk adjustment) are
+ * taken in ID order, or else in any order their quantities chain in, as the timestamp alone can't order them.
+ */
+final class StockLogChainChecker {
+
+    private final Map<Long, Integer> quantities; // of the range's inventory rows; each is removed once checked
+    private final int maxIssues;
+    private final List<StockLogIssue> issues = new ArrayList<>();
+    private final Map<StockLogIssueEnum, Long> issueCounts = new EnumMap<>(StockLogIssueEnum.class);
+    private final List<StockLogChainRow> sameTime = new ArrayList<>();
+    private long inventories;
+    private long logs;
+
+    private long inventoryId; // of the row being checked; 0 before the first log
+    private int quantity;
+    private Long lastLogId;
+
+    StockLogChainChecker(Map<Long, Integer> quantities, int maxIssues) {
+        this.quantities = quantities;
+        this.maxIssues = maxIssues;
+    }
+
+    void accept(StockLogChainRow row) {
+        if (!sameTime.isEmpty() && (row.inventoryId() != inventoryId || !row.createdAt().equals(sameTime.get(0).createdAt()))) {
+            checkSameTime();
+        }
+        if (row.inventoryId() != inventoryId) {
+            finishInventory();
+            inventoryId = row.inventoryId();
+            quantity = 0;
+            lastLogId = null;
+        }
+        sameTime.add(row);
+        logs++;
+    }
+
+    /**
+     * Checks the last row's history and the rows that have no logs at all. Call once, after the last log.
+     */
+    void finish() {
+        checkSameTime();
+        finishInventory();
+        quantities.forEach((id, recorded) -> {
+            inventories++;
+            if (recorded != 0) {
+                report(StockLogIssueEnum.QUANTITY_MISMATCH, id, null, 0, recorded);
+            }
+        });
+        quantities.clear();
+    }
+
+    long inventories() {
+        return inventories;
+    }
+
+    long logs() {
+        return logs;
+    }
+
+    List<StockLogIssue> issues() {
+        return issues;
+    }
+
+    Map<StockLogIssueEnum, Long> issueCounts() {
+        return issueCounts;
+    }
+
+    private void checkSameTime() {
+        if (sameTime.size() > 1 && !chains(sameTime)) {
+            List<StockLogChainRow> trail = chainOrder(sameTime);
+            if (trail != null) {
+                sameTime.clear();
+                sameTime.addAll(trail);
+            }
+        }
+        for (StockLogChainRow row : sameTime) {
+            check(row);
+        }
+        sameTime.clear();
+    }
+
+    private boolean chains(List<StockLogChainRow> rows) {
+        int running = quantity;
+        for (StockLogChainRow row : rows) {
+            if (row.quantityBefore() != running) {
+                return false;
+            }
+            running = row.quantityAfter();
+        }
+        return true;
+    }
+
+    /**
+     * Orders logs so that they chain from the running quantity: a trail through every log, each a step from its
+     * quantity before to its quantity after (Hierholzer's algorithm). Returns null if there is no such order.
+     */
+    private List<StockLogChainRow> chainOrder(List<StockLogChainRow> rows) {
+        Map<Integer, ArrayDeque<StockLogChainRow>> byBefore = new HashMap<>();
+        for (StockLogChainRow row : rows) {
+            byBefore.computeIfAbsent(row.quantityBefore(), before -> new ArrayDeque<>()).add(row);
+        }
+        ArrayDeque<StockLogChainRow> path = new ArrayDeque<>();
+        LinkedList<StockLogChainRow> trail = new LinkedList<>();
+        int at = quantity;
+        while (true) {
+            ArrayDeque<StockLogChainRow> next = byBefore.get(at);
+            if (next != null && !next.isEmpty()) {
+                StockLogChainRow row = next.poll();
+                path.push(row);
+                at = row.quantityAfter();
+            } else if (!path.isEmpty()) {
+                StockLogChainRow row = path.pop();
+                trail.addFirst(row);
+                at = row.quantityBefore();
+            } else {
+                break;
+            }
+        }
+        return trail.size() == rows.size() && chains(trail) ? trail : null;
+    }
+
+    private void check(StockLogChainRow row) {
+        if (row.quantityBefore() != quantity) {
+            report(StockLogIssueEnum.GAP, inventoryId, row.id(), quantity, row.quantityBefore());
+        }
+        long after = (long) row.quantityBefore() + row.quantityChange();
+        if (after != row.quantityAfter()) {
+            report(StockLogIssueEnum.BROKEN_LOG, inventoryId, row.id(), after, row.quantityAfter());
+        }
+        // Go on from the quantity the log recorded, so one bad log is reported once rather than at every later log
+        quantity = row.quantityAfter();
+        lastLogId = row.id();
+    }
+
+    private void finishInventory() {
+        if (inventoryId == 0) {
+            return;
+        }
+        inventories++;
+        Integer recorded = quantities.remove(inventoryId);
+        long actual = recorded != null ? recorded : 0;
+        if (quantity != actual) {
+            report(StockLogIssueEnum.QUANTITY_MISMATCH, inventoryId, lastLogId, quantity, actual);
+        }
+    }
+
+    private void report(StockLogIssueEnum type, long inventoryId, Long stockLogId, long expected, long actual) {
+        issueCounts.merge(type, 1L, Long::sum);
+        if (issues.size() < maxIssues) {
+            issues.add(new StockLogIssue(type, inventoryId, stockLogId, expected, actual));
+        }
+    }
+}
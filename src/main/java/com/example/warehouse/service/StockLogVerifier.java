@@ -0,0 +1,139 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.enums.StockLogIssueEnum;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.model.StockLogIssue;
+import com.example.warehouse.payload.response.StockLogVerificationResponse;
+import com.example.warehouse.repository.StockLogChainRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks that the stock logs of every inventory row chain from zero to the row's quantity.
+ * <p>
+ * The inventory IDs are split into ranges that are checked in parallel. Each range reads the quantities of its
+ * rows and then streams their logs in one read-only transaction, so both reads come from the same snapshot and
+ * changes committed meanwhile don't show up as issues. The logs are read off a covering index in chain order,
+ * which makes a range one sequential index scan and keeps memory flat however long a row's history is.
+ */
+@Service
+@Slf4j
+public class StockLogVerifier {
+
+    private final StockLogChainRepository chainRepository;
+    private final TransactionTemplate snapshotTemplate;
+    private final int threads;
+    private final int rangeSize;
+    private final int maxReportedIssues;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StockLogVerifier(
+            StockLogChainRepository chainRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.stock-log-verify.threads:4}") int threads,
+            @Value("${app.stock-log-verify.range-size:10000}") int rangeSize,
+            @Value("${app.stock-log-verify.max-reported-issues:100}") int maxReportedIssues) {
+        this.chainRepository = chainRepository;
+        // REPEATABLE READ: the quantities and the logs of a range are read from one snapshot
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+        this.threads = threads;
+        this.rangeSize = rangeSize;
+        this.maxReportedIssues = maxReportedIssues;
+    }
+
+    @Scheduled(cron = "${app.stock-log-verify.cron:-}")
+    public void verifyOnSchedule() {
+        StockLogVerificationResponse result = verify();
+        if (result.getIssuesFound() > 0) {
+            log.warn("Stock log verification found {} issues {}, e.g. {}", result.getIssuesFound(), result.getIssuesByType(), result.getIssues());
+        }
+    }
+
+    /**
+     * Checks the stock log history of every inventory row.
+     *
+     * @throws ResourceConflictException if a verification is already running.
+     */
+    public StockLogVerificationResponse verify() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ResourceConflictException("A stock log verification is already running.");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("stock-log-verifier-"));
+        try {
+            List<CompletableFuture<StockLogChainChecker>> checks = new ArrayList<>();
+            long[] idRange = chainRepository.findInventoryIdRange();
+            if (idRange != null) {
+                for (long from = idRange[0]; from <= idRange[1]; from += rangeSize) {
+                    long fromId = from;
+                    long toId = Math.min(from + rangeSize - 1, idRange[1]);
+                    checks.add(CompletableFuture.supplyAsync(() -> checkRange(fromId, toId), executor));
+                }
+            }
+            CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new)).join();
+
+            long inventories = 0;
+            long logs = 0;
+            Map<StockLogIssueEnum, Long> issueCounts = new EnumMap<>(StockLogIssueEnum.class);
+            List<StockLogIssue> issues = new ArrayList<>();
+            for (CompletableFuture<StockLogChainChecker> check : checks) {
+                StockLogChainChecker checker = check.join();
+                inventories += checker.inventories();
+                logs += checker.logs();
+                checker.issueCounts().forEach((type, count) -> issueCounts.merge(type, count, Long::sum));
+                issues.addAll(checker.issues());
+            }
+            issues.sort(Comparator.comparing(StockLogIssue::inventoryId)
+                    .thenComparing(StockLogIssue::stockLogId, Comparator.nullsLast(Comparator.naturalOrder())));
+            long issuesFound = issueCounts.values().stream().mapToLong(Long::longValue).sum();
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            log.info("Verified {} stock logs of {} inventory rows in {} ranges in {} ms: {} issues",
+                    logs, inventories, checks.size(), elapsedMillis, issuesFound);
+            return StockLogVerificationResponse.builder()
+                    .startedAt(startedAt)
+                    .elapsedMillis(elapsedMillis)
+                    .rangesChecked(checks.size())
+                    .inventoriesChecked(inventories)
+                    .logsChecked(logs)
+                    .logsPerSecond(logs * 1000 / Math.max(elapsedMillis, 1))
+                    .issuesFound(issuesFound)
+                    .issuesByType(issueCounts)
+                    .issues(issues.subList(0, Math.min(issues.size(), maxReportedIssues)))
+                    .build();
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    private StockLogChainChecker checkRange(long fromId, long toId) {
+        return snapshotTemplate.execute(status -> {
+            StockLogChainChecker checker = new StockLogChainChecker(chainRepository.findQuantities(fromId, toId), maxReportedIssues);
+            chainRepository.streamLogs(fromId, toId, checker::accept);
+            checker.finish();
+            return checker;
+        });
+    }
+}
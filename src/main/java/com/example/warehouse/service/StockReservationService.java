@@ -0,0 +1,208 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.ProductInventory;
+import com.example.warehouse.entity.StockReservation;
+import com.example.warehouse.enums.ReferenceActionEnum;
+import com.example.warehouse.enums.ReservationStatusEnum;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.exception.ResourceNotFoundException;
+import com.example.warehouse.mapper.StockReservationMapper;
+import com.example.warehouse.payload.request.ReserveStockRequest;
+import com.example.warehouse.payload.response.StockReservationResponse;
+import com.example.warehouse.repository.ProductInventoryRepository;
+import com.example.warehouse.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for holding stock for open orders.
+ * <p>
+ * A reservation moves stock from "available" to "reserved" on its inventory row; adjustments and moves
+ * can only take available stock. Every state change is a conditional UPDATE (on the reservation's status
+ * and on the inventory counters), so concurrent order lines never oversell and never wait on each other
+ * beyond the single row update.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductInventoryRepository inventoryRepository;
+    private final ProductInventoryService inventoryService;
+    private final StockReservationMapper reservationMapper;
+    private final SecurityContextService securityContextService;
+
+    @Value("${app.reservations.default-ttl-seconds:900}")
+    private int defaultTtlSeconds;
+
+    @Transactional(readOnly = true)
+    public StockReservationResponse getReservationById(Long reservationId) {
+        return reservationMapper.toResponse(findReservation(reservationId));
+    }
+
+    /**
+     * Holds stock of one product location for a limited time.
+     *
+     * @throws ResourceConflictException if less than the requested quantity is available
+     */
+    @Transactional
+    public StockReservationResponse reserve(ReserveStockRequest request) {
+        ReferenceActionEnum referenceType = ProductInventoryService.toReferenceType(request.getReferenceType());
+        int quantity = request.getQuantity();
+
+        ProductInventory inventory = inventoryRepository
+                .findByProductIdAndWarehouseIdAndZoneId(request.getProductId(), request.getWarehouseId(), request.getZoneId())
+                .orElseThrow(() -> new ResourceConflictException("Insufficient available stock. Available: 0"));
+        if (inventoryRepository.reserveQuantity(inventory.getId(), quantity) == 0) {
+            ProductInventory current = findInventory(inventory.getId());
+            throw new ResourceConflictException("Insufficient available stock. Available: "
+                    + ProductInventoryService.availableQuantity(current));
+        }
+
+        ProductInventory written = findInventory(inventory.getId());
+        int ttlSeconds = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        StockReservation reservation = reservationRepository.save(StockReservation.builder()
+                .inventory(written)
+                .actor(securityContextService.getCurrentActor())
+                .quantity(quantity)
+                .status(ReservationStatusEnum.ACTIVE)
+                .referenceType(referenceType)
+                .referenceId(request.getReferenceId())
+                .note(request.getNote())
+                .expiresAt(LocalDateTime.now().plusSeconds(ttlSeconds))
+                .build());
+
+        // On-hand stock is unchanged; the log records the hold itself
+        inventoryService.recordStockLog(written, StockLogEnum.RESERVED, 0,
+                String.format("Reserved %d unit(s) until %s (reservation #%d)", quantity, reservation.getExpiresAt(), reservation.getId()),
+                referenceType, request.getReferenceId());
+
+        log.info("Reserved {} units of inventory ID: {} as reservation ID: {}", quantity, written.getId(), reservation.getId());
+        return reservationMapper.toResponse(reservation);
+    }
+
+    /**
+     * Issues the reserved stock: on-hand and reserved quantity both drop by the reserved amount.
+     *
+     * @throws ResourceConflictException if the reservation is no longer active or has expired
+     */
+    @Transactional
+    public StockReservationResponse confirm(Long reservationId) {
+        StockReservation reservation = closeActive(reservationId, ReservationStatusEnum.CONFIRMED);
+        Long inventoryId = reservation.getInventory().getId();
+        int quantity = reservation.getQuantity();
+
+        if (inventoryRepository.consumeReservedQuantity(inventoryId, quantity) == 0) {
+            // Only possible if on-hand stock was counted below the reserved amount; roll the confirmation back
+            throw new ResourceConflictException("Reserved stock is no longer on hand for reservation " + reservationId + ".");
+        }
+
+        ReferenceActionEnum referenceType = reservation.getReferenceType() != null
+                ? reservation.getReferenceType() : ReferenceActionEnum.SALES_ORDER;
+        inventoryService.recordStockLog(findInventory(inventoryId), StockLogEnum.GOODS_ISSUE, -quantity,
+                "Confirmed reservation #" + reservationId, referenceType, reservation.getReferenceId());
+
+        log.info("Confirmed reservation ID: {} issuing {} units of inventory ID: {}", reservationId, quantity, inventoryId);
+        return reservationMapper.toResponse(findReservation(reservationId));
+    }
+
+    /**
+     * Gives the reserved stock back to the available pool.
+     *
+     * @throws ResourceConflictException if the reservation is no longer active or has expired
+     */
+    @Transactional
+    public StockReservationResponse release(Long reservationId) {
+        StockReservation reservation = closeActive(reservationId, ReservationStatusEnum.RELEASED);
+        Long inventoryId = reservation.getInventory().getId();
+        if (inventoryRepository.releaseReservedQuantity(inventoryId, reservation.getQuantity()) == 0) {
+            // The row holds less reserved stock than this reservation; roll the release back
+            throw new ResourceConflictException("Reserved stock could not be released for reservation " + reservationId + ".");
+        }
+
+        inventoryService.recordStockLog(findInventory(inventoryId), StockLogEnum.RELEASED, 0,
+                String.format("Released %d unit(s) of reservation #%d", reservation.getQuantity(), reservationId),
+                reservation.getReferenceType(), reservation.getReferenceId());
+
+        log.info("Released reservation ID: {}", reservationId);
+        return reservationMapper.toResponse(findReservation(reservationId));
+    }
+
+    /**
+     * Expires up to {@code batchSize} overdue reservations and returns their stock, with one counter
+     * update per inventory row, applied in ascending row ID order.
+     *
+     * @return The number of overdue reservations found; less than batchSize means none are left.
+     */
+    @Transactional
+    public int expireOverdue(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockReservation> overdue = reservationRepository.findExpired(now, PageRequest.ofSize(batchSize));
+
+        List<StockReservation> expired = new ArrayList<>();
+        Map<Long, Integer> releasedByInventory = new TreeMap<>();
+        for (StockReservation reservation : overdue) {
+            // Skips reservations confirmed or released since they were read
+            if (reservationRepository.expire(reservation.getId(), now) == 1) {
+                expired.add(reservation);
+                releasedByInventory.merge(reservation.getInventory().getId(), reservation.getQuantity(), Integer::sum);
+            }
+        }
+        releasedByInventory.forEach((inventoryId, quantity) -> {
+            if (inventoryRepository.releaseReservedQuantity(inventoryId, quantity) == 0) {
+                throw new ResourceConflictException("Reserved stock could not be released for inventory " + inventoryId + ".");
+            }
+        });
+
+        if (!expired.isEmpty()) {
+            Map<Long, ProductInventory> inventories = inventoryRepository.findByIdIn(releasedByInventory.keySet()).stream()
+                    .collect(Collectors.toMap(ProductInventory::getId, Function.identity()));
+            for (StockReservation reservation : expired) {
+                inventoryService.recordStockLog(inventories.get(reservation.getInventory().getId()), StockLogEnum.RELEASED, 0,
+                        String.format("Released %d unit(s) of expired reservation #%d", reservation.getQuantity(), reservation.getId()),
+                        reservation.getReferenceType(), reservation.getReferenceId());
+            }
+            log.info("Expired {} reservations across {} inventory records", expired.size(), releasedByInventory.size());
+        }
+        return overdue.size();
+    }
+
+    /**
+     * Wins the ACTIVE -> final state transition or explains why it can't be made.
+     */
+    private StockReservation closeActive(Long reservationId, ReservationStatusEnum status) {
+        LocalDateTime now = LocalDateTime.now();
+        if (reservationRepository.closeActive(reservationId, status, now) == 0) {
+            StockReservation reservation = findReservation(reservationId);
+            if (reservation.getStatus() != ReservationStatusEnum.ACTIVE) {
+                throw new ResourceConflictException("Reservation " + reservationId + " is already " + reservation.getStatus() + ".");
+            }
+            throw new ResourceConflictException("Reservation " + reservationId + " has expired.");
+        }
+        return findReservation(reservationId);
+    }
+
+    private StockReservation findReservation(Long reservationId) {
+        return reservationRepository.findWithInventoryById(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("StockReservation", "id", reservationId));
+    }
+
+    private ProductInventory findInventory(Long inventoryId) {
+        return inventoryRepository.findByIdIn(List.of(inventoryId)).stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("ProductInventory", "id", inventoryId));
+    }
+}
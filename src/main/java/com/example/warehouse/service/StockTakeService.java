@@ -0,0 +1,295 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.StockTake;
+import com.example.warehouse.entity.StockTakeVariance;
+import com.example.warehouse.entity.Warehouse;
+import com.example.warehouse.entity.WarehouseZone;
+import com.example.warehouse.enums.ReferenceActionEnum;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.enums.StockTakeStatusEnum;
+import com.example.warehouse.exception.BadRequestException;
+import com.example.warehouse.exception.ResourceNotFoundException;
+import com.example.warehouse.mapper.StockTakeMapper;
+import com.example.warehouse.model.InventoryKey;
+import com.example.warehouse.model.MovementResult;
+import com.example.warehouse.model.StockCountRow;
+import com.example.warehouse.model.StockMovement;
+import com.example.warehouse.payload.response.StockTakeResponse;
+import com.example.warehouse.payload.response.StockTakeVarianceResponse;
+import com.example.warehouse.repository.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for stock takes: reconciling a physical count document against the system quantities.
+ * <p>
+ * A count is processed in three steps, none of which holds more than a batch of lines in memory:
+ * <ol>
+ *     <li>The CSV document is streamed and its lines are batch-inserted into a staging table.</li>
+ *     <li>SKUs and zone codes are resolved, and the counts are diffed against the inventory, with one
+ *     statement each. The result is one variance row per location whose count differs.</li>
+ *     <li>Variances are applied as STOCK_COUNT movements in batches, one transaction per batch. A
+ *     variance that would take a location below its reserved stock is rejected and reported.</li>
+ * </ol>
+ * Variances are deltas against the quantities seen when the diff ran, so stock moved while the
+ * variances are being applied is kept rather than overwritten.
+ */
+@Service
+@Slf4j
+public class StockTakeService {
+
+    private static final int UNKNOWN_LINE_SAMPLES = 20;
+    private static final ObjectReader COUNT_READER = new CsvMapper()
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .readerFor(StockCountRow.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    private final StockTakeRepository stockTakeRepository;
+    private final StockTakeVarianceRepository varianceRepository;
+    private final StockTakeStagingRepository stagingRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseZoneRepository zoneRepository;
+    private final ProductInventoryService inventoryService;
+    private final StockTakeMapper stockTakeMapper;
+    private final SecurityContextService securityContextService;
+    private final TransactionTemplate transactionTemplate;
+    private final int stagingBatchSize;
+    private final int applyBatchSize;
+
+    public StockTakeService(
+            StockTakeRepository stockTakeRepository,
+            StockTakeVarianceRepository varianceRepository,
+            StockTakeStagingRepository stagingRepository,
+            WarehouseRepository warehouseRepository,
+            WarehouseZoneRepository zoneRepository,
+            ProductInventoryService inventoryService,
+            StockTakeMapper stockTakeMapper,
+            SecurityContextService securityContextService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.stock-take.staging-batch-size:1000}") int stagingBatchSize,
+            @Value("${app.stock-take.apply-batch-size:1000}") int applyBatchSize) {
+        this.stockTakeRepository = stockTakeRepository;
+        this.varianceRepository = varianceRepository;
+        this.stagingRepository = stagingRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.zoneRepository = zoneRepository;
+        this.inventoryService = inventoryService;
+        this.stockTakeMapper = stockTakeMapper;
+        this.securityContextService = securityContextService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stagingBatchSize = stagingBatchSize;
+        this.applyBatchSize = applyBatchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<StockTakeResponse> getStockTakes(Pageable pageable) {
+        return stockTakeRepository.findAll(pageable).map(stockTakeMapper::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public StockTakeResponse getStockTakeById(Long stockTakeId) {
+        return stockTakeMapper.toResponse(findStockTake(stockTakeId));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<StockTakeVarianceResponse> getVariances(Long stockTakeId, Pageable pageable) {
+        findStockTake(stockTakeId);
+        return varianceRepository.findByStockTakeId(stockTakeId, pageable).map(stockTakeMapper::toResponse);
+    }
+
+    /**
+     * Loads a count document, diffs it against the inventory and applies the variances.
+     *
+     * @param zoneId             The counted zone, or null when the whole warehouse was counted
+     * @param countMissingAsZero Whether locations in scope that are missing from the document hold no stock
+     * @param document           CSV with a header row and the columns sku, zone_code and quantity
+     * @return The stock take with its line counts; the variances are available separately
+     * @throws BadRequestException if the document is malformed; nothing is applied in that case
+     */
+    public StockTakeResponse processStockTake(Integer warehouseId, Integer zoneId, boolean countMissingAsZero,
+                                              String note, InputStream document) {
+        long startedAt = System.nanoTime();
+        StockTake stockTake = transactionTemplate.execute(status -> createStockTake(warehouseId, zoneId, countMissingAsZero, note));
+        Long stockTakeId = stockTake.getId();
+
+        try {
+            // 1. Stage the document
+            stockTake.setCountedLines(stageDocument(stockTakeId, document));
+
+            // 2. Resolve locations and diff against the inventory
+            List<String> unknownLineSamples = transactionTemplate.execute(status -> {
+                int resolved = stagingRepository.resolveLocations(stockTakeId, warehouseId, zoneId);
+                stockTake.setUnknownLines(stockTake.getCountedLines() - resolved);
+                stockTake.setVarianceLines(stagingRepository.insertVariances(stockTakeId, warehouseId, zoneId, countMissingAsZero));
+                return stagingRepository.findUnresolved(stockTakeId, UNKNOWN_LINE_SAMPLES);
+            });
+
+            // 3. Apply the variances
+            applyVariances(stockTake, warehouseId);
+
+            stockTake.setStatus(StockTakeStatusEnum.COMPLETED);
+            stockTake.setCompletedAt(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> {
+                stagingRepository.deleteLines(stockTakeId);
+                stockTakeRepository.save(stockTake);
+            });
+
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            log.info("Stock take ID: {} reconciled {} lines into {} variances ({} applied, {} rejected, {} unknown) in {} ms",
+                    stockTakeId, stockTake.getCountedLines(), stockTake.getVarianceLines(), stockTake.getAppliedLines(),
+                    stockTake.getRejectedLines(), stockTake.getUnknownLines(), elapsedMillis);
+
+            // Mapped from the instance loaded at creation, whose warehouse and zone are initialized
+            StockTakeResponse response = stockTakeMapper.toResponse(stockTake);
+            response.setUnknownLineSamples(unknownLineSamples);
+            response.setElapsedMillis(elapsedMillis);
+            return response;
+        } catch (RuntimeException ex) {
+            markFailed(stockTake, ex);
+            throw ex;
+        }
+    }
+
+    private StockTake createStockTake(Integer warehouseId, Integer zoneId, boolean countMissingAsZero, String note) {
+        Warehouse warehouse = warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Warehouse", "id", warehouseId));
+        WarehouseZone zone = zoneId == null ? null : zoneRepository.findByWarehouseIdAndId(warehouseId, zoneId)
+                .orElseThrow(() -> new ResourceNotFoundException("Zone", "id", zoneId));
+
+        return stockTakeRepository.save(StockTake.builder()
+                .warehouse(warehouse)
+                .zone(zone)
+                .actor(securityContextService.getCurrentActor())
+                .status(StockTakeStatusEnum.PROCESSING)
+                .countMissingAsZero(countMissingAsZero)
+                .note(note)
+                .build());
+    }
+
+    /**
+     * Streams the document into the staging table, one batch insert per {@code stagingBatchSize} lines.
+     *
+     * @return The number of lines staged
+     */
+    private int stageDocument(Long stockTakeId, InputStream document) {
+        List<StockCountRow> batch = new ArrayList<>(stagingBatchSize);
+        int rowNumber = 0;
+        try (MappingIterator<StockCountRow> rows = COUNT_READER.readValues(document)) {
+            while (rows.hasNextValue()) {
+                StockCountRow row = rows.nextValue();
+                rowNumber++;
+                validateRow(row, rowNumber);
+                batch.add(row);
+                if (batch.size() == stagingBatchSize) {
+                    stagingRepository.insertLines(stockTakeId, rowNumber - batch.size() + 1, batch);
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            throw new BadRequestException("Invalid count document near row " + (rowNumber + 1) + ": " + ex.getOriginalMessage());
+        } catch (RuntimeJsonMappingException ex) {
+            throw new BadRequestException("Invalid count document near row " + (rowNumber + 1) + ": " + ex.getMessage());
+        } catch (IOException ex) {
+            throw new BadRequestException("The count document could not be read: " + ex.getMessage());
+        }
+        if (!batch.isEmpty()) {
+            stagingRepository.insertLines(stockTakeId, rowNumber - batch.size() + 1, batch);
+        }
+        if (rowNumber == 0) {
+            throw new BadRequestException("The count document contains no lines.");
+        }
+        return rowNumber;
+    }
+
+    private static void validateRow(StockCountRow row, int rowNumber) {
+        if (!StringUtils.hasText(row.sku()) || !StringUtils.hasText(row.zoneCode())) {
+            throw new BadRequestException("Row " + rowNumber + ": sku and zone_code are required.");
+        }
+        if (row.quantity() == null || row.quantity() < 0) {
+            throw new BadRequestException("Row " + rowNumber + ": quantity must be zero or more.");
+        }
+    }
+
+    /**
+     * Applies the variances in ID order, one transaction per batch, recording the outcome of each.
+     */
+    private void applyVariances(StockTake stockTake, Integer warehouseId) {
+        Long stockTakeId = stockTake.getId();
+        String note = StringUtils.hasText(stockTake.getNote())
+                ? "Stock take #" + stockTakeId + ": " + stockTake.getNote()
+                : "Stock take #" + stockTakeId;
+
+        long afterId = 0;
+        while (true) {
+            long lastId = afterId;
+            Long nextAfterId = transactionTemplate.execute(status -> {
+                List<StockTakeVariance> batch = varianceRepository.findBatchAfter(stockTakeId, lastId, PageRequest.ofSize(applyBatchSize));
+                if (batch.isEmpty()) {
+                    return null;
+                }
+                List<StockMovement> movements = batch.stream()
+                        .map(variance -> new StockMovement(
+                                new InventoryKey(variance.getProduct().getId(), warehouseId, variance.getZone().getId()),
+                                variance.getVariance(), StockLogEnum.STOCK_COUNT, note,
+                                ReferenceActionEnum.STOCK_TAKE_DOCUMENT, stockTakeId.toString()))
+                        .toList();
+                List<MovementResult> results = inventoryService.applyMovements(movements, false);
+
+                stagingRepository.recordOutcomes(
+                        batch.stream().map(StockTakeVariance::getId).toList(),
+                        results.stream().map(MovementResult::error).toList());
+                int applied = (int) results.stream().filter(MovementResult::applied).count();
+                stockTake.setAppliedLines(stockTake.getAppliedLines() + applied);
+                stockTake.setRejectedLines(stockTake.getRejectedLines() + results.size() - applied);
+                return batch.get(batch.size() - 1).getId();
+            });
+            if (nextAfterId == null) {
+                return;
+            }
+            afterId = nextAfterId;
+        }
+    }
+
+    private void markFailed(StockTake stockTake, RuntimeException cause) {
+        try {
+            stockTake.setStatus(StockTakeStatusEnum.FAILED);
+            String message = String.valueOf(cause.getMessage());
+            stockTake.setError(message.length() > 500 ? message.substring(0, 500) : message);
+            stockTake.setCompletedAt(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> {
+                stagingRepository.deleteLines(stockTake.getId());
+                stockTakeRepository.save(stockTake);
+            });
+        } catch (RuntimeException ex) {
+            log.error("Failed to mark stock take ID: {} as failed: {}", stockTake.getId(), ex.getMessage());
+        }
+        log.warn("Stock take ID: {} failed: {}", stockTake.getId(), cause.getMessage());
+    }
+
+    private StockTake findStockTake(Long stockTakeId) {
+        return stockTakeRepository.findWithLocationById(stockTakeId)
+                .orElseThrow(() -> new ResourceNotFoundException("StockTake", "id", stockTakeId));
+    }
+}
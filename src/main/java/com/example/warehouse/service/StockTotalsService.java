@@ -0,0 +1,181 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.Product;
+import com.example.warehouse.entity.StockLog;
+import com.example.warehouse.entity.Warehouse;
+import com.example.warehouse.enums.StockTotalScopeEnum;
+import com.example.warehouse.exception.ResourceNotFoundException;
+import com.example.warehouse.model.StockTotalRow;
+import com.example.warehouse.payload.response.WarehouseStockTotalResponse;
+import com.example.warehouse.repository.ProductRepository;
+import com.example.warehouse.repository.StockTotalsRepository;
+import com.example.warehouse.repository.WarehouseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the on-hand totals per product, warehouse and zone in step with the inventory.
+ * <p>
+ * Every stock change writes stock logs, and the services writing them pass the logs here in the same transaction.
+ * Their changes are summed per total and added right before the transaction commits, so the total rows are
+ * locked only for the commit itself, after every inventory row the transaction locks. Each transaction adds to
+ * one randomly picked slot of each total, which lets concurrent changes of the same warehouse commit side by side.
+ * Once committed, the product changes go on to the LowStockDetector, inside its commit gate.
+ */
+@Service
+public class StockTotalsService {
+
+    private final StockTotalsRepository stockTotalsRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final LowStockDetector lowStockDetector;
+    private final int slots;
+    private final Object resourceKey = new Object();
+
+    public StockTotalsService(
+            StockTotalsRepository stockTotalsRepository,
+            ProductRepository productRepository,
+            WarehouseRepository warehouseRepository,
+            LowStockDetector lowStockDetector,
+            @Value("${app.stock-totals.slots:8}") int slots) {
+        this.stockTotalsRepository = stockTotalsRepository;
+        this.productRepository = productRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.lowStockDetector = lowStockDetector;
+        this.slots = slots;
+    }
+
+    /**
+     * Adds the quantity changes of the stock logs to the totals when the current transaction commits,
+     * or right away when there is none.
+     */
+    public void recordStockLogs(Collection<StockLog> stockLogs) {
+        if (stockLogs.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges changes = new PendingChanges();
+            changes.add(stockLogs);
+            lowStockDetector.beginStockCommit();
+            try {
+                write(changes);
+                lowStockDetector.onStockCommitted(changes.byProduct);
+            } finally {
+                lowStockDetector.endStockCommit();
+            }
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(resourceKey);
+        if (pending == null) {
+            PendingChanges changes = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(resourceKey, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean gated;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    lowStockDetector.beginStockCommit();
+                    gated = true;
+                    write(changes);
+                }
+
+                @Override
+                public void afterCommit() {
+                    lowStockDetector.onStockCommitted(changes.byProduct);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (gated) {
+                        lowStockDetector.endStockCommit();
+                    }
+                    TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(stockLogs);
+    }
+
+    /**
+     * Retrieves the on-hand totals of the given products; products that never held stock are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, Long> getProductTotals(Collection<Integer> productIds) {
+        return stockTotalsRepository.findTotals(StockTotalScopeEnum.PRODUCT, productIds);
+    }
+
+    @Transactional(readOnly = true)
+    public StockTotalRow getProductTotal(Integer productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        long total = getProductTotals(List.of(productId)).getOrDefault(productId, 0L);
+        return new StockTotalRow(product.getId(), product.getSku(), product.getName(), total);
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockTotalRow> getWarehouseTotals() {
+        return stockTotalsRepository.findWarehouseTotals();
+    }
+
+    /**
+     * Retrieves the on-hand total of a warehouse together with the totals of its zones.
+     */
+    @Transactional(readOnly = true)
+    public WarehouseStockTotalResponse getWarehouseTotal(Integer warehouseId) {
+        Warehouse warehouse = warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Warehouse", "id", warehouseId));
+        long total = stockTotalsRepository.findTotals(StockTotalScopeEnum.WAREHOUSE, List.of(warehouseId)).getOrDefault(warehouseId, 0L);
+        return WarehouseStockTotalResponse.builder()
+                .warehouseId(warehouse.getId())
+                .warehouseCode(warehouse.getCode())
+                .warehouseName(warehouse.getName())
+                .totalOnHand(total)
+                .zones(stockTotalsRepository.findZoneTotals(warehouseId))
+                .build();
+    }
+
+    private void write(PendingChanges changes) {
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        stockTotalsRepository.addChanges(StockTotalScopeEnum.PRODUCT, slot, changes.byProduct);
+        stockTotalsRepository.addChanges(StockTotalScopeEnum.WAREHOUSE, slot, changes.byWarehouse);
+        stockTotalsRepository.addChanges(StockTotalScopeEnum.ZONE, slot, changes.byZone);
+    }
+
+    /**
+     * The changes of one transaction, summed per total and sorted by ID, which is the order they are written in.
+     */
+    static final class PendingChanges {
+        final SortedMap<Integer, Long> byProduct = new TreeMap<>();
+        final SortedMap<Integer, Long> byWarehouse = new TreeMap<>();
+        final SortedMap<Integer, Long> byZone = new TreeMap<>();
+
+        void add(Collection<StockLog> stockLogs) {
+            for (StockLog stockLog : stockLogs) {
+                long change = stockLog.getQuantityChange();
+                if (change != 0) {
+                    add(byProduct, stockLog.getProduct().getId(), change);
+                    add(byWarehouse, stockLog.getWarehouse().getId(), change);
+                    add(byZone, stockLog.getZone().getId(), change);
+                }
+            }
+        }
+
+        private static void add(SortedMap<Integer, Long> totals, Integer id, long change) {
+            // Changes that cancel out within the transaction leave nothing to write
+            if (totals.merge(id, change, Long::sum) == 0) {
+                totals.remove(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.enums.StockTotalScopeEnum;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.model.StockTotalDrift;
+import com.example.warehouse.payload.response.StockTotalsVerificationResponse;
+import com.example.warehouse.repository.StockTotalsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes the stock totals from product_inventories and reports the ones that drifted.
+ * <p>
+ * The IDs of each scope are split into ranges that are checked in parallel, each with one statement comparing
+ * the totals with the inventory sums, so both sides come from the same snapshot and changes committed meanwhile
+ * don't show up as drift. A repair adds the difference to a slot of each drifted total; as the inventory and its
+ * totals always change together, the difference stays right even if stock changed after it was measured.
+ */
+@Service
+@Slf4j
+public class StockTotalsVerifier {
+
+    private final StockTotalsRepository stockTotalsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LowStockDetector lowStockDetector;
+    private final int threads;
+    private final int rangeSize;
+    private final int maxReportedDrifts;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StockTotalsVerifier(
+            StockTotalsRepository stockTotalsRepository,
+            TransactionTemplate transactionTemplate,
+            LowStockDetector lowStockDetector,
+            @Value("${app.stock-totals.verify-threads:4}") int threads,
+            @Value("${app.stock-totals.verify-range-size:1000}") int rangeSize,
+            @Value("${app.stock-totals.max-reported-drifts:100}") int maxReportedDrifts) {
+        this.stockTotalsRepository = stockTotalsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.lowStockDetector = lowStockDetector;
+        this.threads = threads;
+        this.rangeSize = rangeSize;
+        this.maxReportedDrifts = maxReportedDrifts;
+    }
+
+    @Scheduled(cron = "${app.stock-totals.verify-cron:-}")
+    public void verifyOnSchedule() {
+        StockTotalsVerificationResponse result = verify(false);
+        if (result.getDriftedTotals() > 0) {
+            log.warn("Stock totals verification found {} drifted totals, e.g. {}", result.getDriftedTotals(), result.getDrifts());
+        }
+    }
+
+    /**
+     * Checks every stock total against the inventory, optionally repairing the ones that drifted.
+     *
+     * @throws ResourceConflictException if a verification is already running.
+     */
+    public StockTotalsVerificationResponse verify(boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ResourceConflictException("A stock totals verification is already running.");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("stock-totals-verifier-"));
+        try {
+            ConcurrentLinkedQueue<StockTotalDrift> drifts = new ConcurrentLinkedQueue<>();
+            List<CompletableFuture<Void>> checks = new ArrayList<>();
+            for (StockTotalScopeEnum scope : StockTotalScopeEnum.values()) {
+                int[] idRange = stockTotalsRepository.findIdRange(scope);
+                if (idRange == null) {
+                    continue;
+                }
+                for (long from = idRange[0]; from <= idRange[1]; from += rangeSize) {
+                    int fromId = (int) from;
+                    int toId = (int) Math.min(from + rangeSize - 1, idRange[1]);
+                    checks.add(CompletableFuture.runAsync(() -> drifts.addAll(checkRange(scope, fromId, toId, repair)), executor));
+                }
+            }
+            CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new)).join();
+
+            List<StockTotalDrift> sorted = drifts.stream()
+                    .sorted(Comparator.comparing(StockTotalDrift::scope).thenComparing(StockTotalDrift::id))
+                    .toList();
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            log.info("Verified stock totals in {} ranges in {} ms: {} drifted{}", checks.size(), elapsedMillis, sorted.size(),
+                    repair && !sorted.isEmpty() ? ", repaired" : "");
+            return StockTotalsVerificationResponse.builder()
+                    .startedAt(startedAt)
+                    .elapsedMillis(elapsedMillis)
+                    .rangesChecked(checks.size())
+                    .driftedTotals(sorted.size())
+                    .repaired(repair && !sorted.isEmpty())
+                    .drifts(sorted.subList(0, Math.min(sorted.size(), maxReportedDrifts)))
+                    .build();
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    private List<StockTotalDrift> checkRange(StockTotalScopeEnum scope, int fromId, int toId, boolean repair) {
+        Map<Integer, long[]> found = stockTotalsRepository.findDrift(scope, fromId, toId);
+        if (found.isEmpty()) {
+            return List.of();
+        }
+        List<StockTotalDrift> drifts = new ArrayList<>(found.size());
+        SortedMap<Integer, Long> corrections = new TreeMap<>();
+        found.forEach((id, totals) -> {
+            drifts.add(new StockTotalDrift(scope, id, totals[0], totals[1]));
+            corrections.put(id, totals[1] - totals[0]);
+        });
+        if (repair) {
+            lowStockDetector.beginStockCommit();
+            try {
+                transactionTemplate.executeWithoutResult(status -> stockTotalsRepository.addChanges(scope, 0, corrections));
+                if (scope == StockTotalScopeEnum.PRODUCT) {
+                    lowStockDetector.onStockCommitted(corrections);
+                }
+            } finally {
+                lowStockDetector.endStockCommit();
+            }
+        }
+        return drifts;
+    }
+}
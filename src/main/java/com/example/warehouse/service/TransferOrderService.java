@@ -0,0 +1,245 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.*;
+import com.example.warehouse.enums.ReferenceActionEnum;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.enums.TransferOrderStatusEnum;
+import com.example.warehouse.exception.BadRequestException;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.exception.ResourceNotFoundException;
+import com.example.warehouse.mapper.TransferOrderMapper;
+import com.example.warehouse.model.InventoryKey;
+import com.example.warehouse.model.StockMovement;
+import com.example.warehouse.payload.request.MoveInventoryRequest;
+import com.example.warehouse.payload.request.TransferOrderLineRequest;
+import com.example.warehouse.payload.request.TransferOrderRequest;
+import com.example.warehouse.payload.response.TransferOrderResponse;
+import com.example.warehouse.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service for transfer orders: moving many products between zones or warehouses in one transaction.
+ * <p>
+ * All stock changes go through {@link ProductInventoryService#applyMovements}, which locks inventory rows
+ * in a global key order and writes the StockLog rows as one batch. Every log of an order carries the
+ * TRANSFER_ORDER reference type and the order ID as reference, so the whole transfer can be traced.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferOrderService {
+
+    private final TransferOrderRepository transferOrderRepository;
+    private final TransferOrderLineRepository lineRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseZoneRepository zoneRepository;
+    private final ProductInventoryService inventoryService;
+    private final TransferOrderMapper transferOrderMapper;
+    private final SecurityContextService securityContextService;
+
+    @Transactional(readOnly = true)
+    public Page<TransferOrderResponse> getTransferOrders(TransferOrderStatusEnum status, Pageable pageable) {
+        Page<TransferOrder> orders = status != null
+                ? transferOrderRepository.findByStatus(status, pageable)
+                : transferOrderRepository.findAll(pageable);
+        return orders.map(transferOrderMapper::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public TransferOrderResponse getTransferOrderById(Long transferOrderId) {
+        return toDetailedResponse(findTransferOrder(transferOrderId));
+    }
+
+    /**
+     * Creates a transfer order and issues its stock from the source zones.
+     * Within one warehouse the stock is received in the destination zones in the same transaction and the
+     * order completes immediately; between warehouses it stays IN_TRANSIT until it is received.
+     *
+     * @throws ResourceConflictException if any line would take more than the available stock of its source zone
+     */
+    @Transactional
+    public TransferOrderResponse createTransferOrder(TransferOrderRequest request) {
+        Warehouse source = warehouseRepository.findById(request.getSourceWarehouseId())
+                .orElseThrow(() -> new ResourceNotFoundException("Warehouse", "id", request.getSourceWarehouseId()));
+        Warehouse destination = request.getDestinationWarehouseId().equals(source.getId()) ? source
+                : warehouseRepository.findById(request.getDestinationWarehouseId())
+                .orElseThrow(() -> new ResourceNotFoundException("Warehouse", "id", request.getDestinationWarehouseId()));
+        boolean withinWarehouse = source.getId().equals(destination.getId());
+
+        Map<Integer, Product> products = productRepository.findAllById(
+                        request.getLines().stream().map(TransferOrderLineRequest::getProductId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Integer, WarehouseZone> zones = zoneRepository.findAllById(request.getLines().stream()
+                        .flatMap(line -> Stream.of(line.getSourceZoneId(), line.getDestinationZoneId()))
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(WarehouseZone::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        TransferOrder order = TransferOrder.builder()
+                .sourceWarehouse(source)
+                .destinationWarehouse(destination)
+                .actor(securityContextService.getCurrentActor())
+                .status(withinWarehouse ? TransferOrderStatusEnum.COMPLETED : TransferOrderStatusEnum.IN_TRANSIT)
+                .note(request.getNote())
+                .completedAt(withinWarehouse ? now : null)
+                .build();
+        for (int i = 0; i < request.getLines().size(); i++) {
+            TransferOrderLineRequest line = request.getLines().get(i);
+            if (withinWarehouse && line.getSourceZoneId().equals(line.getDestinationZoneId())) {
+                throw new BadRequestException("Line " + i + ": source and destination zones cannot be the same.");
+            }
+            order.getLines().add(TransferOrderLine.builder()
+                    .transferOrder(order)
+                    .product(requireProduct(products, line.getProductId(), i))
+                    .sourceZone(requireZone(zones, line.getSourceZoneId(), source, i))
+                    .destinationZone(requireZone(zones, line.getDestinationZoneId(), destination, i))
+                    .quantity(line.getQuantity())
+                    .build());
+        }
+        transferOrderRepository.save(order);
+
+        List<StockMovement> movements = new ArrayList<>(issueMovements(order));
+        if (withinWarehouse) {
+            movements.addAll(receiptMovements(order, order.getLines()));
+        }
+        inventoryService.applyMovements(movements, true);
+
+        log.info("Created transfer order ID: {} with {} lines from warehouse ID: {} to warehouse ID: {} ({})",
+                order.getId(), order.getLines().size(), source.getId(), destination.getId(), order.getStatus());
+        return transferOrderMapper.toResponse(order, order.getLines());
+    }
+
+    /**
+     * Moves a single product between two zones of one warehouse, as a one-line transfer order.
+     */
+    @Transactional
+    public TransferOrderResponse moveInventory(MoveInventoryRequest request) {
+        if (request.getSourceZoneId().equals(request.getDestinationZoneId())) {
+            throw new ResourceConflictException("Source and destination zones cannot be the same.");
+        }
+
+        TransferOrderLineRequest line = new TransferOrderLineRequest();
+        line.setProductId(request.getProductId());
+        line.setSourceZoneId(request.getSourceZoneId());
+        line.setDestinationZoneId(request.getDestinationZoneId());
+        line.setQuantity(request.getQuantity());
+
+        TransferOrderRequest transfer = new TransferOrderRequest();
+        transfer.setSourceWarehouseId(request.getWarehouseId());
+        transfer.setDestinationWarehouseId(request.getWarehouseId());
+        transfer.setLines(List.of(line));
+        transfer.setNote(request.getNote());
+        return createTransferOrder(transfer);
+    }
+
+    /**
+     * Receives an in-transit order into its destination zones.
+     *
+     * @throws ResourceConflictException if the order is no longer in transit
+     */
+    @Transactional
+    public TransferOrderResponse receiveTransferOrder(Long transferOrderId) {
+        closeInTransit(transferOrderId, TransferOrderStatusEnum.COMPLETED);
+        TransferOrder order = findTransferOrder(transferOrderId);
+        List<TransferOrderLine> lines = lineRepository.findWithLocationsByTransferOrderId(transferOrderId);
+        inventoryService.applyMovements(receiptMovements(order, lines), true);
+
+        log.info("Received transfer order ID: {} into warehouse ID: {}", transferOrderId, order.getDestinationWarehouse().getId());
+        return toDetailedResponse(findTransferOrder(transferOrderId));
+    }
+
+    /**
+     * Cancels an in-transit order, putting its stock back into the source zones.
+     *
+     * @throws ResourceConflictException if the order is no longer in transit
+     */
+    @Transactional
+    public TransferOrderResponse cancelTransferOrder(Long transferOrderId) {
+        closeInTransit(transferOrderId, TransferOrderStatusEnum.CANCELLED);
+        TransferOrder order = findTransferOrder(transferOrderId);
+        List<TransferOrderLine> lines = lineRepository.findWithLocationsByTransferOrderId(transferOrderId);
+        String note = "Cancelled transfer order #" + transferOrderId;
+        inventoryService.applyMovements(lines.stream()
+                .map(line -> new StockMovement(
+                        new InventoryKey(line.getProduct().getId(), order.getSourceWarehouse().getId(), line.getSourceZone().getId()),
+                        line.getQuantity(), StockLogEnum.GOODS_RECEIPT, note, ReferenceActionEnum.TRANSFER_ORDER, transferOrderId.toString()))
+                .toList(), true);
+
+        log.info("Cancelled transfer order ID: {}", transferOrderId);
+        return toDetailedResponse(findTransferOrder(transferOrderId));
+    }
+
+    private List<StockMovement> issueMovements(TransferOrder order) {
+        String note = logNote(order);
+        return order.getLines().stream()
+                .map(line -> new StockMovement(
+                        new InventoryKey(line.getProduct().getId(), order.getSourceWarehouse().getId(), line.getSourceZone().getId()),
+                        -line.getQuantity(), StockLogEnum.GOODS_ISSUE, note, ReferenceActionEnum.TRANSFER_ORDER, order.getId().toString()))
+                .toList();
+    }
+
+    private List<StockMovement> receiptMovements(TransferOrder order, List<TransferOrderLine> lines) {
+        String note = logNote(order);
+        return lines.stream()
+                .map(line -> new StockMovement(
+                        new InventoryKey(line.getProduct().getId(), order.getDestinationWarehouse().getId(), line.getDestinationZone().getId()),
+                        line.getQuantity(), StockLogEnum.GOODS_RECEIPT, note, ReferenceActionEnum.TRANSFER_ORDER, order.getId().toString()))
+                .toList();
+    }
+
+    private static String logNote(TransferOrder order) {
+        String prefix = "Transfer order #" + order.getId();
+        return StringUtils.hasText(order.getNote()) ? prefix + ": " + order.getNote() : prefix;
+    }
+
+    /**
+     * Wins the IN_TRANSIT -> final state transition or explains why it can't be made.
+     */
+    private void closeInTransit(Long transferOrderId, TransferOrderStatusEnum status) {
+        if (transferOrderRepository.closeInTransit(transferOrderId, status, LocalDateTime.now()) == 0) {
+            TransferOrder order = findTransferOrder(transferOrderId);
+            throw new ResourceConflictException("Transfer order " + transferOrderId + " is already " + order.getStatus() + ".");
+        }
+    }
+
+    private TransferOrderResponse toDetailedResponse(TransferOrder order) {
+        return transferOrderMapper.toResponse(order, lineRepository.findWithLocationsByTransferOrderId(order.getId()));
+    }
+
+    private TransferOrder findTransferOrder(Long transferOrderId) {
+        return transferOrderRepository.findWithWarehousesById(transferOrderId)
+                .orElseThrow(() -> new ResourceNotFoundException("TransferOrder", "id", transferOrderId));
+    }
+
+    private static Product requireProduct(Map<Integer, Product> products, Integer productId, int lineIndex) {
+        Product product = products.get(productId);
+        if (product == null) {
+            throw new ResourceNotFoundException("Line " + lineIndex + ": Product not found with id : '" + productId + "'");
+        }
+        return product;
+    }
+
+    private static WarehouseZone requireZone(Map<Integer, WarehouseZone> zones, Integer zoneId, Warehouse warehouse, int lineIndex) {
+        WarehouseZone zone = zones.get(zoneId);
+        if (zone == null || !zone.getWarehouse().getId().equals(warehouse.getId())) {
+            throw new ResourceNotFoundException("Line " + lineIndex + ": Zone not found with id : '" + zoneId
+                    + "' in warehouse '" + warehouse.getId() + "'");
+        }
+        return zone;
+    }
+}
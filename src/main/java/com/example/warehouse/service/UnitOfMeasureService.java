@@ -29,6 +29,7 @@ public class UnitOfMeasureService {
     private final UnitOfMeasureMapper unitMapper;
     private final AuditLogService auditLogService;
     private final SecurityContextService securityContextService;
+    private final ReferenceDataCacheService referenceDataCacheService;
 
     /**
      * Retrieves all units of measure.
@@ -124,6 +125,7 @@ public class UnitOfMeasureService {
         unit.setName(request.getName());
         unit.setAbbreviation(request.getAbbreviation());
         UnitOfMeasure updatedUnit = unitRepository.save(unit);
+        referenceDataCacheService.evictAfterCommit(UnitOfMeasure.class, unitId);
 
         auditLogService.logAction(
                 securityContextService.getCurrentActor(),
@@ -167,5 +169,6 @@ public class UnitOfMeasureService {
 
         log.info("Deleting unit of measure: {}", unit.getName());
         unitRepository.delete(unit);
+        referenceDataCacheService.evictAfterCommit(UnitOfMeasure.class, unitId);
     }
 }
@@ -13,6 +13,8 @@ import com.example.warehouse.payload.request.UserUpdateRequest;
 import com.example.warehouse.payload.response.UserResponse;
 import com.example.warehouse.repository.RoleRepository;
 import com.example.warehouse.repository.UserRepository;
+import com.example.warehouse.security.PrincipalCache;
+import com.example.warehouse.security.SecurityVersionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -36,6 +38,8 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final AuditLogService auditLogService;
     private final SecurityContextService securityContextService;
+    private final PrincipalCache principalCache;
+    private final SecurityVersionRegistry securityVersionRegistry;
 
     @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(Pageable pageable) {
@@ -124,6 +128,13 @@ public class UserService {
             throw new ResourceConflictException("User", "email", request.getEmail());
         }
 
+        // Deactivating (or reactivating) a user must revoke tokens issued under the previous state
+        if (!user.getIsActive().equals(request.getIsActive())) {
+            securityVersionRegistry.bump(user);
+        } else {
+            principalCache.evictAfterCommit(user.getUsername());
+        }
+
         user.setEmail(request.getEmail());
         user.setFullName(request.getFullName());
         user.setIsActive(request.getIsActive());
@@ -161,6 +172,7 @@ public class UserService {
         }
 
         user.setRoles(newRoles);
+        securityVersionRegistry.bump(user);
         userRepository.save(user);
 
         auditLogService.logAction(
@@ -194,6 +206,7 @@ public class UserService {
         }
 
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
+        securityVersionRegistry.bump(user);
         userRepository.save(user);
 
         // Log the password change action
@@ -241,5 +254,6 @@ public class UserService {
 
         log.info("Deleting user: {}", user.getUsername());
         userRepository.delete(user);
+        securityVersionRegistry.revokeDeleted(user);
     }
 }
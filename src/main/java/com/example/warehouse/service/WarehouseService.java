@@ -30,6 +30,7 @@ public class WarehouseService {
     private final AuditLogService auditLogService;
     private final SecurityContextService securityContextService;
     private final GeneratorService generatorService;
+    private final ReferenceDataCacheService referenceDataCacheService;
 
     /**
      * Retrieves all warehouses with pagination.
@@ -120,6 +121,7 @@ public class WarehouseService {
         warehouse.setIsActive(request.getIsActive());
 
         Warehouse updatedWarehouse = warehouseRepository.save(warehouse);
+        referenceDataCacheService.evictAfterCommit(Warehouse.class, warehouseId);
 
         auditLogService.logAction(
                 securityContextService.getCurrentActor(),
@@ -158,5 +160,7 @@ public class WarehouseService {
 
         log.info("Warehouse deleted: {}", warehouse.getName());
         warehouseRepository.delete(warehouse);
+        referenceDataCacheService.evictAfterCommit(Warehouse.class, warehouseId);
+        referenceDataCacheService.evictCollectionAfterCommit(Warehouse.class, "zones", warehouseId);
     }
 }
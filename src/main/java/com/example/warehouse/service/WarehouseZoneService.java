@@ -34,6 +34,7 @@ public class WarehouseZoneService {
     private final GeneratorService generatorService;
     private final AuditLogService auditLogService;
     private final SecurityContextService securityContextService;
+    private final ReferenceDataCacheService referenceDataCacheService;
 
     /**
      * Creates a new zone in the specified warehouse.
@@ -62,6 +63,8 @@ public class WarehouseZoneService {
                 .build();
 
         WarehouseZone savedZone = zoneRepository.save(zone);
+        // zones is the inverse side, so Hibernate doesn't refresh the warehouse's cached collection on its own
+        referenceDataCacheService.evictCollectionAfterCommit(Warehouse.class, "zones", warehouseId);
 
         auditLogService.logAction(
                 securityContextService.getCurrentActor(),
@@ -141,6 +144,7 @@ public class WarehouseZoneService {
         zone.setCode(generatorService.generateWarehouseZoneCode(warehouse, request.getName()));
 
         WarehouseZone updatedZone = zoneRepository.save(zone);
+        referenceDataCacheService.evictAfterCommit(WarehouseZone.class, zoneId);
 
         auditLogService.logAction(
                 securityContextService.getCurrentActor(),
@@ -182,5 +186,7 @@ public class WarehouseZoneService {
 
         log.info("Deleting zone: {} with code: {} from warehouse: {}", zone.getName(), zone.getCode(), zone.getWarehouse().getName());
         zoneRepository.delete(zone);
+        referenceDataCacheService.evictAfterCommit(WarehouseZone.class, zoneId);
+        referenceDataCacheService.evictCollectionAfterCommit(Warehouse.class, "zones", warehouseId);
     }
 }
@@ -0,0 +1,78 @@
+package com.example.warehouse.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Posts webhook batches over a shared HTTP client, which keeps connections to each endpoint alive.
+ * <p>
+ * With a secret, the body is signed with HMAC-SHA256 and the signature sent as
+ * {@value #SIGNATURE_HEADER}: sha256=&lt;hex&gt;, so receivers can reject forged batches.
+ */
+@Component
+public class WebhookClient {
+
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+    public static final String EVENT_COUNT_HEADER = "X-Webhook-Event-Count";
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    public WebhookClient(
+            @Value("${app.webhooks.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${app.webhooks.request-timeout-ms:10000}") long requestTimeoutMs) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    }
+
+    /**
+     * Sends one batch and waits for the response.
+     *
+     * @throws IOException if the request fails or the endpoint answers with anything but a 2xx status
+     */
+    public void send(String url, String secret, byte[] body, int eventCount) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header(EVENT_COUNT_HEADER, Integer.toString(eventCount))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (secret != null) {
+            request.header(SIGNATURE_HEADER, "sha256=" + sign(secret, body));
+        }
+
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sending webhook", ex);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Endpoint responded with HTTP " + response.statusCode());
+        }
+    }
+
+    static String sign(String secret, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.WebhookDelivery;
+import com.example.warehouse.entity.WebhookEndpoint;
+import com.example.warehouse.model.WebhookEvent;
+import com.example.warehouse.payload.response.WebhookDispatcherStatsResponse;
+import com.example.warehouse.repository.OutboxEventRepository;
+import com.example.warehouse.repository.OutboxJdbcRepository;
+import com.example.warehouse.repository.WebhookDeliveryRepository;
+import com.example.warehouse.repository.WebhookEndpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Relays outbox events to webhook endpoints.
+ * <p>
+ * Every poll first fans newly committed outbox events out into one pending delivery per subscribed endpoint,
+ * then plans the next round for each endpoint that has none in flight: its pending deliveries are split by
+ * ordering key into at most maxConcurrency batches, which are posted in parallel by a shared sender pool.
+ * A key always lands in the same batch, and a key with a delivery waiting for its retry is held back
+ * entirely, so an endpoint receives the events of one key strictly in outbox order. Failed batches are
+ * retried with exponential backoff until their deliveries run out of attempts and become FAILED; those no
+ * longer hold their key back.
+ * <p>
+ * Outbox ids are assigned at insert, but transactions commit in their own order: two changes of one product in
+ * different zones don't share a row lock, so the higher id may commit first. The fan-out therefore only takes
+ * events older than the settle delay, in id order up to the first younger one, by which time every transaction
+ * that inserted a lower id has committed.
+ * <p>
+ * Delivery is at least once: a batch whose acknowledgement cannot be recorded is sent again. The dispatcher
+ * is off by default and must be enabled on exactly one instance; until then outbox events accumulate.
+ */
+@Component
+@Slf4j
+public class WebhookDispatcher implements SmartLifecycle {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxJdbcRepository outboxJdbcRepository;
+    private final WebhookEndpointRepository endpointRepository;
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final WebhookClient webhookClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int fanOutBatchSize;
+    private final Duration settleDelay;
+    private final int scanSize;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final int senderThreads;
+    private final Duration retention;
+    private final int purgeBatchSize;
+
+    // Batches in flight per endpoint; an endpoint gets its next round only once the previous one is done
+    private final Map<Integer, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder eventsDelivered = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    private volatile boolean running;
+    private ExecutorService senders;
+
+    public WebhookDispatcher(
+            OutboxEventRepository outboxEventRepository,
+            OutboxJdbcRepository outboxJdbcRepository,
+            WebhookEndpointRepository endpointRepository,
+            WebhookDeliveryRepository deliveryRepository,
+            WebhookClient webhookClient,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.webhooks.dispatcher.enabled:false}") boolean enabled,
+            @Value("${app.webhooks.fan-out-batch-size:1000}") int fanOutBatchSize,
+            @Value("${app.webhooks.settle-ms:10000}") long settleMs,
+            @Value("${app.webhooks.scan-size:2000}") int scanSize,
+            @Value("${app.webhooks.max-attempts:10}") int maxAttempts,
+            @Value("${app.webhooks.retry-base-ms:1000}") long retryBaseMs,
+            @Value("${app.webhooks.retry-max-ms:600000}") long retryMaxMs,
+            @Value("${app.webhooks.sender-threads:8}") int senderThreads,
+            @Value("${app.webhooks.retention-hours:72}") long retentionHours,
+            @Value("${app.webhooks.purge-batch-size:1000}") int purgeBatchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxJdbcRepository = outboxJdbcRepository;
+        this.endpointRepository = endpointRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.webhookClient = webhookClient;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.fanOutBatchSize = fanOutBatchSize;
+        this.settleDelay = Duration.ofMillis(settleMs);
+        this.scanSize = scanSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.senderThreads = senderThreads;
+        this.retention = Duration.ofHours(retentionHours);
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhooks.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!running) {
+            return;
+        }
+        try {
+            fanOut();
+            endpointRepository.findByIsActiveTrue().forEach(this::startRound);
+        } catch (RuntimeException ex) {
+            log.error("Webhook dispatch failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Creates the deliveries of settled undispatched events, one transaction per batch of events.
+     */
+    private void fanOut() {
+        int found;
+        do {
+            found = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> eventIds = settledIds(
+                        outboxEventRepository.findUndispatched(PageRequest.ofSize(fanOutBatchSize)), now.minus(settleDelay));
+                if (!eventIds.isEmpty()) {
+                    outboxJdbcRepository.insertDeliveries(eventIds, now);
+                    outboxEventRepository.markDispatched(eventIds, now);
+                }
+                return eventIds.size();
+            });
+        } while (found == fanOutBatchSize);
+    }
+
+    /**
+     * Returns the ids of the events, in id order, up to the first one created at or after settledBefore.
+     * Stopping there rather than skipping it keeps a later id from going out before an earlier one.
+     */
+    static List<Long> settledIds(List<OutboxEventRepository.UndispatchedEvent> events, LocalDateTime settledBefore) {
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEventRepository.UndispatchedEvent event : events) {
+            if (!event.getCreatedAt().isBefore(settledBefore)) {
+                break;
+            }
+            ids.add(event.getId());
+        }
+        return ids;
+    }
+
+    private void startRound(WebhookEndpoint endpoint) {
+        AtomicInteger endpointInFlight = inFlight.computeIfAbsent(endpoint.getId(), id -> new AtomicInteger());
+        if (endpointInFlight.get() > 0) {
+            return;
+        }
+        List<WebhookDelivery> pending = deliveryRepository.findPending(endpoint.getId(), PageRequest.ofSize(scanSize));
+        List<List<WebhookDelivery>> batches = planBatches(pending, LocalDateTime.now(), endpoint.getMaxConcurrency(), endpoint.getBatchSize());
+
+        endpointInFlight.addAndGet(batches.size());
+        for (List<WebhookDelivery> batch : batches) {
+            try {
+                senders.execute(() -> {
+                    try {
+                        sendBatch(endpoint, batch);
+                    } finally {
+                        endpointInFlight.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                endpointInFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Splits pending deliveries, in event order, into at most maxConcurrency batches of at most batchSize.
+     * Deliveries are assigned by the hash of their ordering key, and once a delivery of a key cannot go out
+     * in this round (its retry is not due, or its batch is full) no later delivery of that key does either.
+     */
+    static List<List<WebhookDelivery>> planBatches(List<WebhookDelivery> pending, LocalDateTime now, int maxConcurrency, int batchSize) {
+        List<List<WebhookDelivery>> partitions = new ArrayList<>(maxConcurrency);
+        for (int i = 0; i < maxConcurrency; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        Set<String> heldBack = new HashSet<>();
+        for (WebhookDelivery delivery : pending) {
+            String key = delivery.getOutboxEvent().getOrderingKey();
+            if (heldBack.contains(key)) {
+                continue;
+            }
+            List<WebhookDelivery> partition = partitions.get(Math.floorMod(key.hashCode(), maxConcurrency));
+            if (delivery.getNextAttemptAt().isAfter(now) || partition.size() >= batchSize) {
+                heldBack.add(key);
+                continue;
+            }
+            partition.add(delivery);
+        }
+        return partitions.stream().filter(partition -> !partition.isEmpty()).toList();
+    }
+
+    private void sendBatch(WebhookEndpoint endpoint, List<WebhookDelivery> batch) {
+        List<Long> deliveryIds = batch.stream().map(WebhookDelivery::getId).toList();
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(batch.stream().map(delivery -> WebhookEvent.of(delivery.getOutboxEvent())).toList());
+            webhookClient.send(endpoint.getUrl(), endpoint.getSecret(), body, batch.size());
+        } catch (IOException | RuntimeException ex) {
+            recordFailure(endpoint, batch, deliveryIds, ex);
+            return;
+        }
+
+        batchesSent.increment();
+        eventsDelivered.add(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> deliveryRepository.markDelivered(deliveryIds, LocalDateTime.now()));
+        } catch (RuntimeException ex) {
+            log.error("Could not record delivery of {} events to webhook '{}'; they will be sent again: {}",
+                    batch.size(), endpoint.getName(), ex.getMessage());
+        }
+    }
+
+    private void recordFailure(WebhookEndpoint endpoint, List<WebhookDelivery> batch, List<Long> deliveryIds, Exception cause) {
+        failedBatches.increment();
+        int attempt = batch.stream().mapToInt(WebhookDelivery::getAttempts).max().orElse(0) + 1;
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempt));
+        String message = String.valueOf(cause.getMessage());
+        String error = message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+        log.warn("Webhook '{}' failed attempt {} for {} events, retrying at {}: {}",
+                endpoint.getName(), attempt, batch.size(), nextAttemptAt, error);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    deliveryRepository.recordFailedAttempt(deliveryIds, error, nextAttemptAt, maxAttempts));
+        } catch (RuntimeException ex) {
+            log.error("Could not record failed webhook attempt: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * @return retryBase * 2^(attempt - 1), capped at retryMax
+     */
+    Duration backoff(int attempt) {
+        long delayMs = retryBaseMs << Math.min(attempt - 1, 30);
+        return Duration.ofMillis(delayMs <= 0 ? retryMaxMs : Math.min(delayMs, retryMaxMs));
+    }
+
+    /**
+     * Deletes deliveries acknowledged longer ago than the retention period, then the events left without any.
+     */
+    @Scheduled(fixedDelayString = "${app.webhooks.purge-interval-ms:600000}")
+    public void purgeDelivered() {
+        if (!running) {
+            return;
+        }
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(retention);
+            int deliveries = purge(() -> deliveryRepository.deleteDeliveredBefore(before, purgeBatchSize));
+            int events = purge(() -> outboxEventRepository.deleteDispatchedBefore(before, purgeBatchSize));
+            if (deliveries + events > 0) {
+                log.info("Purged {} webhook deliveries and {} outbox events", deliveries, events);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Webhook purge failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private int purge(IntSupplier deleteBatch) {
+        int deleted;
+        int total = 0;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteBatch.getAsInt());
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+        return total;
+    }
+
+    public WebhookDispatcherStatsResponse getStats() {
+        return WebhookDispatcherStatsResponse.builder()
+                .running(running)
+                .inFlightBatches(inFlight.values().stream().mapToInt(AtomicInteger::get).sum())
+                .batchesSent(batchesSent.sum())
+                .eventsDelivered(eventsDelivered.sum())
+                .failedBatches(failedBatches.sum())
+                .build();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Webhook dispatcher disabled on this instance");
+            return;
+        }
+        senders = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("webhook-sender-"));
+        running = true;
+        log.info("Webhook dispatcher started (sender threads: {})", senderThreads);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        senders.shutdown();
+        try {
+            senders.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Webhook dispatcher stopped after delivering {} events", eventsDelivered.sum());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
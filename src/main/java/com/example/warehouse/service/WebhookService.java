@@ -0,0 +1,171 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.WebhookEndpoint;
+import com.example.warehouse.enums.AuditActionEnum;
+import com.example.warehouse.enums.WebhookDeliveryStatusEnum;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.exception.ResourceNotFoundException;
+import com.example.warehouse.mapper.WebhookMapper;
+import com.example.warehouse.payload.request.WebhookEndpointRequest;
+import com.example.warehouse.payload.response.WebhookDeliveryResponse;
+import com.example.warehouse.payload.response.WebhookEndpointResponse;
+import com.example.warehouse.repository.WebhookDeliveryRepository;
+import com.example.warehouse.repository.WebhookEndpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service class for registering webhook endpoints and inspecting their deliveries.
+ * Delivery itself is done by the {@link WebhookDispatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookService {
+
+    private final WebhookEndpointRepository endpointRepository;
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final WebhookMapper webhookMapper;
+    private final AuditLogService auditLogService;
+    private final SecurityContextService securityContextService;
+
+    @Transactional(readOnly = true)
+    public Page<WebhookEndpointResponse> getAllEndpoints(Pageable pageable) {
+        log.info("Retrieving all webhook endpoints with pagination: {}", pageable);
+        return endpointRepository.findAll(pageable).map(webhookMapper::toResponse);
+    }
+
+    /**
+     * Retrieves an endpoint together with its number of pending and failed deliveries.
+     */
+    @Transactional(readOnly = true)
+    public WebhookEndpointResponse getEndpointById(Integer endpointId) {
+        WebhookEndpointResponse response = webhookMapper.toResponse(findEndpoint(endpointId));
+        response.setPendingDeliveries(deliveryRepository.countByEndpointIdAndStatus(endpointId, WebhookDeliveryStatusEnum.PENDING));
+        response.setFailedDeliveries(deliveryRepository.countByEndpointIdAndStatus(endpointId, WebhookDeliveryStatusEnum.FAILED));
+        return response;
+    }
+
+    /**
+     * Registers an endpoint. It receives events committed from now on, not earlier ones.
+     *
+     * @throws ResourceConflictException if an endpoint with the same name already exists
+     */
+    @Transactional
+    public WebhookEndpointResponse createEndpoint(WebhookEndpointRequest request) {
+        if (endpointRepository.existsByName(request.getName())) {
+            throw new ResourceConflictException("Webhook", "name", request.getName());
+        }
+
+        WebhookEndpoint endpoint = new WebhookEndpoint();
+        apply(endpoint, request);
+        WebhookEndpoint savedEndpoint = endpointRepository.save(endpoint);
+
+        auditLogService.logAction(
+                securityContextService.getCurrentActor(),
+                AuditActionEnum.CREATE_WEBHOOK,
+                "webhook_endpoints",
+                savedEndpoint.getId().toString(),
+                String.format("Registered webhook '%s'", savedEndpoint.getName())
+        );
+
+        log.info("Webhook endpoint created: {}", savedEndpoint.getName());
+        return webhookMapper.toResponse(savedEndpoint);
+    }
+
+    /**
+     * Updates an endpoint. Deliveries already created are sent to the new URL; an inactive endpoint keeps
+     * its pending deliveries but gets no new ones.
+     *
+     * @throws ResourceConflictException if another endpoint has the same name
+     */
+    @Transactional
+    public WebhookEndpointResponse updateEndpoint(Integer endpointId, WebhookEndpointRequest request) {
+        WebhookEndpoint endpoint = findEndpoint(endpointId);
+        endpointRepository.findByName(request.getName()).ifPresent(existing -> {
+            if (!existing.getId().equals(endpointId)) {
+                throw new ResourceConflictException("Webhook", "name", request.getName());
+            }
+        });
+
+        apply(endpoint, request);
+        WebhookEndpoint updatedEndpoint = endpointRepository.save(endpoint);
+
+        auditLogService.logAction(
+                securityContextService.getCurrentActor(),
+                AuditActionEnum.UPDATE_WEBHOOK,
+                "webhook_endpoints",
+                updatedEndpoint.getId().toString(),
+                String.format("Updated webhook '%s'", updatedEndpoint.getName())
+        );
+
+        log.info("Webhook endpoint updated: {}", updatedEndpoint.getName());
+        return webhookMapper.toResponse(updatedEndpoint);
+    }
+
+    /**
+     * Deletes an endpoint; its deliveries are deleted with it.
+     */
+    @Transactional
+    public void deleteEndpoint(Integer endpointId) {
+        WebhookEndpoint endpoint = findEndpoint(endpointId);
+
+        auditLogService.logAction(
+                securityContextService.getCurrentActor(),
+                AuditActionEnum.DELETE_WEBHOOK,
+                "webhook_endpoints",
+                endpointId.toString(),
+                String.format("Deleted webhook '%s'", endpoint.getName())
+        );
+
+        log.info("Webhook endpoint deleted: {}", endpoint.getName());
+        endpointRepository.delete(endpoint);
+    }
+
+    /**
+     * Retrieves an endpoint's deliveries, optionally only those in one status.
+     */
+    @Transactional(readOnly = true)
+    public Page<WebhookDeliveryResponse> getDeliveries(Integer endpointId, WebhookDeliveryStatusEnum status, Pageable pageable) {
+        findEndpoint(endpointId);
+        return (status != null
+                ? deliveryRepository.findByEndpointIdAndStatus(endpointId, status, pageable)
+                : deliveryRepository.findByEndpointId(endpointId, pageable))
+                .map(webhookMapper::toResponse);
+    }
+
+    /**
+     * Queues an endpoint's failed deliveries again, e.g. after the receiver was fixed.
+     *
+     * @return The number of deliveries queued again
+     */
+    @Transactional
+    public int retryFailedDeliveries(Integer endpointId) {
+        findEndpoint(endpointId);
+        int retried = deliveryRepository.retryFailed(endpointId, LocalDateTime.now());
+
+        log.info("Queued {} failed deliveries of webhook ID: {} again", retried, endpointId);
+        return retried;
+    }
+
+    private void apply(WebhookEndpoint endpoint, WebhookEndpointRequest request) {
+        endpoint.setName(request.getName());
+        endpoint.setUrl(request.getUrl());
+        endpoint.setSecret(request.getSecret());
+        endpoint.setEventTypes(webhookMapper.toEventTypesColumn(request.getEventTypes()));
+        endpoint.setBatchSize(request.getBatchSize());
+        endpoint.setMaxConcurrency(request.getMaxConcurrency());
+        endpoint.setIsActive(request.getIsActive());
+    }
+
+    private WebhookEndpoint findEndpoint(Integer endpointId) {
+        return endpointRepository.findById(endpointId)
+                .orElseThrow(() -> new ResourceNotFoundException("Webhook", "id", endpointId));
+    }
+}
@@ -0,0 +1,567 @@
+package com.example.warehouse.utility;
+
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.model.JournalRecord;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of stock movements, written through memory-mapped segment files of a fixed size.
+ * <p>
+ * Every segment starts with a header of a magic number and the format version, and is named after the sequence
+ * of its first record. Each record is framed as [length][body][CRC32C of body]; a zero length marks the unused
+ * end of a segment. Stock log types are stored as the fixed codes of {@link #typeCode}, never as enum ordinals. Appending only copies bytes into the
+ * mapped segment. Making them durable is a separate step: callers wait in {@link #awaitDurable(long)} while
+ * a single flusher thread forces the mapped pages to disk, so all writers that arrived during one flush are
+ * covered by the next one (group commit).
+ * <p>
+ * When the journal is opened, a record at the end of the last segment whose length or checksum is wrong is a
+ * write torn by a crash. Everything after the last valid record of that segment is zeroed, torn or not, so no
+ * leftover bytes beyond the end can later be mistaken for records. The same damage in any earlier segment, or a
+ * gap in the sequences, means the journal is corrupt and opening fails.
+ */
+@Slf4j
+public class MovementJournal implements Closeable {
+
+    public static final int MAX_NOTE_BYTES = 1024;
+    public static final int MIN_SEGMENT_SIZE = 64 * 1024;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{20})\\.seg");
+    private static final int HEADER_MAGIC = 0x4D4A4E4C; // "MJNL"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int CHECKSUM_BYTES = Integer.BYTES;
+    // Sequence, timestamp, product, warehouse, zone, quantity change, actor and type; the note fills the rest of the body
+    private static final int FIXED_BODY_BYTES = 2 * Long.BYTES + 5 * Integer.BYTES + Byte.BYTES;
+    private static final StockLogEnum[] TYPES_BY_CODE = typesByCode();
+
+    private record Segment(Path path, long firstSequence) {
+    }
+
+    private record ScanResult(long lastSequence, int tailEnd, boolean tailTorn) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long groupCommitWindowNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition flushCompleted = lock.newCondition();
+    private final CRC32C checksum = new CRC32C(); // used under lock only
+
+    // Guarded by lock
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentCount;
+    private long appendedSequence;
+    private long durableSequence;
+    private IOException failure;
+    private boolean closed;
+
+    private final LongAdder appendedRecords = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final Thread flusher;
+
+    private MovementJournal(Path directory, int segmentSize, long groupCommitWindowNanos,
+                            Path tailSegment, int tailEnd, int segmentCount, long lastSequence) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupCommitWindowNanos = groupCommitWindowNanos;
+        this.segmentCount = segmentCount;
+        this.appendedSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        mapSegment(tailSegment, tailEnd, true);
+
+        this.flusher = new Thread(this::flushLoop, "movement-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Opens the journal in a directory for appending, creating the directory and a first segment if needed.
+     *
+     * @param afterSequence Records up to this sequence are already known to the caller (e.g. from a snapshot);
+     *                      segments holding only such records are not read.
+     * @param replay        Receives every record after afterSequence, in order.
+     */
+    public static MovementJournal open(Path directory, int segmentSize, long groupCommitWindowNanos,
+                                       long afterSequence, Consumer<JournalRecord> replay) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Journal segments must be at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        Files.createDirectories(directory);
+        List<Segment> segments = listSegments(directory);
+        if (segments.isEmpty()) {
+            Path first = createSegment(directory, afterSequence + 1, segmentSize);
+            return new MovementJournal(directory, segmentSize, groupCommitWindowNanos, first, HEADER_BYTES, 1, afterSequence);
+        }
+
+        ScanResult scan = scanSegments(segments, afterSequence, replay);
+        Segment tail = segments.get(segments.size() - 1);
+        if (scan.tailTorn()) {
+            log.warn("Erasing a torn record at offset {} of journal segment {}", scan.tailEnd(), tail.path().getFileName());
+        }
+        return new MovementJournal(directory, segmentSize, groupCommitWindowNanos, tail.path(), scan.tailEnd(),
+                segments.size(), scan.lastSequence());
+    }
+
+    /**
+     * Reads the records after a sequence from a journal directory without opening it for appending,
+     * e.g. to ship a copy of it. A torn record at the end is treated as the end of the journal.
+     *
+     * @return The sequence of the last record in the journal, or afterSequence if there is none after it.
+     */
+    public static long read(Path directory, long afterSequence, Consumer<JournalRecord> consumer) throws IOException {
+        List<Segment> segments = Files.isDirectory(directory) ? listSegments(directory) : List.of();
+        if (segments.isEmpty()) {
+            return afterSequence;
+        }
+        return Math.max(scanSegments(segments, afterSequence, consumer).lastSequence(), afterSequence);
+    }
+
+    /**
+     * Copies records into the current segment, rolling over to a new segment when one doesn't fit.
+     * The records are not durable until {@link #awaitDurable(long)} returns for the last sequence.
+     *
+     * @return The sequence of the last appended record.
+     */
+    public long append(List<JournalRecord> records) throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Movement journal is closed");
+            }
+            if (failure != null) {
+                throw new IOException("Movement journal could not be flushed", failure);
+            }
+            for (JournalRecord record : records) {
+                if (record.sequence() != appendedSequence + 1) {
+                    throw new IllegalArgumentException("Expected journal sequence " + (appendedSequence + 1) + " but got " + record.sequence());
+                }
+                byte[] note = encodeNote(record.note());
+                if (segment.remaining() < LENGTH_BYTES + FIXED_BODY_BYTES + note.length + CHECKSUM_BYTES) {
+                    rollOver(record.sequence());
+                }
+                write(record, note);
+                appendedSequence = record.sequence();
+            }
+            appendedRecords.add(records.size());
+            flushRequested.signal();
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every record up to the given sequence has been forced to disk.
+     *
+     * @throws IOException if the flusher failed; no later record will become durable either.
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new IOException("Movement journal could not be flushed", failure);
+                }
+                flushCompleted.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDurableSequence() {
+        lock.lock();
+        try {
+            return durableSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSegmentCount() {
+        lock.lock();
+        try {
+            return segmentCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAppendedRecords() {
+        return appendedRecords.sum();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    public boolean isFailed() {
+        lock.lock();
+        try {
+            return failure != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting appends, waits for the flusher to make everything appended so far durable and releases the segment.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushRequested.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (!closed && (durableSequence == appendedSequence || failure != null)) {
+                    flushRequested.awaitUninterruptibly();
+                }
+                if (closed && (durableSequence == appendedSequence || failure != null)) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // Give writers that are about to append a moment to join this flush
+            if (groupCommitWindowNanos > 0) {
+                LockSupport.parkNanos(groupCommitWindowNanos);
+            }
+
+            MappedByteBuffer target;
+            long sequence;
+            lock.lock();
+            try {
+                target = segment;
+                sequence = appendedSequence;
+            } finally {
+                lock.unlock();
+            }
+
+            // Earlier segments were forced when they were rolled over, so forcing the current one covers every record up to the sequence
+            IOException error = null;
+            try {
+                target.force();
+            } catch (UncheckedIOException ex) {
+                error = ex.getCause();
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    log.error("Failed to flush the movement journal; no further movements will be accepted", error);
+                    failure = error;
+                } else {
+                    durableSequence = Math.max(durableSequence, sequence);
+                    flushes.increment();
+                }
+                flushCompleted.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(JournalRecord record, byte[] note) {
+        int start = segment.position();
+        int length = FIXED_BODY_BYTES + note.length;
+        segment.putInt(length)
+                .putLong(record.sequence())
+                .putLong(record.timestampMillis())
+                .putInt(record.productId())
+                .putInt(record.warehouseId())
+                .putInt(record.zoneId())
+                .putInt(record.quantityChange())
+                .putInt(record.actorId() != null ? record.actorId() : 0)
+                .put(typeCode(record.type()))
+                .put(note);
+        segment.putInt(checksum(checksum, segment.slice(start + LENGTH_BYTES, length)));
+    }
+
+    private void rollOver(long firstSequence) throws IOException {
+        try {
+            segment.force();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        channel.close();
+        mapSegment(createSegment(directory, firstSequence, segmentSize), HEADER_BYTES, false);
+        segmentCount++;
+    }
+
+    /**
+     * Maps a segment for appending at a position. Opening the tail segment also zeroes everything after the
+     * position: the scan stops at the first zero length or torn record, and whatever lies beyond it must not be
+     * read as records once appends have filled the space up to it. Rolled-over segments are new and all zeros.
+     */
+    private void mapSegment(Path path, int position, boolean zeroTail) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+
+        if (zeroTail) {
+            boolean dirty = false;
+            if (segment.getInt(0) != HEADER_MAGIC) {
+                // Created but never written before a crash
+                writeHeader(segment);
+                dirty = true;
+            }
+            for (int i = position; i < segment.limit(); i++) {
+                if (segment.get(i) != 0) {
+                    segment.put(i, (byte) 0);
+                    dirty = true;
+                }
+            }
+            if (dirty) {
+                segment.force();
+            }
+        }
+        segment.position(position);
+    }
+
+    private static Path createSegment(Path directory, long firstSequence, int segmentSize) throws IOException {
+        Path path = directory.resolve(String.format("journal-%020d.seg", firstSequence));
+        try (FileChannel created = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping beyond the end grows the file; forcing with metadata makes its new size durable
+            MappedByteBuffer mapped = created.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            writeHeader(mapped);
+            mapped.force();
+            created.force(true);
+        }
+        forceDirectory(directory);
+        return path;
+    }
+
+    private static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(0, HEADER_MAGIC).putInt(Integer.BYTES, FORMAT_VERSION);
+    }
+
+    private static void forceDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ex) {
+            // Not every platform can open a directory; the segment file itself has been forced
+            log.debug("Could not force journal directory {}: {}", directory, ex.getMessage());
+        }
+    }
+
+    private static List<Segment> listSegments(Path directory) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(new Segment(path, Long.parseLong(matcher.group(1))));
+                }
+            });
+        }
+        segments.sort(Comparator.comparingLong(Segment::firstSequence));
+        return segments;
+    }
+
+    /**
+     * Reads segments in order, skipping those that only hold records up to afterSequence.
+     */
+    private static ScanResult scanSegments(List<Segment> segments, long afterSequence, Consumer<JournalRecord> consumer) throws IOException {
+        int first = 0;
+        for (int i = 1; i < segments.size(); i++) {
+            if (segments.get(i).firstSequence() <= afterSequence + 1) {
+                first = i;
+            }
+        }
+
+        CRC32C checksum = new CRC32C();
+        long lastSequence = segments.get(first).firstSequence() - 1;
+        for (int i = first; i < segments.size(); i++) {
+            Segment current = segments.get(i);
+            if (current.firstSequence() != lastSequence + 1) {
+                throw new IOException("Journal segment " + current.path().getFileName() + " starts at sequence "
+                        + current.firstSequence() + " but the previous record was " + lastSequence);
+            }
+            boolean tail = i == segments.size() - 1;
+
+            try (FileChannel readChannel = FileChannel.open(current.path(), StandardOpenOption.READ)) {
+                ByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != HEADER_MAGIC) {
+                    if (tail && (buffer.limit() < HEADER_BYTES || buffer.getInt(0) == 0)) {
+                        // Created but never written before a crash
+                        return new ScanResult(lastSequence, HEADER_BYTES, false);
+                    }
+                    throw new IOException("Journal segment " + current.path().getFileName() + " has no journal header");
+                }
+                if (buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+                    throw new IOException("Journal segment " + current.path().getFileName() + " has format version "
+                            + buffer.getInt(Integer.BYTES) + "; this version reads " + FORMAT_VERSION);
+                }
+                int position = HEADER_BYTES;
+                boolean torn = false;
+                while (buffer.limit() - position >= LENGTH_BYTES) {
+                    int length = buffer.getInt(position);
+                    if (length == 0) {
+                        break;
+                    }
+                    if (length < FIXED_BODY_BYTES || length > FIXED_BODY_BYTES + MAX_NOTE_BYTES
+                            || LENGTH_BYTES + length + CHECKSUM_BYTES > buffer.limit() - position
+                            || checksum(checksum, buffer.slice(position + LENGTH_BYTES, length)) != buffer.getInt(position + LENGTH_BYTES + length)) {
+                        torn = true;
+                        break;
+                    }
+
+                    JournalRecord record = decode(buffer, position + LENGTH_BYTES, length);
+                    if (record.sequence() != lastSequence + 1) {
+                        throw new IOException("Journal segment " + current.path().getFileName() + " holds sequence "
+                                + record.sequence() + " after " + lastSequence);
+                    }
+                    lastSequence = record.sequence();
+                    if (lastSequence > afterSequence) {
+                        consumer.accept(record);
+                    }
+                    position += LENGTH_BYTES + length + CHECKSUM_BYTES;
+                }
+
+                if (tail) {
+                    return new ScanResult(lastSequence, position, torn);
+                }
+                if (torn) {
+                    throw new IOException("Journal segment " + current.path().getFileName() + " is corrupt at offset " + position);
+                }
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private static JournalRecord decode(ByteBuffer buffer, int offset, int length) throws IOException {
+        int code = buffer.get(offset + 36);
+        StockLogEnum type = code >= 0 && code < TYPES_BY_CODE.length ? TYPES_BY_CODE[code] : null;
+        if (type == null) {
+            throw new IOException("Unknown stock log type code " + code + " in the movement journal");
+        }
+        int actorId = buffer.getInt(offset + 32);
+        byte[] note = new byte[length - FIXED_BODY_BYTES];
+        buffer.get(offset + FIXED_BODY_BYTES, note);
+        return new JournalRecord(
+                buffer.getLong(offset),
+                buffer.getLong(offset + 8),
+                buffer.getInt(offset + 16),
+                buffer.getInt(offset + 20),
+                buffer.getInt(offset + 24),
+                buffer.getInt(offset + 28),
+                actorId != 0 ? actorId : null,
+                type,
+                note.length == 0 ? null : new String(note, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The code a stock log type is stored under. Codes are part of the file format: never change or reuse one,
+     * and give a new type the next free code.
+     */
+    static byte typeCode(StockLogEnum type) {
+        return switch (type) {
+            case INITIAL_STOCK -> 0;
+            case GOODS_RECEIPT -> 1;
+            case GOODS_ISSUE -> 2;
+            case ADJUSTMENT_IN -> 3;
+            case ADJUSTMENT_OUT -> 4;
+            case STOCK_COUNT -> 5;
+            case RETURN_IN -> 6;
+            case RETURN_OUT -> 7;
+            case DAMAGED -> 8;
+            case EXPIRED -> 9;
+            case RESERVED -> 10;
+            case RELEASED -> 11;
+        };
+    }
+
+    private static StockLogEnum[] typesByCode() {
+        StockLogEnum[] types = new StockLogEnum[Byte.MAX_VALUE + 1];
+        for (StockLogEnum type : StockLogEnum.values()) {
+            types[typeCode(type)] = type;
+        }
+        return types;
+    }
+
+    /**
+     * Encodes a note as UTF-8, cut to MAX_NOTE_BYTES on a character boundary.
+     */
+    static byte[] encodeNote(String note) {
+        if (note == null) {
+            return new byte[0];
+        }
+        byte[] bytes = note.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_NOTE_BYTES) {
+            return bytes;
+        }
+        int end = MAX_NOTE_BYTES;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+
+    private static int checksum(CRC32C crc, ByteBuffer bytes) {
+        crc.reset();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
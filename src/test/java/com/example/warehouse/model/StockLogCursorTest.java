@@ -0,0 +1,34 @@
+package com.example.warehouse.model;
+
+import com.example.warehouse.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StockLogCursor Tests")
+class StockLogCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip through an opaque URL-safe token")
+    void encode_ShouldRoundTrip() {
+        StockLogCursor cursor = new StockLogCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000), 12_345L);
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(StockLogCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Should reject tokens it did not produce")
+    void decode_ShouldRejectTamperedTokens() {
+        assertThatThrownBy(() -> StockLogCursor.decode("not a cursor")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> StockLogCursor.decode("MjAyNS0wMy0xNA")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> StockLogCursor.decode(new StockLogCursor(LocalDateTime.now(), 1L).encode() + "x"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.Product;
+import com.example.warehouse.entity.ProductInventory;
+import com.example.warehouse.entity.UnitOfMeasure;
+import com.example.warehouse.entity.Warehouse;
+import com.example.warehouse.entity.WarehouseZone;
+import com.example.warehouse.payload.response.ProductInventoryResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("ProductInventoryRepository Tests")
+class ProductInventoryRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    private Statistics statistics;
+    private Product screws;
+    private Warehouse warehouse;
+    private WarehouseZone zoneA;
+
+    @BeforeEach
+    void setUp() {
+        UnitOfMeasure unit = entityManager.persist(UnitOfMeasure.builder().name("Piece").abbreviation("pc").build());
+        screws = entityManager.persist(product("SCR-001", "Screws", unit));
+        Product bolts = entityManager.persist(product("BLT-001", "Bolts", unit));
+        warehouse = entityManager.persist(Warehouse.builder().code("WH-01").name("Main").isActive(true).build());
+        zoneA = entityManager.persist(WarehouseZone.builder().code("WH-01-A").name("Zone A").warehouse(warehouse).build());
+        WarehouseZone zoneB = entityManager.persist(WarehouseZone.builder().code("WH-01-B").name("Zone B").warehouse(warehouse).build());
+
+        entityManager.persist(inventory(screws, zoneA, 10));
+        entityManager.persist(inventory(screws, zoneB, 50));
+        entityManager.persist(inventory(bolts, zoneA, 0));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should read a page with one select plus one count, regardless of page size")
+    void findInventoryResponses_ShouldUseTwoStatementsPerPage() {
+        Page<ProductInventoryResponse> page = inventoryRepository.findInventoryResponses(
+                null, null, null, null, null, null, PageRequest.of(0, 2, Sort.by("updatedAt").descending()));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(2)
+                .allSatisfy(row -> {
+                    assertThat(row.getProductName()).isNotBlank();
+                    assertThat(row.getWarehouseName()).isEqualTo("Main");
+                    assertThat(row.getZoneName()).startsWith("Zone");
+                });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should apply SKU, location and quantity range filters")
+    void findInventoryResponses_ShouldApplyFilters() {
+        Page<ProductInventoryResponse> bySku = inventoryRepository.findInventoryResponses(
+                null, "SCR-001", null, null, null, null, PageRequest.of(0, 20));
+        Page<ProductInventoryResponse> byZone = inventoryRepository.findInventoryResponses(
+                screws.getId(), null, warehouse.getId(), zoneA.getId(), null, null, PageRequest.of(0, 20));
+        Page<ProductInventoryResponse> byRange = inventoryRepository.findInventoryResponses(
+                null, null, null, null, 1, 20, PageRequest.of(0, 20));
+
+        assertThat(bySku.getContent()).extracting(ProductInventoryResponse::getQuantity).containsExactlyInAnyOrder(10, 50);
+        assertThat(byZone.getContent()).extracting(ProductInventoryResponse::getQuantity).containsExactly(10);
+        assertThat(byRange.getContent()).extracting(ProductInventoryResponse::getProductSku).containsExactly("SCR-001");
+    }
+
+    @Test
+    @DisplayName("Should only reserve, adjust or issue stock that is still available")
+    void reservationCounters_ShouldProtectReservedStock() {
+        Long inventoryId = inventoryRepository.findByProductIdAndWarehouseIdAndZoneId(screws.getId(), warehouse.getId(), zoneA.getId())
+                .orElseThrow().getId();
+
+        assertThat(inventoryRepository.reserveQuantity(inventoryId, 8)).isEqualTo(1);
+        assertThat(inventoryRepository.reserveQuantity(inventoryId, 3)).isZero();
+        assertThat(inventoryRepository.applyQuantityDeltaById(inventoryId, -3)).isZero();
+        assertThat(inventoryRepository.applyQuantityDeltaById(inventoryId, -2)).isEqualTo(1);
+        assertThat(inventoryRepository.consumeReservedQuantity(inventoryId, 8)).isEqualTo(1);
+
+        ProductInventory inventory = inventoryRepository.findById(inventoryId).orElseThrow();
+        assertThat(inventory.getQuantity()).isZero();
+        assertThat(inventory.getReservedQuantity()).isZero();
+    }
+
+    private static Product product(String sku, String name, UnitOfMeasure unit) {
+        return Product.builder()
+                .sku(sku)
+                .barcode("BC-" + sku)
+                .name(name)
+                .baseUnit(unit)
+                .minimumStock(0)
+                .isActive(true)
+                .build();
+    }
+
+    private static ProductInventory inventory(Product product, WarehouseZone zone, int quantity) {
+        return ProductInventory.builder()
+                .product(product)
+                .warehouse(zone.getWarehouse())
+                .zone(zone)
+                .quantity(quantity)
+                .build();
+    }
+}
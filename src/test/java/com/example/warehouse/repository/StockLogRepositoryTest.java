@@ -0,0 +1,141 @@
+package com.example.warehouse.repository;
+
+import com.example.warehouse.entity.Product;
+import com.example.warehouse.entity.ProductInventory;
+import com.example.warehouse.entity.StockLog;
+import com.example.warehouse.entity.UnitOfMeasure;
+import com.example.warehouse.entity.Warehouse;
+import com.example.warehouse.entity.WarehouseZone;
+import com.example.warehouse.enums.StockLogEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Import(StockLogRepositoryTest.RoundTripCounting.class)
+@DisplayName("StockLogRepository Tests")
+class StockLogRepositoryTest {
+
+    private static final AtomicInteger batches = new AtomicInteger();
+    private static final AtomicInteger singleStatements = new AtomicInteger();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StockLogRepository stockLogRepository;
+
+    private ProductInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        UnitOfMeasure unit = entityManager.persist(UnitOfMeasure.builder().name("Piece").abbreviation("pc").build());
+        Product product = entityManager.persist(Product.builder()
+                .sku("SCR-001").barcode("BC-SCR-001").name("Screws").baseUnit(unit).minimumStock(0).isActive(true).build());
+        Warehouse warehouse = entityManager.persist(Warehouse.builder().code("WH-01").name("Main").isActive(true).build());
+        WarehouseZone zone = entityManager.persist(WarehouseZone.builder().code("WH-01-A").name("Zone A").warehouse(warehouse).build());
+        inventory = entityManager.persist(ProductInventory.builder()
+                .product(product).warehouse(warehouse).zone(zone).quantity(0).build());
+        entityManager.flush();
+        batches.set(0);
+        singleStatements.set(0);
+    }
+
+    @Test
+    @DisplayName("Should insert pooled-ID stock logs in JDBC batches, not one statement per row")
+    void saveAll_ShouldBatchInserts() {
+        int rows = 1000;
+        List<StockLog> stockLogs = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            stockLogs.add(StockLog.builder()
+                    .inventory(inventory)
+                    .product(inventory.getProduct())
+                    .warehouse(inventory.getWarehouse())
+                    .zone(inventory.getZone())
+                    .type(StockLogEnum.ADJUSTMENT_IN)
+                    .quantityBefore(i)
+                    .quantityChange(1)
+                    .quantityAfter(i + 1)
+                    .build());
+        }
+
+        stockLogRepository.saveAll(stockLogs);
+        entityManager.flush();
+
+        // With IDENTITY every row was its own INSERT round trip: 1000 statements. Pooled IDs come 50 at a time
+        // from id_generators (a select and an update per block), and the rows go out in batches of 50.
+        int roundTrips = batches.get() + singleStatements.get();
+        assertThat(stockLogRepository.count()).isEqualTo(rows);
+        assertThat(batches.get()).isEqualTo(rows / 50);
+        assertThat(roundTrips).isLessThanOrEqualTo(rows / 50 + 2 * (rows / 50 + 1));
+    }
+
+    /**
+     * Wraps the test DataSource to count executed JDBC batches and single statements.
+     */
+    @TestConfiguration
+    static class RoundTripCounting {
+
+        @Bean
+        static BeanPostProcessor roundTripCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? proxy(bean, (method, result) -> result instanceof Connection
+                            ? proxy(result, (connectionMethod, statement) -> statement instanceof PreparedStatement
+                                    ? proxy(statement, (statementMethod, ignored) -> count(statementMethod.getName()))
+                                    : statement)
+                            : result) : bean;
+                }
+            };
+        }
+
+        private static Object count(String methodName) {
+            switch (methodName) {
+                case "executeBatch", "executeLargeBatch" -> batches.incrementAndGet();
+                case "execute", "executeUpdate", "executeQuery", "executeLargeUpdate" -> singleStatements.incrementAndGet();
+                default -> {
+                }
+            }
+            return null;
+        }
+
+        private static Object proxy(Object target, BiFunction<Method, Object, Object> wrapResult) {
+            return Proxy.newProxyInstance(target.getClass().getClassLoader(), ClassUtils.getAllInterfaces(target),
+                    (proxy, method, args) -> {
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                        Object wrapped = wrapResult.apply(method, result);
+                        return wrapped != null ? wrapped : result;
+                    });
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.warehouse.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("JwtService Tests")
+class JwtServiceTest {
+
+    private static final String SECRET = "ZmFrZS1zZWNyZXQta2V5LWZvci11bml0LXRlc3RzLW9ubHktMzItYnl0ZXMtbG9uZw==";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "tokenCacheMaxSize", 100);
+        jwtService.init();
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and answer repeats from the cache")
+    void verify_ShouldCacheVerifiedToken() {
+        String token = sign(true, true);
+
+        VerifiedToken first = jwtService.verify(token);
+        VerifiedToken second = jwtService.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.issuedAt()).isNotNull();
+        assertThat(jwtService.getTokenCacheStats().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should accept a signed token without an issued-at claim")
+    void verify_ShouldAcceptTokenWithoutIssuedAt() {
+        VerifiedToken verified = jwtService.verify(sign(false, true));
+
+        assertThat(verified.username()).isEqualTo("alice");
+        assertThat(verified.issuedAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a signed token without an expiration claim")
+    void verify_ShouldRejectTokenWithoutExpiration() {
+        assertThatThrownBy(() -> jwtService.verify(sign(true, false)))
+                .isInstanceOf(JwtException.class);
+    }
+
+    private static String sign(boolean issuedAt, boolean expiration) {
+        long now = System.currentTimeMillis();
+        var builder = Jwts.builder().subject("alice");
+        if (issuedAt) {
+            builder.issuedAt(new Date(now));
+        }
+        if (expiration) {
+            builder.expiration(new Date(now + 60_000));
+        }
+        return builder.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).compact();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.warehouse.security;
+
+import com.example.warehouse.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PrincipalCache Tests")
+class PrincipalCacheTest {
+
+    private final PrincipalCache principalCache = new PrincipalCache(100, 300);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should load a principal once and serve it from the cache afterwards")
+    void getOrLoad_ShouldCacheLoadedPrincipal() {
+        principalCache.getOrLoad("alice", this::load);
+        Optional<SecurityUser> cached = principalCache.getOrLoad("alice", this::load);
+
+        assertThat(cached).map(SecurityUser::getUsername).contains("alice");
+        assertThat(loads).hasValue(1);
+        assertThat(principalCache.getStats().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a principal loaded before an eviction that ran during the load")
+    void getOrLoad_WhenEvictedDuringLoad_ShouldNotCacheStalePrincipal() {
+        Optional<SecurityUser> stale = principalCache.getOrLoad("alice", username -> {
+            Optional<SecurityUser> loaded = load(username);
+            // The user's roles change and commit after this request read them; no transaction, so it evicts now
+            principalCache.evictAfterCommit(username);
+            return loaded;
+        });
+        principalCache.getOrLoad("alice", this::load);
+
+        assertThat(stale).isPresent();
+        assertThat(loads).hasValue(2);
+    }
+
+    private Optional<SecurityUser> load(String username) {
+        loads.incrementAndGet();
+        return Optional.of(new SecurityUser(User.builder().id(1).username(username).build()));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.warehouse.security;
+
+import com.example.warehouse.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SecurityVersionRegistry Tests")
+class SecurityVersionRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SecurityVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SecurityVersionRegistry(userRepository, new PrincipalCache(100, 300), 60_000, true);
+    }
+
+    @Test
+    @DisplayName("Should revoke tokens issued before the user's current version")
+    void isRevoked_ShouldCompareAgainstLoadedVersion() {
+        given(userRepository.findSecurityFingerprint()).willReturn(fingerprint(1, 1, 2));
+        given(userRepository.findSecurityVersions()).willReturn(List.of(version(1, 2)));
+        registry.refresh();
+
+        assertThat(registry.isRevoked(1, 1)).isTrue();
+        assertThat(registry.isRevoked(1, 2)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should treat a user missing from the database as revoked and not look it up again")
+    void isRevoked_ShouldRevokeUnknownUser() {
+        given(userRepository.findSecurityVersionById(7)).willReturn(Optional.empty());
+
+        assertThat(registry.isRevoked(7, 0)).isTrue();
+        assertThat(registry.isRevoked(7, 0)).isTrue();
+        verify(userRepository, times(1)).findSecurityVersionById(7);
+    }
+
+    @Test
+    @DisplayName("Should look up a user created since the last reload once")
+    void isRevoked_ShouldLookUpNewUserOnce() {
+        given(userRepository.findSecurityVersionById(8)).willReturn(Optional.of(0));
+
+        assertThat(registry.isRevoked(8, 0)).isFalse();
+        assertThat(registry.isRevoked(8, 0)).isFalse();
+        verify(userRepository, times(1)).findSecurityVersionById(8);
+    }
+
+    @Test
+    @DisplayName("Should reload versions only when the users fingerprint changes")
+    void refresh_ShouldReloadOnFingerprintChange() {
+        given(userRepository.findSecurityFingerprint())
+                .willReturn(fingerprint(2, 2, 0))
+                .willReturn(fingerprint(2, 2, 0))
+                .willReturn(fingerprint(1, 2, 0));
+        given(userRepository.findSecurityVersions())
+                .willReturn(List.of(version(1, 0), version(2, 0)))
+                .willReturn(List.of(version(1, 0)));
+        given(userRepository.findSecurityVersionById(2)).willReturn(Optional.empty());
+
+        registry.refresh();
+        registry.refresh();
+        assertThat(registry.isRevoked(2, 0)).isFalse();
+
+        // User 2 was deleted on another node
+        registry.refresh();
+        assertThat(registry.isRevoked(2, 0)).isTrue();
+        verify(userRepository, times(2)).findSecurityVersions();
+    }
+
+    private static UserRepository.SecurityVersionView version(int id, int securityVersion) {
+        return new UserRepository.SecurityVersionView() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getSecurityVersion() {
+                return securityVersion;
+            }
+        };
+    }
+
+    private static UserRepository.SecurityFingerprint fingerprint(long users, int maxId, long versionSum) {
+        return new UserRepository.SecurityFingerprint() {
+            @Override
+            public Long getUsers() {
+                return users;
+            }
+
+            @Override
+            public Integer getMaxId() {
+                return maxId;
+            }
+
+            @Override
+            public Long getVersionSum() {
+                return versionSum;
+            }
+        };
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.Product;
+import com.example.warehouse.entity.ProductInventory;
+import com.example.warehouse.entity.Warehouse;
+import com.example.warehouse.entity.WarehouseZone;
+import com.example.warehouse.exception.BadRequestException;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.mapper.ProductInventoryMapper;
+import com.example.warehouse.model.InventoryKey;
+import com.example.warehouse.model.MovementResult;
+import com.example.warehouse.payload.request.AdjustInventoryRequest;
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.payload.response.ProductInventoryResponse;
+import com.example.warehouse.repository.IdempotencyRecordRepository;
+import com.example.warehouse.utility.ResponseUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("AdjustmentCombiner Tests")
+class AdjustmentCombinerTest {
+
+    private static final InventoryKey KEY = new InventoryKey(1, 10, 100);
+
+    @Mock
+    private ProductInventoryService inventoryService;
+
+    @Mock
+    private SecurityContextService securityContextService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @BeforeEach
+    void setUp() {
+        given(transactionManager.getTransaction(any())).willAnswer(invocation -> new SimpleTransactionStatus());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should combine adjustments arriving while the previous one is in flight, with a result per request")
+    void adjust_ShouldCombineContendedAdjustments() throws Exception {
+        AdjustmentCombiner combiner = newCombiner(true);
+        CountDownLatch firstEntered = new CountDownLatch(1);
+        CountDownLatch firstReleased = new CountDownLatch(1);
+        given(inventoryService.adjustInventory(any())).willAnswer(invocation -> {
+            firstEntered.countDown();
+            firstReleased.await();
+            return ProductInventoryResponse.builder().quantity(10).build();
+        });
+        ProductInventory inventory = inventory(13);
+        given(inventoryService.adjustInventoryCombined(eq(KEY), anyList(), anyList())).willReturn(List.of(
+                MovementResult.applied(0, inventory, 10, 15),
+                MovementResult.rejected(1, "Adjustment would result in negative stock or release reserved stock. Current quantity: 15, available: 13"),
+                MovementResult.applied(2, inventory, 15, 13)));
+
+        Future<ProductInventoryResponse> first = executor.submit(() -> combiner.adjust(request(10)));
+        assertThat(firstEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ProductInventoryResponse> second = executor.submit(() -> combiner.adjust(request(5)));
+        awaitQueued(combiner, 1);
+        Future<ProductInventoryResponse> third = executor.submit(() -> combiner.adjust(request(-100)));
+        awaitQueued(combiner, 2);
+        Future<ProductInventoryResponse> fourth = executor.submit(() -> combiner.adjust(request(-2)));
+        awaitQueued(combiner, 3);
+        firstReleased.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getQuantity()).isEqualTo(10);
+        assertThat(second.get(5, TimeUnit.SECONDS).getQuantity()).isEqualTo(15);
+        assertThat(second.get().getAvailableQuantity()).isEqualTo(13);
+        assertThatThrownBy(() -> third.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ResourceConflictException.class);
+        assertThat(fourth.get(5, TimeUnit.SECONDS).getQuantity()).isEqualTo(13);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AdjustInventoryRequest>> combined = ArgumentCaptor.forClass(List.class);
+        then(inventoryService).should().adjustInventoryCombined(eq(KEY), combined.capture(), anyList());
+        assertThat(combined.getValue()).extracting(AdjustInventoryRequest::getQuantityChange).containsExactly(5, -100, -2);
+        assertThat(combiner.getStats().getBatches()).isEqualTo(2);
+        assertThat(combiner.getStats().getLargestBatch()).isEqualTo(3);
+        assertThat(combiner.getStats().getRejected()).isEqualTo(1);
+        assertThat(combiner.getStats().getActiveKeys()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail every request of a batch whose transaction rolls back, and report nothing before the commit")
+    void adjust_ShouldFailBatchWhenItsTransactionRollsBack() throws Exception {
+        AdjustmentCombiner combiner = newCombiner(true);
+        CountDownLatch firstEntered = new CountDownLatch(1);
+        CountDownLatch firstReleased = new CountDownLatch(1);
+        given(inventoryService.adjustInventory(any())).willAnswer(invocation -> {
+            firstEntered.countDown();
+            firstReleased.await();
+            return ProductInventoryResponse.builder().quantity(10).build();
+        });
+        ProductInventory inventory = inventory(13);
+        given(inventoryService.adjustInventoryCombined(eq(KEY), anyList(), anyList())).willReturn(List.of(
+                MovementResult.applied(0, inventory, 10, 15),
+                MovementResult.applied(1, inventory, 15, 13)));
+
+        Future<ProductInventoryResponse> first = executor.submit(() -> combiner.adjust(request(10)));
+        assertThat(firstEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ProductInventoryResponse> second = executor.submit(() -> combiner.adjust(request(5)));
+        awaitQueued(combiner, 1);
+        Future<ProductInventoryResponse> third = executor.submit(() -> combiner.adjust(request(-2)));
+        awaitQueued(combiner, 2);
+
+        AtomicBoolean reportedBeforeCommit = new AtomicBoolean();
+        willAnswer(invocation -> {
+            reportedBeforeCommit.set(second.isDone() || third.isDone());
+            throw new TransactionSystemException("Could not commit");
+        }).given(transactionManager).commit(any());
+        firstReleased.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getQuantity()).isEqualTo(10);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TransactionSystemException.class);
+        assertThatThrownBy(() -> third.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TransactionSystemException.class);
+        assertThat(reportedBeforeCommit).isFalse();
+        assertThat(combiner.getStats().getRejected()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should adjust Idempotency-Key requests in their own transaction instead of queueing them")
+    void adjust_ShouldNotCombineRequestsInsideTransactions() throws Exception {
+        AdjustmentCombiner combiner = newCombiner(true);
+        IdempotencyService idempotencyService = new IdempotencyService(idempotencyRecordRepository, securityContextService,
+                new ObjectMapper().findAndRegisterModules(), new BindingTransactionManager(), 100, 24, 60, 1000, 1000);
+        given(idempotencyRecordRepository.renewClaim(anyString(), anyString(), any())).willReturn(1);
+        given(idempotencyRecordRepository.complete(anyString(), anyString(), anyInt(), anyString(), any())).willReturn(1);
+        CountDownLatch bothEntered = new CountDownLatch(2);
+        CountDownLatch released = new CountDownLatch(1);
+        given(inventoryService.adjustInventory(any())).willAnswer(invocation -> {
+            bothEntered.countDown();
+            released.await();
+            AdjustInventoryRequest request = invocation.getArgument(0);
+            return ProductInventoryResponse.builder().quantity(request.getQuantityChange()).build();
+        });
+
+        Future<ResponseEntity<ApiResponse<ProductInventoryResponse>>> first = executor.submit(() ->
+                idempotencyService.execute("key-1", "inventory.adjust", request(4), ProductInventoryResponse.class,
+                        () -> ResponseUtil.createSuccessResponse("Inventory adjusted successfully", combiner.adjust(request(4)))));
+        Future<ResponseEntity<ApiResponse<ProductInventoryResponse>>> second = executor.submit(() ->
+                idempotencyService.execute("key-2", "inventory.adjust", request(6), ProductInventoryResponse.class,
+                        () -> ResponseUtil.createSuccessResponse("Inventory adjusted successfully", combiner.adjust(request(6)))));
+
+        // Both adjust concurrently, each in its own transaction, rather than the second waiting for a batch
+        assertThat(bothEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(combiner.queued(KEY)).isZero();
+        released.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody().getData().getQuantity()).isEqualTo(4);
+        assertThat(second.get(5, TimeUnit.SECONDS).getBody().getData().getQuantity()).isEqualTo(6);
+        then(inventoryService).should(never()).adjustInventoryCombined(any(), anyList(), anyList());
+        then(idempotencyRecordRepository).should(times(2)).complete(anyString(), anyString(), anyInt(), anyString(), any());
+        assertThat(combiner.getStats().getRequests()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown reference type before joining a batch")
+    void adjust_ShouldRejectUnknownReferenceType() {
+        AdjustmentCombiner combiner = newCombiner(true);
+        AdjustInventoryRequest request = request(1);
+        request.setReferenceType("NOT_A_REFERENCE");
+
+        assertThatThrownBy(() -> combiner.adjust(request)).isInstanceOf(BadRequestException.class);
+
+        then(inventoryService).should(never()).adjustInventory(any());
+        assertThat(combiner.getStats().getRequests()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should adjust directly when disabled")
+    void adjust_ShouldDelegateWhenDisabled() {
+        AdjustmentCombiner combiner = newCombiner(false);
+        AdjustInventoryRequest request = request(3);
+        given(inventoryService.adjustInventory(request)).willReturn(ProductInventoryResponse.builder().quantity(3).build());
+
+        assertThat(combiner.adjust(request).getQuantity()).isEqualTo(3);
+        assertThat(combiner.getStats().getBatches()).isZero();
+    }
+
+    private AdjustmentCombiner newCombiner(boolean enabled) {
+        return new AdjustmentCombiner(inventoryService, securityContextService, new ProductInventoryMapper(), transactionManager,
+                enabled, 100, 0);
+    }
+
+    /**
+     * Waits until the given number of requests sits in the open batch of the location.
+     */
+    private static void awaitQueued(AdjustmentCombiner combiner, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (combiner.queued(KEY) < queued) {
+            assertThat(System.nanoTime()).as("requests queued for the location").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Binds transaction synchronization like a real transaction manager, without a database behind it.
+     */
+    private static final class BindingTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    private static AdjustInventoryRequest request(int quantityChange) {
+        AdjustInventoryRequest request = new AdjustInventoryRequest();
+        request.setProductId(KEY.productId());
+        request.setWarehouseId(KEY.warehouseId());
+        request.setZoneId(KEY.zoneId());
+        request.setQuantityChange(quantityChange);
+        request.setNote("test");
+        return request;
+    }
+
+    private static ProductInventory inventory(int quantity) {
+        return ProductInventory.builder()
+                .id(1L)
+                .product(Product.builder().id(KEY.productId()).name("Widget").sku("W-1").build())
+                .warehouse(Warehouse.builder().id(KEY.warehouseId()).name("Main").build())
+                .zone(WarehouseZone.builder().id(KEY.zoneId()).name("A1").build())
+                .quantity(quantity)
+                .reservedQuantity(2)
+                .build();
+    }
+}
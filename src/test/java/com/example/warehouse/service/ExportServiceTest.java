@@ -0,0 +1,64 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.enums.DataFormatEnum;
+import com.example.warehouse.model.InventoryExportRow;
+import com.example.warehouse.repository.ExportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ExportService Tests")
+class ExportServiceTest {
+
+    private static final List<InventoryExportRow> ROWS = List.of(
+            new InventoryExportRow(1L, "SKU-1", "Bolt, M8", "WH1", "A-01", 120, 20, LocalDateTime.of(2025, 1, 2, 3, 4, 5)),
+            new InventoryExportRow(2L, "SKU-2", "Nut", "WH1", "A-02", 0, 0, LocalDateTime.of(2025, 1, 2, 3, 4, 6)));
+
+    private final ExportService exportService = new ExportService(new ExportRepository(null, 0) {
+        @Override
+        public void streamInventory(Integer warehouseId, Integer zoneId, Consumer<InventoryExportRow> consumer) {
+            ROWS.forEach(consumer);
+        }
+    }, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    @DisplayName("Should write a header and one quoted CSV line per row")
+    void exportInventory_ShouldWriteCsv() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.exportInventory(DataFormatEnum.CSV, null, null, false).writeTo(output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "id,productSku,productName,warehouseCode,zoneCode,quantity,reservedQuantity,updatedAt",
+                "1,SKU-1,\"Bolt, M8\",WH1,A-01,120,20,2025-01-02T03:04:05",
+                "2,SKU-2,Nut,WH1,A-02,0,0,2025-01-02T03:04:06");
+    }
+
+    @Test
+    @DisplayName("Should write newline-terminated JSON lines through gzip")
+    void exportInventory_ShouldWriteGzippedNdjson() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.exportInventory(DataFormatEnum.NDJSON, null, null, true).writeTo(output);
+
+        String text;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(text).endsWith("\n");
+        assertThat(text.split("\n")).hasSize(2)
+                .allSatisfy(line -> assertThat(line).startsWith("{\"id\":"));
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.IdempotencyRecord;
+import com.example.warehouse.exception.BadRequestException;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.payload.response.ApiResponse;
+import com.example.warehouse.repository.IdempotencyRecordRepository;
+import com.example.warehouse.utility.ResponseUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs two IdempotencyService instances against one database, standing in for two application instances.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("IdempotencyService Tests")
+class IdempotencyServiceTest {
+
+    private static final String KEY = "key-1";
+    private static final String OPERATION = "inventory.adjust";
+    private static final String REQUEST = "{\"quantityChange\":5}";
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SecurityContextService securityContextService = mock(SecurityContextService.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should not run or store a request whose lapsed claim was taken over before its transaction began")
+    void execute_ShouldFailWhenClaimWasTakenOver() {
+        IdempotencyService other = newService(60, transactionManager);
+        AtomicReference<ResponseEntity<ApiResponse<String>>> otherResponse = new AtomicReference<>();
+        // The first request stalls between its claim and its transaction, e.g. waiting for a connection
+        IdempotencyService stalled = newService(-1, new StallingTransactionManager(
+                () -> otherResponse.set(execute(other))));
+
+        assertThatThrownBy(() -> execute(stalled)).isInstanceOf(ResourceConflictException.class);
+
+        assertThat(runs).hasValue(1);
+        assertThat(otherResponse.get().getBody().getData()).isEqualTo("run-1");
+        IdempotencyRecord record = repository.findById(repository.findAll().get(0).getRecordKey()).orElseThrow();
+        assertThat(record.getResponseStatus()).isEqualTo(200);
+        assertThat(record.getResponseBody()).contains("run-1");
+        assertThat(execute(newService(60, transactionManager)).getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER))
+                .isEqualTo("true");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should keep a running request's claim from being taken over until its response is stored")
+    void execute_ShouldBlockTakeoverWhileActionRuns() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        // Its lease has lapsed from the start, so only the row lock keeps the other instance out
+        IdempotencyService running = newService(-1, transactionManager);
+        IdempotencyService other = newService(60, transactionManager);
+
+        Future<ResponseEntity<ApiResponse<String>>> first = executor.submit(() -> running.execute(KEY, OPERATION, REQUEST, String.class, () -> {
+            entered.countDown();
+            await(released);
+            return ResponseUtil.createSuccessResponse("done", "run-" + runs.incrementAndGet());
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ResponseEntity<ApiResponse<String>>> second = executor.submit(() -> execute(other));
+
+        assertThatThrownBy(() -> second.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        released.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody().getData()).isEqualTo("run-1");
+        try {
+            assertThat(second.get(5, TimeUnit.SECONDS).getBody().getData()).isEqualTo("run-1");
+        } catch (ExecutionException ex) {
+            assertThat(ex.getCause()).isInstanceOf(ResourceConflictException.class);
+        }
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should run the action once and replay its stored response from the cache and from the table")
+    void execute_ShouldReplayStoredResponse() {
+        IdempotencyService service = newService(60, transactionManager);
+
+        ResponseEntity<ApiResponse<String>> first = execute(service);
+        ResponseEntity<ApiResponse<String>> cached = execute(service);
+        ResponseEntity<ApiResponse<String>> stored = execute(newService(60, transactionManager));
+
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(List.of(cached, stored)).allSatisfy(response -> {
+            assertThat(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+            assertThat(response.getBody().getData()).isEqualTo("run-1");
+        });
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request")
+    void execute_ShouldRejectKeyReusedForDifferentRequest() {
+        execute(newService(60, transactionManager));
+
+        assertThatThrownBy(() -> newService(60, transactionManager).execute(KEY, OPERATION, "{\"quantityChange\":6}",
+                String.class, () -> ResponseUtil.createSuccessResponse("done", "run-" + runs.incrementAndGet())))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should release the claim of a failed request so a retry with the same key runs")
+    void execute_ShouldReleaseClaimWhenActionFails() {
+        IdempotencyService service = newService(60, transactionManager);
+
+        assertThatThrownBy(() -> service.execute(KEY, OPERATION, REQUEST, String.class, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(repository.count()).isZero();
+        assertThat(execute(service).getBody().getData()).isEqualTo("run-1");
+    }
+
+    @Test
+    @DisplayName("Should take over the lapsed claim of a request that never finished")
+    void execute_ShouldTakeOverLapsedClaim() {
+        execute(newService(60, transactionManager));
+        // Turn the stored response back into the claim of a request that crashed while running
+        IdempotencyRecord record = repository.findAll().get(0);
+        record.setClaimToken("crashed");
+        record.setResponseStatus(null);
+        record.setResponseBody(null);
+        record.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        repository.save(record);
+
+        assertThat(execute(newService(60, transactionManager)).getBody().getData()).isEqualTo("run-2");
+        assertThat(repository.findById(record.getRecordKey()).orElseThrow().getResponseStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should make a duplicate on the same instance wait for the running request and share its response")
+    void execute_ShouldCoalesceInFlightDuplicates() throws Exception {
+        IdempotencyService service = newService(60, transactionManager);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+
+        Future<ResponseEntity<ApiResponse<String>>> first = executor.submit(() -> service.execute(KEY, OPERATION, REQUEST, String.class, () -> {
+            entered.countDown();
+            await(released);
+            return ResponseUtil.createSuccessResponse("done", "run-" + runs.incrementAndGet());
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ResponseEntity<ApiResponse<String>>> second = executor.submit(() -> execute(service));
+
+        // Waits instead of failing with a conflict as a duplicate on another instance would
+        assertThatThrownBy(() -> second.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        released.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody().getData()).isEqualTo("run-1");
+        ResponseEntity<ApiResponse<String>> duplicate = second.get(5, TimeUnit.SECONDS);
+        assertThat(duplicate.getBody().getData()).isEqualTo("run-1");
+        assertThat(duplicate.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(runs).hasValue(1);
+    }
+
+    private ResponseEntity<ApiResponse<String>> execute(IdempotencyService service) {
+        return service.execute(KEY, OPERATION, REQUEST, String.class,
+                () -> ResponseUtil.createSuccessResponse("done", "run-" + runs.incrementAndGet()));
+    }
+
+    private IdempotencyService newService(long processingLeaseSeconds, PlatformTransactionManager transactionManager) {
+        return new IdempotencyService(repository, securityContextService, new ObjectMapper().findAndRegisterModules(),
+                transactionManager, 100, 24, processingLeaseSeconds, 5000, 1000);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs a hook once, just before the first transaction joining the caller's (i.e. the action's) begins.
+     */
+    private final class StallingTransactionManager implements PlatformTransactionManager {
+        private final Runnable hook;
+        private boolean stalled;
+
+        private StallingTransactionManager(Runnable hook) {
+            this.hook = hook;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            if (!stalled && definition != null
+                    && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED) {
+                stalled = true;
+                hook.run();
+            }
+            return transactionManager.getTransaction(definition);
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            transactionManager.commit(status);
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            transactionManager.rollback(status);
+        }
+    }
+}
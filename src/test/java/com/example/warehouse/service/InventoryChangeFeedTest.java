@@ -0,0 +1,72 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.model.InventoryChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("InventoryChangeFeed Tests")
+class InventoryChangeFeedTest {
+
+    private final InventoryChangeFeed feed = new InventoryChangeFeed(10, 4, 2, 1, 60_000);
+
+    @BeforeEach
+    void setUp() {
+        feed.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    @DisplayName("Should replay only the missed events matching the subscriber's filter")
+    void subscribe_ShouldReplayMissedMatchingEvents() {
+        feed.broadcast(List.of(change(1, 10), change(2, 10), change(1, 20)));
+        String lastEventId = feed.getStats().getLastEventId();
+        String firstEventId = lastEventId.substring(0, lastEventId.lastIndexOf('-') + 1) + "1";
+
+        feed.subscribe(Set.of(), Set.of(10), firstEventId);
+
+        assertThat(lastEventId).endsWith("-3");
+        assertThat(feed.getStats().getReplayed()).isEqualTo(1);
+        assertThat(feed.getStats().getSubscribers()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not replay events from another stream or beyond the replay ring")
+    void subscribe_ShouldNotReplayUnknownEvents() {
+        feed.broadcast(List.of(change(1, 10), change(1, 10), change(1, 10), change(1, 10), change(1, 10), change(1, 10)));
+        String lastEventId = feed.getStats().getLastEventId();
+        String evictedEventId = lastEventId.substring(0, lastEventId.lastIndexOf('-') + 1) + "1";
+
+        feed.subscribe(Set.of(), Set.of(), evictedEventId);
+        feed.subscribe(Set.of(), Set.of(), "previous-run-5");
+
+        assertThat(feed.getStats().getReplayed()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refuse subscribers beyond the limit")
+    void subscribe_ShouldEnforceSubscriberLimit() {
+        feed.subscribe(Set.of(1), Set.of(), null);
+        feed.subscribe(Set.of(2), Set.of(), null);
+
+        assertThatThrownBy(() -> feed.subscribe(Set.of(3), Set.of(), null))
+                .isInstanceOf(ResourceConflictException.class);
+    }
+
+    private static InventoryChangedEvent change(int warehouseId, int productId) {
+        return new InventoryChangedEvent(0, 1L, productId, warehouseId, 100, 5, 0, LocalDateTime.now());
+    }
+}
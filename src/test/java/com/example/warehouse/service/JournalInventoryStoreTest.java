@@ -0,0 +1,102 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.model.InventoryKey;
+import com.example.warehouse.model.StockMovement;
+import com.example.warehouse.service.JournalInventoryStore.Outcome;
+import com.example.warehouse.service.JournalInventoryStore.StoredQuantity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("JournalInventoryStore Tests")
+class JournalInventoryStoreTest {
+
+    private static final InventoryKey SHELF = new InventoryKey(1, 10, 100);
+    private static final InventoryKey DOCK = new InventoryKey(1, 10, 101);
+
+    @TempDir
+    Path directory;
+
+    private JournalInventoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = newStore();
+        store.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (store.isRunning()) {
+            store.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply movements in order and skip those that would make a quantity negative")
+    void apply_ShouldRejectNegativeQuantities() {
+        List<Outcome> outcomes = store.apply(List.of(
+                movement(SHELF, 10),
+                movement(SHELF, -4),
+                movement(SHELF, -7),
+                movement(DOCK, 3)), null, false);
+
+        assertThat(outcomes).extracting(Outcome::applied).containsExactly(true, true, false, true);
+        assertThat(outcomes.get(1).quantityBefore()).isEqualTo(10);
+        assertThat(outcomes.get(1).quantityAfter()).isEqualTo(6);
+        assertThat(outcomes.get(2).error()).contains("Current quantity: 6");
+        assertThat(store.find(SHELF)).map(StoredQuantity::quantity).contains(6);
+        assertThat(store.getStats().getDurableSequence()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should apply nothing from an all-or-nothing batch with a rejected movement")
+    void apply_ShouldRejectWholeBatchWhenAllOrNothing() {
+        store.apply(List.of(movement(SHELF, 5)), null, true);
+
+        assertThatThrownBy(() -> store.apply(List.of(movement(DOCK, 2), movement(SHELF, -6)), null, true))
+                .isInstanceOf(ResourceConflictException.class)
+                .hasMessageStartingWith("Line 1:");
+
+        assertThat(store.find(DOCK)).isEmpty();
+        assertThat(store.getStats().getLastSequence()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should recover the same quantities from the snapshot and the journal after it")
+    void start_ShouldRecoverFromSnapshotAndJournal() {
+        store.apply(List.of(movement(SHELF, 10), movement(DOCK, 4)), null, false);
+        store.writeSnapshot();
+        store.apply(List.of(movement(SHELF, -3)), null, false);
+        Map<InventoryKey, StoredQuantity> before = store.findAll();
+
+        // Simulate a crash: the old store is abandoned without the final snapshot it writes on stop
+        store = newStore();
+        store.start();
+
+        assertThat(store.findAll()).isEqualTo(before);
+        assertThat(store.getStats().getSnapshotSequence()).isEqualTo(2);
+        assertThat(store.apply(List.of(movement(DOCK, 1)), null, false).get(0).quantityAfter()).isEqualTo(5);
+        assertThat(store.getStats().getLastSequence()).isEqualTo(4);
+    }
+
+    private JournalInventoryStore newStore() {
+        return new JournalInventoryStore(directory.toString(), 1, 0, 1_000);
+    }
+
+    private static StockMovement movement(InventoryKey key, int quantityChange) {
+        return new StockMovement(key, quantityChange,
+                quantityChange > 0 ? StockLogEnum.ADJUSTMENT_IN : StockLogEnum.ADJUSTMENT_OUT, "test", null, null);
+    }
+}
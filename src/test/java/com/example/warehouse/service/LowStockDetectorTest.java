@@ -0,0 +1,190 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.enums.LowStockEventTypeEnum;
+import com.example.warehouse.model.LowStockEvent;
+import com.example.warehouse.model.ProductStockLevel;
+import com.example.warehouse.payload.response.LowStockResponse;
+import com.example.warehouse.repository.StockTotalsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LowStockDetector Tests")
+class LowStockDetectorTest {
+
+    @Mock
+    private StockTotalsRepository stockTotalsRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    private LowStockDetector lowStockDetector;
+
+    @BeforeEach
+    void setUp() {
+        willAnswer(invocation -> {
+            Consumer<ProductStockLevel> consumer = invocation.getArgument(0);
+            consumer.accept(new ProductStockLevel(1, "SKU-1", 10, 15));
+            consumer.accept(new ProductStockLevel(2, "SKU-2", 5, 2));
+            consumer.accept(new ProductStockLevel(3, "SKU-3", 20, 8));
+            return null;
+        }).given(stockTotalsRepository).forEachProductLevel(any());
+        lowStockDetector = new LowStockDetector(stockTotalsRepository, outboxService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        lowStockDetector.start();
+    }
+
+    @Test
+    @DisplayName("Should notify a product once when it crosses below its minimum")
+    @SuppressWarnings("unchecked")
+    void onStockCommitted_ShouldNotifyCrossing() {
+        lowStockDetector.onStockCommitted(Map.of(1, -3L));
+        lowStockDetector.onStockCommitted(Map.of(1, -4L));
+        lowStockDetector.notifyCrossings();
+        lowStockDetector.notifyCrossings();
+
+        ArgumentCaptor<Collection<LowStockEvent>> events = ArgumentCaptor.forClass(Collection.class);
+        then(outboxService).should().recordLowStockEvents(events.capture());
+        assertThat(events.getValue()).singleElement().satisfies(event -> {
+            assertThat(event.productId()).isEqualTo(1);
+            assertThat(event.type()).isEqualTo(LowStockEventTypeEnum.CROSSED_BELOW_MINIMUM);
+            assertThat(event.onHand()).isEqualTo(8);
+            assertThat(event.crossedAt()).isNotNull();
+        });
+        assertThat(lowStockDetector.getStats().getCrossings()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not notify a product that crossed and came back between two batches")
+    void onStockCommitted_ShouldSkipCancelledCrossing() {
+        lowStockDetector.onStockCommitted(Map.of(2, 4L));
+        lowStockDetector.onStockCommitted(Map.of(2, -4L));
+        lowStockDetector.notifyCrossings();
+
+        then(outboxService).should(never()).recordLowStockEvents(any());
+        assertThat(lowStockDetector.getStats().getPendingNotifications()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should list the breaches by shortfall and follow minimum stock changes")
+    void getBreaches_ShouldFollowMinimumStock() {
+        lowStockDetector.onProductSaved(1, "SKU-1", 40);
+        lowStockDetector.onProductSaved(3, "SKU-3", 5);
+
+        assertThat(lowStockDetector.getBreaches())
+                .extracting(LowStockResponse::getProductId, LowStockResponse::getShortfall)
+                .containsExactly(
+                        tuple(1, 25L),
+                        tuple(2, 3L));
+        assertThat(lowStockDetector.getStats().getRecoveries()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should apply the changes committed while the startup load runs")
+    void start_ShouldApplyChangesCommittedDuringLoad() {
+        LowStockDetector detector = new LowStockDetector(stockTotalsRepository, outboxService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        willAnswer(invocation -> {
+            Consumer<ProductStockLevel> consumer = invocation.getArgument(0);
+            consumer.accept(new ProductStockLevel(1, "SKU-1", 10, 15));
+            detector.onStockCommitted(Map.of(1, -7L, 3, 5L));
+            consumer.accept(new ProductStockLevel(3, "SKU-3", 20, 8));
+            return null;
+        }).given(stockTotalsRepository).forEachProductLevel(any());
+
+        detector.start();
+
+        assertThat(detector.getBreaches())
+                .extracting(LowStockResponse::getProductId, LowStockResponse::getOnHand)
+                .containsExactly(
+                        tuple(3, 13L),
+                        tuple(1, 8L));
+        assertThat(detector.getStats().getCrossings()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should take over the totals of a reconciliation without notifying or counting changes twice")
+    void reconcile_ShouldCorrectDriftedTotals() {
+        willAnswer(invocation -> {
+            Consumer<ProductStockLevel> consumer = invocation.getArgument(0);
+            lowStockDetector.onStockCommitted(Map.of(1, -1L));
+            consumer.accept(new ProductStockLevel(1, "SKU-1", 10, 5));
+            consumer.accept(new ProductStockLevel(2, "SKU-2", 5, 9));
+            return null;
+        }).given(stockTotalsRepository).forEachProductLevel(any());
+
+        lowStockDetector.reconcile();
+        lowStockDetector.notifyCrossings();
+
+        assertThat(lowStockDetector.getBreaches())
+                .extracting(LowStockResponse::getProductId, LowStockResponse::getOnHand)
+                .containsExactly(tuple(1, 4L));
+        assertThat(lowStockDetector.getBreaches().get(0).getBelowSince()).isNotNull();
+        then(outboxService).should(never()).recordLowStockEvents(any());
+        assertThat(lowStockDetector.getStats().getTrackedProducts()).isEqualTo(2);
+        assertThat(lowStockDetector.getStats().getCorrections()).isEqualTo(2);
+        assertThat(lowStockDetector.getStats().getReconciliations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should open a reload's snapshot only after changes being committed are handed over, counting them once")
+    void reconcile_ShouldWaitForChangesBeingCommitted() throws Exception {
+        CountDownLatch snapshotOpened = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            snapshotOpened.countDown();
+            return null;
+        }).given(stockTotalsRepository).openSnapshot();
+        willAnswer(invocation -> {
+            Consumer<ProductStockLevel> consumer = invocation.getArgument(0);
+            // The snapshot holds the change committed below
+            consumer.accept(new ProductStockLevel(1, "SKU-1", 10, 7));
+            consumer.accept(new ProductStockLevel(2, "SKU-2", 5, 2));
+            consumer.accept(new ProductStockLevel(3, "SKU-3", 20, 8));
+            return null;
+        }).given(stockTotalsRepository).forEachProductLevel(any());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            lowStockDetector.beginStockCommit();
+            Future<?> reconcile = executor.submit(lowStockDetector::reconcile);
+            assertThat(snapshotOpened.await(200, TimeUnit.MILLISECONDS)).isFalse();
+            lowStockDetector.onStockCommitted(Map.of(1, -8L));
+            lowStockDetector.endStockCommit();
+            reconcile.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(lowStockDetector.getBreaches())
+                .extracting(LowStockResponse::getProductId, LowStockResponse::getOnHand)
+                .containsExactly(
+                        tuple(3, 8L),
+                        tuple(1, 7L),
+                        tuple(2, 2L));
+        assertThat(lowStockDetector.getStats().getCorrections()).isZero();
+    }
+}
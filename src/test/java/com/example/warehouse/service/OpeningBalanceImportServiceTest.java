@@ -0,0 +1,221 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.ImportJob;
+import com.example.warehouse.enums.DataFormatEnum;
+import com.example.warehouse.enums.ImportJobStatusEnum;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.mapper.ImportJobMapper;
+import com.example.warehouse.model.InventoryKey;
+import com.example.warehouse.payload.response.ImportJobResponse;
+import com.example.warehouse.repository.ImportJobErrorRepository;
+import com.example.warehouse.repository.ImportJobRepository;
+import com.example.warehouse.repository.OpeningBalanceImportRepository;
+import com.example.warehouse.repository.ProductInventoryRepository;
+import com.example.warehouse.repository.ProductRepository;
+import com.example.warehouse.repository.StockLogRepository;
+import com.example.warehouse.repository.UserRepository;
+import com.example.warehouse.repository.WarehouseRepository;
+import com.example.warehouse.repository.WarehouseZoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+/**
+ * Imports with a chunk size of 2 against an in-memory set of stocked locations, so locations inserted by one
+ * chunk are found by the lookup of the next, as they would be in the database.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OpeningBalanceImportService Tests")
+class OpeningBalanceImportServiceTest {
+
+    private static final long JOB_ID = 7L;
+    private static final String DOCUMENT = """
+            product_id,warehouse_id,zone_id,quantity
+            1,1,11,5
+            1,1,11,7
+            2,1,11,3
+            1,1,11,2
+            99,1,11,1
+            2,1,12,4
+            """;
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+
+    @Mock
+    private ImportJobErrorRepository importJobErrorRepository;
+
+    @Mock
+    private OpeningBalanceImportRepository importRepository;
+
+    @Mock
+    private StockLogRepository stockLogRepository;
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private WarehouseZoneRepository zoneRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SecurityContextService securityContextService;
+
+    @Mock
+    private InventoryChangeFeed inventoryChangeFeed;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private StockTotalsService stockTotalsService;
+
+    private OpeningBalanceImportService importService;
+
+    // Zone 11 of product 2 already holds stock before the import
+    private final Set<InventoryKey> stocked = new HashSet<>(Set.of(new InventoryKey(2, 1, 11)));
+    private final List<InventoryKey> inserted = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importService = new OpeningBalanceImportService(importJobRepository, importJobErrorRepository, importRepository,
+                stockLogRepository, inventoryRepository, productRepository, warehouseRepository, zoneRepository,
+                userRepository, new ImportJobMapper(), securityContextService, inventoryChangeFeed, outboxService,
+                stockTotalsService, mock(PlatformTransactionManager.class), 2, 100, 300);
+
+        lenient().when(importRepository.findProductIds()).thenReturn(Set.of(1, 2));
+        lenient().when(importRepository.findWarehouseIds()).thenReturn(Set.of(1));
+        lenient().when(importRepository.findZoneWarehouseIds()).thenReturn(Map.of(11, 1, 12, 1));
+        lenient().when(importRepository.findExistingLocations(any())).thenAnswer(call -> {
+            Set<InventoryKey> existing = new HashSet<>(call.<List<InventoryKey>>getArgument(0));
+            existing.retainAll(stocked);
+            return existing;
+        });
+        lenient().when(importRepository.insertInventories(any(), any())).thenAnswer(call -> {
+            List<InventoryKey> keys = call.getArgument(0);
+            stocked.addAll(keys);
+            inserted.addAll(keys);
+            return LongStream.range(inserted.size() - keys.size(), inserted.size()).map(id -> id + 100).boxed().toList();
+        });
+        lenient().doAnswer(call -> {
+            List<Long> rows = call.getArgument(1);
+            List<String> messages = call.getArgument(2);
+            for (int i = 0; i < rows.size(); i++) {
+                errors.add(rows.get(i) + ": " + messages.get(i));
+            }
+            return null;
+        }).when(importRepository).insertErrors(eq(JOB_ID), any(), any());
+        lenient().when(importJobRepository.save(any())).thenAnswer(call -> {
+            ImportJob importJob = call.getArgument(0);
+            importJob.setId(JOB_ID);
+            return importJob;
+        });
+    }
+
+    @Test
+    @DisplayName("Should write each chunk with its progress and reject locations that are stocked or repeated")
+    void importOpeningBalances_ShouldRejectStockedAndRepeatedLocations() {
+        ImportJobResponse response = importService.importOpeningBalances(DataFormatEnum.CSV, document());
+
+        assertThat(response.getStatus()).isEqualTo(ImportJobStatusEnum.COMPLETED);
+        assertThat(response.getProcessedRows()).isEqualTo(6);
+        assertThat(response.getImportedRows()).isEqualTo(2);
+        assertThat(response.getRejectedRows()).isEqualTo(4);
+        assertThat(inserted).containsExactly(new InventoryKey(1, 1, 11), new InventoryKey(2, 1, 12));
+        assertThat(errors).containsExactly(
+                "2: The location appears more than once in this document.",
+                "3: Inventory already exists for this location.",
+                "4: Inventory already exists for this location.",
+                "5: Product 99 does not exist.");
+        InOrder progress = inOrder(importJobRepository);
+        progress.verify(importJobRepository).advance(eq(JOB_ID), eq(2L), eq(1L), eq(1L), any());
+        progress.verify(importJobRepository).advance(eq(JOB_ID), eq(4L), eq(0L), eq(2L), any());
+        progress.verify(importJobRepository).advance(eq(JOB_ID), eq(6L), eq(1L), eq(1L), any());
+        progress.verify(importJobRepository).finish(eq(JOB_ID), eq(ImportJobStatusEnum.COMPLETED), eq(null), any());
+    }
+
+    @Test
+    @DisplayName("Should resume a failed import after the rows it already processed")
+    void resumeImport_ShouldSkipProcessedRows() {
+        ImportJob failed = ImportJob.builder()
+                .id(JOB_ID)
+                .format(DataFormatEnum.CSV)
+                .status(ImportJobStatusEnum.FAILED)
+                .processedRows(4L)
+                .importedRows(1L)
+                .rejectedRows(3L)
+                .build();
+        given(importJobRepository.findWithActorById(JOB_ID)).willReturn(Optional.of(failed));
+        given(importJobRepository.claimForResume(eq(JOB_ID), any(), any())).willReturn(1);
+
+        ImportJobResponse response = importService.resumeImport(JOB_ID, DataFormatEnum.CSV, document());
+
+        assertThat(response.getStatus()).isEqualTo(ImportJobStatusEnum.COMPLETED);
+        assertThat(response.getImportedRows()).isEqualTo(2);
+        assertThat(response.getRejectedRows()).isEqualTo(4);
+        assertThat(inserted).containsExactly(new InventoryKey(2, 1, 12));
+        assertThat(errors).containsExactly("5: Product 99 does not exist.");
+        then(importJobRepository).should().advance(eq(JOB_ID), eq(6L), eq(1L), eq(1L), any());
+        then(importJobRepository).should().advance(eq(JOB_ID), anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should not resume an import another request is still running")
+    void resumeImport_ShouldRejectRunningImport() {
+        ImportJob running = ImportJob.builder()
+                .id(JOB_ID)
+                .format(DataFormatEnum.CSV)
+                .status(ImportJobStatusEnum.RUNNING)
+                .processedRows(3L)
+                .build();
+        given(importJobRepository.findWithActorById(JOB_ID)).willReturn(Optional.of(running));
+        given(importJobRepository.claimForResume(eq(JOB_ID), any(), any())).willReturn(0);
+
+        assertThatThrownBy(() -> importService.resumeImport(JOB_ID, DataFormatEnum.CSV, document()))
+                .isInstanceOf(ResourceConflictException.class)
+                .hasMessageContaining("still running");
+        then(importRepository).should(never()).insertInventories(any(), any());
+        then(importJobRepository).should(never()).finish(anyLong(), any(), any(), any());
+    }
+
+    private static InputStream document() {
+        return new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+    }
+}
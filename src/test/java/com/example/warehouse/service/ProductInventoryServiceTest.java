@@ -0,0 +1,245 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.Product;
+import com.example.warehouse.entity.ProductInventory;
+import com.example.warehouse.entity.StockLog;
+import com.example.warehouse.entity.Warehouse;
+import com.example.warehouse.entity.WarehouseZone;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.mapper.ProductInventoryMapper;
+import com.example.warehouse.mapper.StockLogMapper;
+import com.example.warehouse.payload.request.AdjustInventoryRequest;
+import com.example.warehouse.payload.request.BulkAdjustInventoryRequest;
+import com.example.warehouse.payload.response.BulkAdjustInventoryResponse;
+import com.example.warehouse.payload.response.BulkAdjustLineResult;
+import com.example.warehouse.repository.ProductInventoryRepository;
+import com.example.warehouse.repository.ProductRepository;
+import com.example.warehouse.repository.StockLogRepository;
+import com.example.warehouse.repository.WarehouseRepository;
+import com.example.warehouse.repository.WarehouseZoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+
+/**
+ * Runs bulkAdjustInventory against an in-memory inventory table: applyQuantityDeltaById applies the same
+ * condition as its UPDATE, so rejected lines and the quantities each line saw are those the database would give.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductInventoryService Tests")
+class ProductInventoryServiceTest {
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    @Mock
+    private StockLogRepository stockLogRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private WarehouseZoneRepository zoneRepository;
+
+    @Mock
+    private SecurityContextService securityContextService;
+
+    @Mock
+    private InventoryChangeFeed inventoryChangeFeed;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private StockTotalsService stockTotalsService;
+
+    @Captor
+    private ArgumentCaptor<Iterable<StockLog>> stockLogs;
+
+    private ProductInventoryService inventoryService;
+
+    private final Warehouse main = Warehouse.builder().id(1).code("WH-01").name("Main").isActive(true).build();
+    private final WarehouseZone zoneA = zone(11, main);
+    private final WarehouseZone zoneB = zone(12, main);
+    private final Product screws = Product.builder().id(1).sku("SCR-001").name("Screws").build();
+    private final Product bolts = Product.builder().id(2).sku("BLT-001").name("Bolts").build();
+    private final Map<Long, ProductInventory> rows = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new ProductInventoryService(inventoryRepository, stockLogRepository, productRepository,
+                warehouseRepository, zoneRepository, new ProductInventoryMapper(), new StockLogMapper(),
+                securityContextService, inventoryChangeFeed, outboxService, stockTotalsService);
+
+        Stream.of(inventory(100L, screws, zoneA, 10, 0), inventory(101L, bolts, zoneA, 10, 8))
+                .forEach(row -> rows.put(row.getId(), row));
+
+        Map<Integer, Warehouse> warehouses = byId(Stream.of(main), Warehouse::getId);
+        lenient().when(warehouseRepository.findAllById(any())).thenAnswer(call -> select(warehouses, call.getArgument(0)));
+        Map<Integer, WarehouseZone> zones = byId(Stream.of(zoneA, zoneB), WarehouseZone::getId);
+        lenient().when(zoneRepository.findAllById(any())).thenAnswer(call -> select(zones, call.getArgument(0)));
+        Map<Integer, Product> products = byId(Stream.of(screws, bolts), Product::getId);
+        lenient().when(productRepository.findAllById(any())).thenAnswer(call -> select(products, call.getArgument(0)));
+        lenient().when(inventoryRepository.findByProductIdInAndWarehouseIdInAndZoneIdIn(any(), any(), any()))
+                .thenAnswer(call -> List.copyOf(rows.values()));
+        lenient().when(inventoryRepository.findByIdIn(any())).thenAnswer(call -> select(rows, call.getArgument(0)));
+        lenient().when(inventoryRepository.applyQuantityDeltaById(anyLong(), anyInt())).thenAnswer(call -> {
+            ProductInventory row = rows.get(call.<Long>getArgument(0));
+            int quantity = row.getQuantity() + call.<Integer>getArgument(1);
+            if (quantity < row.getReservedQuantity()) {
+                return 0;
+            }
+            row.setQuantity(quantity);
+            return 1;
+        });
+        lenient().when(inventoryRepository.save(any())).thenAnswer(call -> {
+            ProductInventory row = call.getArgument(0);
+            row.setId(200L + rows.size());
+            row.setReservedQuantity(0);
+            rows.put(row.getId(), row);
+            return row;
+        });
+    }
+
+    @Test
+    @DisplayName("Should apply valid lines, report rejected ones and give each line the quantities it saw")
+    void bulkAdjustInventory_ShouldSkipRejectedLinesWhenNotAtomic() {
+        BulkAdjustInventoryResponse response = inventoryService.bulkAdjustInventory(request(false,
+                line(screws, zoneA, 5),
+                line(bolts, zoneA, -3),
+                line(99, zoneA, 1),
+                line(screws, zoneA, -12)));
+
+        assertThat(response.getTotalLines()).isEqualTo(4);
+        assertThat(response.getAppliedLines()).isEqualTo(2);
+        assertThat(response.getFailedLines()).isEqualTo(2);
+        assertThat(response.getLines())
+                .extracting(BulkAdjustLineResult::getLineIndex, BulkAdjustLineResult::isApplied,
+                        BulkAdjustLineResult::getQuantityBefore, BulkAdjustLineResult::getQuantityAfter)
+                .containsExactly(
+                        tuple(0, true, 10, 15),
+                        tuple(1, false, null, null),
+                        tuple(2, false, null, null),
+                        tuple(3, true, 15, 3));
+        assertThat(response.getLines().get(1).getError()).contains("release reserved stock");
+        assertThat(response.getLines().get(2).getError()).contains("Product not found");
+        assertThat(response.getLines().get(3).getInventory().getQuantity()).isEqualTo(3);
+
+        then(stockLogRepository).should().saveAll(stockLogs.capture());
+        assertThat(stockLogs.getValue())
+                .extracting(StockLog::getType, StockLog::getQuantityBefore, StockLog::getQuantityAfter)
+                .containsExactly(
+                        tuple(StockLogEnum.ADJUSTMENT_IN, 10, 15),
+                        tuple(StockLogEnum.ADJUSTMENT_OUT, 15, 3));
+    }
+
+    @Test
+    @DisplayName("Should reject the whole request when one line fails in atomic mode")
+    void bulkAdjustInventory_ShouldRejectWholeRequestWhenAtomic() {
+        assertThatThrownBy(() -> inventoryService.bulkAdjustInventory(request(true,
+                line(screws, zoneA, 5),
+                line(bolts, zoneA, -3))))
+                .isInstanceOf(ResourceConflictException.class)
+                .hasMessageStartingWith("Line 1: ");
+
+        then(stockLogRepository).should(never()).saveAll(any());
+        then(outboxService).should(never()).recordStockLogs(any());
+        then(stockTotalsService).should(never()).recordStockLogs(any());
+    }
+
+    @Test
+    @DisplayName("Should create a missing row for a receipt but not for an issue, and update rows in key order")
+    void bulkAdjustInventory_ShouldCreateMissingRowsForReceiptsOnly() {
+        BulkAdjustInventoryResponse response = inventoryService.bulkAdjustInventory(request(false,
+                line(bolts, zoneB, -1),
+                line(screws, zoneB, 4),
+                line(bolts, zoneA, 2)));
+
+        assertThat(response.getLines())
+                .extracting(BulkAdjustLineResult::isApplied)
+                .containsExactly(false, true, true);
+        assertThat(response.getLines().get(0).getError()).contains("negative stock");
+        assertThat(response.getLines().get(1).getQuantityBefore()).isZero();
+        assertThat(response.getLines().get(1).getQuantityAfter()).isEqualTo(4);
+
+        // (product, warehouse, zone) order: screws before bolts
+        InOrder lockOrder = inOrder(inventoryRepository);
+        lockOrder.verify(inventoryRepository).save(any());
+        lockOrder.verify(inventoryRepository).applyQuantityDeltaById(response.getLines().get(1).getInventory().getId(), 4);
+        lockOrder.verify(inventoryRepository).applyQuantityDeltaById(101L, 2);
+    }
+
+    private static BulkAdjustInventoryRequest request(boolean atomic, AdjustInventoryRequest... lines) {
+        BulkAdjustInventoryRequest request = new BulkAdjustInventoryRequest();
+        request.setAtomic(atomic);
+        request.setLines(List.of(lines));
+        return request;
+    }
+
+    private static AdjustInventoryRequest line(Product product, WarehouseZone zone, int quantityChange) {
+        return line(product.getId(), zone, quantityChange);
+    }
+
+    private static AdjustInventoryRequest line(int productId, WarehouseZone zone, int quantityChange) {
+        AdjustInventoryRequest line = new AdjustInventoryRequest();
+        line.setProductId(productId);
+        line.setWarehouseId(zone.getWarehouse().getId());
+        line.setZoneId(zone.getId());
+        line.setQuantityChange(quantityChange);
+        line.setNote("Cycle count");
+        return line;
+    }
+
+    private static WarehouseZone zone(int id, Warehouse warehouse) {
+        return WarehouseZone.builder().id(id).code(warehouse.getCode() + "-" + id).name("Zone " + id).warehouse(warehouse).build();
+    }
+
+    private static ProductInventory inventory(Long id, Product product, WarehouseZone zone, int quantity, int reservedQuantity) {
+        return ProductInventory.builder()
+                .id(id)
+                .product(product)
+                .warehouse(zone.getWarehouse())
+                .zone(zone)
+                .quantity(quantity)
+                .reservedQuantity(reservedQuantity)
+                .build();
+    }
+
+    private static <K, V> Map<K, V> byId(Stream<V> values, Function<V, K> id) {
+        return values.collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static <K, V> List<V> select(Map<K, V> values, Iterable<K> ids) {
+        return StreamSupport.stream(ids.spliterator(), false).map(values::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.enums.StockLogIssueEnum;
+import com.example.warehouse.model.StockLogChainRow;
+import com.example.warehouse.model.StockLogIssue;
+import com.example.warehouse.payload.response.StockLogVerificationResponse;
+import com.example.warehouse.repository.StockLogChainRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockLogVerifier Tests")
+class StockLogVerifierTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    @Mock
+    private StockLogChainRepository chainRepository;
+
+    @Test
+    @DisplayName("Should accept histories that chain to the quantity, including logs sharing a timestamp")
+    void verify_ShouldAcceptConsistentHistories() {
+        stub(Map.of(1L, 7, 2L, 0, 3L, 5), List.of(
+                log(1, 10, T0, 0, 10),
+                log(1, 11, T0.plusSeconds(1), 10, -3),
+                log(2, 12, T0, 0, 4),
+                log(2, 13, T0.plusSeconds(1), 4, -4),
+                // One transaction: ID order differs from the order the quantities chain in
+                log(3, 15, T0, 2, 3),
+                log(3, 14, T0, 0, 2)));
+
+        StockLogVerificationResponse result = verifier().verify();
+
+        assertThat(result.getRangesChecked()).isEqualTo(2);
+        assertThat(result.getInventoriesChecked()).isEqualTo(3);
+        assertThat(result.getLogsChecked()).isEqualTo(6);
+        assertThat(result.getIssuesFound()).isZero();
+        assertThat(result.getIssues()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report gaps, broken logs and quantity mismatches")
+    void verify_ShouldReportIssues() {
+        stub(Map.of(1L, 8, 2L, 5, 3L, 6), List.of(
+                log(1, 10, T0, 0, 10),
+                log(1, 11, T0.plusSeconds(1), 7, 1),
+                new StockLogChainRow(2, 12, T0, 0, 5, 6)));
+
+        StockLogVerificationResponse result = verifier().verify();
+
+        assertThat(result.getIssues()).containsExactly(
+                new StockLogIssue(StockLogIssueEnum.GAP, 1L, 11L, 10, 7),
+                new StockLogIssue(StockLogIssueEnum.BROKEN_LOG, 2L, 12L, 5, 6),
+                new StockLogIssue(StockLogIssueEnum.QUANTITY_MISMATCH, 2L, 12L, 6, 5),
+                new StockLogIssue(StockLogIssueEnum.QUANTITY_MISMATCH, 3L, null, 0, 6));
+        assertThat(result.getIssuesByType()).containsEntry(StockLogIssueEnum.QUANTITY_MISMATCH, 2L);
+        assertThat(result.getIssuesFound()).isEqualTo(4);
+    }
+
+    private StockLogVerifier verifier() {
+        return new StockLogVerifier(chainRepository, mock(PlatformTransactionManager.class), 2, 2, 100);
+    }
+
+    private void stub(Map<Long, Integer> quantities, List<StockLogChainRow> logs) {
+        given(chainRepository.findInventoryIdRange()).willReturn(new long[]{1, 3});
+        given(chainRepository.findQuantities(anyLong(), anyLong())).willAnswer(invocation -> {
+            long from = invocation.getArgument(0);
+            long to = invocation.getArgument(1);
+            Map<Long, Integer> range = new HashMap<>();
+            quantities.forEach((id, quantity) -> {
+                if (id >= from && id <= to) {
+                    range.put(id, quantity);
+                }
+            });
+            return range;
+        });
+        willAnswer(invocation -> {
+            long from = invocation.getArgument(0);
+            long to = invocation.getArgument(1);
+            Consumer<StockLogChainRow> consumer = invocation.getArgument(2);
+            logs.stream().filter(row -> row.inventoryId() >= from && row.inventoryId() <= to).forEach(consumer);
+            return null;
+        }).given(chainRepository).streamLogs(anyLong(), anyLong(), any());
+    }
+
+    private static StockLogChainRow log(long inventoryId, long id, LocalDateTime createdAt, int before, int change) {
+        return new StockLogChainRow(inventoryId, id, createdAt, before, change, before + change);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.ProductInventory;
+import com.example.warehouse.entity.StockReservation;
+import com.example.warehouse.enums.ReferenceActionEnum;
+import com.example.warehouse.enums.ReservationStatusEnum;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.mapper.StockReservationMapper;
+import com.example.warehouse.repository.ProductInventoryRepository;
+import com.example.warehouse.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockReservationService Tests")
+class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    @Mock
+    private ProductInventoryService inventoryService;
+
+    @Mock
+    private StockReservationMapper reservationMapper;
+
+    @Mock
+    private SecurityContextService securityContextService;
+
+    private StockReservationService reservationService;
+
+    private final ProductInventory inventory = ProductInventory.builder().id(10L).quantity(50).reservedQuantity(5).build();
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new StockReservationService(reservationRepository, inventoryRepository, inventoryService,
+                reservationMapper, securityContextService);
+    }
+
+    @Test
+    @DisplayName("Should log the released stock against the reservation's reference")
+    void release_ShouldRecordReleasedLog() {
+        given(reservationRepository.closeActive(eq(1L), eq(ReservationStatusEnum.RELEASED), any())).willReturn(1);
+        given(reservationRepository.findWithInventoryById(1L)).willReturn(Optional.of(reservation(1L, 5)));
+        given(inventoryRepository.releaseReservedQuantity(10L, 5)).willReturn(1);
+        given(inventoryRepository.findByIdIn(List.of(10L))).willReturn(List.of(inventory));
+
+        reservationService.release(1L);
+
+        then(inventoryService).should().recordStockLog(eq(inventory), eq(StockLogEnum.RELEASED), eq(0),
+                contains("reservation #1"), eq(ReferenceActionEnum.SALES_ORDER), eq("SO-1"));
+    }
+
+    @Test
+    @DisplayName("Should fail the release when the inventory row holds less reserved stock than the reservation")
+    void release_ShouldConflictWhenNothingWasReleased() {
+        given(reservationRepository.closeActive(eq(1L), eq(ReservationStatusEnum.RELEASED), any())).willReturn(1);
+        given(reservationRepository.findWithInventoryById(1L)).willReturn(Optional.of(reservation(1L, 5)));
+        given(inventoryRepository.releaseReservedQuantity(10L, 5)).willReturn(0);
+
+        assertThatThrownBy(() -> reservationService.release(1L))
+                .isInstanceOf(ResourceConflictException.class);
+        then(inventoryService).should(never()).recordStockLog(any(), any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should write one released log per expired reservation and skip ones closed concurrently")
+    void expireOverdue_ShouldRecordReleasedLogPerReservation() {
+        given(reservationRepository.findExpired(any(LocalDateTime.class), any()))
+                .willReturn(List.of(reservation(1L, 2), reservation(2L, 3), reservation(3L, 4)));
+        given(reservationRepository.expire(anyLong(), any())).willReturn(1, 1, 0);
+        given(inventoryRepository.releaseReservedQuantity(10L, 5)).willReturn(1);
+        given(inventoryRepository.findByIdIn(any())).willReturn(List.of(inventory));
+
+        int found = reservationService.expireOverdue(10);
+
+        assertThat(found).isEqualTo(3);
+        then(inventoryService).should().recordStockLog(eq(inventory), eq(StockLogEnum.RELEASED), eq(0),
+                contains("reservation #1"), any(), any());
+        then(inventoryService).should().recordStockLog(eq(inventory), eq(StockLogEnum.RELEASED), eq(0),
+                contains("reservation #2"), any(), any());
+        then(inventoryService).should(never()).recordStockLog(any(), any(), anyInt(), contains("reservation #3"), any(), any());
+    }
+
+    private StockReservation reservation(Long id, int quantity) {
+        return StockReservation.builder()
+                .id(id)
+                .inventory(inventory)
+                .quantity(quantity)
+                .status(ReservationStatusEnum.ACTIVE)
+                .referenceType(ReferenceActionEnum.SALES_ORDER)
+                .referenceId("SO-" + id)
+                .build();
+    }
+}
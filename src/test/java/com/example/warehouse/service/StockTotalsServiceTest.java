@@ -0,0 +1,114 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.Product;
+import com.example.warehouse.entity.StockLog;
+import com.example.warehouse.entity.Warehouse;
+import com.example.warehouse.entity.WarehouseZone;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.enums.StockTotalScopeEnum;
+import com.example.warehouse.repository.ProductRepository;
+import com.example.warehouse.repository.StockTotalsRepository;
+import com.example.warehouse.repository.WarehouseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockTotalsService Tests")
+class StockTotalsServiceTest {
+
+    @Mock
+    private StockTotalsRepository stockTotalsRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private LowStockDetector lowStockDetector;
+
+    private StockTotalsService stockTotalsService;
+
+    @BeforeEach
+    void setUp() {
+        stockTotalsService = new StockTotalsService(stockTotalsRepository, productRepository, warehouseRepository, lowStockDetector, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should sum the changes per total and leave out totals that come to zero")
+    void recordStockLogs_ShouldSumChangesPerTotal() {
+        stockTotalsService.recordStockLogs(List.of(
+                stockLog(1, 10, 100, 5),
+                stockLog(2, 10, 101, 3),
+                stockLog(1, 10, 101, -5),
+                stockLog(2, 20, 200, 0)));
+
+        then(stockTotalsRepository).should().addChanges(eq(StockTotalScopeEnum.PRODUCT), anyInt(), eq(sorted(Map.of(2, 3L))));
+        then(stockTotalsRepository).should().addChanges(eq(StockTotalScopeEnum.WAREHOUSE), anyInt(), eq(sorted(Map.of(10, 3L))));
+        then(stockTotalsRepository).should().addChanges(eq(StockTotalScopeEnum.ZONE), anyInt(), eq(sorted(Map.of(100, 5L, 101, -2L))));
+    }
+
+    @Test
+    @DisplayName("Should write the changes of a transaction once, right before it commits")
+    void recordStockLogs_ShouldWriteBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        stockTotalsService.recordStockLogs(List.of(stockLog(1, 10, 100, 4)));
+        stockTotalsService.recordStockLogs(List.of(stockLog(1, 10, 100, 6), stockLog(3, 10, 102, 1)));
+        then(stockTotalsRepository).should(never()).addChanges(any(), anyInt(), any());
+        then(lowStockDetector).should(never()).onStockCommitted(any());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+
+        then(stockTotalsRepository).should().addChanges(eq(StockTotalScopeEnum.PRODUCT), anyInt(), eq(sorted(Map.of(1, 10L, 3, 1L))));
+        then(stockTotalsRepository).should().addChanges(eq(StockTotalScopeEnum.WAREHOUSE), anyInt(), eq(sorted(Map.of(10, 11L))));
+        then(lowStockDetector).should().onStockCommitted(Map.of(1, 10L, 3, 1L));
+        assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+    }
+
+    private static SortedMap<Integer, Long> sorted(Map<Integer, Long> changes) {
+        return new TreeMap<>(changes);
+    }
+
+    private static StockLog stockLog(int productId, int warehouseId, int zoneId, int quantityChange) {
+        return StockLog.builder()
+                .product(Product.builder().id(productId).build())
+                .warehouse(Warehouse.builder().id(warehouseId).build())
+                .zone(WarehouseZone.builder().id(zoneId).build())
+                .type(quantityChange >= 0 ? StockLogEnum.ADJUSTMENT_IN : StockLogEnum.ADJUSTMENT_OUT)
+                .quantityChange(quantityChange)
+                .build();
+    }
+}
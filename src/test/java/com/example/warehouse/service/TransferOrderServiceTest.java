@@ -0,0 +1,332 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.Product;
+import com.example.warehouse.entity.ProductInventory;
+import com.example.warehouse.entity.StockLog;
+import com.example.warehouse.entity.TransferOrder;
+import com.example.warehouse.entity.TransferOrderLine;
+import com.example.warehouse.entity.Warehouse;
+import com.example.warehouse.entity.WarehouseZone;
+import com.example.warehouse.enums.ReferenceActionEnum;
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.enums.TransferOrderStatusEnum;
+import com.example.warehouse.exception.ResourceConflictException;
+import com.example.warehouse.mapper.ProductInventoryMapper;
+import com.example.warehouse.mapper.StockLogMapper;
+import com.example.warehouse.mapper.TransferOrderMapper;
+import com.example.warehouse.payload.request.MoveInventoryRequest;
+import com.example.warehouse.payload.request.TransferOrderLineRequest;
+import com.example.warehouse.payload.request.TransferOrderRequest;
+import com.example.warehouse.payload.response.TransferOrderResponse;
+import com.example.warehouse.repository.ProductInventoryRepository;
+import com.example.warehouse.repository.ProductRepository;
+import com.example.warehouse.repository.StockLogRepository;
+import com.example.warehouse.repository.TransferOrderLineRepository;
+import com.example.warehouse.repository.TransferOrderRepository;
+import com.example.warehouse.repository.WarehouseRepository;
+import com.example.warehouse.repository.WarehouseZoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+/**
+ * Runs TransferOrderService against a real ProductInventoryService, so the row updates it ends up issuing
+ * (and their order) are observable on the repository mocks.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransferOrderService Tests")
+class TransferOrderServiceTest {
+
+    private static final long ORDER_ID = 500L;
+
+    @Mock
+    private TransferOrderRepository transferOrderRepository;
+
+    @Mock
+    private TransferOrderLineRepository lineRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private WarehouseZoneRepository zoneRepository;
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    @Mock
+    private StockLogRepository stockLogRepository;
+
+    @Mock
+    private SecurityContextService securityContextService;
+
+    @Mock
+    private InventoryChangeFeed inventoryChangeFeed;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private StockTotalsService stockTotalsService;
+
+    @Captor
+    private ArgumentCaptor<Iterable<StockLog>> stockLogs;
+
+    private TransferOrderService transferOrderService;
+
+    private final Warehouse main = Warehouse.builder().id(1).code("WH-01").name("Main").isActive(true).build();
+    private final Warehouse branch = Warehouse.builder().id(2).code("WH-02").name("Branch").isActive(true).build();
+    private final WarehouseZone mainA = zone(11, main);
+    private final WarehouseZone mainB = zone(12, main);
+    private final WarehouseZone branchA = zone(21, branch);
+    private final Product screws = Product.builder().id(1).sku("SCR-001").name("Screws").build();
+    private final Product bolts = Product.builder().id(2).sku("BLT-001").name("Bolts").build();
+    private final List<ProductInventory> inventories = List.of(
+            inventory(100L, screws, mainA), inventory(101L, bolts, mainA),
+            inventory(102L, screws, mainB), inventory(103L, bolts, mainB),
+            inventory(104L, screws, branchA), inventory(105L, bolts, branchA));
+
+    @BeforeEach
+    void setUp() {
+        ProductInventoryService inventoryService = new ProductInventoryService(inventoryRepository, stockLogRepository,
+                productRepository, warehouseRepository, zoneRepository, new ProductInventoryMapper(), new StockLogMapper(),
+                securityContextService, inventoryChangeFeed, outboxService, stockTotalsService);
+        transferOrderService = new TransferOrderService(transferOrderRepository, lineRepository, productRepository,
+                warehouseRepository, zoneRepository, inventoryService, new TransferOrderMapper(), securityContextService);
+
+        Map<Integer, Warehouse> warehouses = byId(Stream.of(main, branch), Warehouse::getId);
+        lenient().when(warehouseRepository.findById(anyInt())).thenAnswer(call -> Optional.ofNullable(warehouses.get(call.<Integer>getArgument(0))));
+        lenient().when(warehouseRepository.findAllById(any())).thenAnswer(call -> select(warehouses, call.getArgument(0)));
+        Map<Integer, WarehouseZone> zones = byId(Stream.of(mainA, mainB, branchA), WarehouseZone::getId);
+        lenient().when(zoneRepository.findAllById(any())).thenAnswer(call -> select(zones, call.getArgument(0)));
+        Map<Integer, Product> products = byId(Stream.of(screws, bolts), Product::getId);
+        lenient().when(productRepository.findAllById(any())).thenAnswer(call -> select(products, call.getArgument(0)));
+        lenient().when(inventoryRepository.findByProductIdInAndWarehouseIdInAndZoneIdIn(any(), any(), any())).thenReturn(inventories);
+        Map<Long, ProductInventory> rows = byId(inventories.stream(), ProductInventory::getId);
+        lenient().when(inventoryRepository.findByIdIn(any())).thenAnswer(call -> select(rows, call.getArgument(0)));
+        lenient().when(inventoryRepository.applyQuantityDeltaById(anyLong(), anyInt())).thenReturn(1);
+        lenient().when(transferOrderRepository.save(any())).thenAnswer(call -> {
+            TransferOrder order = call.getArgument(0);
+            order.setId(ORDER_ID);
+            return order;
+        });
+    }
+
+    @Test
+    @DisplayName("Should complete a transfer within one warehouse and update rows in inventory key order")
+    void createTransferOrder_ShouldLockRowsInKeyOrder() {
+        TransferOrderResponse response = transferOrderService.createTransferOrder(request(1, 1,
+                line(bolts, mainA, mainB, 3), line(screws, mainB, mainA, 4)));
+
+        assertThat(response.getStatus()).isEqualTo(TransferOrderStatusEnum.COMPLETED);
+        assertThat(response.getLines()).hasSize(2);
+        // (product, warehouse, zone) order, not line order: screws before bolts, zone 11 before zone 12
+        InOrder lockOrder = inOrder(inventoryRepository);
+        lockOrder.verify(inventoryRepository).applyQuantityDeltaById(100L, 4);
+        lockOrder.verify(inventoryRepository).applyQuantityDeltaById(102L, -4);
+        lockOrder.verify(inventoryRepository).applyQuantityDeltaById(101L, -3);
+        lockOrder.verify(inventoryRepository).applyQuantityDeltaById(103L, 3);
+
+        then(stockLogRepository).should().saveAll(stockLogs.capture());
+        assertThat(stockLogs.getValue())
+                .hasSize(4)
+                .allSatisfy(log -> {
+                    assertThat(log.getReferenceType()).isEqualTo(ReferenceActionEnum.TRANSFER_ORDER);
+                    assertThat(log.getReferenceId()).isEqualTo(String.valueOf(ORDER_ID));
+                })
+                .extracting(StockLog::getType)
+                .containsExactlyInAnyOrder(StockLogEnum.GOODS_ISSUE, StockLogEnum.GOODS_ISSUE,
+                        StockLogEnum.GOODS_RECEIPT, StockLogEnum.GOODS_RECEIPT);
+    }
+
+    @Test
+    @DisplayName("Should only issue stock for a transfer between warehouses and leave it in transit")
+    void createTransferOrder_ShouldLeaveCrossWarehouseOrderInTransit() {
+        TransferOrderResponse response = transferOrderService.createTransferOrder(request(1, 2, line(screws, mainA, branchA, 5)));
+
+        assertThat(response.getStatus()).isEqualTo(TransferOrderStatusEnum.IN_TRANSIT);
+        then(inventoryRepository).should().applyQuantityDeltaById(100L, -5);
+        then(inventoryRepository).should(never()).applyQuantityDeltaById(eq(104L), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject the whole transfer when one line lacks stock")
+    void createTransferOrder_ShouldRejectWholeOrderOnShortLine() {
+        given(inventoryRepository.applyQuantityDeltaById(101L, -3)).willReturn(0);
+
+        assertThatThrownBy(() -> transferOrderService.createTransferOrder(request(1, 1,
+                line(screws, mainA, mainB, 1), line(bolts, mainA, mainB, 3))))
+                .isInstanceOf(ResourceConflictException.class)
+                .hasMessageStartingWith("Line ");
+        then(stockLogRepository).should(never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should move one product between zones as a completed one-line transfer")
+    void moveInventory_ShouldCreateOneLineTransfer() {
+        MoveInventoryRequest request = new MoveInventoryRequest();
+        request.setProductId(1);
+        request.setWarehouseId(1);
+        request.setSourceZoneId(11);
+        request.setDestinationZoneId(12);
+        request.setQuantity(2);
+
+        TransferOrderResponse response = transferOrderService.moveInventory(request);
+
+        assertThat(response.getStatus()).isEqualTo(TransferOrderStatusEnum.COMPLETED);
+        then(inventoryRepository).should().applyQuantityDeltaById(100L, -2);
+        then(inventoryRepository).should().applyQuantityDeltaById(102L, 2);
+    }
+
+    @Test
+    @DisplayName("Should reject a move into the zone it comes from")
+    void moveInventory_ShouldRejectSameZone() {
+        MoveInventoryRequest request = new MoveInventoryRequest();
+        request.setProductId(1);
+        request.setWarehouseId(1);
+        request.setSourceZoneId(11);
+        request.setDestinationZoneId(11);
+        request.setQuantity(2);
+
+        assertThatThrownBy(() -> transferOrderService.moveInventory(request))
+                .isInstanceOf(ResourceConflictException.class);
+        then(transferOrderRepository).should(never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should receive an in-transit order into its destination zones once")
+    void receiveTransferOrder_ShouldReceiveOnlyOnce() {
+        TransferOrder order = inTransitOrder();
+        given(transferOrderRepository.closeInTransit(eq(ORDER_ID), eq(TransferOrderStatusEnum.COMPLETED), any()))
+                .willReturn(1, 0);
+
+        transferOrderService.receiveTransferOrder(ORDER_ID);
+        order.setStatus(TransferOrderStatusEnum.COMPLETED);
+
+        assertThatThrownBy(() -> transferOrderService.receiveTransferOrder(ORDER_ID))
+                .isInstanceOf(ResourceConflictException.class)
+                .hasMessageContaining("already COMPLETED");
+        then(inventoryRepository).should(times(1)).applyQuantityDeltaById(104L, 5);
+        then(inventoryRepository).should(times(1)).applyQuantityDeltaById(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should put the stock of a cancelled order back into its source zones")
+    void cancelTransferOrder_ShouldReturnStockToSource() {
+        inTransitOrder();
+        given(transferOrderRepository.closeInTransit(eq(ORDER_ID), eq(TransferOrderStatusEnum.CANCELLED), any())).willReturn(1);
+
+        transferOrderService.cancelTransferOrder(ORDER_ID);
+
+        then(inventoryRepository).should().applyQuantityDeltaById(100L, 5);
+        then(stockLogRepository).should().saveAll(stockLogs.capture());
+        assertThat(stockLogs.getValue()).singleElement()
+                .satisfies(log -> assertThat(log.getType()).isEqualTo(StockLogEnum.GOODS_RECEIPT));
+    }
+
+    @Test
+    @DisplayName("Should not cancel an order that was already received")
+    void cancelTransferOrder_ShouldRejectReceivedOrder() {
+        TransferOrder order = inTransitOrder();
+        order.setStatus(TransferOrderStatusEnum.COMPLETED);
+        given(transferOrderRepository.closeInTransit(eq(ORDER_ID), eq(TransferOrderStatusEnum.CANCELLED), any())).willReturn(0);
+
+        assertThatThrownBy(() -> transferOrderService.cancelTransferOrder(ORDER_ID))
+                .isInstanceOf(ResourceConflictException.class)
+                .hasMessageContaining("already COMPLETED");
+        then(inventoryRepository).should(never()).applyQuantityDeltaById(anyLong(), anyInt());
+    }
+
+    private TransferOrder inTransitOrder() {
+        TransferOrder order = TransferOrder.builder()
+                .id(ORDER_ID)
+                .sourceWarehouse(main)
+                .destinationWarehouse(branch)
+                .status(TransferOrderStatusEnum.IN_TRANSIT)
+                .build();
+        TransferOrderLine line = TransferOrderLine.builder()
+                .id(1L)
+                .transferOrder(order)
+                .product(screws)
+                .sourceZone(mainA)
+                .destinationZone(branchA)
+                .quantity(5)
+                .build();
+        order.getLines().add(line);
+        given(transferOrderRepository.findWithWarehousesById(ORDER_ID)).willReturn(Optional.of(order));
+        lenient().when(lineRepository.findWithLocationsByTransferOrderId(ORDER_ID)).thenReturn(List.of(line));
+        return order;
+    }
+
+    private static TransferOrderRequest request(int sourceWarehouseId, int destinationWarehouseId, TransferOrderLineRequest... lines) {
+        TransferOrderRequest request = new TransferOrderRequest();
+        request.setSourceWarehouseId(sourceWarehouseId);
+        request.setDestinationWarehouseId(destinationWarehouseId);
+        request.setLines(new ArrayList<>(List.of(lines)));
+        return request;
+    }
+
+    private static TransferOrderLineRequest line(Product product, WarehouseZone source, WarehouseZone destination, int quantity) {
+        TransferOrderLineRequest line = new TransferOrderLineRequest();
+        line.setProductId(product.getId());
+        line.setSourceZoneId(source.getId());
+        line.setDestinationZoneId(destination.getId());
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private static WarehouseZone zone(int id, Warehouse warehouse) {
+        return WarehouseZone.builder().id(id).code(warehouse.getCode() + "-" + id).name("Zone " + id).warehouse(warehouse).build();
+    }
+
+    private static ProductInventory inventory(Long id, Product product, WarehouseZone zone) {
+        return ProductInventory.builder()
+                .id(id)
+                .product(product)
+                .warehouse(zone.getWarehouse())
+                .zone(zone)
+                .quantity(100)
+                .reservedQuantity(0)
+                .build();
+    }
+
+    private static <K, V> Map<K, V> byId(Stream<V> values, Function<V, K> id) {
+        return values.collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static <K, V> List<V> select(Map<K, V> values, Iterable<K> ids) {
+        return StreamSupport.stream(ids.spliterator(), false).map(values::get).filter(Objects::nonNull).toList();
+    }
+}
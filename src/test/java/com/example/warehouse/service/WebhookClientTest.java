@@ -0,0 +1,75 @@
+package com.example.warehouse.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("WebhookClient Tests")
+class WebhookClientTest {
+
+    private final WebhookClient client = new WebhookClient(1_000, 2_000);
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final List<String> signatures = new CopyOnWriteArrayList<>();
+    private final AtomicInteger responseStatus = new AtomicInteger(204);
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/hook", exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            signatures.add(String.valueOf(exchange.getRequestHeaders().getFirst(WebhookClient.SIGNATURE_HEADER)));
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/hook";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should post the batch with an HMAC signature of the body")
+    void send_ShouldPostSignedBody() throws IOException {
+        byte[] body = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+
+        client.send(url, "s3cret", body, 1);
+
+        assertThat(bodies).containsExactly("[{\"id\":1}]");
+        assertThat(signatures).containsExactly("sha256=" + WebhookClient.sign("s3cret", body));
+    }
+
+    @Test
+    @DisplayName("Should not sign batches of endpoints without a secret")
+    void send_ShouldNotSignWithoutSecret() throws IOException {
+        client.send(url, null, "[]".getBytes(StandardCharsets.UTF_8), 0);
+
+        assertThat(signatures).containsExactly("null");
+    }
+
+    @Test
+    @DisplayName("Should fail when the endpoint does not answer with a 2xx status")
+    void send_ShouldFailOnErrorStatus() {
+        responseStatus.set(503);
+
+        assertThatThrownBy(() -> client.send(url, null, "[]".getBytes(StandardCharsets.UTF_8), 0))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("503");
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.warehouse.service;
+
+import com.example.warehouse.entity.OutboxEvent;
+import com.example.warehouse.entity.WebhookDelivery;
+import com.example.warehouse.enums.WebhookDeliveryStatusEnum;
+import com.example.warehouse.repository.OutboxEventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("WebhookDispatcher Tests")
+class WebhookDispatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Should keep each ordering key in one batch, in event order")
+    void planBatches_ShouldGroupKeysInOrder() {
+        List<WebhookDelivery> pending = deliveries("product:1", "product:2", "product:1", "product:3", "product:2");
+
+        List<List<WebhookDelivery>> batches = WebhookDispatcher.planBatches(pending, NOW, 4, 10);
+
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(5);
+        for (List<WebhookDelivery> batch : batches) {
+            List<Long> ids = batch.stream().map(WebhookDelivery::getId).toList();
+            assertThat(ids).isSorted();
+        }
+        assertThat(batchOf(batches, 1L)).isSameAs(batchOf(batches, 3L));
+        assertThat(batchOf(batches, 2L)).isSameAs(batchOf(batches, 5L));
+    }
+
+    @Test
+    @DisplayName("Should hold back later events of a key whose retry is not due yet")
+    void planBatches_ShouldHoldBackKeyWaitingForRetry() {
+        List<WebhookDelivery> pending = deliveries("product:1", "product:2", "product:1");
+        pending.get(0).setNextAttemptAt(NOW.plusMinutes(1));
+
+        List<List<WebhookDelivery>> batches = WebhookDispatcher.planBatches(pending, NOW, 2, 10);
+
+        assertThat(batches.stream().flatMap(List::stream).map(WebhookDelivery::getId)).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should not let a key continue past a full batch")
+    void planBatches_ShouldStopKeyAtFullBatch() {
+        List<WebhookDelivery> pending = deliveries("product:1", "product:1", "product:1");
+
+        List<List<WebhookDelivery>> batches = WebhookDispatcher.planBatches(pending, NOW, 1, 2);
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).extracting(WebhookDelivery::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should double the retry delay per attempt up to the maximum")
+    void backoff_ShouldGrowExponentiallyAndCap() {
+        WebhookDispatcher dispatcher = new WebhookDispatcher(null, null, null, null, null, null, null,
+                false, 1000, 10_000, 2000, 10, 1_000, 60_000, 1, 72, 1000);
+
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(dispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(dispatcher.backoff(10)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(dispatcher.backoff(100)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should fan out settled events only up to the first unsettled one")
+    void settledIds_ShouldStopAtFirstUnsettledEvent() {
+        LocalDateTime settledBefore = NOW.minusSeconds(10);
+        List<OutboxEventRepository.UndispatchedEvent> events = List.of(
+                event(1L, settledBefore.minusSeconds(5)),
+                event(2L, settledBefore.minusSeconds(1)),
+                event(3L, settledBefore.plusNanos(1_000)),
+                event(4L, settledBefore.minusSeconds(1)));
+
+        assertThat(WebhookDispatcher.settledIds(events, settledBefore)).containsExactly(1L, 2L);
+    }
+
+    private static OutboxEventRepository.UndispatchedEvent event(long id, LocalDateTime createdAt) {
+        return new OutboxEventRepository.UndispatchedEvent() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+
+    private static List<WebhookDelivery> deliveries(String... orderingKeys) {
+        List<WebhookDelivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < orderingKeys.length; i++) {
+            long id = i + 1;
+            deliveries.add(WebhookDelivery.builder()
+                    .id(id)
+                    .endpointId(1)
+                    .outboxEvent(OutboxEvent.builder().id(id).orderingKey(orderingKeys[i]).build())
+                    .status(WebhookDeliveryStatusEnum.PENDING)
+                    .attempts(0)
+                    .nextAttemptAt(NOW)
+                    .build());
+        }
+        return deliveries;
+    }
+
+    private static List<WebhookDelivery> batchOf(List<List<WebhookDelivery>> batches, long deliveryId) {
+        return batches.stream()
+                .filter(batch -> batch.stream().anyMatch(delivery -> delivery.getId() == deliveryId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.warehouse.utility;
+
+import com.example.warehouse.payload.response.CacheStatsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ExpiringLruCache Tests")
+class ExpiringLruCacheTest {
+
+    private AtomicLong now;
+    private ExpiringLruCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000);
+        cache = new ExpiringLruCache<>("test", 2, now::get);
+    }
+
+    @Test
+    @DisplayName("Should return cached value before expiry and count a hit")
+    void get_BeforeExpiry_ShouldReturnValue() {
+        cache.put("a", "alpha", 2_000);
+
+        assertThat(cache.get("a")).isEqualTo("alpha");
+        assertThat(cache.stats().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop expired entries and count a miss")
+    void get_AfterExpiry_ShouldReturnNull() {
+        cache.put("a", "alpha", 2_000);
+        now.set(2_000);
+
+        assertThat(cache.get("a")).isNull();
+
+        CacheStatsResponse stats = cache.stats();
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getExpirations()).isEqualTo(1);
+        assertThat(stats.getSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void put_WhenFull_ShouldEvictLeastRecentlyUsed() {
+        cache.put("a", "alpha", 5_000);
+        cache.put("b", "beta", 5_000);
+        cache.get("a"); // "b" is now the least recently used
+        cache.put("c", "gamma", 5_000);
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("alpha");
+        assertThat(cache.get("c")).isEqualTo("gamma");
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should remove entries on invalidate")
+    void invalidate_ShouldRemoveEntry() {
+        cache.put("a", "alpha", 5_000);
+        cache.invalidate("a");
+
+        assertThat(cache.get("a")).isNull();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.warehouse.utility;
+
+import com.example.warehouse.enums.StockLogEnum;
+import com.example.warehouse.model.JournalRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MovementJournal Tests")
+class MovementJournalTest {
+
+    private static final int SEGMENT_SIZE = MovementJournal.MIN_SEGMENT_SIZE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should replay appended records in order after reopening, skipping those already known")
+    void open_ShouldReplayRecordsAfterSequence() throws IOException {
+        try (MovementJournal journal = MovementJournal.open(directory, SEGMENT_SIZE, 0, 0, record -> { })) {
+            long last = journal.append(records(1, 5, "note"));
+            journal.awaitDurable(last);
+            assertThat(journal.getDurableSequence()).isEqualTo(5);
+        }
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        try (MovementJournal journal = MovementJournal.open(directory, SEGMENT_SIZE, 0, 2, replayed::add)) {
+            assertThat(journal.getLastSequence()).isEqualTo(5);
+        }
+
+        assertThat(replayed).extracting(JournalRecord::sequence).containsExactly(3L, 4L, 5L);
+        assertThat(replayed.get(0)).isEqualTo(records(3, 3, "note").get(0));
+    }
+
+    @Test
+    @DisplayName("Should roll over into new segments and read them all back")
+    void append_ShouldRollOverSegments() throws IOException {
+        String note = "x".repeat(1000);
+        try (MovementJournal journal = MovementJournal.open(directory, SEGMENT_SIZE, 0, 0, record -> { })) {
+            journal.awaitDurable(journal.append(records(1, 200, note)));
+            assertThat(journal.getSegmentCount()).isGreaterThan(2);
+        }
+
+        List<JournalRecord> read = new ArrayList<>();
+        long last = MovementJournal.read(directory, 0, read::add);
+
+        assertThat(last).isEqualTo(200);
+        assertThat(read).extracting(JournalRecord::sequence).containsExactlyElementsOf(LongStream.rangeClosed(1, 200).boxed().toList());
+        assertThat(read).allMatch(record -> note.equals(record.note()));
+    }
+
+    @Test
+    @DisplayName("Should erase a torn record at the end of the journal and continue from the record before it")
+    void open_ShouldEraseTornTail() throws IOException {
+        try (MovementJournal journal = MovementJournal.open(directory, SEGMENT_SIZE, 0, 0, record -> { })) {
+            journal.awaitDurable(journal.append(records(1, 3, null)));
+        }
+        // Corrupt the checksum of the third record
+        try (FileChannel channel = FileChannel.open(segment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), recordEnd(3) - 4);
+        }
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        try (MovementJournal journal = MovementJournal.open(directory, SEGMENT_SIZE, 0, 0, replayed::add)) {
+            assertThat(journal.getLastSequence()).isEqualTo(2);
+            journal.awaitDurable(journal.append(records(3, 3, "again")));
+        }
+
+        List<JournalRecord> read = new ArrayList<>();
+        MovementJournal.read(directory, 0, read::add);
+        assertThat(replayed).extracting(JournalRecord::sequence).containsExactly(1L, 2L);
+        assertThat(read).extracting(JournalRecord::note).containsExactly(null, null, "again");
+    }
+
+    @Test
+    @DisplayName("Should zero stale bytes after a zero length so appends can't line up with an old record")
+    void open_ShouldZeroEverythingAfterTheLastRecord() throws IOException {
+        try (MovementJournal journal = MovementJournal.open(directory, SEGMENT_SIZE, 0, 0, record -> { })) {
+            journal.awaitDurable(journal.append(records(1, 3, null)));
+        }
+        // A hole where the second record starts; the third record is still intact behind it
+        try (FileChannel channel = FileChannel.open(segment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[4]), recordEnd(1));
+        }
+
+        try (MovementJournal journal = MovementJournal.open(directory, SEGMENT_SIZE, 0, 0, record -> { })) {
+            assertThat(journal.getLastSequence()).isEqualTo(1);
+            journal.awaitDurable(journal.append(records(2, 2, null)));
+        }
+
+        List<JournalRecord> read = new ArrayList<>();
+        assertThat(MovementJournal.read(directory, 0, read::add)).isEqualTo(2);
+        assertThat(read).extracting(JournalRecord::sequence).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should store every stock log type under its own code and keep the actor")
+    void append_ShouldRoundTripTypesAndActors() throws IOException {
+        StockLogEnum[] types = StockLogEnum.values();
+        List<JournalRecord> records = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            records.add(new JournalRecord(i + 1, 1_700_000_000_000L, 1, 2, 3, 1, i % 2 == 0 ? 40 + i : null, types[i], null));
+        }
+        try (MovementJournal journal = MovementJournal.open(directory, SEGMENT_SIZE, 0, 0, record -> { })) {
+            journal.awaitDurable(journal.append(records));
+        }
+
+        List<JournalRecord> read = new ArrayList<>();
+        MovementJournal.read(directory, 0, read::add);
+
+        assertThat(read).containsExactlyElementsOf(records);
+        assertThat(Arrays.stream(types).map(MovementJournal::typeCode).distinct()).hasSize(types.length);
+    }
+
+    @Test
+    @DisplayName("Should reject records that don't continue the sequence")
+    void append_ShouldRejectSequenceGaps() throws IOException {
+        try (MovementJournal journal = MovementJournal.open(directory, SEGMENT_SIZE, 0, 0, record -> { })) {
+            assertThatThrownBy(() -> journal.append(records(2, 2, null)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Should cut long notes on a character boundary")
+    void encodeNote_ShouldCutOnCharacterBoundary() {
+        String note = "a" + "é".repeat(MovementJournal.MAX_NOTE_BYTES);
+
+        byte[] encoded = MovementJournal.encodeNote(note);
+
+        assertThat(encoded.length).isEqualTo(MovementJournal.MAX_NOTE_BYTES - 1);
+        assertThat(new String(encoded, StandardCharsets.UTF_8)).isEqualTo(note.substring(0, (MovementJournal.MAX_NOTE_BYTES - 1) / 2 + 1));
+    }
+
+    /**
+     * The end offset of the n-th record without a note: the segment header, then 4 + 37 + 4 bytes per record.
+     */
+    private static long recordEnd(int n) {
+        return 8 + n * 45L;
+    }
+
+    private Path segment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+    }
+
+    private static List<JournalRecord> records(long from, long to, String note) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(sequence -> new JournalRecord(sequence, 1_700_000_000_000L + sequence, 1, 2, 3,
+                        sequence % 2 == 0 ? -1 : 5, 7, sequence % 2 == 0 ? StockLogEnum.ADJUSTMENT_OUT : StockLogEnum.ADJUSTMENT_IN, note))
+                .toList();
+    }
+}
@@ -47,6 +47,233 @@ INSERT INTO `audit_logs` VALUES (1,'CREATE_USER',1,'users','1','New user registe
 /*!40000 ALTER TABLE `audit_logs` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `id_generators`
+--
+
+DROP TABLE IF EXISTS `id_generators`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `id_generators` (
+  `sequence_name` varchar(255) NOT NULL,
+  `next_val` bigint DEFAULT NULL,
+  PRIMARY KEY (`sequence_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `id_generators`
+--
+
+LOCK TABLES `id_generators` WRITE;
+/*!40000 ALTER TABLE `id_generators` DISABLE KEYS */;
+INSERT INTO `id_generators` VALUES ('audit_logs',52),('stock_logs',51);
+/*!40000 ALTER TABLE `id_generators` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `idempotency_keys`
+--
+
+DROP TABLE IF EXISTS `idempotency_keys`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `idempotency_keys` (
+  `record_key` char(64) NOT NULL,
+  `request_hash` char(64) NOT NULL,
+  `claim_token` char(36) DEFAULT NULL,
+  `response_status` int DEFAULT NULL,
+  `response_body` mediumtext,
+  `expires_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`record_key`),
+  KEY `idx_idempotency_keys_expires` (`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `idempotency_keys`
+--
+
+LOCK TABLES `idempotency_keys` WRITE;
+/*!40000 ALTER TABLE `idempotency_keys` DISABLE KEYS */;
+/*!40000 ALTER TABLE `idempotency_keys` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `import_job_errors`
+--
+
+DROP TABLE IF EXISTS `import_job_errors`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `import_job_errors` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `import_job_id` bigint NOT NULL,
+  `document_row` bigint NOT NULL,
+  `message` varchar(500) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_import_job_errors_job` (`import_job_id`,`document_row`),
+  CONSTRAINT `fk_import_job_errors_job` FOREIGN KEY (`import_job_id`) REFERENCES `import_jobs` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `import_job_errors`
+--
+
+LOCK TABLES `import_job_errors` WRITE;
+/*!40000 ALTER TABLE `import_job_errors` DISABLE KEYS */;
+/*!40000 ALTER TABLE `import_job_errors` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `import_jobs`
+--
+
+DROP TABLE IF EXISTS `import_jobs`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `import_jobs` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `actor_id` int DEFAULT NULL,
+  `format` varchar(20) NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `processed_rows` bigint NOT NULL DEFAULT '0',
+  `imported_rows` bigint NOT NULL DEFAULT '0',
+  `rejected_rows` bigint NOT NULL DEFAULT '0',
+  `error` varchar(500) DEFAULT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime(6) NOT NULL,
+  `completed_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `fk_import_jobs_actor` (`actor_id`),
+  CONSTRAINT `fk_import_jobs_actor` FOREIGN KEY (`actor_id`) REFERENCES `users` (`id`) ON DELETE SET NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `import_jobs`
+--
+
+LOCK TABLES `import_jobs` WRITE;
+/*!40000 ALTER TABLE `import_jobs` DISABLE KEYS */;
+/*!40000 ALTER TABLE `import_jobs` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `inventory_checkpoint_rows`
+--
+
+DROP TABLE IF EXISTS `inventory_checkpoint_rows`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `inventory_checkpoint_rows` (
+  `checkpoint_id` bigint NOT NULL,
+  `inventory_id` bigint NOT NULL,
+  `product_id` int NOT NULL,
+  `warehouse_id` int NOT NULL,
+  `zone_id` int NOT NULL,
+  `quantity` int NOT NULL,
+  PRIMARY KEY (`checkpoint_id`,`inventory_id`),
+  KEY `idx_inventory_checkpoint_rows_product` (`checkpoint_id`,`product_id`),
+  KEY `idx_inventory_checkpoint_rows_warehouse` (`checkpoint_id`,`warehouse_id`,`zone_id`),
+  CONSTRAINT `fk_inventory_checkpoint_rows_checkpoint` FOREIGN KEY (`checkpoint_id`) REFERENCES `inventory_checkpoints` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `inventory_checkpoint_rows`
+--
+
+LOCK TABLES `inventory_checkpoint_rows` WRITE;
+/*!40000 ALTER TABLE `inventory_checkpoint_rows` DISABLE KEYS */;
+/*!40000 ALTER TABLE `inventory_checkpoint_rows` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `inventory_checkpoints`
+--
+
+DROP TABLE IF EXISTS `inventory_checkpoints`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `inventory_checkpoints` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `sequence` bigint NOT NULL,
+  `taken_at` datetime(6) NOT NULL,
+  `row_count` int NOT NULL DEFAULT '0',
+  `log_count` bigint NOT NULL DEFAULT '0',
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_inventory_checkpoints_sequence` (`sequence`),
+  KEY `idx_inventory_checkpoints_taken` (`taken_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `inventory_checkpoints`
+--
+
+LOCK TABLES `inventory_checkpoints` WRITE;
+/*!40000 ALTER TABLE `inventory_checkpoints` DISABLE KEYS */;
+/*!40000 ALTER TABLE `inventory_checkpoints` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `journal_shipments`
+--
+
+DROP TABLE IF EXISTS `journal_shipments`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `journal_shipments` (
+  `site_id` varchar(64) NOT NULL,
+  `last_sequence` bigint NOT NULL DEFAULT '0',
+  `shipped_records` bigint NOT NULL DEFAULT '0',
+  `rejected_records` bigint NOT NULL DEFAULT '0',
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`site_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `journal_shipments`
+--
+
+LOCK TABLES `journal_shipments` WRITE;
+/*!40000 ALTER TABLE `journal_shipments` DISABLE KEYS */;
+/*!40000 ALTER TABLE `journal_shipments` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `outbox_events`
+--
+
+DROP TABLE IF EXISTS `outbox_events`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `outbox_events` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `event_type` varchar(30) NOT NULL,
+  `ordering_key` varchar(100) NOT NULL,
+  `payload` text NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `dispatched_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_outbox_events_dispatched` (`dispatched_at`,`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `outbox_events`
+--
+
+LOCK TABLES `outbox_events` WRITE;
+/*!40000 ALTER TABLE `outbox_events` DISABLE KEYS */;
+/*!40000 ALTER TABLE `outbox_events` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `product_categories`
 --
@@ -89,6 +316,7 @@ CREATE TABLE `product_inventories` (
   `warehouse_id` int NOT NULL,
   `zone_id` int NOT NULL,
   `quantity` int NOT NULL DEFAULT '0',
+  `reserved_quantity` int NOT NULL DEFAULT '0',
   `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   PRIMARY KEY (`id`),
@@ -110,6 +338,30 @@ LOCK TABLES `product_inventories` WRITE;
 /*!40000 ALTER TABLE `product_inventories` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `product_stock_totals`
+--
+
+DROP TABLE IF EXISTS `product_stock_totals`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `product_stock_totals` (
+  `product_id` int NOT NULL,
+  `slot` smallint NOT NULL,
+  `quantity` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`product_id`,`slot`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `product_stock_totals`
+--
+
+LOCK TABLES `product_stock_totals` WRITE;
+/*!40000 ALTER TABLE `product_stock_totals` DISABLE KEYS */;
+/*!40000 ALTER TABLE `product_stock_totals` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `products`
 --
@@ -196,10 +448,17 @@ CREATE TABLE `stock_logs` (
   `warehouse_id` int NOT NULL,
   `zone_id` int NOT NULL,
   PRIMARY KEY (`id`),
-  KEY `fk_stock_logs_inventory` (`inventory_id`),
+  KEY `idx_stock_logs_product_created` (`product_id`,`created_at`,`id`),
+  KEY `idx_stock_logs_warehouse_created` (`warehouse_id`,`created_at`,`id`),
+  KEY `fk_stock_logs_zone` (`zone_id`),
   KEY `fk_stock_logs_actor` (`actor_id`),
+  KEY `idx_stock_logs_created` (`created_at`,`id`),
+  KEY `idx_stock_logs_inventory_chain` (`inventory_id`,`created_at`,`id`,`quantity_before`,`quantity_change`,`quantity_after`),
   CONSTRAINT `fk_stock_logs_actor` FOREIGN KEY (`actor_id`) REFERENCES `users` (`id`) ON DELETE SET NULL,
-  CONSTRAINT `fk_stock_logs_inventory` FOREIGN KEY (`inventory_id`) REFERENCES `product_inventories` (`id`) ON DELETE CASCADE
+  CONSTRAINT `fk_stock_logs_inventory` FOREIGN KEY (`inventory_id`) REFERENCES `product_inventories` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_stock_logs_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_stock_logs_warehouse` FOREIGN KEY (`warehouse_id`) REFERENCES `warehouses` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_stock_logs_zone` FOREIGN KEY (`zone_id`) REFERENCES `warehouse_zones` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -212,6 +471,223 @@ LOCK TABLES `stock_logs` WRITE;
 /*!40000 ALTER TABLE `stock_logs` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `stock_reservations`
+--
+
+DROP TABLE IF EXISTS `stock_reservations`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `stock_reservations` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `inventory_id` bigint NOT NULL,
+  `actor_id` int DEFAULT NULL,
+  `quantity` int NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `reference_type` varchar(50) DEFAULT NULL,
+  `reference_id` varchar(50) DEFAULT NULL,
+  `note` text,
+  `expires_at` datetime(6) NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  KEY `idx_stock_reservations_status_expires` (`status`,`expires_at`),
+  KEY `fk_stock_reservations_inventory` (`inventory_id`),
+  KEY `fk_stock_reservations_actor` (`actor_id`),
+  CONSTRAINT `fk_stock_reservations_actor` FOREIGN KEY (`actor_id`) REFERENCES `users` (`id`) ON DELETE SET NULL,
+  CONSTRAINT `fk_stock_reservations_inventory` FOREIGN KEY (`inventory_id`) REFERENCES `product_inventories` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `stock_reservations`
+--
+
+LOCK TABLES `stock_reservations` WRITE;
+/*!40000 ALTER TABLE `stock_reservations` DISABLE KEYS */;
+/*!40000 ALTER TABLE `stock_reservations` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `stock_take_lines`
+--
+
+DROP TABLE IF EXISTS `stock_take_lines`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `stock_take_lines` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `stock_take_id` bigint NOT NULL,
+  `document_row` int NOT NULL,
+  `sku` varchar(50) NOT NULL,
+  `zone_code` varchar(50) NOT NULL,
+  `counted_quantity` int NOT NULL,
+  `product_id` int DEFAULT NULL,
+  `zone_id` int DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_stock_take_lines_location` (`stock_take_id`,`product_id`,`zone_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `stock_take_lines`
+--
+
+LOCK TABLES `stock_take_lines` WRITE;
+/*!40000 ALTER TABLE `stock_take_lines` DISABLE KEYS */;
+/*!40000 ALTER TABLE `stock_take_lines` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `stock_take_variances`
+--
+
+DROP TABLE IF EXISTS `stock_take_variances`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `stock_take_variances` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `stock_take_id` bigint NOT NULL,
+  `product_id` int NOT NULL,
+  `zone_id` int NOT NULL,
+  `system_quantity` int NOT NULL,
+  `counted_quantity` int NOT NULL,
+  `variance` int NOT NULL,
+  `applied` tinyint(1) NOT NULL DEFAULT '0',
+  `error` varchar(500) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_stock_take_variances_take` (`stock_take_id`,`id`),
+  KEY `fk_stock_take_variances_product` (`product_id`),
+  KEY `fk_stock_take_variances_zone` (`zone_id`),
+  CONSTRAINT `fk_stock_take_variances_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_stock_take_variances_take` FOREIGN KEY (`stock_take_id`) REFERENCES `stock_takes` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_stock_take_variances_zone` FOREIGN KEY (`zone_id`) REFERENCES `warehouse_zones` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `stock_take_variances`
+--
+
+LOCK TABLES `stock_take_variances` WRITE;
+/*!40000 ALTER TABLE `stock_take_variances` DISABLE KEYS */;
+/*!40000 ALTER TABLE `stock_take_variances` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `stock_takes`
+--
+
+DROP TABLE IF EXISTS `stock_takes`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `stock_takes` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `warehouse_id` int NOT NULL,
+  `zone_id` int DEFAULT NULL,
+  `actor_id` int DEFAULT NULL,
+  `status` varchar(20) NOT NULL,
+  `count_missing_as_zero` tinyint(1) NOT NULL DEFAULT '1',
+  `note` text,
+  `counted_lines` int NOT NULL DEFAULT '0',
+  `unknown_lines` int NOT NULL DEFAULT '0',
+  `variance_lines` int NOT NULL DEFAULT '0',
+  `applied_lines` int NOT NULL DEFAULT '0',
+  `rejected_lines` int NOT NULL DEFAULT '0',
+  `error` varchar(500) DEFAULT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `completed_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `fk_stock_takes_warehouse` (`warehouse_id`),
+  KEY `fk_stock_takes_zone` (`zone_id`),
+  KEY `fk_stock_takes_actor` (`actor_id`),
+  CONSTRAINT `fk_stock_takes_actor` FOREIGN KEY (`actor_id`) REFERENCES `users` (`id`) ON DELETE SET NULL,
+  CONSTRAINT `fk_stock_takes_warehouse` FOREIGN KEY (`warehouse_id`) REFERENCES `warehouses` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_stock_takes_zone` FOREIGN KEY (`zone_id`) REFERENCES `warehouse_zones` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `stock_takes`
+--
+
+LOCK TABLES `stock_takes` WRITE;
+/*!40000 ALTER TABLE `stock_takes` DISABLE KEYS */;
+/*!40000 ALTER TABLE `stock_takes` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `transfer_order_lines`
+--
+
+DROP TABLE IF EXISTS `transfer_order_lines`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `transfer_order_lines` (
+  `id` bigint NOT NULL,
+  `transfer_order_id` bigint NOT NULL,
+  `product_id` int NOT NULL,
+  `source_zone_id` int NOT NULL,
+  `destination_zone_id` int NOT NULL,
+  `quantity` int NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `fk_transfer_order_lines_order` (`transfer_order_id`),
+  KEY `fk_transfer_order_lines_product` (`product_id`),
+  KEY `fk_transfer_order_lines_source_zone` (`source_zone_id`),
+  KEY `fk_transfer_order_lines_destination_zone` (`destination_zone_id`),
+  CONSTRAINT `fk_transfer_order_lines_destination_zone` FOREIGN KEY (`destination_zone_id`) REFERENCES `warehouse_zones` (`id`),
+  CONSTRAINT `fk_transfer_order_lines_order` FOREIGN KEY (`transfer_order_id`) REFERENCES `transfer_orders` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_transfer_order_lines_product` FOREIGN KEY (`product_id`) REFERENCES `products` (`id`),
+  CONSTRAINT `fk_transfer_order_lines_source_zone` FOREIGN KEY (`source_zone_id`) REFERENCES `warehouse_zones` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `transfer_order_lines`
+--
+
+LOCK TABLES `transfer_order_lines` WRITE;
+/*!40000 ALTER TABLE `transfer_order_lines` DISABLE KEYS */;
+/*!40000 ALTER TABLE `transfer_order_lines` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `transfer_orders`
+--
+
+DROP TABLE IF EXISTS `transfer_orders`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `transfer_orders` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `source_warehouse_id` int NOT NULL,
+  `destination_warehouse_id` int NOT NULL,
+  `actor_id` int DEFAULT NULL,
+  `status` varchar(20) NOT NULL,
+  `note` text,
+  `completed_at` datetime(6) DEFAULT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  KEY `idx_transfer_orders_status_created` (`status`,`created_at`),
+  KEY `fk_transfer_orders_source_warehouse` (`source_warehouse_id`),
+  KEY `fk_transfer_orders_destination_warehouse` (`destination_warehouse_id`),
+  KEY `fk_transfer_orders_actor` (`actor_id`),
+  CONSTRAINT `fk_transfer_orders_actor` FOREIGN KEY (`actor_id`) REFERENCES `users` (`id`) ON DELETE SET NULL,
+  CONSTRAINT `fk_transfer_orders_destination_warehouse` FOREIGN KEY (`destination_warehouse_id`) REFERENCES `warehouses` (`id`),
+  CONSTRAINT `fk_transfer_orders_source_warehouse` FOREIGN KEY (`source_warehouse_id`) REFERENCES `warehouses` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `transfer_orders`
+--
+
+LOCK TABLES `transfer_orders` WRITE;
+/*!40000 ALTER TABLE `transfer_orders` DISABLE KEYS */;
+/*!40000 ALTER TABLE `transfer_orders` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `units_of_measure`
 --
@@ -282,6 +758,7 @@ CREATE TABLE `users` (
   `is_active` tinyint(1) NOT NULL DEFAULT '1',
   `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  `security_version` int NOT NULL DEFAULT '0',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_users_username` (`username`),
   UNIQUE KEY `uk_users_email` (`email`)
@@ -294,10 +771,34 @@ CREATE TABLE `users` (
 
 LOCK TABLES `users` WRITE;
 /*!40000 ALTER TABLE `users` DISABLE KEYS */;
-INSERT INTO `users` VALUES (1,'admin','admin@example.com','$2a$10$WPKpHULDMPSFNNBF.SEoJuN9C/9Av8l..mlRi5bShaXBKWDexnvDq','Administrator',1,'2025-07-18 04:06:48','2025-07-18 04:06:48');
+INSERT INTO `users` VALUES (1,'admin','admin@example.com','$2a$10$WPKpHULDMPSFNNBF.SEoJuN9C/9Av8l..mlRi5bShaXBKWDexnvDq','Administrator',1,'2025-07-18 04:06:48','2025-07-18 04:06:48',0);
 /*!40000 ALTER TABLE `users` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `warehouse_stock_totals`
+--
+
+DROP TABLE IF EXISTS `warehouse_stock_totals`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `warehouse_stock_totals` (
+  `warehouse_id` int NOT NULL,
+  `slot` smallint NOT NULL,
+  `quantity` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`warehouse_id`,`slot`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `warehouse_stock_totals`
+--
+
+LOCK TABLES `warehouse_stock_totals` WRITE;
+/*!40000 ALTER TABLE `warehouse_stock_totals` DISABLE KEYS */;
+/*!40000 ALTER TABLE `warehouse_stock_totals` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `warehouse_zones`
 --
@@ -358,6 +859,98 @@ LOCK TABLES `warehouses` WRITE;
 /*!40000 ALTER TABLE `warehouses` DISABLE KEYS */;
 /*!40000 ALTER TABLE `warehouses` ENABLE KEYS */;
 UNLOCK TABLES;
+
+--
+-- Table structure for table `webhook_deliveries`
+--
+
+DROP TABLE IF EXISTS `webhook_deliveries`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `webhook_deliveries` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `endpoint_id` int NOT NULL,
+  `outbox_event_id` bigint NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `attempts` int NOT NULL DEFAULT '0',
+  `next_attempt_at` datetime(6) NOT NULL,
+  `last_error` varchar(500) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `delivered_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_webhook_deliveries_endpoint_event` (`endpoint_id`,`outbox_event_id`),
+  KEY `idx_webhook_deliveries_endpoint_status` (`endpoint_id`,`status`,`outbox_event_id`),
+  KEY `idx_webhook_deliveries_status_delivered` (`status`,`delivered_at`),
+  KEY `fk_webhook_deliveries_event` (`outbox_event_id`),
+  CONSTRAINT `fk_webhook_deliveries_endpoint` FOREIGN KEY (`endpoint_id`) REFERENCES `webhook_endpoints` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_webhook_deliveries_event` FOREIGN KEY (`outbox_event_id`) REFERENCES `outbox_events` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `webhook_deliveries`
+--
+
+LOCK TABLES `webhook_deliveries` WRITE;
+/*!40000 ALTER TABLE `webhook_deliveries` DISABLE KEYS */;
+/*!40000 ALTER TABLE `webhook_deliveries` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `webhook_endpoints`
+--
+
+DROP TABLE IF EXISTS `webhook_endpoints`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `webhook_endpoints` (
+  `id` int NOT NULL AUTO_INCREMENT,
+  `name` varchar(100) NOT NULL,
+  `url` varchar(500) NOT NULL,
+  `secret` varchar(255) DEFAULT NULL,
+  `event_types` varchar(100) DEFAULT NULL,
+  `batch_size` int NOT NULL,
+  `max_concurrency` int NOT NULL,
+  `is_active` tinyint(1) NOT NULL DEFAULT '1',
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_webhook_endpoints_name` (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `webhook_endpoints`
+--
+
+LOCK TABLES `webhook_endpoints` WRITE;
+/*!40000 ALTER TABLE `webhook_endpoints` DISABLE KEYS */;
+/*!40000 ALTER TABLE `webhook_endpoints` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `zone_stock_totals`
+--
+
+DROP TABLE IF EXISTS `zone_stock_totals`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `zone_stock_totals` (
+  `zone_id` int NOT NULL,
+  `slot` smallint NOT NULL,
+  `quantity` bigint NOT NULL DEFAULT '0',
+  PRIMARY KEY (`zone_id`,`slot`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `zone_stock_totals`
+--
+
+LOCK TABLES `zone_stock_totals` WRITE;
+/*!40000 ALTER TABLE `zone_stock_totals` DISABLE KEYS */;
+/*!40000 ALTER TABLE `zone_stock_totals` ENABLE KEYS */;
+UNLOCK TABLES;
 /*!40103 SET TIME_ZONE=@OLD_TIME_ZONE */;
 
 /*!40101 SET SQL_MODE=@OLD_SQL_MODE */;